@@ -19,6 +19,8 @@
 package org.dllearner.algorithms.celoe;
 
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.jamonapi.Monitor;
 import com.jamonapi.MonitorFactory;
 import org.dllearner.core.*;
@@ -98,6 +100,8 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	private double bestAccuracy = Double.MIN_VALUE;
 	
 	private OWLClass classToDescribe;
+	// the class to describe and all of its superclasses, none of them must occur on the outermost level of a solution
+	private Set<OWLClassExpression> classToDescribeAndSuperClasses;
 	// examples are either 1.) instances of the class to describe 2.) positive examples
 	// 3.) union of pos.+neg. examples depending on the learning problem at hand
 	private Set<OWLIndividual> examples;
@@ -179,6 +183,16 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	private boolean expandAccuracy100Nodes = false;
 	private double currentHighestAccuracy;
 
+	@ConfigOption(defaultValue = "false", description = "whether to skip class expressions which cover exactly the same examples as a " +
+			"not longer class expression already contained in the search tree (note that this requires an additional instance check of the " +
+			"examples for each class expression and makes the search incomplete)")
+	private boolean useCoverageFingerprints = false;
+	// the examples used to compute the coverage fingerprints and their index in the coverage bit sets
+	private Map<OWLIndividual, Integer> fingerprintExamples;
+	// the coverage fingerprints of the class expressions in the search tree mapped to the min. length of them
+	private Map<HashCode, Integer> coverageFingerprints = new HashMap<>();
+	private int extensionallyRedundantExpressions = 0;
+
 	// option to keep track of best score during algorithm run
 	private boolean keepTrackOfBestScore = false;
 	private SortedMap<Long, Double> runtimeVsBestScore = new TreeMap<>();
@@ -199,6 +213,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		setIgnoredDataProperties(celoe.getIgnoredDataProperties());
 		
 		setExpandAccuracy100Nodes(celoe.expandAccuracy100Nodes);
+		setUseCoverageFingerprints(celoe.useCoverageFingerprints);
 		setFilterDescriptionsFollowingFromKB(celoe.filterDescriptionsFollowingFromKB);
 		setHeuristic(celoe.heuristic);
 		
@@ -289,6 +304,8 @@ public class CELOE extends AbstractCELA implements Cloneable{
 			ClassLearningProblem problem = (ClassLearningProblem) learningProblem;
 			classToDescribe = problem.getClassToDescribe();
 			isEquivalenceProblem = problem.isEquivalenceProblem();
+			classToDescribeAndSuperClasses = new HashSet<>(reasoner.getClassHierarchy().getSuperClasses(classToDescribe));
+			classToDescribeAndSuperClasses.add(classToDescribe);
 			
 			examples = reasoner.getIndividuals(classToDescribe);
 		} else if(learningProblem instanceof PosOnlyLP) {
@@ -297,6 +314,22 @@ public class CELOE extends AbstractCELA implements Cloneable{
 			examples = Sets.union(((PosNegLP)learningProblem).getPositiveExamples(),((PosNegLP)learningProblem).getNegativeExamples());
 		}
 		
+		if(useCoverageFingerprints) {
+			// for class learning problems, the instances of the super classes are relevant as well
+			Collection<OWLIndividual> individuals = isClassLearningProblem
+					? ((ClassLearningProblem) learningProblem).getClassAndSuperClassInstances()
+					: examples;
+			if(individuals == null) {
+				logger.warn("Coverage fingerprints are not supported for learning problems of type " + learningProblem.getClass().getSimpleName() + " and will be ignored.");
+				useCoverageFingerprints = false;
+			} else {
+				fingerprintExamples = new HashMap<>();
+				for (OWLIndividual ind : new TreeSet<>(individuals)) {
+					fingerprintExamples.put(ind, fingerprintExamples.size());
+				}
+			}
+		}
+		
 		// create a refinement operator and pass all configuration
 		// variables to it
 		if (operator == null) {
@@ -323,6 +356,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		isRunning = true;
 		reset();
 		nanoStartTime = System.nanoTime();
+		fireLearningStarted();
 		
 		currentHighestAccuracy = 0.0;
 		OENode nextNode;
@@ -353,9 +387,11 @@ public class CELOE extends AbstractCELA implements Cloneable{
 					// add node to search tree
 					addNode(refinement, nextNode);
 				}
+				fireLearningProgress(expressionTests, searchTree.size());
 			}
 			
 			showIfBetterSolutionsFound();
+			fireLearningProgress(expressionTests, searchTree.size());
 			
 			// update the global min and max horizontal expansion values
 			updateMinMaxHorizExp(nextNode);
@@ -377,6 +413,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		logger.info("solutions:\n" + getSolutionString());
 		
 		isRunning = false;
+		fireLearningStopped(expressionTests, searchTree.size());
 	}
 	
 	/*
@@ -549,6 +586,13 @@ public class CELOE extends AbstractCELA implements Cloneable{
 			return false;
 		}
 		
+		// extensional redundancy check (return if a not longer class expression covers the same examples)
+		if(useCoverageFingerprints && !hasNewCoverage(description)) {
+			logger.trace(sparql_debug, sparql_debug_out + "EXTENSIONALLY REDUNDANT");
+			extensionallyRedundantExpressions++;
+			return false;
+		}
+		
 		OENode node = new OENode(description, accuracy);
 		searchTree.addNode(parentNode, node);
 		
@@ -620,6 +664,26 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		return true;
 	}
 	
+	// checks whether no class expression with the same coverage and at most the same length
+	// has been added before by comparing the hash of the covered examples
+	private boolean hasNewCoverage(OWLClassExpression description) {
+		Monitor mon = MonitorFactory.start("coverage fingerprint");
+		BitSet coverage = new BitSet(fingerprintExamples.size());
+		for (OWLIndividual ind : reasoner.hasType(description, fingerprintExamples.keySet())) {
+			coverage.set(fingerprintExamples.get(ind));
+		}
+		HashCode fingerprint = Hashing.murmur3_128().hashBytes(coverage.toByteArray());
+		mon.stop();
+		
+		int length = OWLClassExpressionUtils.getLength(description);
+		Integer minLength = coverageFingerprints.get(fingerprint);
+		if(minLength != null && minLength <= length) {
+			return false;
+		}
+		coverageFingerprints.put(fingerprint, length);
+		return true;
+	}
+	
 	// checks whether the class expression is allowed
 	private boolean isDescriptionAllowed(OWLClassExpression description, OENode parentNode) {
 		if(isClassLearningProblem) {
@@ -634,14 +698,12 @@ public class CELOE extends AbstractCELA implements Cloneable{
 			} else {
 				// none of the superclasses of the class to learn must appear on the
 				// outermost property level
-				TreeSet<OWLClassExpression> toTest = new TreeSet<>();
-				toTest.add(classToDescribe);
-				while(!toTest.isEmpty()) {
-					OWLClassExpression d = toTest.pollFirst();
-					if(occursOnFirstLevel(description, d)) {
-						return false;
+				if(description instanceof OWLNaryBooleanClassExpression) {
+					for(OWLClassExpression operand : ((OWLNaryBooleanClassExpression) description).getOperands()) {
+						if(!operand.isOWLThing() && classToDescribeAndSuperClasses.contains(operand)) {
+							return false;
+						}
 					}
-					toTest.addAll(reasoner.getClassHierarchy().getSuperClasses(d));
 				}
 			}
 		} else if (learningProblem instanceof ClassAsInstanceLearningProblem) {
@@ -758,6 +820,8 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		// the algorithm more than once)
 		searchTree = new SearchTree<>(heuristic);
 		descriptions = new TreeSet<>();
+		coverageFingerprints.clear();
+		extensionallyRedundantExpressions = 0;
 		bestEvaluatedDescriptions.getSet().clear();
 		expressionTests = 0;
 		runtimeVsBestScore.clear();
@@ -771,6 +835,9 @@ public class CELOE extends AbstractCELA implements Cloneable{
 			logger.info("Algorithm terminated successfully (time: " + Helper.prettyPrintNanoSeconds(totalRuntimeNs) + ", "+expressionTests+" descriptions tested, "  + searchTree.size() + " nodes in the search tree).\n");
             logger.info(reasoner.toString());
 		}
+		if(useCoverageFingerprints) {
+			logger.info(extensionallyRedundantExpressions + " class expressions skipped since they cover the same examples as a not longer one.");
+		}
 	}
 	
 	private void showIfBetterSolutionsFound() {
@@ -818,7 +885,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		if(minHorizExp == newHorizExp - 1) {
 			
 			// the best accuracy that a node can achieve
-			double scoreThreshold = heuristic.getNodeScore(node) + 1 - node.getAccuracy();
+			double scoreThreshold = heuristic.getCachedNodeScore(node) + 1 - node.getAccuracy();
 			
 			for(OENode n : searchTree.descendingSet()) {
 				if(n != node) {
@@ -826,7 +893,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 						// we can stop instantly when another node with min.
 						return;
 					}
-					if(heuristic.getNodeScore(n) < scoreThreshold) {
+					if(heuristic.getCachedNodeScore(n) < scoreThreshold) {
 						// we can stop traversing nodes when their score is too low
 						break;
 					}
@@ -1048,6 +1115,21 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		this.expandAccuracy100Nodes = expandAccuracy100Nodes;
 	}
 
+	/**
+	 * @return whether class expressions covering the same examples as a not longer one are skipped
+	 */
+	public boolean isUseCoverageFingerprints() {
+		return useCoverageFingerprints;
+	}
+
+	/**
+	 * @param useCoverageFingerprints whether to skip class expressions covering the same examples as a
+	 * not longer one
+	 */
+	public void setUseCoverageFingerprints(boolean useCoverageFingerprints) {
+		this.useCoverageFingerprints = useCoverageFingerprints;
+	}
+
 	/**
 	 * Whether to keep track of the best score during the algorithm run.
 	 *
@@ -89,6 +89,7 @@ public class OEHeuristicRuntime extends AbstractHeuristic{
 
 	public void setGainBonusFactor(double gainBonusFactor) {
 		this.gainBonusFactor = gainBonusFactor;
+		invalidateNodeScores();
 	}
 
 	public double getNodeRefinementPenalty() {
@@ -97,10 +98,12 @@ public class OEHeuristicRuntime extends AbstractHeuristic{
 
 	public void setNodeRefinementPenalty(double nodeRefinementPenalty) {
 		this.nodeRefinementPenalty = nodeRefinementPenalty;
+		invalidateNodeScores();
 	}
 
 	public void setExpansionPenaltyFactor(double expansionPenaltyFactor) {
 		this.expansionPenaltyFactor = expansionPenaltyFactor;
+		invalidateNodeScores();
 	}
 
 	public double getStartNodeBonus() {
@@ -109,6 +112,7 @@ public class OEHeuristicRuntime extends AbstractHeuristic{
 
 	public void setStartNodeBonus(double startNodeBonus) {
 		this.startNodeBonus = startNodeBonus;
+		invalidateNodeScores();
 	}
 
 }
\ No newline at end of file
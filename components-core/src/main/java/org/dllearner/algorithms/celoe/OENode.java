@@ -18,6 +18,8 @@
  */
 package org.dllearner.algorithms.celoe;
 
+import org.dllearner.core.AbstractHeuristic;
+import org.dllearner.core.AbstractHeuristic.NodeScoreInput;
 import org.dllearner.core.AbstractSearchTreeNode;
 import org.dllearner.utilities.datastructures.SearchTreeNode;
 import org.dllearner.utilities.owl.OWLAPIRenderers;
@@ -55,6 +57,12 @@ public class OENode extends AbstractSearchTreeNode<OENode> implements SearchTree
 	// (and avoids the problem that adding children changes the heuristic value)
 	private int refinementCount = 0;
 	
+	// the score computed by the heuristic that scored this node last; it is cached because the
+	// search tree compares nodes by their score very often
+	private volatile AbstractHeuristic scoringHeuristic;
+	private int scoreVersion;
+	private double score;
+	
 	private static DecimalFormat dfPercent = new DecimalFormat("0.00%");
 	
 	public OENode(OWLClassExpression description, double accuracy) {
@@ -70,6 +78,7 @@ public class OENode extends AbstractSearchTreeNode<OENode> implements SearchTree
 
 	public void incHorizontalExpansion() {
 		horizontalExpansion++;
+		invalidateScore(NodeScoreInput.HORIZONTAL_EXPANSION);
 	}
 	
 	public boolean isRoot() {
@@ -133,6 +142,43 @@ public class OENode extends AbstractSearchTreeNode<OENode> implements SearchTree
 	 * @param refinementCount the refinementCount to set
 	 */
 	public void setRefinementCount(int refinementCount) {
-		this.refinementCount = refinementCount;
+		if (this.refinementCount != refinementCount) {
+			this.refinementCount = refinementCount;
+			invalidateScore(NodeScoreInput.REFINEMENT_COUNT);
+		}
+	}
+	
+	private void invalidateScore(NodeScoreInput input) {
+		AbstractHeuristic heuristic = scoringHeuristic;
+		if (heuristic != null && heuristic.getNodeScoreInputs().contains(input)) {
+			scoringHeuristic = null;
+		}
+	}
+	
+	/**
+	 * @param heuristic the heuristic
+	 * @param version the version of the scores of the heuristic
+	 * @return the cached score if it has been computed by the given heuristic and is still valid,
+	 * otherwise {@link Double#NaN}
+	 */
+	public double getCachedScore(AbstractHeuristic heuristic, int version) {
+		// the score is written before the heuristic, thus, reading the (volatile) heuristic first
+		// guarantees that we see the corresponding score
+		if (scoringHeuristic == heuristic && scoreVersion == version) {
+			return score;
+		}
+		return Double.NaN;
+	}
+	
+	/**
+	 * Caches the score computed by the given heuristic.
+	 * @param heuristic the heuristic
+	 * @param version the version of the scores of the heuristic
+	 * @param score the score
+	 */
+	public void setCachedScore(AbstractHeuristic heuristic, int version, double score) {
+		this.score = score;
+		this.scoreVersion = version;
+		this.scoringHeuristic = heuristic;
 	}
 }
\ No newline at end of file
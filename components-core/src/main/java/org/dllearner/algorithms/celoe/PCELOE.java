@@ -91,6 +91,8 @@ public class PCELOE extends AbstractCELA {
 	private double bestAccuracy = Double.MIN_VALUE;
 
 	private OWLClass classToDescribe;
+	// the class to describe and all of its superclasses, none of them must occur on the outermost level of a solution
+	private Set<OWLClassExpression> classToDescribeAndSuperClasses;
 	// examples are either 1.) instances of the class to describe 2.) positive examples
 	// 3.) union of pos.+neg. examples depending on the learning problem at hand
 	private Set<OWLIndividual> examples;
@@ -292,6 +294,8 @@ public class PCELOE extends AbstractCELA {
 			ClassLearningProblem problem = (ClassLearningProblem) learningProblem;
 			classToDescribe = problem.getClassToDescribe();
 			isEquivalenceProblem = problem.isEquivalenceProblem();
+			classToDescribeAndSuperClasses = new HashSet<>(reasoner.getClassHierarchy().getSuperClasses(classToDescribe));
+			classToDescribeAndSuperClasses.add(classToDescribe);
 
 			examples = reasoner.getIndividuals(classToDescribe);
 		} else if(learningProblem instanceof PosOnlyLP) {
@@ -334,6 +338,7 @@ public class PCELOE extends AbstractCELA {
 		isRunning = true;
 		reset();
 		nanoStartTime = System.nanoTime();
+		fireLearningStarted();
 
 		addNode(startClass, null);
 
@@ -410,6 +415,7 @@ public class PCELOE extends AbstractCELA {
 
 		isRunning = false;
 		service.shutdown();
+		fireLearningStopped(expressionTests, searchTree.size());
 //		System.out.println("isRunning: " + isRunning);
 	}
 
@@ -663,14 +669,12 @@ public class PCELOE extends AbstractCELA {
 				} else {
 					// none of the superclasses of the class to learn must appear on the
 					// outermost property level
-					TreeSet<OWLClassExpression> toTest = new TreeSet<>();
-					toTest.add(classToDescribe);
-					while(!toTest.isEmpty()) {
-						OWLClassExpression d = toTest.pollFirst();
-						if(occursOnFirstLevel(description, d)) {
-							return false;
+					if(description instanceof OWLNaryBooleanClassExpression) {
+						for(OWLClassExpression operand : ((OWLNaryBooleanClassExpression) description).getOperands()) {
+							if(!operand.isOWLThing() && classToDescribeAndSuperClasses.contains(operand)) {
+								return false;
+							}
 						}
-						toTest.addAll(reasoner.getClassHierarchy().getSuperClasses(d));
 					}
 				}
 			} else if (learningProblem instanceof ClassAsInstanceLearningProblem) {
@@ -848,7 +852,7 @@ public class PCELOE extends AbstractCELA {
 		if(minHorizExp == newHorizExp - 1) {
 
 			// the best accuracy that a node can achieve
-			double scoreThreshold = heuristic.getNodeScore(node) + 1 - node.getAccuracy();
+			double scoreThreshold = heuristic.getCachedNodeScore(node) + 1 - node.getAccuracy();
 
 			for(OENode n : searchTree.descendingSet()) {
 				if(n != node) {
@@ -856,7 +860,7 @@ public class PCELOE extends AbstractCELA {
 						// we can stop instantly when another node with min.
 						return;
 					}
-					if(heuristic.getNodeScore(n) < scoreThreshold) {
+					if(heuristic.getCachedNodeScore(n) < scoreThreshold) {
 						// we can stop traversing nodes when their score is too low
 						break;
 					}
@@ -1166,6 +1170,7 @@ public class PCELOE extends AbstractCELA {
 					}
 					currentlyProcessedNodes.remove(nextNode);
 //					showIfBetterSolutionsFound();
+					fireLearningProgress(expressionTests, searchTree.size());
 				}
 
 			}
@@ -46,6 +46,11 @@ public class ELDescriptionNode {
 	protected ELDescriptionTree tree;
 	
 	protected TreeSet<OWLClass> label = new TreeSet<>();
+	// whether the label set is shared with nodes of cloned trees, i.e.
+	// it has to be copied before it can be modified (copy-on-write)
+	protected boolean sharedLabel = false;
+	// the position of the node in the list of all nodes of the tree
+	protected int index;
 	
 	protected List<ELDescriptionEdge> edges = new LinkedList<>();
 
@@ -444,6 +449,7 @@ public class ELDescriptionNode {
 	 * @param newClass Class to add to label.
 	 */
 	public void replaceInLabel(OWLClass oldClass, OWLClass newClass) {
+		copyLabelOnWrite();
 		label.remove(oldClass);
 		label.add(newClass);
 		labelSimulationUpdate();
@@ -454,6 +460,7 @@ public class ELDescriptionNode {
 	 * @param newClass Class to add to label.
 	 */
 	public void extendLabel(OWLClass newClass) {
+		copyLabelOnWrite();
 		label.add(newClass);
 		labelSimulationUpdate();
 		tree.size += 1;
@@ -461,6 +468,17 @@ public class ELDescriptionNode {
 //		System.out.println(tree.size);
 	}	
 	
+	// labels are shared between a node and its clones until one of them
+	// is modified, which is cheaper than copying all labels on each clone
+	// as most refinements change only a single node
+	@SuppressWarnings("unchecked")
+	private void copyLabelOnWrite() {
+		if(sharedLabel) {
+			label = (TreeSet<OWLClass>) label.clone();
+			sharedLabel = false;
+		}
+	}
+	
 	// simulation update when extending or refining label 
 	// (same in both cases)
 	private void labelSimulationUpdate() {
@@ -18,10 +18,13 @@
  */
 package org.dllearner.algorithms.el;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -68,8 +71,9 @@ public class ELDescriptionTree implements Cloneable {
 
 	protected ELDescriptionNode rootNode;
 
-	// the set of all nodes in the tree
-	private Collection<ELDescriptionNode> nodes = new LinkedList<>();
+	// the list of all nodes in the tree (nodes are never removed, thus,
+	// the index of a node in this list does not change)
+	private List<ELDescriptionNode> nodes = new ArrayList<>();
 	
 	// nodes on a given level of the tree
 	private Map<Integer, Set<ELDescriptionNode>> levelNodeMapping = new HashMap<>();
@@ -195,6 +199,7 @@ public class ELDescriptionTree implements Cloneable {
 	 *            Level of the new node.
 	 */
 	protected void addNodeToLevel(ELDescriptionNode node, int level) {
+		node.index = nodes.size();
 		nodes.add(node);
 		if (level <= maxLevel) {
 			levelNodeMapping.get(level).add(node);
@@ -243,13 +248,16 @@ public class ELDescriptionTree implements Cloneable {
 
 	protected void updateSimulation(Set<ELDescriptionNode> nUpdate) {
 		// create a stack and initialize it with the nodes to be updated
-		LinkedList<ELDescriptionNode> list = new LinkedList<>();
-		list.addAll(nUpdate);
+		// (a linked set, such that checking whether a node is already
+		// scheduled does not require a scan of the whole stack)
+		LinkedHashSet<ELDescriptionNode> list = new LinkedHashSet<>(nUpdate);
 		
-		while(list.size() != 0) {
+		while(!list.isEmpty()) {
 			// take element from bottom of stack (to ensure that all nodes on the 
 			// same level are tested before any node of a lower level is tested)
-			ELDescriptionNode v = list.pollFirst();
+			Iterator<ELDescriptionNode> it = list.iterator();
+			ELDescriptionNode v = it.next();
+			it.remove();
 			// loop through all nodes on same level
 			Set<ELDescriptionNode> sameLevel = levelNodeMapping.get(v.getLevel());
 			for(ELDescriptionNode w : sameLevel) {
@@ -465,71 +473,67 @@ public class ELDescriptionTree implements Cloneable {
 	}	
 	
 	@Override
-	@SuppressWarnings("unchecked")
 	public ELDescriptionTree clone() {
 //		Monitor mon = MonitorFactory.start("tree clone");
 		// clone "global" tree
 		ELDescriptionTree treeClone = new ELDescriptionTree(rs);
 		
-		// a mapping between "old" and "new" nodes
-		// (hash map should be fast here, but one could also
-		// experiment with TreeMap)
-		Map<ELDescriptionNode, ELDescriptionNode> cloneMap =
-				new HashMap<>();
+		// a mapping between "old" and "new" nodes, the new node of
+		// an old node is stored at the index of the old node
+		// (cheaper than hashing all nodes)
+		ELDescriptionNode[] cloneMap = new ELDescriptionNode[nodes.size()];
 		
 		// create a new (empty) node for each node in the tree
-		// (we loop through the level mapping, because it is cheaper
-		// than creating a set of all nodes)
-		for(int i=1; i<=maxLevel; i++) {
-			Set<ELDescriptionNode> tmp = levelNodeMapping.get(i);
-			for(ELDescriptionNode node : tmp) {
-				ELDescriptionNode nodeNew = new ELDescriptionNode();
-				cloneMap.put(node, nodeNew);
-			}
+		for(int i=0; i<cloneMap.length; i++) {
+			ELDescriptionNode nodeNew = new ELDescriptionNode();
+			nodeNew.index = i;
+			cloneMap[i] = nodeNew;
 		}
 		
 		ELDescriptionNode newRoot = null;
 		
 		// loop through all nodes and perform copy operations
-		for(Entry<ELDescriptionNode, ELDescriptionNode> entry : cloneMap.entrySet()) {
-			ELDescriptionNode oldNode = entry.getKey();
-			ELDescriptionNode newNode = entry.getValue();
+		for(ELDescriptionNode oldNode : nodes) {
+			ELDescriptionNode newNode = cloneMap[oldNode.index];
 			
 			newNode.tree = treeClone;
 			newNode.level = oldNode.level;
-			newNode.label = (TreeSet<OWLClass>) oldNode.label.clone();
+			// the label is copied lazily once one of the nodes modifies it
+			newNode.label = oldNode.label;
+			newNode.sharedLabel = true;
+			oldNode.sharedLabel = true;
 			newNode.dataRange = oldNode.dataRange;
 			newNode.isClassNode = oldNode.isClassNode;
 			if(oldNode.parent != null) {
-				newNode.parent = cloneMap.get(oldNode.parent);
+				newNode.parent = cloneMap[oldNode.parent.index];
 			} else {
 				newRoot = newNode;
 			}
 			
 			// simulation information
 			for(ELDescriptionNode node : oldNode.in) {
-				newNode.in.add(cloneMap.get(node));
+				newNode.in.add(cloneMap[node.index]);
 			}
 			for(ELDescriptionNode node : oldNode.inSC1) {
-				newNode.inSC1.add(cloneMap.get(node));
+				newNode.inSC1.add(cloneMap[node.index]);
 			}
 			for(ELDescriptionNode node : oldNode.inSC2) {
-				newNode.inSC2.add(cloneMap.get(node));
+				newNode.inSC2.add(cloneMap[node.index]);
 			}
 			for(ELDescriptionNode node : oldNode.out) {
-				newNode.out.add(cloneMap.get(node));
+				newNode.out.add(cloneMap[node.index]);
 			}
 			for(ELDescriptionNode node : oldNode.outSC1) {
-				newNode.outSC1.add(cloneMap.get(node));
+				newNode.outSC1.add(cloneMap[node.index]);
 			}
 			for(ELDescriptionNode node : oldNode.outSC2) {
-				newNode.outSC2.add(cloneMap.get(node));
+				newNode.outSC2.add(cloneMap[node.index]);
 			}			
 			
 			// edges
 			for(ELDescriptionEdge edge : oldNode.edges) {
 				// create a new edge with same label and replace the node the edge points to
-				newNode.edges.add(new ELDescriptionEdge(edge.getLabel(), cloneMap.get(edge.getNode())));
+				newNode.edges.add(new ELDescriptionEdge(edge.getLabel(), cloneMap[edge.getNode().index]));
 			}
 			
 		}
@@ -540,17 +544,14 @@ public class ELDescriptionTree implements Cloneable {
 		treeClone.size = size;
 		
 		// nodes
-		treeClone.nodes = new LinkedList<>();
-		for(ELDescriptionNode oldNode : nodes) {
-			treeClone.nodes.add(cloneMap.get(oldNode));
-		}		
+		treeClone.nodes = new ArrayList<>(Arrays.asList(cloneMap));
 		
 		// level node mapping
 		for(int i=1; i<=maxLevel; i++) {
 			Set<ELDescriptionNode> oldNodes = levelNodeMapping.get(i);
 			Set<ELDescriptionNode> newNodes = new HashSet<>();
 			for(ELDescriptionNode oldNode : oldNodes) {
-				newNodes.add(cloneMap.get(oldNode));
+				newNodes.add(cloneMap[oldNode.index]);
 			}
 			treeClone.levelNodeMapping.put(i, newNodes);
 		}
@@ -18,6 +18,7 @@
  */
 package org.dllearner.algorithms.el;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.jamonapi.Monitor;
 import com.jamonapi.MonitorFactory;
 import org.apache.log4j.Logger;
@@ -39,9 +40,14 @@ import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * A learning algorithm for EL, which is based on an
@@ -84,6 +90,9 @@ public class ELLearningAlgorithm extends AbstractCELA {
 	@ConfigOption(defaultValue="10",description="Sets the maximum number of results one is interested in")
 	private int maxNrOfResults = 10;
 	
+	@ConfigOption(defaultValue="1", description="number of threads used to evaluate the refinements of a node in parallel, 0 means the number of available processors")
+	private int nrOfThreads = 1;
+	
 	private Set<OWLClass> ignoredConcepts = null;
 	
 	@ConfigOption(description="class of which an OWL class expression should be learned")
@@ -100,6 +109,8 @@ public class ELLearningAlgorithm extends AbstractCELA {
 
 	private boolean isEquivalenceProblem = true;
 	private Monitor timeMonitor;
+	// evaluates refinements in parallel (null if only a single thread is used)
+	private ExecutorService evaluationService;
 	
 	double max = -1d;
 	OWLClassExpression maxDescription;
@@ -158,6 +169,28 @@ public class ELLearningAlgorithm extends AbstractCELA {
 		}
 		logger.info("Start class: " + startClass);
 
+		int nrOfWorkers = nrOfThreads > 0 ? nrOfThreads : Runtime.getRuntime().availableProcessors();
+		if(nrOfWorkers > 1) {
+			evaluationService = Executors.newFixedThreadPool(nrOfWorkers,
+					new ThreadFactoryBuilder().setNameFormat("eltl-evaluation-%d").setDaemon(true).build());
+		}
+		
+		try {
+			search();
+		} finally {
+			if(evaluationService != null) {
+				evaluationService.shutdownNow();
+				evaluationService = null;
+			}
+		}
+		
+		// print solution(s)
+		logger.info("solutions[time: " + Helper.prettyPrintNanoSeconds(System.nanoTime()-nanoStartTime) + "]\n" + getSolutionString());
+		
+		isRunning = false;
+	}
+	
+	private void search() {
 		ELDescriptionTree top = new ELDescriptionTree(reasoner, startClass);
 		addDescriptionTree(top, null);
 		
@@ -172,8 +205,9 @@ public class ELLearningAlgorithm extends AbstractCELA {
 			// apply operator
 			List<ELDescriptionTree> refinements = operator.refine(best.getDescriptionTree());
 			
-			// add all refinements to search tree, candidates, best descriptions
-			for(ELDescriptionTree refinement : refinements) {
+			// evaluate the refinements (possibly in parallel) and add them to search tree,
+			// candidates, best descriptions in the order returned by the operator
+			for(EvaluatedTree refinement : evaluate(refinements)) {
 				addDescriptionTree(refinement, best);
 			}
 			
@@ -196,65 +230,123 @@ public class ELLearningAlgorithm extends AbstractCELA {
 			}
 			
 		}
-		
-		// print solution(s)
-		logger.info("solutions[time: " + Helper.prettyPrintNanoSeconds(System.nanoTime()-nanoStartTime) + "]\n" + getSolutionString());
-		
-		isRunning = false;
 	}
-
-	// evaluates a class expression in tree form
-	private void addDescriptionTree(ELDescriptionTree descriptionTree, SearchTreeNode parentNode) {
-		// create search tree node
-		SearchTreeNode node = new SearchTreeNode(descriptionTree);
+	
+	// a description tree together with its (rewritten) class expression and score
+	private static class EvaluatedTree {
+		private final ELDescriptionTree descriptionTree;
+		private final OWLClassExpression classExpression;
+		private final Score score;
 		
+		EvaluatedTree(ELDescriptionTree descriptionTree, OWLClassExpression classExpression, Score score) {
+			this.descriptionTree = descriptionTree;
+			this.classExpression = classExpression;
+			this.score = score;
+		}
+	}
+	
+	// evaluates a class expression in tree form, returns null if the class expression is not allowed
+	private EvaluatedTree evaluate(ELDescriptionTree descriptionTree) {
 		// convert tree to standard class expression
 		OWLClassExpression classExpression = descriptionTree.transformToClassExpression();
 		
 		if(classExpression.equals(startClass) || isDescriptionAllowed(classExpression)){
-
 			// rewrite class expression
 			classExpression = rewrite(classExpression);
 
 			// compute score
 			Score score = learningProblem.computeScore(classExpression, noise);
-
-			// compute accuracy
-			double accuracy = score.getAccuracy();
 			
-			if(accuracy == -1) {
-				node.setTooWeak();
-			} else {
-				node.setScore(score);
+			return new EvaluatedTree(descriptionTree, classExpression, score);
+		}
+		return null;
+	}
+	
+	// evaluates the class expressions in tree form, the result contains
+	// the allowed ones in the same order as the input
+	private List<EvaluatedTree> evaluate(List<ELDescriptionTree> descriptionTrees) {
+		List<EvaluatedTree> evaluatedTrees = new ArrayList<>(descriptionTrees.size());
+		if(evaluationService == null || descriptionTrees.size() < 2) {
+			for(ELDescriptionTree descriptionTree : descriptionTrees) {
+				EvaluatedTree evaluatedTree = evaluate(descriptionTree);
+				if(evaluatedTree != null) {
+					evaluatedTrees.add(evaluatedTree);
+				}
 			}
-			node.setAccuracy(accuracy);
-			
-			// link to parent (unless start node)
-			if(parentNode == null) {
-				startNode = node;
-			} else {
-				parentNode.addChild(node);
+		} else {
+			List<Future<EvaluatedTree>> futures = new ArrayList<>(descriptionTrees.size());
+			for(ELDescriptionTree descriptionTree : descriptionTrees) {
+				futures.add(evaluationService.submit(() -> evaluate(descriptionTree)));
+			}
+			try {
+				for(Future<EvaluatedTree> future : futures) {
+					EvaluatedTree evaluatedTree = future.get();
+					if(evaluatedTree != null) {
+						evaluatedTrees.add(evaluatedTree);
+					}
+				}
+			} catch (InterruptedException e) {
+				futures.forEach(f -> f.cancel(true));
+				Thread.currentThread().interrupt();
+				stop = true;
+			} catch (ExecutionException e) {
+				futures.forEach(f -> f.cancel(true));
+				throw new RuntimeException("Evaluation of refinements failed.", e.getCause());
 			}
+		}
+		return evaluatedTrees;
+	}
+	
+	private void addDescriptionTree(ELDescriptionTree descriptionTree, SearchTreeNode parentNode) {
+		EvaluatedTree evaluatedTree = evaluate(descriptionTree);
+		if(evaluatedTree != null) {
+			addDescriptionTree(evaluatedTree, parentNode);
+		}
+	}
+
+	// adds an evaluated class expression in tree form to the search tree
+	private void addDescriptionTree(EvaluatedTree evaluatedTree, SearchTreeNode parentNode) {
+		// create search tree node
+		SearchTreeNode node = new SearchTreeNode(evaluatedTree.descriptionTree);
+		
+		OWLClassExpression classExpression = evaluatedTree.classExpression;
+		Score score = evaluatedTree.score;
+		
+		// accuracy
+		double accuracy = score.getAccuracy();
+		
+		if(accuracy == -1) {
+			node.setTooWeak();
+		} else {
+			node.setScore(score);
+		}
+		node.setAccuracy(accuracy);
+		
+		// link to parent (unless start node)
+		if(parentNode == null) {
+			startNode = node;
+		} else {
+			parentNode.addChild(node);
+		}
+		
+		if(!node.isTooWeak()) {
+			// add as candidate
+			candidates.add(node);
 			
-			if(!node.isTooWeak()) {
-				// add as candidate
-				candidates.add(node);
-				
-				// check whether we want to add it to the best evaluated descriptions;
-				// to do this we pick the worst considered evaluated description
-				// (remember that the set has limited size, so it's likely not the worst overall);
-				// the class expression has a chance to make it in the set if it has
-				// at least as high accuracy - if not we can save the reasoner calls
-				// for fully computing the evaluated description
-				if(classToDescribe == null || !classToDescribe.equals(classExpression)) {
-					if(!bestEvaluatedDescriptions.isFull() || bestEvaluatedDescriptions.getWorst().getAccuracy() < node.getAccuracy()) {
-						EvaluatedDescription<Score> ed = new EvaluatedDescription<>(classExpression, score);
-						bestEvaluatedDescriptions.add(ed);
+			// check whether we want to add it to the best evaluated descriptions;
+			// to do this we pick the worst considered evaluated description
+			// (remember that the set has limited size, so it's likely not the worst overall);
+			// the class expression has a chance to make it in the set if it has
+			// at least as high accuracy - if not we can save the reasoner calls
+			// for fully computing the evaluated description
+			if(classToDescribe == null || !classToDescribe.equals(classExpression)) {
+				if(!bestEvaluatedDescriptions.isFull() || bestEvaluatedDescriptions.getWorst().getAccuracy() < node.getAccuracy()) {
+					EvaluatedDescription<Score> ed = new EvaluatedDescription<>(classExpression, score);
+					bestEvaluatedDescriptions.add(ed);
 //						System.out.println("Add " + ed);
-					} else {
+				} else {
 //						EvaluatedDescriptionPosNeg ed = new EvaluatedDescriptionPosNeg(classExpression, score);
 //						System.out.println("reject " + ed);
-					}
 				}
 			}
 		}
@@ -473,5 +565,21 @@ public class ELLearningAlgorithm extends AbstractCELA {
 	public void setReplaceSearchTree(boolean replaceSearchTree) {
 		this.replaceSearchTree = replaceSearchTree;
 	}
+	
+	/**
+	 * @return the number of threads used to evaluate the refinements of a node
+	 */
+	public int getNrOfThreads() {
+		return nrOfThreads;
+	}
+	
+	/**
+	 * Sets the number of threads used to evaluate the refinements of a node in parallel. Note that
+	 * all threads share the reasoner and the learning problem.
+	 * @param nrOfThreads the number of threads, 0 means the number of available processors
+	 */
+	public void setNrOfThreads(int nrOfThreads) {
+		this.nrOfThreads = nrOfThreads;
+	}
 
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
 
 import java.text.DecimalFormat;
+import java.util.BitSet;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -46,9 +47,14 @@ public class ExampleBasedNode extends AbstractSearchTreeNode<ExampleBasedNode> i
 
 	private static DecimalFormat df = new DecimalFormat();
 	
-	// example based variables
-	private Set<OWLIndividual> coveredPositives;
-	private Set<OWLIndividual> coveredNegatives;
+	// example based variables, i.e. the covered examples as bit sets indexed
+	// by the position of the example in the positive and negative examples
+	// of the learning algorithm (see OCEL#getPositiveExamples(BitSet)); the
+	// bit sets might be shared between nodes and must not be modified
+	private BitSet coveredPositives;
+	private BitSet coveredNegatives;
+	private int nrOfCoveredPositives;
+	private int nrOfCoveredNegatives;
 
 	// the method by which quality was evaluated in this node
 	public enum QualityEvaluationMethod { START, REASONER, TOO_WEAK_LIST, OVERLY_GENERAL_LIST }
@@ -104,9 +110,11 @@ public class ExampleBasedNode extends AbstractSearchTreeNode<ExampleBasedNode> i
 		this.qualityEvaluationMethod = qualityEvaluationMethod;
 	}
 
-	public void setCoveredExamples(Set<OWLIndividual> coveredPositives, Set<OWLIndividual> coveredNegatives) {
+	public void setCoveredExamples(BitSet coveredPositives, BitSet coveredNegatives) {
 		this.coveredPositives = coveredPositives;
 		this.coveredNegatives = coveredNegatives;
+		nrOfCoveredPositives = coveredPositives.cardinality();
+		nrOfCoveredNegatives = coveredNegatives.cardinality();
 		isQualityEvaluated = true;
 	}
 
@@ -124,7 +132,7 @@ public class ExampleBasedNode extends AbstractSearchTreeNode<ExampleBasedNode> i
 		if(isTooWeak)
 			ret += "tw";
 		else
-			ret += coveredNegatives.size();
+			ret += nrOfCoveredNegatives;
 		ret += ", he:" + horizontalExpansion + ", children:" + children.size() + "]";
 		return ret;
 	}
@@ -149,8 +157,8 @@ public class ExampleBasedNode extends AbstractSearchTreeNode<ExampleBasedNode> i
 			double heuristicScore = MultiHeuristic.getNodeScore(this, nrOfPositiveExamples, nrOfNegativeExamples, learningAlgorithm.getNegativeWeight(), learningAlgorithm.getStartNodeBonus(), learningAlgorithm.getExpansionPenaltyFactor(), learningAlgorithm.getNegationPenalty());
 			ret += "h:" +df.format(heuristicScore) + " ";
 			
-			int wrongPositives = nrOfPositiveExamples - coveredPositives.size();
-			ret += "q:" + wrongPositives + "p-" + coveredNegatives.size() + "n";
+			int wrongPositives = nrOfPositiveExamples - nrOfCoveredPositives;
+			ret += "q:" + wrongPositives + "p-" + nrOfCoveredNegatives + "n";
 		}
 		
 		ret += " ("+qualityEvaluationMethod+"), he:" + horizontalExpansion;
@@ -160,8 +168,8 @@ public class ExampleBasedNode extends AbstractSearchTreeNode<ExampleBasedNode> i
 	}
 	
 	public double getAccuracy() {
-		int tp = coveredPositives.size();
-		int fp = coveredNegatives.size();
+		int tp = nrOfCoveredPositives;
+		int fp = nrOfCoveredNegatives;
 		int tn = ((PosNegLP)learningAlgorithm.getLearningProblem()).getNegativeExamples().size() - fp;
 		int fn = ((PosNegLP)learningAlgorithm.getLearningProblem()).getPositiveExamples().size() - tp;
 
@@ -177,16 +185,48 @@ public class ExampleBasedNode extends AbstractSearchTreeNode<ExampleBasedNode> i
 	 * @return Number of covered positives minus number of covered negatives.
 	 */
 	public int getCovPosMinusCovNeg() {
-		return coveredPositives.size() - coveredNegatives.size();
+		return nrOfCoveredPositives - nrOfCoveredNegatives;
 	}
 	
+	/**
+	 * Note that the set is created from the bit set of covered examples on each call,
+	 * use {@link #getCoveredPositivesBitSet()} or {@link #getNrOfCoveredPositives()} if possible.
+	 * @return the covered positive examples
+	 */
 	public Set<OWLIndividual> getCoveredPositives() {
-		return coveredPositives;
+		return learningAlgorithm.getPositiveExamples(coveredPositives);
 	}
 	
+	/**
+	 * Note that the set is created from the bit set of covered examples on each call,
+	 * use {@link #getCoveredNegativesBitSet()} or {@link #getNrOfCoveredNegatives()} if possible.
+	 * @return the covered negative examples
+	 */
 	public Set<OWLIndividual> getCoveredNegatives() {
+		return learningAlgorithm.getNegativeExamples(coveredNegatives);
+	}
+	
+	/**
+	 * @return the covered positive examples, the returned bit set must not be modified
+	 */
+	public BitSet getCoveredPositivesBitSet() {
+		return coveredPositives;
+	}
+	
+	/**
+	 * @return the covered negative examples, the returned bit set must not be modified
+	 */
+	public BitSet getCoveredNegativesBitSet() {
 		return coveredNegatives;
 	}
+	
+	public int getNrOfCoveredPositives() {
+		return nrOfCoveredPositives;
+	}
+	
+	public int getNrOfCoveredNegatives() {
+		return nrOfCoveredNegatives;
+	}
 
 	public SortedSet<OWLClassExpression> getChildConcepts() {
 		return childConcepts;
@@ -89,10 +89,10 @@ public class FlexibleHeuristic implements ExampleBasedHeuristic {
 		if(n1.isQualityEvaluated() && n2.isQualityEvaluated() && !n1.isTooWeak() && !n2.isTooWeak()) {
 			
 			// alle scores sind negativ, größere scores sind besser
-			double score1 = -n1.getCoveredNegatives().size()/(double)nrOfNegativeExamples;
+			double score1 = -n1.getNrOfCoveredNegatives()/(double)nrOfNegativeExamples;
 			score1 -= percentPerLengthUnit * OWLClassExpressionUtils.getLength(n1.getConcept());
 			
-			double score2 = -n2.getCoveredNegatives().size()/(double)nrOfNegativeExamples;
+			double score2 = -n2.getNrOfCoveredNegatives()/(double)nrOfNegativeExamples;
 			score2 -= percentPerLengthUnit * OWLClassExpressionUtils.getLength(n2.getConcept());
 
 			return ComparisonChain.start()
@@ -118,7 +118,7 @@ public class FlexibleHeuristic implements ExampleBasedHeuristic {
 
 	@Override
 	public double getNodeScore(ExampleBasedNode n1) {
-		double score1 = -n1.getCoveredNegatives().size()/(double)nrOfNegativeExamples;
+		double score1 = -n1.getNrOfCoveredNegatives()/(double)nrOfNegativeExamples;
 		score1 -= percentPerLengthUnit * OWLClassExpressionUtils.getLength(n1.getConcept());
 		return score1;
 	}
@@ -39,8 +39,8 @@ public class NodeComparatorStable implements Heuristic<ExampleBasedNode> {
 		// make sure quality has been evaluated
 		if(n1.isQualityEvaluated() && n2.isQualityEvaluated()) {
 			if(!n1.isTooWeak() && !n2.isTooWeak()) {
-				int classificationPointsN1 =  n1.getCoveredPositives().size() - n1.getCoveredNegatives().size();
-				int classificationPointsN2 =  n2.getCoveredPositives().size() - n2.getCoveredNegatives().size();				
+				int classificationPointsN1 =  n1.getNrOfCoveredPositives() - n1.getNrOfCoveredNegatives();
+				int classificationPointsN2 =  n2.getNrOfCoveredPositives() - n2.getNrOfCoveredNegatives();				
 				
 				if(classificationPointsN1>classificationPointsN2) 
 					return 1;
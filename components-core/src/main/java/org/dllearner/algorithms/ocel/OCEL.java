@@ -19,6 +19,7 @@
 package org.dllearner.algorithms.ocel;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.jamonapi.Monitor;
 import org.apache.log4j.Level;
 import org.dllearner.accuracymethods.AccMethodNoWeakness;
@@ -49,6 +50,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.io.File;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * The DL-Learner learning algorithm component for the example
@@ -89,8 +94,14 @@ public class OCEL extends AbstractCELA {
 	private Set<OWLIndividual> positiveExamples;
 	private int nrOfNegativeExamples;
 	private Set<OWLIndividual> negativeExamples;
+	// the examples in a fixed order, the covered examples of the nodes are
+	// bit sets indexed by the position in these arrays
+	private OWLIndividual[] positiveExampleArray;
+	private OWLIndividual[] negativeExampleArray;
 
 	private int allowedMisclassifications = 0;
+	private BitSet allPositives;
+	private BitSet allNegatives;
 
 	// search tree options
 	@ConfigOption(defaultValue = "false", description = "specifies whether to write a search tree")
@@ -253,6 +264,12 @@ public class OCEL extends AbstractCELA {
 	@ConfigOption(defaultValue = "false", description = "show additional timing info for benchmark purposes")
 	boolean showBenchmarkInformation = false;
 
+	@ConfigOption(defaultValue = "1", description = "number of threads used to evaluate the proper refinements of a node in " +
+			"parallel, 0 means the number of available processors")
+	private int nrOfThreads = 1;
+	// evaluates refinements in parallel (null if only a single thread is used)
+	private ExecutorService evaluationService;
+
 	public OCEL() {
 	}
 
@@ -365,6 +382,8 @@ public class OCEL extends AbstractCELA {
 		negativeExamples = ((PosNegLP) learningProblem).getNegativeExamples();
 		nrOfPositiveExamples = positiveExamples.size();
 		nrOfNegativeExamples = negativeExamples.size();
+		positiveExampleArray = positiveExamples.toArray(new OWLIndividual[nrOfPositiveExamples]);
+		negativeExampleArray = negativeExamples.toArray(new OWLIndividual[nrOfNegativeExamples]);
 
 		nrOfExamples = nrOfPositiveExamples + nrOfNegativeExamples;
 		baseURI = reasoner.getBaseURI();
@@ -411,16 +430,28 @@ public class OCEL extends AbstractCELA {
 		// calculate quality threshold required for a solution
 		allowedMisclassifications = (int) Math.round(noisePercentage * nrOfExamples / 100);
 
+		// all examples, shared by the nodes covering all examples
+		allPositives = new BitSet(nrOfPositiveExamples);
+		allPositives.set(0, nrOfPositiveExamples);
+		allNegatives = new BitSet(nrOfNegativeExamples);
+		allNegatives.set(0, nrOfNegativeExamples);
+
+		int nrOfWorkers = nrOfThreads > 0 ? nrOfThreads : Runtime.getRuntime().availableProcessors();
+		if (nrOfWorkers > 1) {
+			evaluationService = Executors.newFixedThreadPool(nrOfWorkers,
+					new ThreadFactoryBuilder().setNameFormat("ocel-evaluation-%d").setDaemon(true).build());
+		}
+
 		// start search with start class
 		ExampleBasedNode startNode;
 		if (startDescription == null) {
 			startNode = new ExampleBasedNode(dataFactory.getOWLThing(), this);
-			startNode.setCoveredExamples(positiveExamples, negativeExamples);
+			startNode.setCoveredExamples(allPositives, allNegatives);
 		} else {
 			startNode = new ExampleBasedNode(startDescription, this);
 			Set<OWLIndividual> coveredNegatives = reasoner.hasType(startDescription, negativeExamples);
 			Set<OWLIndividual> coveredPositives = reasoner.hasType(startDescription, positiveExamples);
-			startNode.setCoveredExamples(coveredPositives, coveredNegatives);
+			startNode.setCoveredExamples(toBitSet(coveredPositives, positiveExampleArray), toBitSet(coveredNegatives, negativeExampleArray));
 		}
 
 		searchTree.addNode(null, startNode);
@@ -512,6 +543,11 @@ public class OCEL extends AbstractCELA {
 			loop++;
 		}// end while
 
+		if (evaluationService != null) {
+			evaluationService.shutdownNow();
+			evaluationService = null;
+		}
+
 		if (solutions.size() > 0) {
 			int solutionLimit = 20;
 			// we do not need to print the best node if we display the top 20 solutions below anyway
@@ -678,6 +714,11 @@ public class OCEL extends AbstractCELA {
 		refinements.removeAll(properConcepts);
 		improperConceptsRemovalTimeNs += System.nanoTime() - improperConceptsRemovalTimeNsStart;
 
+		// evaluate the proper refinements in parallel first if enabled (results are consumed below)
+		long parallelEvaluationTimeNsStart = System.nanoTime();
+		Map<OWLClassExpression, ExampleCoverage> coverages = computeCoverages(node, properConcepts);
+		propernessCalcReasoningTimeNs += System.nanoTime() - parallelEvaluationTimeNsStart;
+
 		for (OWLClassExpression refinement : properConcepts) {
 			long redundancyCheckTimeNsStart = System.nanoTime();
 			boolean nonRedundant = properRefinements.add(refinement);
@@ -706,7 +747,7 @@ public class OCEL extends AbstractCELA {
 						quality = nrOfNegativeExamples;
 						qualityKnown = true;
 						newNode.setQualityEvaluationMethod(ExampleBasedNode.QualityEvaluationMethod.OVERLY_GENERAL_LIST);
-						newNode.setCoveredExamples(positiveExamples, negativeExamples);
+						newNode.setCoveredExamples(allPositives, allNegatives);
 					}
 
 				}
@@ -716,62 +757,22 @@ public class OCEL extends AbstractCELA {
 					long propCalcReasoningStart2 = System.nanoTime();
 					conceptTestsReasoner++;
 
-					// determine individuals which have not been covered yet
-					// (more efficient than full retrieval)
-					Set<OWLIndividual> coveredPositives = node.getCoveredPositives();
-					Set<OWLIndividual> newlyCoveredPositives = new HashSet<>();
-
-					// calculate how many pos. examples are not covered by the
-					// parent node of the refinement
-					int misclassifiedPositives = nrOfPositiveExamples - coveredPositives.size();
-
-					// iterate through all covered examples (examples which are not
-					// covered do not need to be tested, because they remain uncovered);
-					// DIG will be slow if we send each reasoner request individually
-					// (however if we send everything in one request, too many instance checks
-					// are performed => rely on fast instance checker)
-					for (OWLIndividual i : coveredPositives) {
-						// TODO: move code to a separate function
-						if (quality != -1) {
-							boolean covered = reasoner.hasType(refinement, i);
-							if (!covered)
-								misclassifiedPositives++;
-							else
-								newlyCoveredPositives.add(i);
-
-							if (misclassifiedPositives > allowedMisclassifications)
-								quality = -1;
-
-						}
-					}
-
-					Set<OWLIndividual> newlyCoveredNegatives = null;
-					if (quality != -1) {
-						Set<OWLIndividual> coveredNegatives = node.getCoveredNegatives();
-						newlyCoveredNegatives = new HashSet<>();
-
-						for (OWLIndividual i : coveredNegatives) {
-							boolean covered = reasoner.hasType(refinement, i);
-							if (covered)
-								newlyCoveredNegatives.add(i);
-						}
-					}
+					// the refinement might have been evaluated in parallel already
+					ExampleCoverage coverage = coverages.containsKey(refinement)
+							? coverages.get(refinement)
+							: computeCoverage(node, refinement);
 
 					propernessCalcReasoningTimeNs += System.nanoTime() - propCalcReasoningStart2;
 					newNode.setQualityEvaluationMethod(ExampleBasedNode.QualityEvaluationMethod.REASONER);
-					if (quality != -1 && !(((PosNegLP) learningProblem).getAccuracyMethod() instanceof AccMethodNoWeakness) &&
-							((PosNegLP) learningProblem).getAccuracyMethod().getAccOrTooWeak2(
-									newlyCoveredPositives.size(), nrOfPositiveExamples - newlyCoveredPositives.size(),
-									newlyCoveredNegatives.size(), nrOfNegativeExamples - newlyCoveredNegatives.size(),
-									1) == -1)
-						quality = -1;
 
-					if (quality != -1) {
+					if (coverage == null) {
+						quality = -1;
+					} else {
 						// quality is the number of misclassifications (if it is
 						// not too weak)
-						quality = (nrOfPositiveExamples - newlyCoveredPositives.size())
-								+ newlyCoveredNegatives.size();
-						newNode.setCoveredExamples(newlyCoveredPositives, newlyCoveredNegatives);
+						quality = (nrOfPositiveExamples - coverage.positives.cardinality())
+								+ coverage.negatives.cardinality();
+						newNode.setCoveredExamples(coverage.positives, coverage.negatives);
 					}
 
 				}
@@ -788,7 +789,7 @@ public class OCEL extends AbstractCELA {
 
 					// we need to make sure that all positives are covered
 					// before adding something to the overly general list
-					if ((newNode.getCoveredPositives().size() == nrOfPositiveExamples)
+					if ((newNode.getNrOfCoveredPositives() == nrOfPositiveExamples)
 							&& quality == nrOfNegativeExamples)
 						overlyGeneralList.add(refinement);
 
@@ -825,6 +826,128 @@ public class OCEL extends AbstractCELA {
 		}
 	}
 
+	// the examples covered by a class expression (as bit sets indexed by the position of the
+	// examples in the example arrays)
+	private static class ExampleCoverage {
+		private final BitSet positives;
+		private final BitSet negatives;
+
+		ExampleCoverage(BitSet positives, BitSet negatives) {
+			this.positives = positives;
+			this.negatives = negatives;
+		}
+	}
+
+	// computes the examples covered by a refinement of the node, returns null if the refinement is too weak
+	private ExampleCoverage computeCoverage(ExampleBasedNode node, OWLClassExpression refinement) {
+		// determine individuals which have not been covered yet
+		// (more efficient than full retrieval)
+		BitSet coveredPositives = node.getCoveredPositivesBitSet();
+		BitSet newlyCoveredPositives = new BitSet(nrOfPositiveExamples);
+
+		// calculate how many pos. examples are not covered by the
+		// parent node of the refinement
+		int misclassifiedPositives = nrOfPositiveExamples - node.getNrOfCoveredPositives();
+
+		// iterate through all covered examples (examples which are not
+		// covered do not need to be tested, because they remain uncovered);
+		// DIG will be slow if we send each reasoner request individually
+		// (however if we send everything in one request, too many instance checks
+		// are performed => rely on fast instance checker)
+		for (int i = coveredPositives.nextSetBit(0); i >= 0; i = coveredPositives.nextSetBit(i + 1)) {
+			if (reasoner.hasType(refinement, positiveExampleArray[i]))
+				newlyCoveredPositives.set(i);
+			else
+				misclassifiedPositives++;
+
+			if (misclassifiedPositives > allowedMisclassifications)
+				return null;
+		}
+
+		BitSet coveredNegatives = node.getCoveredNegativesBitSet();
+		BitSet newlyCoveredNegatives = new BitSet(nrOfNegativeExamples);
+		for (int i = coveredNegatives.nextSetBit(0); i >= 0; i = coveredNegatives.nextSetBit(i + 1)) {
+			if (reasoner.hasType(refinement, negativeExampleArray[i]))
+				newlyCoveredNegatives.set(i);
+		}
+
+		int tp = newlyCoveredPositives.cardinality();
+		int fp = newlyCoveredNegatives.cardinality();
+		if (!(((PosNegLP) learningProblem).getAccuracyMethod() instanceof AccMethodNoWeakness) &&
+				((PosNegLP) learningProblem).getAccuracyMethod().getAccOrTooWeak2(
+						tp, nrOfPositiveExamples - tp, fp, nrOfNegativeExamples - fp, 1) == -1)
+			return null;
+
+		return new ExampleCoverage(newlyCoveredPositives, newlyCoveredNegatives);
+	}
+
+	// computes the coverage of the refinements of the node in parallel, refinements which will not
+	// be evaluated by the reasoner anyway (redundant or overly general ones) are skipped; the
+	// returned map contains null values for too weak refinements
+	private Map<OWLClassExpression, ExampleCoverage> computeCoverages(ExampleBasedNode node, Set<OWLClassExpression> refinements) {
+		if (evaluationService == null || refinements.size() < 2)
+			return Collections.emptyMap();
+
+		Map<OWLClassExpression, Future<ExampleCoverage>> futures = new LinkedHashMap<>();
+		for (OWLClassExpression refinement : refinements) {
+			boolean overlyGeneral = useOverlyGeneralList && refinement instanceof OWLObjectUnionOf
+					&& containsOverlyGeneralElement((OWLObjectUnionOf) refinement);
+			if (!overlyGeneral && !properRefinements.contains(refinement)) {
+				futures.put(refinement, evaluationService.submit(() -> computeCoverage(node, refinement)));
+			}
+		}
+
+		Map<OWLClassExpression, ExampleCoverage> coverages = new HashMap<>();
+		try {
+			for (Map.Entry<OWLClassExpression, Future<ExampleCoverage>> entry : futures.entrySet()) {
+				coverages.put(entry.getKey(), entry.getValue().get());
+			}
+		} catch (InterruptedException e) {
+			futures.values().forEach(f -> f.cancel(true));
+			Thread.currentThread().interrupt();
+			stop = true;
+			return Collections.emptyMap();
+		} catch (ExecutionException e) {
+			futures.values().forEach(f -> f.cancel(true));
+			throw new RuntimeException("Evaluation of refinements failed.", e.getCause());
+		}
+		return coverages;
+	}
+
+	// the positions of the given examples in the example array as bit set
+	private static BitSet toBitSet(Set<OWLIndividual> examples, OWLIndividual[] exampleArray) {
+		BitSet bits = new BitSet(exampleArray.length);
+		for (int i = 0; i < exampleArray.length; i++) {
+			if (examples.contains(exampleArray[i]))
+				bits.set(i);
+		}
+		return bits;
+	}
+
+	private static SortedSet<OWLIndividual> toIndividuals(BitSet bits, OWLIndividual[] exampleArray) {
+		SortedSet<OWLIndividual> individuals = new TreeSet<>();
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			individuals.add(exampleArray[i]);
+		}
+		return individuals;
+	}
+
+	/**
+	 * @param bits the positions of positive examples
+	 * @return the positive examples at the given positions
+	 */
+	SortedSet<OWLIndividual> getPositiveExamples(BitSet bits) {
+		return toIndividuals(bits, positiveExampleArray);
+	}
+
+	/**
+	 * @param bits the positions of negative examples
+	 * @return the negative examples at the given positions
+	 */
+	SortedSet<OWLIndividual> getNegativeExamples(BitSet bits) {
+		return toIndividuals(bits, negativeExampleArray);
+	}
+
 	private void printStatistics(boolean finalStats) {
 		// TODO: viele Tests haben ergeben, dass man nie 100% mit der Zeitmessung abdecken
 		// kann (zum einen weil Stringausgabe verzögert erfolgt und zum anderen weil
@@ -848,7 +971,7 @@ public class OCEL extends AbstractCELA {
 
 			logger.debug(bestNodeString);
 			logger.trace(bestNode.getStats());
-			if (bestNode.getCoveredNegatives().size() <= 5)
+			if (bestNode.getNrOfCoveredNegatives() <= 5)
 				logger.trace("covered negs: " + bestNode.getCoveredNegatives());
 			String expandedNodeString = "next expanded node: "
 					+ searchTree.best().getShortDescription();
@@ -928,11 +1051,11 @@ public class OCEL extends AbstractCELA {
 	private void traverseTree() {
 		ExampleBasedNode startNode = findBestTraversalStartNode();
 		OWLClassExpression currentDescription = startNode.getConcept();
-		Set<OWLIndividual> currentCoveredPos = startNode.getCoveredPositives();
-		Set<OWLIndividual> currentCoveredNeg = startNode.getCoveredNegatives();
+		BitSet currentCoveredPos = startNode.getCoveredPositivesBitSet();
+		BitSet currentCoveredNeg = startNode.getCoveredNegativesBitSet();
 		double currentAccuracy = startNode.getAccuracy();
-		int currentMisclassifications = nrOfPositiveExamples - currentCoveredPos.size()
-				+ currentCoveredNeg.size();
+		int currentMisclassifications = nrOfPositiveExamples - currentCoveredPos.cardinality()
+				+ currentCoveredNeg.cardinality();
 		logger.debug("tree traversal start node "
 				+ startNode
 				.getShortDescription());
@@ -942,18 +1065,20 @@ public class OCEL extends AbstractCELA {
 		SortedSet<ExampleBasedNode> reverseView = searchTreeStable.descendingSet();
 		for (ExampleBasedNode currNode : reverseView) {
 			// compute covered positives and negatives
-			SortedSet<OWLIndividual> newCoveredPositives = new TreeSet<>(currentCoveredPos);
-			newCoveredPositives.retainAll(currNode.getCoveredPositives());
-			SortedSet<OWLIndividual> newCoveredNegatives = new TreeSet<>(currentCoveredNeg);
-			newCoveredNegatives.retainAll(currNode.getCoveredNegatives());
+			BitSet newCoveredPositives = (BitSet) currentCoveredPos.clone();
+			newCoveredPositives.and(currNode.getCoveredPositivesBitSet());
+			BitSet newCoveredNegatives = (BitSet) currentCoveredNeg.clone();
+			newCoveredNegatives.and(currNode.getCoveredNegativesBitSet());
+			int nrOfNewCoveredPositives = newCoveredPositives.cardinality();
+			int nrOfNewCoveredNegatives = newCoveredNegatives.cardinality();
 
 			// compute the accuracy we would get by adding this node
-			double accuracy = (newCoveredPositives.size() + nrOfNegativeExamples - newCoveredNegatives.size())
+			double accuracy = (nrOfNewCoveredPositives + nrOfNegativeExamples - nrOfNewCoveredNegatives)
 					/ (double) (nrOfPositiveExamples + nrOfNegativeExamples);
-			int misclassifications = nrOfPositiveExamples - newCoveredPositives.size() + newCoveredNegatives.size();
-			int misclassifiedPositives = nrOfPositiveExamples - newCoveredPositives.size();
+			int misclassifications = nrOfPositiveExamples - nrOfNewCoveredPositives + nrOfNewCoveredNegatives;
+			int misclassifiedPositives = nrOfPositiveExamples - nrOfNewCoveredPositives;
 
-			int lostPositives = currentCoveredPos.size() - newCoveredPositives.size();
+			int lostPositives = currentCoveredPos.cardinality() - nrOfNewCoveredPositives;
 
 			// TODO: maybe we should also consider a minimum improvement when adding something
 			// otherwise we could overfit
@@ -1006,8 +1131,8 @@ public class OCEL extends AbstractCELA {
 		ExampleBasedNode currNode = null;
 		SortedSet<ExampleBasedNode> reverseView = searchTreeStable.descendingSet();
 		for (ExampleBasedNode node : reverseView) {
-			int score = 2 * node.getCoveredPositives().size()
-					+ (nrOfNegativeExamples - node.getCoveredNegatives().size());
+			int score = 2 * node.getNrOfCoveredPositives()
+					+ (nrOfNegativeExamples - node.getNrOfCoveredNegatives());
 			if (score > currScore) {
 				currScore = score;
 				currNode = node;
@@ -1029,11 +1154,11 @@ public class OCEL extends AbstractCELA {
 			// first criterion: the considered node should have an accuracy gain over its parent
 			// (avoids to use only the most promising node + all its refinements with equal accuracy)
 			boolean hasAccuracyGain = (node.getParent() == null)
-					|| (node.getCoveredPositives().size() != node.getParent().getCoveredPositives().size())
-					|| (node.getCoveredNegatives().size() != node.getParent().getCoveredNegatives().size());
+					|| (node.getNrOfCoveredPositives() != node.getParent().getNrOfCoveredPositives())
+					|| (node.getNrOfCoveredNegatives() != node.getParent().getNrOfCoveredNegatives());
 			// second criterion: uncovered positives; it does not make much sense to pick nodes with
 			// low potential for reaching a solution (already at the limit of misclassified positives)
-			int misclassifiedPositives = nrOfPositiveExamples - node.getCoveredPositives().size();
+			int misclassifiedPositives = nrOfPositiveExamples - node.getNrOfCoveredPositives();
 			boolean hasRefinementPotential = (misclassifiedPositives <= Math.floor(0.65d * allowedMisclassifications));
 			boolean keep = hasAccuracyGain && hasRefinementPotential;
 			if (keep) {
@@ -1431,4 +1556,17 @@ public class OCEL extends AbstractCELA {
 	public ExampleBasedHeuristic getHeuristic() {
 		return heuristic;
 	}
+
+	public int getNrOfThreads() {
+		return nrOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads used to evaluate the proper refinements of a node in parallel.
+	 * Note that all threads share the reasoner.
+	 * @param nrOfThreads the number of threads, 0 means the number of available processors
+	 */
+	public void setNrOfThreads(int nrOfThreads) {
+		this.nrOfThreads = nrOfThreads;
+	}
 }
@@ -32,6 +32,7 @@ import org.dllearner.algorithms.properties.AxiomAlgorithms.AxiomTypeCluster;
 import org.dllearner.core.*;
 import org.dllearner.kb.LocalModelBasedSparqlEndpointKS;
 import org.dllearner.kb.SparqlEndpointKS;
+import org.dllearner.kb.sparql.SampleModelStore;
 import org.dllearner.kb.sparql.SparqlEndpoint;
 import org.dllearner.reasoning.SPARQLReasoner;
 import org.dllearner.utilities.OWLAPIUtils;
@@ -67,6 +68,7 @@ public class MultiPropertyAxiomLearner {
 	private boolean useSampling = false;
 	private long maxSampleGenerationTimeMilliseconds = 10000;
 	private long pageSize = 10000;
+	private SampleModelStore sampleModelStore;
 
 	private boolean multiThreaded = false;
 	private int maxNrOfThreads = 1;
@@ -251,6 +253,15 @@ public class MultiPropertyAxiomLearner {
 		this.useSampling = useSampling;
 	}
 
+	/**
+	 * Set the store in which the generated samples are kept, such that each sample is fetched only once per
+	 * entity, even if the entity is processed again. By default, no store is used.
+	 * @param sampleModelStore the sample store, or {@code null} to always generate a new sample
+	 */
+	public void setSampleModelStore(SampleModelStore sampleModelStore) {
+		this.sampleModelStore = sampleModelStore;
+	}
+
 	/**
 	 * @param multiThreaded whether to enable multi-threaded execution (@see setMaxNrOfThreads)
 	 */
@@ -309,15 +320,38 @@ public class MultiPropertyAxiomLearner {
 
 	private Model generateSample(OWLEntity entity, AxiomTypeCluster cluster){
 		logger.info("Generating sample (" + cluster + ") for " + OWLAPIUtils.getPrintName(entity.getEntityType()) + " " + entity.toStringID() + "...");
+
+		Query query;
+		synchronized (cluster) {
+			ParameterizedSparqlString sampleQueryTemplate = cluster.getSampleQuery();
+			sampleQueryTemplate.clearParam("entity");
+			sampleQueryTemplate.setIri("entity", entity.toStringID());
+			query = sampleQueryTemplate.asQuery();
+		}
+
+		Model sample;
+		if(sampleModelStore != null) {
+			// the sample might have already been fetched before
+			try {
+				sample = sampleModelStore.getSample(ks, query, model -> fillSample(model, query, cluster));
+			} catch (RuntimeException e) {
+				// the reason has already been logged during sample generation
+				return null;
+			}
+		} else {
+			sample = ModelFactory.createDefaultModel();
+			if(!fillSample(sample, query, cluster)) {
+				return null;
+			}
+		}
+		logger.info("Finished generating sample. Sample size: " + sample.size() + " triples");
+		return sample;
+	}
+
+	private boolean fillSample(Model sample, Query sampleQuery, AxiomTypeCluster cluster){
 		long startTime = System.currentTimeMillis();
 
-		Model sample = ModelFactory.createDefaultModel();
-		
-		ParameterizedSparqlString sampleQueryTemplate = cluster.getSampleQuery();
-		sampleQueryTemplate.clearParam("entity");
-		sampleQueryTemplate.setIri("entity", entity.toStringID());
-		
-		Query query = sampleQueryTemplate.asQuery();
+		Query query = sampleQuery.cloneQuery();
 		query.setLimit(pageSize);
 		
 		boolean isEmpty = false;
@@ -350,7 +384,11 @@ public class MultiPropertyAxiomLearner {
 					logger.error("Query execution failed for query\n" + query, e);
 				}
 
-				return null;
+				// a failed sample must not be stored
+				if(sampleModelStore != null) {
+					throw new RuntimeException("Sample generation for " + cluster + " failed.", e);
+				}
+				return false;
 			}
 			// checker for sampling timeout
 			samplingTimeout = (System.currentTimeMillis() - startTime) >= maxSampleGenerationTimeMilliseconds;
@@ -358,11 +396,10 @@ public class MultiPropertyAxiomLearner {
 				logger.info("Sampling timeout.");
 			}
 		}
-		logger.info("Finished generating sample. Sample size: " + sample.size() + " triples");
 		if(isEmpty) {
 			logger.info("Sample contains the whole relevant data.");
 		}
-		return sample;
+		return true;
 	}
 	
 	private boolean isTimeout(){
@@ -23,11 +23,14 @@ import com.google.common.collect.HashBiMap;
 import com.google.common.collect.Sets;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
 import com.jamonapi.MonitorFactory;
 import gnu.trove.map.TObjectIntMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
 import org.dllearner.algorithms.qtl.datastructures.impl.EvaluatedRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.NodeDictionary;
 import org.dllearner.algorithms.qtl.datastructures.impl.QueryTreeImpl.LiteralNodeConversionStrategy;
 import org.dllearner.algorithms.qtl.datastructures.impl.QueryTreeImpl.LiteralNodeSubsumptionStrategy;
 import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
@@ -36,6 +39,7 @@ import org.dllearner.algorithms.qtl.heuristics.QueryTreeHeuristicSimple;
 import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
 import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
 import org.dllearner.algorithms.qtl.operations.lgg.LGGGenerator;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorCompact;
 import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorRDFS;
 import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
 import org.dllearner.algorithms.qtl.util.Entailment;
@@ -63,6 +67,9 @@ import java.text.DecimalFormat;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @ComponentAnn(name="query tree learner with noise (disjunctive)", shortName="qtl2dis", version=0.8)
 public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
@@ -117,6 +124,22 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	
 	@ConfigOption(defaultValue = "1", description = "how important it is not to cover negatives")
 	private double beta = 1;
+
+	@ConfigOption(defaultValue = "true", description = "whether to retrieve the data and generate the trees of the examples in parallel. " +
+			"The trees are generated by the tree factory from the combined data of all examples, thus, a custom tree factory " +
+			"has to be thread-safe if it generates the trees in parallel, as the factories in this package do.")
+	private boolean parallelTreeGeneration = true;
+	
+	@ConfigOption(defaultValue = "false", description = "whether to compute the LGGs on compact array-based trees. " +
+			"Only used with SIMPLE entailment, anchor vars are not taken into account. The example trees are then kept in compact form only.")
+	private boolean useCompactLGG = false;
+	
+	// the compact LGG generator and the dictionary of the compact trees, both only exist during a run
+	private LGGGeneratorCompact compactLggGenerator;
+	private NodeDictionary nodeDictionary;
+	// the compact representation of the trees in the working set, i.e. the example trees and the LGGs, by identity;
+	// the example trees themselves are then reduced to their root node, which identifies the example
+	private Map<RDFResourceTree, CompactRDFResourceTree> compactTrees;
 	
 	// minimum score a query tree must have to be part of the solution
 	private double minimumTreeScore = 0.3;
@@ -189,6 +212,8 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		this.maxTreeComputationTimeInSeconds = qtl.maxTreeComputationTimeInSeconds;
 		this.tryFullCoverage = qtl.tryFullCoverage;
 		this.stopOnFirstDefinition = qtl.stopOnFirstDefinition;
+		this.parallelTreeGeneration = qtl.parallelTreeGeneration;
+		this.useCompactLGG = qtl.useCompactLGG;
 	}
 	
 	/* (non-Javadoc)
@@ -224,9 +249,26 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			lggGenerator = new LGGGeneratorRDFS(reasoner);
 		}
 		
+		// the example trees kept in compact form by a previous run are restored first
+		expandExampleTrees();
+		
+		if(useCompactLGG && entailment == Entailment.SIMPLE) {
+			compactLggGenerator = new LGGGeneratorCompact();
+			nodeDictionary = new NodeDictionary();
+			compactTrees = new IdentityHashMap<>();
+		} else {
+			compactLggGenerator = null;
+			nodeDictionary = null;
+			compactTrees = null;
+		}
+		
 		// generate the query trees
 		generateQueryTrees();
 		
+		if(compactTrees != null) {
+			compactExampleTrees();
+		}
+		
 		startPosExamplesSize = currentPosExampleTrees.size();
 		
 		//console rendering of class expressions
@@ -255,47 +297,123 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	
 	private void generateQueryTrees(){
 		logger.info("Generating trees...");
-		RDFResourceTree queryTree;
 		
 		// positive examples
 		if(currentPosExampleTrees.isEmpty()){
-			for (OWLIndividual ind : lp.getPositiveExamples()) {
-				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
-//					cbd.write(new FileOutputStream("/tmp/dbpedia-" + ind.toStringID().substring(ind.toStringID().lastIndexOf('/') + 1) + ".ttl"), "TURTLE", null);
-					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
-					tree2Individual.put(queryTree, ind);
-					currentPosExampleTrees.add(queryTree);
-					currentPosExamples.add(ind);
-					logger.debug(ind.toStringID());
-					logger.debug(queryTree.getStringRepresentation());
-				} catch (Exception e) {
-					logger.error("Failed to generate tree for resource " + ind, e);
-					throw new RuntimeException();
-				}
-			}
+			generateQueryTrees(lp.getPositiveExamples()).forEach((ind, queryTree) -> {
+				tree2Individual.put(queryTree, ind);
+				currentPosExampleTrees.add(queryTree);
+				currentPosExamples.add(ind);
+			});
 		}
 		
 		// negative examples
 		if(currentNegExampleTrees.isEmpty()){
-			for (OWLIndividual ind : lp.getNegativeExamples()) {
-				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
-					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
-					tree2Individual.put(queryTree, ind);
-					currentNegExampleTrees.add(queryTree);
-					currentNegExamples.add(ind);
-					logger.debug(ind.toStringID());
-					logger.debug(queryTree.getStringRepresentation());
-				} catch (Exception e) {
-					logger.error("Failed to generate tree for resource " + ind, e);
-					throw new RuntimeException();
-				}
-			}
+			generateQueryTrees(lp.getNegativeExamples()).forEach((ind, queryTree) -> {
+				tree2Individual.put(queryTree, ind);
+				currentNegExampleTrees.add(queryTree);
+				currentNegExamples.add(ind);
+			});
 		}
 		logger.info("...done.");
 	}
 	
+	/*
+	 * Generates the trees of the given examples, in parallel if enabled. The order of the examples is kept.
+	 * In parallel mode the CBDs of the examples are retrieved concurrently and combined into one model, from which
+	 * the tree factory generates all trees with a shared statement index. This results in the same trees, because
+	 * the CBD of an example contains the outgoing statements of all resources within the max. tree depth.
+	 */
+	private Map<OWLIndividual, RDFResourceTree> generateQueryTrees(Set<OWLIndividual> examples) {
+		Map<OWLIndividual, RDFResourceTree> result = new LinkedHashMap<>();
+		if (!parallelTreeGeneration) {
+			for (OWLIndividual ind : examples) {
+				result.put(ind, generateQueryTree(ind.toStringID(), getConciseBoundedDescription(ind)));
+			}
+			return result;
+		}
+		
+		List<Model> cbds = examples.parallelStream().map(this::getConciseBoundedDescription).collect(Collectors.toList());
+		Model model = ModelFactory.createDefaultModel();
+		cbds.forEach(model::add);
+		
+		List<Resource> resources = examples.stream()
+				.map(ind -> model.createResource(ind.toStringID()))
+				.collect(Collectors.toList());
+		Map<Resource, RDFResourceTree> trees;
+		try {
+			trees = treeFactory.getQueryTrees(resources, model, maxTreeDepth);
+		} catch (Exception e) {
+			logger.error("Failed to generate trees for resources " + examples, e);
+			throw new RuntimeException(e);
+		}
+		
+		Iterator<Resource> resourcesIterator = resources.iterator();
+		for (OWLIndividual ind : examples) {
+			RDFResourceTree queryTree = trees.get(resourcesIterator.next());
+			logger.debug(ind.toStringID());
+			logger.debug(queryTree.getStringRepresentation());
+			result.put(ind, queryTree);
+		}
+		return result;
+	}
+	
+	private Model getConciseBoundedDescription(OWLIndividual ind) {
+		try {
+			return cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
+		} catch (Exception e) {
+			logger.error("Failed to generate tree for resource " + ind, e);
+			throw new RuntimeException(e);
+		}
+	}
+	
+	/*
+	 * Keeps the example trees only in compact form: each example tree is replaced by a copy of its root node, which
+	 * identifies the example, and all operations on the example trees work on the compact trees.
+	 */
+	private void compactExampleTrees() {
+		UnaryOperator<RDFResourceTree> compact = tree -> {
+			RDFResourceTree root = new RDFResourceTree(tree, false);
+			compactTrees.put(root, CompactRDFResourceTree.from(tree, nodeDictionary));
+			tree2Individual.put(root, tree2Individual.remove(tree));
+			return root;
+		};
+		currentPosExampleTrees.replaceAll(compact);
+		currentNegExampleTrees.replaceAll(compact);
+	}
+	
+	/*
+	 * Restores the example trees kept in compact form, if any.
+	 */
+	private void expandExampleTrees() {
+		if(compactTrees == null) {
+			return;
+		}
+		UnaryOperator<RDFResourceTree> expand = root -> {
+			CompactRDFResourceTree compactTree = compactTrees.get(root);
+			if(compactTree == null) {
+				return root;
+			}
+			RDFResourceTree tree = compactTree.toRDFResourceTree();
+			tree2Individual.put(tree, tree2Individual.remove(root));
+			return tree;
+		};
+		currentPosExampleTrees.replaceAll(expand);
+		currentNegExampleTrees.replaceAll(expand);
+	}
+	
+	private RDFResourceTree generateQueryTree(String resource, Model cbd) {
+		try {
+			RDFResourceTree queryTree = treeFactory.getQueryTree(resource, cbd, maxTreeDepth);
+			logger.debug(resource);
+			logger.debug(queryTree.getStringRepresentation());
+			return queryTree;
+		} catch (Exception e) {
+			logger.error("Failed to generate tree for resource " + resource, e);
+			throw new RuntimeException(e);
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.dllearner.core.LearningAlgorithm#start()
 	 */
@@ -459,8 +577,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 				
 				// compute the LGG
 				MonitorFactory.getTimeMonitor("lgg").start();
-				((LGGGeneratorSimple)lggGenerator).setTimeout(getRemainingPartialSolutionTime(), TimeUnit.SECONDS);
-				RDFResourceTree lgg = lggGenerator.getLGG(currentTree, uncoveredTree);
+				RDFResourceTree lgg = computeLGG(currentTree, uncoveredTree);
 				MonitorFactory.getTimeMonitor("lgg").stop();
 //				System.out.println("COMPLETE:" + ((LGGGeneratorSimple)lggGenerator).isComplete());
 //				logger.info("LGG: "  + lgg.getStringRepresentation());
@@ -469,6 +586,9 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 				boolean redundant = isRedundant(lgg);
 				if(redundant) {
 					logger.trace("redundant");
+					if(compactTrees != null) {
+						compactTrees.remove(lgg);
+					}
 					continue;
 				}
 				
@@ -532,7 +652,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	
 	private boolean addToSolutions(EvaluatedRDFResourceTree solution) {
 		for (EvaluatedRDFResourceTree partialSolution : currentPartialSolutions) {
-			if(QueryTreeUtils.sameTrees(partialSolution.getTree(), solution.getTree())) {
+			if(sameTrees(partialSolution.getTree(), solution.getTree())) {
 				return false;
 			}
 		}
@@ -559,7 +679,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			boolean distinct = true;
 			for (RDFResourceTree otherTree : distinctTrees) {
 				if(!queryTree.equals(otherTree)){
-					if(QueryTreeUtils.sameTrees(queryTree, otherTree)){
+					if(sameTrees(queryTree, otherTree)){
 						distinct = false;
 						break;
 					}
@@ -578,6 +698,66 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		}
 	}
 	
+	/*
+	 * Computes the LGG of the two trees, on their compact representation if enabled. The compact LGG is kept
+	 * for the returned tree, i.e. each tree in the working set is converted only once.
+	 */
+	private RDFResourceTree computeLGG(RDFResourceTree tree1, RDFResourceTree tree2) {
+		if(compactLggGenerator != null) {
+			compactLggGenerator.setTimeout(getRemainingPartialSolutionTime(), TimeUnit.SECONDS);
+			CompactRDFResourceTree compactLgg = compactLggGenerator.getLGG(compactTrees.get(tree1), compactTrees.get(tree2));
+			RDFResourceTree lgg = compactLgg.toRDFResourceTree();
+			compactTrees.put(lgg, compactLgg);
+			return lgg;
+		}
+		((LGGGeneratorSimple)lggGenerator).setTimeout(getRemainingPartialSolutionTime(), TimeUnit.SECONDS);
+		return lggGenerator.getLGG(tree1, tree2);
+	}
+	
+	/*
+	 * Checks whether tree1 is subsumed by tree2, on their compact representation if enabled.
+	 */
+	private boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2, Entailment entailment) {
+		if(compactTrees != null) {
+			return compactTrees.get(tree1).isSubsumedBy(compactTrees.get(tree2));
+		}
+		return QueryTreeUtils.isSubsumedBy(tree1, tree2, entailment, reasoner);
+	}
+	
+	/*
+	 * Checks whether both trees are the same, on their compact representation if enabled.
+	 */
+	private boolean sameTrees(RDFResourceTree tree1, RDFResourceTree tree2) {
+		if(compactTrees != null) {
+			CompactRDFResourceTree compactTree1 = compactTrees.get(tree1);
+			CompactRDFResourceTree compactTree2 = compactTrees.get(tree2);
+			return compactTree1.getLabelId(0) == compactTree2.getLabelId(0) && // root(t1) == root(t2)
+					compactTree1.getChildrenEnd(0) - compactTree1.getFirstChild(0) ==
+					compactTree2.getChildrenEnd(0) - compactTree2.getFirstChild(0) && // #children(t1) == #children(t2)
+					compactTree1.isSubsumedBy(compactTree2) && compactTree2.isSubsumedBy(compactTree1);
+		}
+		return QueryTreeUtils.sameTrees(tree1, tree2);
+	}
+	
+	/*
+	 * Returns the number of nodes that are not variables, on the compact representation if enabled.
+	 */
+	private int getNumberOfSpecificNodes(RDFResourceTree tree) {
+		if(compactTrees != null) {
+			CompactRDFResourceTree compactTree = compactTrees.get(tree);
+			return (int) IntStream.range(0, compactTree.size())
+					.filter(node -> !compactTree.getLabel(node).isVariable())
+					.count();
+		}
+		int nrOfSpecificNodes = 0;
+		for (RDFResourceTree childNode : QueryTreeUtils.getNodes(tree)) {
+			if(!childNode.isVarNode()){
+				nrOfSpecificNodes++;
+			}
+		}
+		return nrOfSpecificNodes;
+	}
+	
 	/**
 	 * @return TRUE if the query tree is already contained in the solutions or
 	 * todo list, otherwise FALSE
@@ -585,7 +765,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	private boolean isRedundant(RDFResourceTree tree) {
 		//check if not already contained in todo list
 		for (EvaluatedRDFResourceTree evTree : todoList) {
-			if(QueryTreeUtils.sameTrees(tree, evTree.getTree())){
+			if(sameTrees(tree, evTree.getTree())){
 				logger.trace("Not added to TODO list: Already contained in.");
 //				logger.trace(evTree.getBaseQueryTrees().toString());
 				return true;
@@ -594,7 +774,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		
 		//check if not already contained in solutions
 		for (EvaluatedRDFResourceTree evTree : currentPartialSolutions) {
-			if(QueryTreeUtils.sameTrees(tree, evTree.getTree())){
+			if(sameTrees(tree, evTree.getTree())){
 				logger.trace("Not added to partial solutions list: Already contained in.");
 				return true;
 			}
@@ -635,12 +815,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		double coverageScore = Heuristics.getFScore(recall, precision, beta);
 		
 		//2. get a score for the specifity of the query, i.e. how many edges/nodes = precision oriented
-		int nrOfSpecificNodes = 0;
-		for (RDFResourceTree childNode : QueryTreeUtils.getNodes(tree)) {
-			if(!childNode.isVarNode()){
-				nrOfSpecificNodes++;
-			}
-		}
+		int nrOfSpecificNodes = getNumberOfSpecificNodes(tree);
 		double specifityScore = 0d;
 		if(useSpecifity){
 			specifityScore = Math.log(nrOfSpecificNodes);
@@ -695,7 +870,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			// compute positive examples which are not covered by LGG
 			for (RDFResourceTree posTree : currentPosExampleTrees) {
 //				System.out.print(currentPosExampleTrees.indexOf(posTree) + ":");
-				if(!QueryTreeUtils.isSubsumedBy(posTree, tree, entailment, reasoner)){
+				if(!isSubsumedBy(posTree, tree, entailment)){
 //					System.err.println(posTree.getStringRepresentation(true));System.err.println(tree.getStringRepresentation(true));
 //					System.out.println("FALSE");
 					uncoveredPositiveExampleTrees.add(posTree);
@@ -706,7 +881,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			
 			// compute negative examples which are covered by LGG
 			for (RDFResourceTree negTree : currentNegExampleTrees) {
-				if(QueryTreeUtils.isSubsumedBy(negTree, tree, entailment, reasoner)){
+				if(isSubsumedBy(negTree, tree, entailment)){
 					coveredNegativeExampleTrees.add(negTree);
 				}
 			}
@@ -725,12 +900,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			double coverageScore = Heuristics.getFScore(recall, precision, beta);
 			
 			// 2. get a score for the specifity of the query, i.e. how many edges/nodes = precision oriented
-			int nrOfSpecificNodes = 0;
-			for (RDFResourceTree childNode : QueryTreeUtils.getNodes(tree)) {
-				if(!childNode.isVarNode()){
-					nrOfSpecificNodes++;
-				}
-			}
+			int nrOfSpecificNodes = getNumberOfSpecificNodes(tree);
 			double specifityScore = 0d;
 			if(useSpecifity){
 				specifityScore = Math.log(nrOfSpecificNodes);
@@ -984,7 +1154,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	private List<RDFResourceTree> getCoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
 		List<RDFResourceTree> coveredTrees = new ArrayList<>();
 		for (RDFResourceTree queryTree : trees) {
-			if(QueryTreeUtils.isSubsumedBy(queryTree, tree)){
+			if(isSubsumedBy(queryTree, tree, Entailment.SIMPLE)){
 				coveredTrees.add(queryTree);
 			}
 		}
@@ -1000,7 +1170,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	private List<RDFResourceTree> getUncoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
 		List<RDFResourceTree> uncoveredTrees = new ArrayList<>();
 		for (RDFResourceTree queryTree : trees) {
-			if(!QueryTreeUtils.isSubsumedBy(queryTree, tree)){
+			if(!isSubsumedBy(queryTree, tree, Entailment.SIMPLE)){
 				uncoveredTrees.add(queryTree);
 			}
 		}
@@ -1065,6 +1235,22 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	public void setNoisePercentage(double noisePercentage) {
 		this.noisePercentage = noisePercentage;
 	}
+
+	/**
+	 * @param parallelTreeGeneration whether to retrieve the data and generate the trees of the examples in parallel,
+	 *                               requires a thread-safe tree factory if it generates the trees in parallel
+	 */
+	public void setParallelTreeGeneration(boolean parallelTreeGeneration) {
+		this.parallelTreeGeneration = parallelTreeGeneration;
+	}
+	
+	/**
+	 * @param useCompactLGG whether to compute the LGGs on compact array-based trees, only used with
+	 *                      {@link Entailment#SIMPLE}
+	 */
+	public void setUseCompactLGG(boolean useCompactLGG) {
+		this.useCompactLGG = useCompactLGG;
+	}
 	
 	/**
 	 * @param noise the noise to set
@@ -0,0 +1,520 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.datastructures.impl;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.Syntax;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.serializer.SerializationContext;
+import org.apache.jena.sparql.util.FmtUtils;
+import org.apache.jena.sparql.util.NodeUtils;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.NodeInv;
+import org.dllearner.algorithms.qtl.util.VarGenerator;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable, array-based representation of an {@link RDFResourceTree}. Node and edge labels are stored as IDs
+ * of a {@link NodeDictionary}, the nodes are numbered in breadth-first order such that the children of each node
+ * form a contiguous range of node indexes, i.e. the whole tree is kept in a few flat <code>int</code> arrays
+ * instead of one object graph per node. The root node has index <code>0</code>.
+ * <p>
+ * Children of a node that are connected by the same edge are contiguous and the edges are in the same order as
+ * in {@link RDFResourceTree#getEdges()}. Note that the node IDs of the original tree are not retained.
+ */
+public class CompactRDFResourceTree {
+
+	private static final String TRIPLE_PATTERN_TEMPLATE = "%s %s %s .";
+
+	private final NodeDictionary dictionary;
+
+	// the node labels
+	private final int[] labels;
+	// the label of the edge from the parent node, -1 for the root node
+	private final int[] edges;
+	// the children of node i are the nodes childOffsets[i] until childOffsets[i + 1] (exclusive)
+	private final int[] childOffsets;
+	// the datatype URI of literal nodes, -1 if there is none; null if no node has a datatype at all
+	private final int[] datatypes;
+	// the anchor vars, which only exist for a few nodes if at all
+	private final Map<Integer, Node> anchors;
+
+	private CompactRDFResourceTree(NodeDictionary dictionary, int[] labels, int[] edges, int[] childOffsets,
+								   int[] datatypes, Map<Integer, Node> anchors) {
+		this.dictionary = dictionary;
+		this.labels = labels;
+		this.edges = edges;
+		this.childOffsets = childOffsets;
+		this.datatypes = datatypes;
+		this.anchors = anchors;
+	}
+
+	/**
+	 * Converts the tree by using the given dictionary.
+	 *
+	 * @param tree the tree
+	 * @param dictionary the dictionary used for node and edge labels
+	 * @return the compact representation of the tree
+	 */
+	public static CompactRDFResourceTree from(RDFResourceTree tree, NodeDictionary dictionary) {
+		Packer packer = new Packer(16);
+
+		Deque<RDFResourceTree> queue = new ArrayDeque<>();
+		packer.add(dictionary.getId(tree.getData()), -1, dictionary.getId(tree.getDatatype()), tree.getAnchorVar());
+		queue.add(tree);
+
+		int index = 0;
+		while (!queue.isEmpty()) {
+			RDFResourceTree node = queue.poll();
+			packer.childOffsets[index++] = packer.size;
+			for (Node edge : node.getEdges()) {
+				int edgeId = dictionary.getId(edge);
+				for (RDFResourceTree child : node.getChildren(edge)) {
+					packer.add(dictionary.getId(child.getData()), edgeId, dictionary.getId(child.getDatatype()), child.getAnchorVar());
+					queue.add(child);
+				}
+			}
+		}
+		return packer.build(dictionary);
+	}
+
+	/**
+	 * Creates a tree from a root node and the given child trees.
+	 *
+	 * @param dictionary the dictionary used by the children
+	 * @param label the label ID of the root node
+	 * @param datatype the datatype ID of the root node, or <code>-1</code>
+	 * @param childEdges the edge IDs to the children
+	 * @param children the children
+	 * @return the tree
+	 */
+	public static CompactRDFResourceTree create(NodeDictionary dictionary, int label, int datatype,
+												int[] childEdges, List<CompactRDFResourceTree> children) {
+		if (childEdges.length != children.size()) {
+			throw new IllegalArgumentException("Number of edges and children differs.");
+		}
+		int size = 1;
+		for (CompactRDFResourceTree child : children) {
+			checkDictionary(dictionary, child);
+			size += child.size();
+		}
+		Packer packer = new Packer(size);
+		packer.add(label, -1, datatype, null);
+		packer.childOffsets[0] = 1;
+
+		Deque<int[]> queue = new ArrayDeque<>();
+		for (int i = 0; i < children.size(); i++) {
+			CompactRDFResourceTree child = children.get(i);
+			packer.add(child.labels[0], childEdges[i], child.getDatatypeId(0), child.getAnchorVar(0));
+			queue.add(new int[]{i, 0});
+		}
+		packer.copyLevels(children, queue, 1);
+		return packer.build(dictionary);
+	}
+
+	/**
+	 * @param node the node index
+	 * @return the subtree rooted at the given node as separate tree
+	 */
+	public CompactRDFResourceTree subTree(int node) {
+		if (node == 0) {
+			return this;
+		}
+		Packer packer = new Packer(16);
+		packer.add(labels[node], -1, getDatatypeId(node), getAnchorVar(node));
+
+		Deque<int[]> queue = new ArrayDeque<>();
+		queue.add(new int[]{0, node});
+		packer.copyLevels(Collections.singletonList(this), queue, 0);
+		return packer.build(dictionary);
+	}
+
+	/**
+	 * Converts the compact tree back to an {@link RDFResourceTree}.
+	 *
+	 * @return the tree
+	 */
+	public RDFResourceTree toRDFResourceTree() {
+		return toRDFResourceTree(0);
+	}
+
+	private RDFResourceTree toRDFResourceTree(int node) {
+		RDFResourceTree tree = new RDFResourceTree(getLabel(node));
+		tree.setDatatype(dictionary.getDatatype(getDatatypeId(node)));
+		tree.setAnchorVar(getAnchorVar(node));
+		for (int child = childOffsets[node]; child < childOffsets[node + 1]; child++) {
+			tree.addChild(toRDFResourceTree(child), dictionary.getNode(edges[child]));
+		}
+		return tree;
+	}
+
+	/**
+	 * @return the dictionary used for the node and edge labels
+	 */
+	public NodeDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return labels.length;
+	}
+
+	/**
+	 * @param node the node index
+	 * @return the label ID of the node
+	 */
+	public int getLabelId(int node) {
+		return labels[node];
+	}
+
+	/**
+	 * @param node the node index
+	 * @return the label of the node
+	 */
+	public Node getLabel(int node) {
+		return dictionary.getNode(labels[node]);
+	}
+
+	/**
+	 * @param node the node index
+	 * @return the ID of the edge from the parent node, or <code>-1</code> for the root node
+	 */
+	public int getEdgeId(int node) {
+		return edges[node];
+	}
+
+	/**
+	 * @param node the node index
+	 * @return the ID of the datatype URI, or <code>-1</code> if the node has no datatype
+	 */
+	public int getDatatypeId(int node) {
+		return datatypes == null ? -1 : datatypes[node];
+	}
+
+	/**
+	 * @param node the node index
+	 * @return the anchor var of the node, or <code>null</code>
+	 */
+	public Node getAnchorVar(int node) {
+		return anchors.get(node);
+	}
+
+	/**
+	 * @return whether at least one node has an anchor var
+	 */
+	public boolean hasAnchors() {
+		return !anchors.isEmpty();
+	}
+
+	/**
+	 * @param node the node index
+	 * @return the index of the first child of the node
+	 */
+	public int getFirstChild(int node) {
+		return childOffsets[node];
+	}
+
+	/**
+	 * @param node the node index
+	 * @return the index after the last child of the node, i.e. the node has no children if it equals
+	 * {@link #getFirstChild(int)}
+	 */
+	public int getChildrenEnd(int node) {
+		return childOffsets[node + 1];
+	}
+
+	/**
+	 * @param node the node index
+	 * @return whether the node is a literal node that denotes a concrete value
+	 */
+	public boolean isLiteralValueNode(int node) {
+		return labels[node] != NodeDictionary.LITERAL_NODE_ID && getLabel(node).isLiteral();
+	}
+
+	/**
+	 * Determines if this tree is subsumed by the other tree, i.e. whether the other tree is more general. This
+	 * is the same check as {@link QueryTreeUtils#isSubsumedBy(RDFResourceTree, RDFResourceTree)}, but the node
+	 * labels are compared by their IDs.
+	 *
+	 * @param other the other tree
+	 * @return whether this tree is subsumed by the other tree
+	 * @throws IllegalArgumentException if the trees are based on different dictionaries
+	 */
+	public boolean isSubsumedBy(CompactRDFResourceTree other) {
+		checkDictionary(dictionary, other);
+		return isSubsumedBy(this, 0, other, 0);
+	}
+
+	private static boolean isSubsumedBy(CompactRDFResourceTree tree1, int node1, CompactRDFResourceTree tree2, int node2) {
+		Node data1 = tree1.getLabel(node1);
+		Node data2 = tree2.getLabel(node2);
+
+		// 1.compare the root nodes
+		if (data1.isURI() && data2.isURI()) {
+			return tree1.labels[node1] == tree2.labels[node2];
+		} else if (data1.isLiteral() && data2.isLiteral()) {
+			if (tree2.isLiteralValueNode(node2)) {
+				// v1 = v2 ?
+				return tree1.isLiteralValueNode(node1) && tree1.labels[node1] == tree2.labels[node2];
+			}
+			// if there is a datatype, it must match for both trees
+			return tree1.getDatatypeId(node1) == tree2.getDatatypeId(node2);
+		}
+
+		if (data2.isBlank() && tree2.childOffsets[node2] == tree2.childOffsets[node2 + 1]) {
+			return false;
+		}
+
+		// (T_1 = ?) and (T_2 != ?) --> FALSE
+		if (data1.isVariable() && !data2.isVariable()) {
+			return false;
+		}
+
+		// 2. compare the children, i.e. for each child in T_2 there has to be at least one child in T_1
+		// with the same edge that is subsumed
+		for (int child2 = tree2.childOffsets[node2]; child2 < tree2.childOffsets[node2 + 1]; child2++) {
+			boolean isSubsumed = false;
+			for (int child1 = tree1.childOffsets[node1]; child1 < tree1.childOffsets[node1 + 1]; child1++) {
+				if (tree1.edges[child1] == tree2.edges[child2] && isSubsumedBy(tree1, child1, tree2, child2)) {
+					isSubsumed = true;
+					break;
+				}
+			}
+			if (!isSubsumed) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the SPARQL query string of the tree
+	 * @see QueryTreeUtils#toSPARQLQueryString(RDFResourceTree)
+	 */
+	public String toSPARQLQueryString() {
+		return toSPARQLQueryString(PrefixMapping.Standard);
+	}
+
+	/**
+	 * Returns the SPARQL query of the tree. Trees without anchor vars are converted directly, otherwise the
+	 * conversion is delegated to {@link QueryTreeUtils#toSPARQLQueryString(RDFResourceTree, PrefixMapping)}.
+	 *
+	 * @param pm the prefixes used in the query
+	 * @return the SPARQL query string of the tree
+	 */
+	public String toSPARQLQueryString(PrefixMapping pm) {
+		if (hasAnchors()) {
+			return QueryTreeUtils.toSPARQLQueryString(toRDFResourceTree(), pm);
+		}
+		if (childOffsets[0] == childOffsets[1]) {
+			return QueryTreeUtils.EMPTY_QUERY_TREE_QUERY;
+		}
+
+		SerializationContext context = new SerializationContext(pm);
+
+		StringBuilder sb = new StringBuilder();
+		for (String prefix : pm.getNsPrefixMap().keySet()) {
+			sb.append("PREFIX ");
+			sb.append(prefix);
+			sb.append(": ");
+			sb.append(FmtUtils.stringForURI(pm.getNsPrefixURI(prefix), null, null));
+			sb.append('\n');
+		}
+
+		String targetVar = "?s";
+		sb.append(String.format("SELECT DISTINCT %s WHERE {\n", targetVar));
+		buildSPARQLQueryString(0, targetVar, sb, context, new VarGenerator("x"));
+		sb.append("}");
+
+		Query query = QueryFactory.create(sb.toString(), Syntax.syntaxSPARQL_11);
+		query.setPrefixMapping(pm);
+
+		return query.toString();
+	}
+
+	private void buildSPARQLQueryString(int node, String subjectStr, StringBuilder sb,
+										SerializationContext context, VarGenerator varGen) {
+		// process rdf:type edges first
+		List<Node> edgeNodes = Arrays.stream(edges, childOffsets[node], childOffsets[node + 1])
+				.distinct()
+				.mapToObj(dictionary::getNode)
+				.sorted((e1, e2) -> {
+					if (e1.matches(dictionary.getNode(NodeDictionary.RDF_TYPE_ID))) {
+						return -2;
+					} else if (e2.matches(dictionary.getNode(NodeDictionary.RDF_TYPE_ID))) {
+						return 2;
+					} else {
+						return NodeUtils.compareRDFTerms(e1, e2);
+					}
+				})
+				.collect(Collectors.toList());
+
+		for (Node edge : edgeNodes) {
+			int edgeId = dictionary.getId(edge);
+			boolean inverse = edge instanceof NodeInv;
+			String predicateStr = FmtUtils.stringForNode(edge, context);
+
+			// the concrete values first
+			if (!inverse) {
+				String objStr = childrenOf(node, edgeId)
+						.filter(this::isConcreteNode)
+						.mapToObj(child -> FmtUtils.stringForNode(getLabel(child), context))
+						.collect(Collectors.joining(","));
+				if (!objStr.isEmpty()) {
+					sb.append(String.format(TRIPLE_PATTERN_TEMPLATE, subjectStr, predicateStr, objStr)).append("\n");
+				}
+			}
+
+			// the var nodes next
+			childrenOf(node, edgeId)
+					.filter(child -> inverse || !isConcreteNode(child))
+					.forEach(child -> {
+						Node object = getLabel(child);
+						if (object.isVariable() || (object.isLiteral() && !isLiteralValueNode(child))) {
+							// set a fresh var in the SPARQL query
+							object = varGen.newVar();
+						}
+						String objectStr = FmtUtils.stringForNode(object, context);
+
+						String tp = inverse
+								? String.format(TRIPLE_PATTERN_TEMPLATE, objectStr, predicateStr, subjectStr)
+								: String.format(TRIPLE_PATTERN_TEMPLATE, subjectStr, predicateStr, objectStr);
+						sb.append(tp).append("\n");
+
+						if (getLabel(child).isVariable() || getLabel(child).isBlank()) {
+							buildSPARQLQueryString(child, objectStr, sb, context, varGen);
+						}
+					});
+		}
+	}
+
+	private IntStream childrenOf(int node, int edgeId) {
+		return IntStream.range(childOffsets[node], childOffsets[node + 1])
+				.filter(child -> edges[child] == edgeId);
+	}
+
+	private boolean isConcreteNode(int node) {
+		return getLabel(node).isURI() || isLiteralValueNode(node);
+	}
+
+	private static void checkDictionary(NodeDictionary dictionary, CompactRDFResourceTree tree) {
+		if (tree.dictionary != dictionary) {
+			throw new IllegalArgumentException("Compact trees must be based on the same node dictionary.");
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		CompactRDFResourceTree that = (CompactRDFResourceTree) o;
+		return dictionary == that.dictionary &&
+				Arrays.equals(labels, that.labels) &&
+				Arrays.equals(edges, that.edges) &&
+				Arrays.equals(childOffsets, that.childOffsets) &&
+				Arrays.equals(datatypes, that.datatypes) &&
+				anchors.equals(that.anchors);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(labels) + Arrays.hashCode(edges);
+	}
+
+	@Override
+	public String toString() {
+		return toRDFResourceTree().getStringRepresentation();
+	}
+
+	/*
+	 * Collects the nodes in breadth-first order, the child offset of a node has to be set before its children
+	 * are added.
+	 */
+	private static class Packer {
+		int size = 0;
+		int[] labels;
+		int[] edges;
+		int[] childOffsets;
+		int[] datatypes;
+		boolean hasDatatypes = false;
+		Map<Integer, Node> anchors = Collections.emptyMap();
+
+		Packer(int capacity) {
+			labels = new int[capacity];
+			edges = new int[capacity];
+			childOffsets = new int[capacity + 1];
+			datatypes = new int[capacity];
+		}
+
+		void add(int label, int edge, int datatype, Node anchorVar) {
+			if (size == labels.length) {
+				int capacity = 2 * size;
+				labels = Arrays.copyOf(labels, capacity);
+				edges = Arrays.copyOf(edges, capacity);
+				childOffsets = Arrays.copyOf(childOffsets, capacity + 1);
+				datatypes = Arrays.copyOf(datatypes, capacity);
+			}
+			labels[size] = label;
+			edges[size] = edge;
+			datatypes[size] = datatype;
+			hasDatatypes |= datatype >= 0;
+			if (anchorVar != null) {
+				if (anchors.isEmpty()) {
+					anchors = new HashMap<>();
+				}
+				anchors.put(size, anchorVar);
+			}
+			size++;
+		}
+
+		/*
+		 * Copies the descendants of the nodes in the queue, which are given as pairs of tree index and node index
+		 * and have already been added starting at the given index.
+		 */
+		void copyLevels(List<CompactRDFResourceTree> trees, Deque<int[]> queue, int index) {
+			while (!queue.isEmpty()) {
+				int[] entry = queue.poll();
+				CompactRDFResourceTree tree = trees.get(entry[0]);
+				childOffsets[index++] = size;
+				for (int child = tree.childOffsets[entry[1]]; child < tree.childOffsets[entry[1] + 1]; child++) {
+					add(tree.labels[child], tree.edges[child], tree.getDatatypeId(child), tree.getAnchorVar(child));
+					queue.add(new int[]{entry[0], child});
+				}
+			}
+		}
+
+		CompactRDFResourceTree build(NodeDictionary dictionary) {
+			childOffsets[size] = size;
+			return new CompactRDFResourceTree(dictionary,
+					Arrays.copyOf(labels, size),
+					Arrays.copyOf(edges, size),
+					Arrays.copyOf(childOffsets, size + 1),
+					hasDatatypes ? Arrays.copyOf(datatypes, size) : null,
+					anchors);
+		}
+	}
+}
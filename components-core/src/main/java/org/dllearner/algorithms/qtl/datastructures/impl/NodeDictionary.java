@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.datastructures.impl;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.RDF;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A dictionary that maps RDF nodes to integer IDs and vice versa. It is used by {@link CompactRDFResourceTree}
+ * to store node and edge labels as plain integers, i.e. each distinct node is kept only once no matter in how
+ * many trees it occurs. The dictionary only grows and is thread-safe, thus, it should be scoped to a single
+ * computation, e.g. a run of a learning algorithm, and dropped afterwards.
+ */
+public class NodeDictionary {
+
+	/**
+	 * The ID of {@link RDFResourceTree#DEFAULT_VAR_NODE}.
+	 */
+	public static final int VAR_NODE_ID = 0;
+	/**
+	 * The ID of {@link RDFResourceTree#DEFAULT_LITERAL_NODE}.
+	 */
+	public static final int LITERAL_NODE_ID = 1;
+	/**
+	 * The ID of <code>rdf:type</code>.
+	 */
+	public static final int RDF_TYPE_ID = 2;
+
+	private final Map<Node, Integer> ids = new ConcurrentHashMap<>();
+
+	// the array is replaced on each write, thus, readers always see completely added entries
+	private volatile Node[] nodes = new Node[1024];
+	private int size = 0;
+
+	public NodeDictionary() {
+		getId(RDFResourceTree.DEFAULT_VAR_NODE);
+		getId(RDFResourceTree.DEFAULT_LITERAL_NODE);
+		getId(RDF.type.asNode());
+	}
+
+	/**
+	 * Returns the ID of the node. If the node is not contained yet, it will be added.
+	 *
+	 * @param node the node
+	 * @return the ID of the node
+	 */
+	public int getId(Node node) {
+		Integer id = ids.get(node);
+		if (id != null) {
+			return id;
+		}
+		return add(node);
+	}
+
+	/**
+	 * Returns the ID of the URI of the datatype. If the URI is not contained yet, it will be added.
+	 *
+	 * @param datatype the datatype
+	 * @return the ID of the datatype URI, or <code>-1</code> if the datatype is <code>null</code>
+	 */
+	public int getId(RDFDatatype datatype) {
+		return datatype == null ? -1 : getId(NodeFactory.createURI(datatype.getURI()));
+	}
+
+	/**
+	 * @param node the node
+	 * @return the ID of the node, or <code>-1</code> if the node is not contained
+	 */
+	public int lookupId(Node node) {
+		Integer id = ids.get(node);
+		return id == null ? -1 : id;
+	}
+
+	private synchronized int add(Node node) {
+		Integer id = ids.get(node);
+		if (id != null) {
+			return id;
+		}
+		Node[] arr = size == nodes.length ? Arrays.copyOf(nodes, 2 * size) : nodes;
+		arr[size] = node;
+		nodes = arr;
+		ids.put(node, size);
+		return size++;
+	}
+
+	/**
+	 * @param id the ID
+	 * @return the node with the given ID
+	 * @throws IllegalArgumentException if there is no node with the given ID
+	 */
+	public Node getNode(int id) {
+		Node[] arr = nodes;
+		if (id < 0 || id >= arr.length || arr[id] == null) {
+			throw new IllegalArgumentException("Unknown node ID " + id);
+		}
+		return arr[id];
+	}
+
+	/**
+	 * @param id the ID of the datatype URI
+	 * @return the datatype, or <code>null</code> if the ID is <code>-1</code>
+	 */
+	public RDFDatatype getDatatype(int id) {
+		return id < 0 ? null : TypeMapper.getInstance().getSafeTypeByName(getNode(id).getURI());
+	}
+
+	/**
+	 * @return the number of nodes contained in the dictionary
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "NodeDictionary[size=" + size() + "]";
+	}
+}
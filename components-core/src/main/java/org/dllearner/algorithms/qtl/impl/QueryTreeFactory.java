@@ -23,6 +23,9 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Predicate;
 
 /**
@@ -75,6 +78,21 @@ public interface QueryTreeFactory {
 	 */
 	RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth);
 
+	/**
+	 * Generates the query trees for the given resources based on the data contained in the model. Implementations
+	 * may build the trees in parallel.
+	 *
+	 * @param resources the resources which are supposed to be the roots of the query trees
+	 * @param model the data
+	 * @param maxDepth the maximum depth of the query trees
+	 * @return mapping from resource to query tree, in the order of the given resources
+	 */
+	default Map<Resource, RDFResourceTree> getQueryTrees(Collection<? extends Resource> resources, Model model, int maxDepth) {
+		Map<Resource, RDFResourceTree> trees = new LinkedHashMap<>();
+		resources.forEach(resource -> trees.put(resource, getQueryTree(resource, model, maxDepth)));
+		return trees;
+	}
+
 	/**
 	 * @return the maximum depth of the generated query trees (Default: 3)
 	 */
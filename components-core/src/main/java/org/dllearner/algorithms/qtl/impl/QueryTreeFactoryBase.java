@@ -41,17 +41,22 @@ import org.dllearner.kb.sparql.ConciseBoundedDescriptionGeneratorImpl;
 import org.dllearner.kb.sparql.SparqlEndpoint;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 /**
  * A base factory for query trees.
+ * <p>
+ * The trees are built depth-bounded, i.e. only the statements of resources that are reached within the
+ * max. depth are looked up. The statements are kept in an index that is shared by all trees built from the same
+ * model by {@link #getQueryTrees(Collection, Model, int)}, which builds the trees in parallel. The factory itself is
+ * thread-safe once the drop filters have been added.
  *
  * @author Lorenz Bühmann
  *
  */
 public class QueryTreeFactoryBase implements QueryTreeFactory {
 
-	private int nodeId;
 	private final Comparator<Statement> comparator = new StatementComparator();
 
 	private int maxDepth = 3;
@@ -79,7 +84,20 @@ public class QueryTreeFactoryBase implements QueryTreeFactory {
 		 */
 	@Override
 	public RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth) {
-		return createTree(resource, model, maxDepth);
+		return createTree(resource, new StatementIndex(model), maxDepth);
+	}
+
+	@Override
+	public Map<Resource, RDFResourceTree> getQueryTrees(Collection<? extends Resource> resources, Model model, int maxDepth) {
+		StatementIndex index = new StatementIndex(model);
+
+		Map<Resource, RDFResourceTree> trees = new ConcurrentHashMap<>();
+		resources.parallelStream().forEach(resource -> trees.put(resource, createTree(resource, index, maxDepth)));
+
+		// keep the order of the resources
+		Map<Resource, RDFResourceTree> result = new LinkedHashMap<>();
+		resources.forEach(resource -> result.put(resource, trees.get(resource)));
+		return result;
 	}
 	
 	/* (non-Javadoc)
@@ -91,75 +109,76 @@ public class QueryTreeFactoryBase implements QueryTreeFactory {
 		this.dropFilters.addAll(Arrays.asList(dropFilters));
 	}
 
-	private RDFResourceTree createTree(Resource resource, Model model, int maxDepth) {
-		nodeId = 0;
-		Map<Resource, SortedSet<Statement>> resource2Statements = new HashMap<>();
-
-		fillMap(resource, model, resource2Statements);
-
+	private RDFResourceTree createTree(Resource resource, StatementIndex index, int maxDepth) {
 		RDFResourceTree tree = new RDFResourceTree(resource.asNode());
-		fillTree(resource, tree, resource2Statements, 0, maxDepth);
+		fillTree(resource, tree, index, 0, maxDepth, 0);
 
 		return tree;
 	}
 
-	private void fillMap(Resource s, Model model, Map<Resource, SortedSet<Statement>> resource2Statements) {
+	/*
+	 * Adds the children of the given node, recursively up to the max. depth. Returns the next free node ID.
+	 */
+	private int fillTree(Resource root, RDFResourceTree tree, StatementIndex index,
+			int currentDepth, int maxDepth, int nodeId) {
+		currentDepth++;
+		RDFResourceTree subTree;
 
-		// get all statements with subject s
-		ExtendedIterator<Statement> it = model.listStatements(s, null, (RDFNode) null);
+		for (Statement st : index.getStatements(root)) {
+			Node predicate = st.getPredicate().asNode();
+			RDFNode object = st.getObject();
 
-		// filter statement if necessary
-		if (!dropFilters.isEmpty()) {
-			Iterator<Predicate<Statement>> iter = dropFilters.iterator();
-			Predicate<Statement> keepFilter = iter.next();
-			it = it.filterKeep(keepFilter);
-			while (iter.hasNext()) {it = it.filterKeep(iter.next());
-//				keepFilter = keepFilter.and(iter.next());
+			if (object.isLiteral()) {
+				subTree = new RDFResourceTree(nodeId++, object.asNode());
+				tree.addChild(subTree, predicate);
+			} else if (object.isURIResource()) {
+				subTree = new RDFResourceTree(nodeId++, object.asNode());
+				tree.addChild(subTree, predicate);
+				if (currentDepth < maxDepth) {
+					nodeId = fillTree(object.asResource(), subTree, index, currentDepth, maxDepth, nodeId);
+				}
+			} else if (object.isAnon()) {
+				subTree = new RDFResourceTree(nodeId++);
+				tree.addChild(subTree, predicate);
+				if (currentDepth < maxDepth) {
+					nodeId = fillTree(object.asResource(), subTree, index, currentDepth, maxDepth, nodeId);
+				}
 			}
-//			it = it.filterKeep(keepFilter);
 		}
+		return nodeId;
+	}
 
-		SortedSet<Statement> statements = resource2Statements.computeIfAbsent(s, k -> new TreeSet<>(comparator));
+	/**
+	 * The sorted and filtered outgoing statements of the resources of a model. The statements of a resource
+	 * are looked up on demand, i.e. only for the resources reached while building the trees, and can be
+	 * used concurrently by several trees.
+	 */
+	private class StatementIndex {
 
-		while (it.hasNext()) {
-			Statement st = it.next();
-			statements.add(st);
-			if ((st.getObject().isResource()) && !resource2Statements.containsKey(st.getObject().asResource())) {
-				fillMap(st.getObject().asResource(), model, resource2Statements);
-			}
+		private final Model model;
+		private final Map<Resource, SortedSet<Statement>> resource2Statements = new ConcurrentHashMap<>();
+
+		StatementIndex(Model model) {
+			this.model = model;
 		}
-	}
 
-	private void fillTree(Resource root, RDFResourceTree tree, Map<Resource, SortedSet<Statement>> resource2Statements,
-			int currentDepth, int maxDepth) {
-		currentDepth++;
-		if (resource2Statements.containsKey(root)) {
-			RDFResourceTree subTree;
-
-			for (Statement st : resource2Statements.get(root)) {
-				Node predicate = st.getPredicate().asNode();
-				RDFNode object = st.getObject();
-
-				if (object.isLiteral()) {
-					subTree = new RDFResourceTree(nodeId++, object.asNode());
-					tree.addChild(subTree, predicate);
-				} else if (object.isURIResource()) {
-					subTree = new RDFResourceTree(nodeId++, object.asNode());
-					tree.addChild(subTree, predicate);
-//					System.out.println(root + "::" + object + "::" + (currentDepth < maxDepth));
-					if (currentDepth < maxDepth) {
-						fillTree(object.asResource(), subTree, resource2Statements, currentDepth, maxDepth);
-					}
-				} else if (object.isAnon()) {
-					subTree = new RDFResourceTree(nodeId++);
-					tree.addChild(subTree, predicate);
-					if (currentDepth < maxDepth) {
-						fillTree(object.asResource(), subTree, resource2Statements, currentDepth, maxDepth);
-					}
-				}
+		SortedSet<Statement> getStatements(Resource s) {
+			return resource2Statements.computeIfAbsent(s, this::loadStatements);
+		}
+
+		private SortedSet<Statement> loadStatements(Resource s) {
+			// get all statements with subject s
+			ExtendedIterator<Statement> it = model.listStatements(s, null, (RDFNode) null);
+
+			// filter statement if necessary
+			for (Predicate<Statement> dropFilter : dropFilters) {
+				it = it.filterKeep(dropFilter);
 			}
+
+			SortedSet<Statement> statements = new TreeSet<>(comparator);
+			it.forEachRemaining(statements::add);
+			return Collections.unmodifiableSortedSet(statements);
 		}
-		currentDepth--;
 	}
 
 	static class StatementComparator implements Comparator<Statement> {
@@ -19,6 +19,7 @@
 package org.dllearner.algorithms.qtl.impl;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import com.google.common.collect.Sets;
@@ -46,13 +47,14 @@ import org.dllearner.kb.sparql.SymmetricConciseBoundedDescriptionGeneratorImpl;
 
 /**
  * A factory for query trees that also considers incoming triples.
+ * <p>
+ * The factory is thread-safe once the drop filters have been added, i.e. several trees can be built concurrently.
  *
  * @author Lorenz Bühmann
  *
  */
 public class QueryTreeFactoryBaseInv implements QueryTreeFactory {
 
-	private int nodeId;
 	private final Comparator<Statement> comparator = new StatementComparator();
 
 	private int maxDepth = 3;
@@ -90,7 +92,8 @@ public class QueryTreeFactoryBaseInv implements QueryTreeFactory {
 	}
 
 	private RDFResourceTree createTree(Resource resource, Model model, int maxDepth) {
-		nodeId = 0;
+		// the node IDs are generated per tree
+		AtomicInteger nodeIds = new AtomicInteger();
 
 		// create mapping from resources to statements, both in subject an object position
 		Map<Resource, SortedSet<Statement>> resource2InStatements = new HashMap<>();
@@ -101,7 +104,7 @@ public class QueryTreeFactoryBaseInv implements QueryTreeFactory {
 		RDFResourceTree tree = new RDFResourceTree(resource.asNode());
 
 		// fill the tree
-		fillTree(resource, null, tree, resource2InStatements, resource2OutStatements, 0, maxDepth);
+		fillTree(resource, null, tree, resource2InStatements, resource2OutStatements, 0, maxDepth, nodeIds);
 
 		return tree;
 	}
@@ -135,14 +138,10 @@ public class QueryTreeFactoryBaseInv implements QueryTreeFactory {
 		}
 	}
 
-	private int nextNodeId() {
-		return nodeId++;
-	}
-
 	private void fillTree(Resource root, Statement statementFromParent, RDFResourceTree tree,
 						  Map<Resource, SortedSet<Statement>> resource2InStatements,
 						  Map<Resource, SortedSet<Statement>> resource2OutStatements,
-						  int currentDepth, int maxDepth) {
+						  int currentDepth, int maxDepth, AtomicInteger nodeIds) {
 		if(resource2InStatements.containsKey(root)) {
 			resource2InStatements.get(root).stream().filter(st -> !st.equals(statementFromParent)).forEach(st -> {
 
@@ -157,12 +156,12 @@ public class QueryTreeFactoryBaseInv implements QueryTreeFactory {
 				RDFNode data = st.getSubject();
 
 				// create the subtree
-				RDFResourceTree subTree = new RDFResourceTree(nextNodeId(), data.asNode());
+				RDFResourceTree subTree = new RDFResourceTree(nodeIds.getAndIncrement(), data.asNode());
 				tree.addChild(subTree, predicate);
 
 				// if current depth is < max depth recursive call
 				if (currentDepth + 1 < maxDepth) {
-					fillTree(data.asResource(), st, subTree, resource2InStatements, resource2OutStatements, currentDepth + 1, maxDepth);
+					fillTree(data.asResource(), st, subTree, resource2InStatements, resource2OutStatements, currentDepth + 1, maxDepth, nodeIds);
 				}
 			});
 		}
@@ -173,12 +172,12 @@ public class QueryTreeFactoryBaseInv implements QueryTreeFactory {
 				RDFNode data = st.getObject();
 
 				// create the subtree
-				RDFResourceTree subTree = new RDFResourceTree(nextNodeId(), data.asNode());
+				RDFResourceTree subTree = new RDFResourceTree(nodeIds.getAndIncrement(), data.asNode());
 				tree.addChild(subTree, predicate);
 
 				// if root of subtree is not a literal and current depth is < max depth recursive call
 				if (!data.isLiteral() && (currentDepth + 1  < maxDepth)) {
-					fillTree(data.asResource(), st, subTree, resource2InStatements, resource2OutStatements, currentDepth + 1, maxDepth);
+					fillTree(data.asResource(), st, subTree, resource2InStatements, resource2OutStatements, currentDepth + 1, maxDepth, nodeIds);
 				}
 			});
 		}
@@ -23,6 +23,8 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.function.Predicate;
 
 /**
@@ -73,6 +75,11 @@ public class QueryTreeFactoryCache implements QueryTreeFactory {
 	public RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth) {
 		return delegatee.getQueryTree(resource, model, maxDepth);
 	}
+
+	@Override
+	public Map<Resource, RDFResourceTree> getQueryTrees(Collection<? extends Resource> resources, Model model, int maxDepth) {
+		return delegatee.getQueryTrees(resources, model, maxDepth);
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.dllearner.algorithms.qtl.impl.QueryTreeFactory#addDropFilters(org.apache.jena.util.iterator.Filter)
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.operations.lgg;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.graph.Node;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.NodeDictionary;
+import org.dllearner.algorithms.qtl.operations.StoppableOperation;
+import org.dllearner.algorithms.qtl.operations.TimeoutableOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An LGG generator that works directly on {@link CompactRDFResourceTree}s. It computes the same syntax and structure
+ * based LGG as {@link LGGGeneratorSimple}, anchor vars are not taken into account.
+ */
+public class LGGGeneratorCompact implements StoppableOperation, TimeoutableOperation {
+
+	private static final Logger logger = LoggerFactory.getLogger(LGGGeneratorCompact.class);
+
+	private long timeoutMillis = -1;
+	private long startTime;
+
+	private volatile boolean stop = false;
+
+	private boolean complete = true;
+
+	/**
+	 * Returns the Least General Generalization of two compact trees.
+	 *
+	 * @param tree1 the first tree
+	 * @param tree2 the second tree
+	 * @return the Least General Generalization
+	 * @throws IllegalArgumentException if the trees are based on different dictionaries
+	 */
+	public CompactRDFResourceTree getLGG(CompactRDFResourceTree tree1, CompactRDFResourceTree tree2) {
+		if (tree1.getDictionary() != tree2.getDictionary()) {
+			throw new IllegalArgumentException("Compact trees must be based on the same node dictionary.");
+		}
+		startTime = System.currentTimeMillis();
+		stop = false;
+		complete = true;
+
+		return computeLGG(tree1, 0, tree2, 0);
+	}
+
+	/**
+	 * Returns the Least General Generalization of a list of compact trees.
+	 *
+	 * @param trees the trees
+	 * @return the Least General Generalization
+	 */
+	public CompactRDFResourceTree getLGG(List<CompactRDFResourceTree> trees) {
+		if (trees.isEmpty()) {
+			throw new RuntimeException("LGG computation for empty set of trees.");
+		}
+		Iterator<CompactRDFResourceTree> it = trees.iterator();
+		CompactRDFResourceTree lgg = it.next();
+		while (it.hasNext() && !stop && !isTimeout()) {
+			lgg = getLGG(lgg, it.next());
+		}
+		return lgg;
+	}
+
+	private CompactRDFResourceTree computeLGG(CompactRDFResourceTree tree1, int node1,
+											  CompactRDFResourceTree tree2, int node2) {
+		NodeDictionary dictionary = tree1.getDictionary();
+		Node data1 = tree1.getLabel(node1);
+		Node data2 = tree2.getLabel(node2);
+
+		if ((data1.isURI() || tree1.isLiteralValueNode(node1)) && tree1.getLabelId(node1) == tree2.getLabelId(node2)) {
+			logger.trace("Early termination. Tree 1 {}  and tree 2 {} describe the same resource.", data1, data2);
+			return tree1.subTree(node1);
+		}
+
+		if (data1.isLiteral() && data2.isLiteral()) {
+			RDFDatatype d1 = data1.getLiteralDatatype();
+			RDFDatatype d2 = data2.getLiteralDatatype();
+			int datatype = d1 != null && d1.equals(d2) ? dictionary.getId(d1) : -1;
+			return CompactRDFResourceTree.create(dictionary, NodeDictionary.LITERAL_NODE_ID, datatype,
+												 new int[0], Collections.emptyList());
+		}
+
+		int label = NodeDictionary.VAR_NODE_ID;
+		boolean isClassNode = tree1.getEdgeId(node1) == NodeDictionary.RDF_TYPE_ID;
+		if (!isClassNode && data1.isBlank() && data1.matches(data2)) {
+			label = tree1.getLabelId(node1);
+		}
+
+		List<Integer> childEdges = new ArrayList<>();
+		List<CompactRDFResourceTree> children = new ArrayList<>();
+
+		// the children are grouped by edge, thus, the edges are processed in the order of the first tree
+		int end1 = tree1.getChildrenEnd(node1);
+		for (int start1 = tree1.getFirstChild(node1); start1 < end1; ) {
+			int edge = tree1.getEdgeId(start1);
+			int next1 = start1;
+			while (next1 < end1 && tree1.getEdgeId(next1) == edge) {
+				next1++;
+			}
+
+			List<CompactRDFResourceTree> addedChildren = new ArrayList<>();
+			for (int child1 = start1; child1 < next1; child1++) {
+				for (int child2 = tree2.getFirstChild(node2); child2 < tree2.getChildrenEnd(node2); child2++) {
+					if (stop || isTimeout()) {
+						complete = false;
+						break;
+					}
+					if (tree2.getEdgeId(child2) != edge) {
+						continue;
+					}
+					CompactRDFResourceTree lggChild = computeLGG(tree1, child1, tree2, child2);
+
+					boolean add = true;
+					for (Iterator<CompactRDFResourceTree> it = addedChildren.iterator(); it.hasNext(); ) {
+						CompactRDFResourceTree addedChild = it.next();
+						if (addedChild.isSubsumedBy(lggChild)) {
+							add = false;
+							break;
+						} else if (lggChild.isSubsumedBy(addedChild)) {
+							it.remove();
+						}
+					}
+					if (add) {
+						addedChildren.add(lggChild);
+					}
+				}
+			}
+			for (CompactRDFResourceTree child : addedChildren) {
+				childEdges.add(edge);
+				children.add(child);
+			}
+			start1 = next1;
+		}
+
+		return CompactRDFResourceTree.create(dictionary, label, -1,
+											 childEdges.stream().mapToInt(Integer::intValue).toArray(), children);
+	}
+
+	@Override
+	public void setTimeout(long timeout, TimeUnit timeoutUnits) {
+		this.timeoutMillis = timeoutUnits.toMillis(timeout);
+	}
+
+	@Override
+	public void stop() {
+		stop = true;
+	}
+
+	private boolean isTimeout() {
+		return timeoutMillis > 0 && System.currentTimeMillis() - startTime >= timeoutMillis;
+	}
+
+	/**
+	 * @return whether the last LGG computation has been finished completely, i.e. it was neither stopped
+	 * nor timed out
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+}
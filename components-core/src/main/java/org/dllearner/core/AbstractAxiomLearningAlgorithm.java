@@ -42,6 +42,7 @@ import org.dllearner.core.owl.ClassHierarchy;
 import org.dllearner.kb.LocalModelBasedSparqlEndpointKS;
 import org.dllearner.kb.SparqlEndpointKS;
 import org.dllearner.kb.sparql.SPARQLTasks;
+import org.dllearner.kb.sparql.SampleModelStore;
 import org.dllearner.learningproblems.AxiomScore;
 import org.dllearner.learningproblems.Heuristics;
 import org.dllearner.reasoning.SPARQLReasoner;
@@ -136,6 +137,9 @@ public abstract class AbstractAxiomLearningAlgorithm<T extends OWLAxiom, S exten
 	@Unused
 	protected boolean useSampling = true;
 	protected int popularity;
+
+	@NoConfigOption
+	protected SampleModelStore sampleModelStore;
 	
 	public AbstractAxiomLearningAlgorithm() {
 		existingAxioms = new TreeSet<>();
@@ -180,6 +184,19 @@ public abstract class AbstractAxiomLearningAlgorithm<T extends OWLAxiom, S exten
 	public boolean isUseSampling() {
 		return useSampling;
 	}
+
+	/**
+	 * Set the store in which the generated samples are kept, such that other axiom learning algorithms of the same
+	 * run using the same sample query for the same entity can reuse them. By default, no store is used.
+	 * @param sampleModelStore the sample store, or {@code null} to always generate a new sample
+	 */
+	public void setSampleModelStore(SampleModelStore sampleModelStore) {
+		this.sampleModelStore = sampleModelStore;
+	}
+
+	public SampleModelStore getSampleModelStore() {
+		return sampleModelStore;
+	}
     
     /**
 	 * @return the axiomType
@@ -318,19 +335,32 @@ public abstract class AbstractAxiomLearningAlgorithm<T extends OWLAxiom, S exten
 	
 	private void generateSample(){
 		logger.info("Generating sample...");
-		sample = ModelFactory.createDefaultModel();
+		
+		ParameterizedSparqlString sampleQueryTemplate = getSampleQuery();
+		sampleQueryTemplate.setIri("p", entityToDescribe.toStringID());
+		Query query = sampleQueryTemplate.asQuery();
+		
+		// reuse the sample of another algorithm with the same sample query if possible
+		if(sampleModelStore != null) {
+			sample = sampleModelStore.getSample(ks, query, model -> fillSample(model, query));
+		} else {
+			sample = ModelFactory.createDefaultModel();
+			fillSample(sample, query);
+		}
 		
 		// we have to set up a new query execution factory working on our local model
 		qef = new QueryExecutionFactoryModel(sample);
 		reasoner = new SPARQLReasoner(qef);
 		
+		logger.info("...done. Sample size: " + sample.size() + " triples");
+	}
+	
+	private void fillSample(Model sample, Query sampleQuery){
 		// get the page size
 		//TODO put to base class
 		long pageSize = 10000;//PaginationUtils.adjustPageSize(globalQef, 10000);
 		
-		ParameterizedSparqlString sampleQueryTemplate = getSampleQuery();
-		sampleQueryTemplate.setIri("p", entityToDescribe.toStringID());
-		Query query = sampleQueryTemplate.asQuery();
+		Query query = sampleQuery.cloneQuery();
 		query.setLimit(pageSize);
 		
 		boolean isEmpty = false;
@@ -346,7 +376,6 @@ public abstract class AbstractAxiomLearningAlgorithm<T extends OWLAxiom, S exten
 			// if last call returned empty model, we can leave loop
 			isEmpty = tmp.isEmpty();
 		}
-		logger.info("...done. Sample size: " + sample.size() + " triples");
 	}
 	
 	/**
@@ -48,6 +48,7 @@ import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -99,6 +100,14 @@ public abstract class AbstractCELA extends AbstractComponent implements ClassExp
 	@ConfigOption(defaultValue = "10", description = "maximum execution of the algorithm in seconds")
 	protected long maxExecutionTimeInSeconds = 10;
 
+	@ConfigOption(defaultValue = "1000", description = "minimum time in ms between two progress notifications of " +
+			"the registered progress listeners (new best class expressions are always notified immediately)")
+	protected long progressNotificationIntervalInMillis = 1000;
+
+	private final List<LearningProgressListener> progressListeners = new CopyOnWriteArrayList<>();
+	private long lastProgressNotificationNanos;
+	private double lastNotifiedBestAccuracy;
+
 	/**
 	 * The learning problem variable, which must be used by
 	 * all learning algorithm implementations.
@@ -170,6 +179,93 @@ public abstract class AbstractCELA extends AbstractComponent implements ClassExp
 	public void changeReasonerComponent(AbstractReasonerComponent reasoningService) {
 		this.reasoner = reasoningService;
 	}
+
+	/**
+	 * Registers a listener that is notified about the progress of the algorithm, i.e. about new best
+	 * class expressions and periodically about the number of tested class expressions etc.
+	 * @param listener the listener
+	 */
+	public void addProgressListener(LearningProgressListener listener) {
+		progressListeners.add(listener);
+	}
+
+	/**
+	 * @param listener the listener to remove
+	 */
+	public void removeProgressListener(LearningProgressListener listener) {
+		progressListeners.remove(listener);
+	}
+
+	/**
+	 * Has to be called by implementations when the algorithm has been started.
+	 */
+	protected void fireLearningStarted() {
+		lastProgressNotificationNanos = System.nanoTime();
+		lastNotifiedBestAccuracy = Double.NEGATIVE_INFINITY;
+		for (LearningProgressListener listener : progressListeners) {
+			listener.learningStarted();
+		}
+	}
+
+	/**
+	 * Has to be called by implementations when the algorithm has been stopped.
+	 * @param expressionTests the number of tested class expressions
+	 * @param searchTreeSize the size of the search tree, or -1 if there is no search tree
+	 */
+	protected void fireLearningStopped(int expressionTests, int searchTreeSize) {
+		if (progressListeners.isEmpty()) {
+			return;
+		}
+		LearningProgress progress = createLearningProgress(expressionTests, searchTreeSize);
+		for (LearningProgressListener listener : progressListeners) {
+			listener.learningStopped(progress);
+		}
+	}
+
+	/**
+	 * Notifies the registered listeners about a new best class expression, if any has been found since the
+	 * last call, and about the current progress, if the last notification is older than
+	 * {@link #progressNotificationIntervalInMillis}. Should be called regularly by implementations while
+	 * the algorithm is running.
+	 * @param expressionTests the number of tested class expressions
+	 * @param searchTreeSize the size of the search tree, or -1 if there is no search tree
+	 */
+	protected void fireLearningProgress(int expressionTests, int searchTreeSize) {
+		if (progressListeners.isEmpty()) {
+			return;
+		}
+		EvaluatedDescription<? extends Score> newBest = null;
+		boolean progressDue;
+		synchronized (this) {
+			long now = System.nanoTime();
+			double bestAccuracy = bestEvaluatedDescriptions.getBestAccuracy();
+			if (bestAccuracy > lastNotifiedBestAccuracy) {
+				lastNotifiedBestAccuracy = bestAccuracy;
+				newBest = bestEvaluatedDescriptions.getBest();
+			}
+			progressDue = now - lastProgressNotificationNanos >= TimeUnit.MILLISECONDS.toNanos(progressNotificationIntervalInMillis);
+			if (progressDue) {
+				lastProgressNotificationNanos = now;
+			}
+		}
+		if (newBest == null && !progressDue) {
+			return;
+		}
+		LearningProgress progress = createLearningProgress(expressionTests, searchTreeSize);
+		for (LearningProgressListener listener : progressListeners) {
+			if (newBest != null) {
+				listener.newBestDescriptionFound(newBest, progress);
+			}
+			if (progressDue) {
+				listener.learningProgressChanged(progress);
+			}
+		}
+	}
+
+	private LearningProgress createLearningProgress(int expressionTests, int searchTreeSize) {
+		double bestAccuracy = bestEvaluatedDescriptions.getSet().isEmpty() ? 0 : bestEvaluatedDescriptions.getBestAccuracy();
+		return new LearningProgress(getCurrentRuntimeInMilliSeconds(), expressionTests, searchTreeSize, bestAccuracy, reasoner);
+	}
 	
 	/**
 	 * This is the maximum number of results, which the learning
@@ -634,6 +730,14 @@ public abstract class AbstractCELA extends AbstractComponent implements ClassExp
 		this.maxExecutionTimeInSeconds = maxExecutionTimeInSeconds;
 	}
 
+	public long getProgressNotificationIntervalInMillis() {
+		return progressNotificationIntervalInMillis;
+	}
+
+	public void setProgressNotificationIntervalInMillis(long progressNotificationIntervalInMillis) {
+		this.progressNotificationIntervalInMillis = progressNotificationIntervalInMillis;
+	}
+
 	/**
 	 * Set the max. execution time of the algorithm. It's expected that the
 	 * algorithm will terminate gracefully.
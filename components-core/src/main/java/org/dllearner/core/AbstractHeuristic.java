@@ -21,6 +21,10 @@ package org.dllearner.core;
 import com.google.common.collect.ComparisonChain;
 import org.dllearner.algorithms.celoe.OENode;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Search algorithm heuristic for the ontology engineering algorithm. The heuristic
  * has a strong bias towards short descriptions (i.e. the algorithm is likely to be
@@ -31,6 +35,20 @@ import org.dllearner.algorithms.celoe.OENode;
  */
 public abstract class AbstractHeuristic extends AbstractComponent implements Heuristic<OENode>{
 	
+	/**
+	 * The mutable properties of a node a heuristic score can depend on. Besides those, the score
+	 * may only depend on immutable properties of the node and its ancestors, e.g. the accuracy
+	 * or the description.
+	 */
+	public enum NodeScoreInput {
+		HORIZONTAL_EXPANSION, REFINEMENT_COUNT
+	}
+	
+	private static final Set<NodeScoreInput> ALL_INPUTS = Collections.unmodifiableSet(EnumSet.allOf(NodeScoreInput.class));
+	
+	// incremented whenever the scores computed so far become invalid
+	private volatile int nodeScoresVersion = 0;
+	
 	public AbstractHeuristic() {}
 	
 	@Override
@@ -42,11 +60,46 @@ public abstract class AbstractHeuristic extends AbstractComponent implements Heu
 	@Override
 	public int compare(OENode node1, OENode node2) {
 		return ComparisonChain.start()
-				.compare(getNodeScore(node1), getNodeScore(node2))
+				.compare(getCachedNodeScore(node1), getCachedNodeScore(node2))
 				.compare(node1.getDescription(), node2.getDescription())
 				.result();
 	}
 
 	public abstract double getNodeScore(OENode node);
+	
+	/**
+	 * Returns the score of the node. The score is computed only if the node has not been scored by
+	 * this heuristic before or if one of the inputs declared in {@link #getNodeScoreInputs()} has
+	 * changed since then, otherwise the score cached in the node is returned.
+	 *
+	 * @param node the node
+	 * @return the score of the node
+	 */
+	public double getCachedNodeScore(OENode node) {
+		int version = nodeScoresVersion;
+		double score = node.getCachedScore(this, version);
+		if (Double.isNaN(score)) {
+			score = getNodeScore(node);
+			node.setCachedScore(this, version, score);
+		}
+		return score;
+	}
+	
+	/**
+	 * @return the mutable properties of a node the score depends on, i.e. the cached score of a
+	 * node is recomputed whenever one of them changes
+	 */
+	public Set<NodeScoreInput> getNodeScoreInputs() {
+		return ALL_INPUTS;
+	}
+	
+	/**
+	 * Invalidates the cached scores of all nodes. This has to be called when the scoring itself
+	 * changes, e.g. because of a parameter change. Note that nodes contained in a sorted set
+	 * have to be re-inserted afterwards.
+	 */
+	protected void invalidateNodeScores() {
+		nodeScoresVersion++;
+	}
 
 }
@@ -81,6 +81,14 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	private static final NumberFormat numberFormat = NumberFormat.getInstance(Locale.ROOT);
 	@ConfigOption(description = "whether to use single instance checks", defaultValue = "false")
 	protected boolean useInstanceChecks = false;
+	@ConfigOption(description = "whether to choose between retrieval and instance checks for each class expression based on " +
+			"the estimated costs when computing the covered examples (overrides useInstanceChecks)", defaultValue = "false")
+	protected boolean useCostBasedCoverage = false;
+	@ConfigOption(description = "the max. number of cached results of TBox queries (subsumption, equivalence, disjointness, " +
+			"super and sub classes) which can not be answered by the precomputed hierarchies, 0 disables the cache; " +
+			"the cache is cleared when the knowledge base is (re-)initialized or released", defaultValue = "10000")
+	protected int tboxCacheSize = 10000;
+	private volatile TBoxReasoningCache tboxCache;
 
 	// statistical data for particular reasoning operations
 	private long instanceCheckReasoningTimeNs = 0;
@@ -188,6 +196,47 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	 */
 	public void changeSources(Set<KnowledgeSource> sources) {
 		this.sources = sources;
+		invalidateTBoxCache();
+	}
+
+	/**
+	 * @return the cache for the results of TBox queries, or <code>null</code> if caching is disabled
+	 */
+	public TBoxReasoningCache getTBoxCache() {
+		if (tboxCache == null && tboxCacheSize > 0) {
+			synchronized (this) {
+				if (tboxCache == null) {
+					tboxCache = new TBoxReasoningCache(tboxCacheSize);
+				}
+			}
+		}
+		return tboxCache;
+	}
+
+	/**
+	 * Drops all cached results of TBox queries. Implementations have to call this whenever the knowledge base
+	 * is (re-)loaded or released.
+	 */
+	protected void invalidateTBoxCache() {
+		if (tboxCache != null) {
+			tboxCache.invalidate();
+		}
+	}
+
+	/*
+	 * Returns the result of the loader, cached if the TBox cache is enabled.
+	 */
+	private <T> T getCached(TBoxReasoningCache.Query query, TBoxReasoningCache.Loader<T> loader, Object... arguments)
+			throws ReasoningMethodUnsupportedException {
+		TBoxReasoningCache cache = getTBoxCache();
+		return cache == null ? loader.load() : cache.get(query, loader, arguments);
+	}
+
+	/*
+	 * The arguments of symmetric queries in a canonical order.
+	 */
+	private static Object[] symmetric(OWLClassExpression ce1, OWLClassExpression ce2) {
+		return ce1.compareTo(ce2) <= 0 ? new Object[]{ce1, ce2} : new Object[]{ce2, ce1};
 	}
 
 	/**
@@ -225,7 +274,8 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	 */
 	@NoConfigOption
 	public void setUpdated() {
-		// TODO currently, nothing is done to behave correctly after updates
+		// TODO currently, only the TBox cache is invalidated
+		invalidateTBoxCache();
 	}
 
 	/**
@@ -269,7 +319,8 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		if(precomputeClassHierarchy) {
 			if(superClass.isAnonymous() || subClass.isAnonymous()) {
 				try {
-					result = isSuperClassOfImpl(superClass, subClass);
+					result = getCached(TBoxReasoningCache.Query.IS_SUPER_CLASS_OF,
+							() -> isSuperClassOfImpl(superClass, subClass), superClass, subClass);
 				} catch (ReasoningMethodUnsupportedException e) {
 					e.printStackTrace();
 				}
@@ -278,7 +329,8 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			}
 		} else {
 			try {
-				result = isSuperClassOfImpl(superClass, subClass);
+				result = getCached(TBoxReasoningCache.Query.IS_SUPER_CLASS_OF,
+						() -> isSuperClassOfImpl(superClass, subClass), superClass, subClass);
 			} catch (ReasoningMethodUnsupportedException e) {
 				e.printStackTrace();
 			}
@@ -303,7 +355,8 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		reasoningStartTimeTmp = System.nanoTime();
 		boolean result = false;
 		try {
-			result = isEquivalentClassImpl(class1, class2);
+			result = getCached(TBoxReasoningCache.Query.IS_EQUIVALENT_CLASS,
+					() -> isEquivalentClassImpl(class1, class2), symmetric(class1, class2));
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
@@ -326,7 +379,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		reasoningStartTimeTmp = System.nanoTime();
 		boolean result = false;
 		try {
-			result = isDisjointImpl(class1, class2);
+			result = isDisjointnessTBoxBased()
+					? getCached(TBoxReasoningCache.Query.IS_DISJOINT, () -> isDisjointImpl(class1, class2), symmetric(class1, class2))
+					: isDisjointImpl(class1, class2);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
@@ -344,6 +399,14 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			throws ReasoningMethodUnsupportedException {
 		throw new ReasoningMethodUnsupportedException();
 	}
+
+	/**
+	 * @return whether disjointness of classes is a TBox query, i.e. does not depend on the instance data, only
+	 * then the results are put into the TBox cache
+	 */
+	protected boolean isDisjointnessTBoxBased() {
+		return true;
+	}
 	
 	@Override
 	public Set<OWLClassExpression> getAssertedDefinitions(OWLClass namedClass) {
@@ -1090,7 +1153,10 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			return getClassHierarchy().getSuperClasses(concept, true);
 		} else {
 			try {
-				return getSuperClassesImpl(concept);
+				SortedSet<OWLClassExpression> superClasses = getCached(TBoxReasoningCache.Query.GET_SUPER_CLASSES,
+						() -> getSuperClassesImpl(concept), concept);
+				// callers might modify the result
+				return superClasses == null ? null : new TreeSet<>(superClasses);
 			} catch (ReasoningMethodUnsupportedException e) {
 				e.printStackTrace();
 			}
@@ -1108,7 +1174,10 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			return getClassHierarchy().getSubClasses(concept, true);
 		} else {
 			try {
-				return getSubClassesImpl(concept);
+				SortedSet<OWLClassExpression> subClasses = getCached(TBoxReasoningCache.Query.GET_SUB_CLASSES,
+						() -> getSubClassesImpl(concept), concept);
+				// callers might modify the result
+				return subClasses == null ? null : new TreeSet<>(subClasses);
 			} catch (ReasoningMethodUnsupportedException e) {
 				e.printStackTrace();
 			}
@@ -1598,6 +1667,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		}
 		str += "overall reasoning time: "
 				+ Helper.prettyPrintNanoSeconds(overallReasoningTimeNs) + "\n";	
+		if (tboxCache != null) {
+			str += tboxCache.toString();
+		}
 		return str;
 	}
 	
@@ -1626,6 +1698,43 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		throw new ReasoningMethodUnsupportedException();
 	}
 	
+	@Override
+	public double[] hasTypeFuzzyMembership(OWLClassExpression description, List<FuzzyIndividual> individuals) {
+		reasoningStartTimeTmp = System.nanoTime();
+		double[] result = null;
+		try {
+			result = hasTypeFuzzyMembershipImpl(description, individuals);
+		} catch (ReasoningMethodUnsupportedException e) {
+			handleExceptions(e);
+			result = new double[individuals.size()];
+			Arrays.fill(result, -1);
+		}
+		nrOfInstanceChecks += individuals.size();
+		nrOfMultiInstanceChecks++;
+		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
+		instanceCheckReasoningTimeNs += reasoningDurationTmp;
+		overallReasoningTimeNs += reasoningDurationTmp;
+		return result;
+	}
+	
+	/**
+	 * Computes the fuzzy membership degrees of a list of individuals. The default implementation
+	 * performs a fuzzy instance check for each individual, reasoners which can evaluate a class
+	 * expression for many individuals at once should override it.
+	 * @param concept the class expression
+	 * @param individuals the individuals
+	 * @return the membership degrees, the i-th degree belongs to the i-th individual
+	 * @throws ReasoningMethodUnsupportedException if fuzzy reasoning is not supported
+	 */
+	protected double[] hasTypeFuzzyMembershipImpl(OWLClassExpression concept, List<FuzzyIndividual> individuals)
+	throws ReasoningMethodUnsupportedException {
+		double[] memberships = new double[individuals.size()];
+		for (int i = 0; i < memberships.length; i++) {
+			memberships[i] = hasTypeFuzzyMembershipImpl(concept, individuals.get(i));
+		}
+		return memberships;
+	}
+	
 	/**
 	 * Returns the datatype of the data property, i.e. the range if it is a datatype.
 	 * @param dp the data property
@@ -1646,4 +1755,20 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	public void setUseInstanceChecks(boolean useInstanceChecks) {
 		this.useInstanceChecks = useInstanceChecks;
 	}
+
+	public boolean isUseCostBasedCoverage() {
+		return useCostBasedCoverage;
+	}
+
+	public void setUseCostBasedCoverage(boolean useCostBasedCoverage) {
+		this.useCostBasedCoverage = useCostBasedCoverage;
+	}
+
+	public int getTboxCacheSize() {
+		return tboxCacheSize;
+	}
+
+	public void setTboxCacheSize(int tboxCacheSize) {
+		this.tboxCacheSize = tboxCacheSize;
+	}
 }
\ No newline at end of file
@@ -26,6 +26,11 @@ import org.dllearner.core.config.ConfigOption;
 import org.dllearner.accuracymethods.AccMethod;
 import org.dllearner.refinementoperators.RefinementOperator;
 import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +38,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.net.URL;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -122,29 +128,39 @@ public class AnnComponentManager {
 	private static AnnComponentManager cm = null;
 	private static Reflections reflectionScanner = null;
 
+	/**
+	 * System property to enforce scanning the classpath for components instead of using the component index
+	 * generated at build time. Otherwise, only the directories and jars on the classpath that do not provide an
+	 * index, e.g. modules that have not been compiled with the {@link ComponentIndexProcessor}, are scanned.
+	 */
+	public static final String SCAN_PROPERTY = "dllearner.components.scan";
+
 	private AnnComponentManager() {
 		if (componentClassNames == null) {
-			componentClassNames = new ArrayList<>();
-			if (reflectionScanner == null) {
-				org.apache.log4j.Logger.getLogger(Reflections.class).setLevel(Level.OFF);
-				reflectionScanner = new Reflections("org.dllearner");
-			}
-			Set<Class<? extends Component>> componentClasses = reflectionScanner.getSubTypesOf(Component.class);
-			Set<Class<?>> componentAnnClasses = reflectionScanner.getTypesAnnotatedWith(ComponentAnn.class, true);
-			for (Class<?> clazz
-					: Sets.intersection(
-							componentClasses,
-							componentAnnClasses
-					)
-				) {
-				if (!Modifier.isAbstract( clazz.getModifiers() ))
-					componentClassNames.add(clazz.getCanonicalName());
-			}
-			for (Class<?> clazz
-					: Sets.difference(componentClasses, componentAnnClasses)
-					) {
-				if (!Modifier.isAbstract( clazz.getModifiers() ))
-					logger.debug("Warning: " + clazz.getCanonicalName() + " implements Component but is not annotated, ignored");
+			// use the component index generated at build time unless scanning is enforced
+			ComponentIndex index = reflectionScanner == null && !Boolean.getBoolean(SCAN_PROPERTY)
+					? ComponentIndex.load()
+					: null;
+			if (index != null) {
+				logger.debug("Loaded {} components from the component index.", index.size());
+				componentClassNames = index.getEntries().stream()
+						.map(ComponentIndex.Entry::getClassName)
+						.collect(Collectors.toCollection(ArrayList::new));
+
+				// the components of the classpath roots without an index
+				List<URL> unindexedRoots = ClasspathHelper.forPackage("org.dllearner").stream()
+						.filter(url -> !index.covers(url))
+						.collect(Collectors.toList());
+				if (!unindexedRoots.isEmpty()) {
+					logger.debug("Scanning {} for components not contained in the component index.", unindexedRoots);
+					for (String className : scanComponentClassNames(unindexedRoots)) {
+						if (!componentClassNames.contains(className)) {
+							componentClassNames.add(className);
+						}
+					}
+				}
+			} else {
+				componentClassNames = scanComponentClassNames();
 			}
 		}
 		// conversion of class strings to objects
@@ -165,6 +181,54 @@ public class AnnComponentManager {
 		}
 	}
 
+	/*
+	 * Scans the classpath for all non-abstract components annotated with ComponentAnn.
+	 */
+	private static List<String> scanComponentClassNames() {
+		List<String> classNames = new ArrayList<>();
+		if (reflectionScanner == null) {
+			org.apache.log4j.Logger.getLogger(Reflections.class).setLevel(Level.OFF);
+			reflectionScanner = new Reflections("org.dllearner");
+		}
+		Set<Class<? extends Component>> componentClasses = reflectionScanner.getSubTypesOf(Component.class);
+		Set<Class<?>> componentAnnClasses = reflectionScanner.getTypesAnnotatedWith(ComponentAnn.class, true);
+		for (Class<?> clazz
+				: Sets.intersection(
+						componentClasses,
+						componentAnnClasses
+				)
+			) {
+			if (!Modifier.isAbstract( clazz.getModifiers() ))
+				classNames.add(clazz.getCanonicalName());
+		}
+		for (Class<?> clazz
+				: Sets.difference(componentClasses, componentAnnClasses)
+				) {
+			if (!Modifier.isAbstract( clazz.getModifiers() ))
+				logger.debug("Warning: " + clazz.getCanonicalName() + " implements Component but is not annotated, ignored");
+		}
+		return classNames;
+	}
+
+	/*
+	 * Scans the given classpath roots for all non-abstract components annotated with ComponentAnn. The components
+	 * are determined by loading the annotated classes, as their super types may be located in other roots.
+	 */
+	private static List<String> scanComponentClassNames(Collection<URL> classpathRoots) {
+		org.apache.log4j.Logger.getLogger(Reflections.class).setLevel(Level.OFF);
+		Reflections reflections = new Reflections(new ConfigurationBuilder()
+				.setUrls(classpathRoots)
+				.filterInputsBy(new FilterBuilder().includePackage("org.dllearner"))
+				.setScanners(new TypeAnnotationsScanner(), new SubTypesScanner()));
+		List<String> classNames = new ArrayList<>();
+		for (Class<?> clazz : reflections.getTypesAnnotatedWith(ComponentAnn.class, true)) {
+			if (Component.class.isAssignableFrom(clazz) && !Modifier.isAbstract(clazz.getModifiers())) {
+				classNames.add(clazz.getName());
+			}
+		}
+		return classNames;
+	}
+
 	/**
 	 * Explicitly sets the list of components to use. This will (re-)initialise the
 	 * component manager the next time the singleton instance is retrieved.
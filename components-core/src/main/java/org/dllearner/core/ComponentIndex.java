@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The component index generated at build time by the {@link ComponentIndexProcessor}. Each module containing
+ * components provides its own index resource, all of them found on the classpath are merged. The classpath
+ * roots, i.e. directories or jars, providing an index are kept such that the components of other roots can be
+ * found by scanning.
+ */
+public class ComponentIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+
+	/**
+	 * An entry of the index.
+	 */
+	public static class Entry {
+		private final String className;
+		private final String name;
+		private final String shortName;
+		private final List<String> configOptions;
+
+		Entry(String className, String name, String shortName, List<String> configOptions) {
+			this.className = className;
+			this.name = name;
+			this.shortName = shortName;
+			this.configOptions = configOptions;
+		}
+
+		/**
+		 * @return the binary name of the component class
+		 */
+		public String getClassName() {
+			return className;
+		}
+
+		/**
+		 * @return the name of the component
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the short name of the component
+		 */
+		public String getShortName() {
+			return shortName;
+		}
+
+		/**
+		 * @return the names of the config options of the component including the inherited ones
+		 */
+		public List<String> getConfigOptions() {
+			return configOptions;
+		}
+
+		@Override
+		public String toString() {
+			return className + "(" + shortName + ")";
+		}
+	}
+
+	private final Map<String, Entry> entries;
+	// the locations of the classpath roots providing an index
+	private final Set<String> roots;
+
+	private ComponentIndex(Map<String, Entry> entries, Set<String> roots) {
+		this.entries = entries;
+		this.roots = roots;
+	}
+
+	/**
+	 * Loads the index by means of the class loader of the core module.
+	 *
+	 * @return the index, or <code>null</code> if there is no index on the classpath
+	 */
+	public static ComponentIndex load() {
+		return load(ComponentIndex.class.getClassLoader());
+	}
+
+	/**
+	 * @param classLoader the class loader used to find the index resources
+	 * @return the index, or <code>null</code> if there is no index on the classpath
+	 */
+	public static ComponentIndex load(ClassLoader classLoader) {
+		Map<String, Entry> entries = new LinkedHashMap<>();
+		Set<String> roots = new HashSet<>();
+		try {
+			Enumeration<URL> resources = classLoader.getResources(ComponentIndexProcessor.INDEX_RESOURCE);
+			while (resources.hasMoreElements()) {
+				URL url = resources.nextElement();
+				String location = url.toExternalForm();
+				roots.add(toRootLocation(location.substring(0, location.length() - ComponentIndexProcessor.INDEX_RESOURCE.length())));
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						if (line.isEmpty() || line.startsWith("#")) {
+							continue;
+						}
+						String[] parts = line.split("\t", -1);
+						if (parts.length < 4) {
+							logger.warn("Invalid line in component index {}: {}", url, line);
+							continue;
+						}
+						List<String> options = parts[3].isEmpty()
+								? Collections.emptyList()
+								: Collections.unmodifiableList(Arrays.asList(parts[3].split(",")));
+						entries.put(parts[0], new Entry(parts[0], parts[1], parts[2], options));
+					}
+				}
+			}
+		} catch (IOException e) {
+			logger.warn("Failed to read the component index", e);
+			return null;
+		}
+		return roots.isEmpty() ? null : new ComponentIndex(entries, roots);
+	}
+
+	/*
+	 * The location of a classpath root, i.e. jar URLs are reduced to the URL of the jar file itself.
+	 */
+	private static String toRootLocation(String location) {
+		if (location.startsWith("jar:")) {
+			location = location.substring("jar:".length());
+		}
+		if (location.endsWith("!/")) {
+			location = location.substring(0, location.length() - "!/".length());
+		}
+		return location.endsWith("/") ? location.substring(0, location.length() - 1) : location;
+	}
+
+	/**
+	 * @param classpathRoot the URL of a directory or jar on the classpath
+	 * @return whether the components of the classpath root are contained in the index
+	 */
+	public boolean covers(URL classpathRoot) {
+		return roots.contains(toRootLocation(classpathRoot.toExternalForm()));
+	}
+
+	/**
+	 * @return the entries of the index
+	 */
+	public Collection<Entry> getEntries() {
+		return Collections.unmodifiableCollection(entries.values());
+	}
+
+	/**
+	 * @param className the binary name of the component class
+	 * @return the entry of the component, or <code>null</code> if it is not contained in the index
+	 */
+	public Entry getEntry(String className) {
+		return entries.get(className);
+	}
+
+	/**
+	 * @return the number of indexed components
+	 */
+	public int size() {
+		return entries.size();
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * An annotation processor that generates the component index, i.e. a resource listing all classes annotated with
+ * {@link ComponentAnn} that implement {@link Component} together with their name, short name and config options.
+ * The index is read by {@link ComponentIndex} and allows {@link AnnComponentManager} to skip scanning the
+ * classpath at startup.
+ * <p>
+ * Each line of the index contains the tab separated binary class name, name, short name and the comma separated
+ * config option names of a component. Note that the processor must not refer to other DL-Learner classes, as it
+ * is compiled before the rest of the module.
+ */
+@SupportedAnnotationTypes(ComponentIndexProcessor.COMPONENT_ANN)
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * The location of the component index on the classpath.
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/dllearner/components.index";
+
+	static final String COMPONENT_ANN = "org.dllearner.core.ComponentAnn";
+	private static final String COMPONENT = "org.dllearner.core.Component";
+	private static final String CONFIG_OPTION = "org.dllearner.core.config.ConfigOption";
+
+	// class name -> index line
+	private final Map<String, String> entries = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+			return false;
+		}
+		TypeElement componentAnn = processingEnv.getElementUtils().getTypeElement(COMPONENT_ANN);
+		if (componentAnn == null) {
+			return false;
+		}
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(componentAnn))) {
+			String entry = createEntry(type);
+			if (entry != null) {
+				entries.put(processingEnv.getElementUtils().getBinaryName(type).toString(), entry);
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Returns the index line of the given type, or null if it is not a component.
+	 */
+	private String createEntry(TypeElement type) {
+		if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+			return null;
+		}
+		AnnotationMirror ann = getAnnotation(type, COMPONENT_ANN);
+		TypeElement component = processingEnv.getElementUtils().getTypeElement(COMPONENT);
+		if (ann == null || component == null) {
+			return null;
+		}
+		if (!processingEnv.getTypeUtils().isAssignable(
+				processingEnv.getTypeUtils().erasure(type.asType()),
+				processingEnv.getTypeUtils().erasure(component.asType()))) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+					type.getQualifiedName() + " is annotated as component but does not implement Component, ignored", type);
+			return null;
+		}
+
+		String name = "";
+		String shortName = "";
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e
+				: processingEnv.getElementUtils().getElementValuesWithDefaults(ann).entrySet()) {
+			String key = e.getKey().getSimpleName().toString();
+			if (key.equals("name")) {
+				name = String.valueOf(e.getValue().getValue());
+			} else if (key.equals("shortName")) {
+				shortName = String.valueOf(e.getValue().getValue());
+			}
+		}
+
+		// the config options including the inherited ones
+		SortedSet<String> options = new TreeSet<>();
+		TypeElement c = type;
+		while (c != null) {
+			for (VariableElement field : ElementFilter.fieldsIn(c.getEnclosedElements())) {
+				if (getAnnotation(field, CONFIG_OPTION) != null) {
+					options.add(field.getSimpleName().toString());
+				}
+			}
+			TypeMirror superclass = c.getSuperclass();
+			c = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+		}
+
+		return processingEnv.getElementUtils().getBinaryName(type) + "\t" + escape(name) + "\t" + escape(shortName)
+				+ "\t" + String.join(",", options);
+	}
+
+	private static AnnotationMirror getAnnotation(Element element, String annotationType) {
+		for (AnnotationMirror ann : element.getAnnotationMirrors()) {
+			if (((TypeElement) ann.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType)) {
+				return ann;
+			}
+		}
+		return null;
+	}
+
+	private static String escape(String s) {
+		return s.replaceAll("[\t\r\n]", " ");
+	}
+
+	private void writeIndex() {
+		// in case of an incremental compilation, keep the entries of the components that have not been recompiled
+		try {
+			FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String className = line.split("\t", 2)[0];
+					if (line.isEmpty() || line.startsWith("#") || entries.containsKey(className)) {
+						continue;
+					}
+					TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+					String entry = type != null ? createEntry(type) : null;
+					if (entry != null) {
+						entries.put(className, entry);
+					}
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// no index yet
+		}
+
+		if (entries.isEmpty()) {
+			return;
+		}
+
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+			try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+				writer.write("# DL-Learner component index, generated by " + getClass().getName() + "\n");
+				for (String entry : entries.values()) {
+					writer.write(entry);
+					writer.write("\n");
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write the component index: " + e);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+/**
+ * A snapshot of the state of a running class expression learning algorithm that is passed to
+ * {@link LearningProgressListener}s.
+ */
+public class LearningProgress {
+
+	private final long runtimeInMilliSeconds;
+	private final int expressionTests;
+	private final int searchTreeSize;
+	private final double bestAccuracy;
+
+	private final int nrOfInstanceChecks;
+	private final int nrOfRetrievals;
+	private final int nrOfSubsumptionChecks;
+	private final long reasoningTimeNs;
+
+	public LearningProgress(long runtimeInMilliSeconds, int expressionTests, int searchTreeSize, double bestAccuracy,
+							AbstractReasonerComponent reasoner) {
+		this.runtimeInMilliSeconds = runtimeInMilliSeconds;
+		this.expressionTests = expressionTests;
+		this.searchTreeSize = searchTreeSize;
+		this.bestAccuracy = bestAccuracy;
+		if (reasoner != null) {
+			nrOfInstanceChecks = reasoner.getNrOfInstanceChecks();
+			nrOfRetrievals = reasoner.getNrOfRetrievals();
+			nrOfSubsumptionChecks = reasoner.getNrOfSubsumptionChecks();
+			reasoningTimeNs = reasoner.getOverallReasoningTimeNs();
+		} else {
+			nrOfInstanceChecks = 0;
+			nrOfRetrievals = 0;
+			nrOfSubsumptionChecks = 0;
+			reasoningTimeNs = 0;
+		}
+	}
+
+	/**
+	 * @return the time since the algorithm has been started in ms
+	 */
+	public long getRuntimeInMilliSeconds() {
+		return runtimeInMilliSeconds;
+	}
+
+	/**
+	 * @return the number of class expressions tested so far
+	 */
+	public int getExpressionTests() {
+		return expressionTests;
+	}
+
+	/**
+	 * @return the number of nodes in the search tree, or -1 if the algorithm does not use a search tree
+	 */
+	public int getSearchTreeSize() {
+		return searchTreeSize;
+	}
+
+	/**
+	 * @return the accuracy of the currently best class expression
+	 */
+	public double getBestAccuracy() {
+		return bestAccuracy;
+	}
+
+	public int getNrOfInstanceChecks() {
+		return nrOfInstanceChecks;
+	}
+
+	public int getNrOfRetrievals() {
+		return nrOfRetrievals;
+	}
+
+	public int getNrOfSubsumptionChecks() {
+		return nrOfSubsumptionChecks;
+	}
+
+	/**
+	 * @return the overall reasoning time in ns
+	 */
+	public long getReasoningTimeNs() {
+		return reasoningTimeNs;
+	}
+
+	@Override
+	public String toString() {
+		return "LearningProgress[runtime=" + runtimeInMilliSeconds + "ms, expressionTests=" + expressionTests
+				+ ", searchTreeSize=" + searchTreeSize + ", bestAccuracy=" + bestAccuracy + "]";
+	}
+}
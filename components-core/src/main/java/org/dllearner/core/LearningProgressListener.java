@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+/**
+ * A listener that is notified about the progress of a class expression learning algorithm, e.g. to
+ * report intermediate results to a client while the algorithm is still running.
+ * <p>
+ * Note that the methods may be called from any of the threads of the learning algorithm, thus,
+ * implementations have to be thread-safe and should return quickly.
+ */
+public interface LearningProgressListener {
+
+	/**
+	 * Called when the learning algorithm has been started.
+	 */
+	default void learningStarted() {}
+
+	/**
+	 * Called when the learning algorithm has been stopped, either because a termination criterion
+	 * has been satisfied or because it has been stopped explicitly.
+	 *
+	 * @param progress the final state of the learning algorithm
+	 */
+	default void learningStopped(LearningProgress progress) {}
+
+	/**
+	 * Called periodically while the learning algorithm is running. The interval is determined by
+	 * the learning algorithm.
+	 *
+	 * @param progress the current state of the learning algorithm
+	 */
+	default void learningProgressChanged(LearningProgress progress) {}
+
+	/**
+	 * Called when a class expression with a higher accuracy than all previously found ones has been
+	 * found.
+	 *
+	 * @param description the new best class expression
+	 * @param progress the current state of the learning algorithm
+	 */
+	default void newBestDescriptionFound(EvaluatedDescription<? extends Score> description, LearningProgress progress) {}
+}
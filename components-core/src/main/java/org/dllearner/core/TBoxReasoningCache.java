@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache for the results of TBox reasoning queries, i.e. queries whose result
+ * only depends on the schema. It is used by {@link AbstractReasonerComponent} for all queries which
+ * can not be answered by the precomputed hierarchies and thus have to be delegated to the underlying
+ * reasoner. Hits and misses are counted per query type.
+ */
+public class TBoxReasoningCache {
+
+	/**
+	 * The types of cached queries.
+	 */
+	public enum Query {
+		IS_SUPER_CLASS_OF, IS_EQUIVALENT_CLASS, IS_DISJOINT, GET_SUPER_CLASSES, GET_SUB_CLASSES
+	}
+
+	/**
+	 * Computes the result of a query in case of a cache miss.
+	 * @param <T> the result type
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+		T load() throws ReasoningMethodUnsupportedException;
+	}
+
+	private final Cache<Key, Object> cache;
+
+	private final Map<Query, LongAdder> hits = new EnumMap<>(Query.class);
+	private final Map<Query, LongAdder> misses = new EnumMap<>(Query.class);
+
+	/**
+	 * @param maximumSize the max. number of cached results
+	 */
+	public TBoxReasoningCache(int maximumSize) {
+		cache = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.concurrencyLevel(Runtime.getRuntime().availableProcessors())
+				.build();
+		for (Query query : Query.values()) {
+			hits.put(query, new LongAdder());
+			misses.put(query, new LongAdder());
+		}
+	}
+
+	/**
+	 * Returns the cached result of the query, or computes and caches it if it has not been cached yet.
+	 *
+	 * @param query the query type
+	 * @param loader computes the result
+	 * @param arguments the query arguments
+	 * @param <T> the result type
+	 * @return the result
+	 * @throws ReasoningMethodUnsupportedException if the loader is not supported by the reasoner
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Query query, Loader<T> loader, Object... arguments) throws ReasoningMethodUnsupportedException {
+		Key key = new Key(query, arguments);
+		Object result = cache.getIfPresent(key);
+		if (result != null) {
+			hits.get(query).increment();
+			return (T) result;
+		}
+		misses.get(query).increment();
+		// we do not lock here, i.e. concurrent misses might compute the same result twice
+		T value = loader.load();
+		if (value != null) {
+			cache.put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Removes all cached results, e.g. after the knowledge base has changed.
+	 */
+	public void invalidate() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @param query the query type
+	 * @return the number of cache hits for the query type
+	 */
+	public long getHitCount(Query query) {
+		return hits.get(query).sum();
+	}
+
+	/**
+	 * @param query the query type
+	 * @return the number of cache misses for the query type
+	 */
+	public long getMissCount(Query query) {
+		return misses.get(query).sum();
+	}
+
+	/**
+	 * @return the number of cached results
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Query query : Query.values()) {
+			long h = getHitCount(query);
+			long m = getMissCount(query);
+			if (h + m > 0) {
+				sb.append(query).append(": ").append(h).append(" hits, ").append(m).append(" misses\n");
+			}
+		}
+		return sb.toString();
+	}
+
+	private static final class Key {
+		private final Query query;
+		private final Object[] arguments;
+		private final int hashCode;
+
+		Key(Query query, Object[] arguments) {
+			this.query = query;
+			this.arguments = arguments;
+			this.hashCode = 31 * query.ordinal() + Arrays.hashCode(arguments);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return query == other.query && Arrays.equals(arguments, other.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
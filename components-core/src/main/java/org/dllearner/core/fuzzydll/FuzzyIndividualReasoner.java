@@ -18,6 +18,7 @@
  */
 package org.dllearner.core.fuzzydll;
 
+import java.util.List;
 import java.util.SortedSet;
 
 import org.dllearner.core.owl.fuzzydll.FuzzyIndividual;
@@ -41,5 +42,20 @@ public interface FuzzyIndividualReasoner {
 	 */
 	double hasTypeFuzzyMembership(OWLClassExpression description, FuzzyIndividual individual);
 	
+	/**
+	 * Computes the fuzzy membership degrees of all <code>individuals</code> over <code>description</code>
+	 * in a single call.
+	 * @param description An OWL class description.
+	 * @param individuals A list of individuals.
+	 * @return fuzzy membership degrees [0-1], the i-th degree belongs to the i-th individual of the list.
+	 */
+	default double[] hasTypeFuzzyMembership(OWLClassExpression description, List<FuzzyIndividual> individuals) {
+		double[] memberships = new double[individuals.size()];
+		for (int i = 0; i < memberships.length; i++) {
+			memberships[i] = hasTypeFuzzyMembership(description, individuals.get(i));
+		}
+		return memberships;
+	}
+	
 	SortedSet<FuzzyIndividual> getFuzzyIndividuals(OWLClassExpression concept);
 }
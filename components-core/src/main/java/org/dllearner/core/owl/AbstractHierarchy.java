@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map.Entry;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * @author Lorenz Buehmann
@@ -39,6 +40,9 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	
 	private SortedSet<T> rootEntities = new TreeSet<>();
 	private SortedSet<T> leafEntities = new TreeSet<>();
+
+	// compiled form of the hierarchy maps, built on first use; empty if the maps contain a cycle
+	private volatile Optional<HierarchyIndex<T>> index;
 	
 
 	public AbstractHierarchy(SortedMap<T, SortedSet<T>> hierarchyUp, SortedMap<T, SortedSet<T>> hierarchyDown) {
@@ -86,6 +90,13 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 			return new TreeSet<>();
 		}
 
+		HierarchyIndex<T> index = getIndex();
+		if (index != null) {
+			SortedSet<T> children = new TreeSet<>();
+			index.forEachChild(entity, direct, children::add);
+			return children;
+		}
+
 		// create new set because we'll modify the set
 		result = new TreeSet<>(result);
 
@@ -124,6 +135,13 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 			return new TreeSet<>();
 		}
 
+		HierarchyIndex<T> index = getIndex();
+		if (index != null) {
+			SortedSet<T> parents = new TreeSet<>();
+			index.forEachParent(entity, direct, parents::add);
+			return parents;
+		}
+
 		// create new set because we'll modify the set
 		result = new TreeSet<>(result);
 
@@ -142,6 +160,40 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 		return result;
 	}
 
+	/**
+	 * Performs the given action for each child of the entity without creating an intermediate set. This is
+	 * the preferred way to traverse the hierarchy in performance critical code.
+	 *
+	 * @param entity the entity
+	 * @param direct whether to consider only the direct children or all descendants
+	 * @param action the action
+	 */
+	public void forEachChild(T entity, boolean direct, Consumer<? super T> action) {
+		HierarchyIndex<T> index = getIndex();
+		if (index != null) {
+			index.forEachChild(entity, direct, action);
+		} else {
+			getChildren(entity, direct).forEach(action);
+		}
+	}
+
+	/**
+	 * Performs the given action for each parent of the entity without creating an intermediate set. This is
+	 * the preferred way to traverse the hierarchy in performance critical code.
+	 *
+	 * @param entity the entity
+	 * @param direct whether to consider only the direct parents or all ancestors
+	 * @param action the action
+	 */
+	public void forEachParent(T entity, boolean direct, Consumer<? super T> action) {
+		HierarchyIndex<T> index = getIndex();
+		if (index != null) {
+			index.forEachParent(entity, direct, action);
+		} else {
+			getParents(entity, direct).forEach(action);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.dllearner.core.owl.Hierarchy#getSiblings(org.semanticweb.owlapi.model.OWLEntity)
 	 */
@@ -163,6 +215,10 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	 */
 	@Override
 	public boolean isChildOf(T entity1, T entity2) {
+		HierarchyIndex<T> index = getIndex();
+		if (index != null) {
+			return index.isChildOf(entity1, entity2);
+		}
 		if (entity1.equals(entity2)) {
 			return true;
 		} else {
@@ -369,6 +425,7 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	 */
 	public void setHierarchyUp(SortedMap<T, SortedSet<T>> hierarchyUp) {
 		this.hierarchyUp = hierarchyUp;
+		index = null;
 	}
 	
 	/**
@@ -383,6 +440,7 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	 */
 	public void setHierarchyDown(SortedMap<T, SortedSet<T>> hierarchyDown) {
 		this.hierarchyDown = hierarchyDown;
+		index = null;
 	}
 	
 	/**
@@ -392,8 +450,33 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 		return hierarchyDown;
 	}
 	
+	/**
+	 * Compiles the hierarchy into dense IDs and interval labels, see {@link HierarchyIndex}. This is done
+	 * automatically on first use, but can be triggered explicitly to keep it out of the learning phase. The
+	 * hierarchy maps must not be modified afterwards except by the setter methods.
+	 */
 	public void precompute() {
-		
+		getIndex();
+	}
+
+	private HierarchyIndex<T> getIndex() {
+		Optional<HierarchyIndex<T>> index = this.index;
+		if (index == null) {
+			synchronized (this) {
+				index = this.index;
+				if (index == null) {
+					long start = System.currentTimeMillis();
+					index = Optional.ofNullable(HierarchyIndex.build(hierarchyUp, hierarchyDown));
+					if (index.isPresent()) {
+						logger.debug("Compiled hierarchy in {}ms.", System.currentTimeMillis() - start);
+					} else {
+						logger.warn("Hierarchy contains a cycle, falling back to uncompiled hierarchy traversal.");
+					}
+					this.index = index;
+				}
+			}
+		}
+		return index.orElse(null);
 	}
 	
 	@Override
@@ -19,6 +19,7 @@
 package org.dllearner.core.owl;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -105,6 +106,30 @@ public class ClassHierarchy extends AbstractHierarchy<OWLClassExpression> {
 		return getChildren(concept, direct);
 	}
 
+	/**
+	 * Performs the given action for each superclass of the given class without creating an intermediate set.
+	 * @param concept the class
+	 * @param direct whether to consider only direct superclasses or not
+	 * @param action the action
+	 */
+	public void forEachSuperClass(OWLClassExpression concept, boolean direct, Consumer<? super OWLClassExpression> action) {
+		if(!concept.isOWLThing()) {
+			forEachParent(concept, direct, action);
+		}
+	}
+
+	/**
+	 * Performs the given action for each subclass of the given class without creating an intermediate set.
+	 * @param concept the class
+	 * @param direct whether to consider only direct subclasses or not
+	 * @param action the action
+	 */
+	public void forEachSubClass(OWLClassExpression concept, boolean direct, Consumer<? super OWLClassExpression> action) {
+		if(!concept.isOWLNothing()) {
+			forEachChild(concept, direct, action);
+		}
+	}
+
 	public SortedSet<OWLClassExpression> getSiblingClasses(OWLClassExpression concept) {
 		return getSiblings(concept);
 	}
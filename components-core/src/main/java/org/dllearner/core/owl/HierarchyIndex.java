@@ -0,0 +1,306 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core.owl;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import org.semanticweb.owlapi.model.OWLObject;
+
+/**
+ * A compiled representation of the upward and downward maps of an {@link AbstractHierarchy}. Each entity gets
+ * a dense integer ID, the direct parents and children are stored as ID arrays and the transitive closure is
+ * encoded by interval labels: the entities are numbered in post-order of a spanning forest of the DAG, and each
+ * entity is labelled with the post-order intervals that cover all of its descendants, i.e. the interval of its
+ * spanning tree merged with the intervals of the entities reached via non-tree edges. A reachability test is
+ * then a binary search over the intervals of an entity (in class hierarchies usually only a few of them), and
+ * all descendants can be enumerated without creating intermediate sets.
+ * <p>
+ * Both directions are labelled separately because the upward and the downward map do not have to be inverse
+ * to each other, see {@link AbstractHierarchy#thinOutSubsumptionHierarchy()}.
+ */
+final class HierarchyIndex<T extends OWLObject> {
+
+	private static final int[] EMPTY = new int[0];
+
+	// the entities in natural order, the position is the ID of the entity
+	private final List<T> entities;
+	private final Map<T, Integer> ids;
+
+	private final Labelling up;
+	private final Labelling down;
+
+	private HierarchyIndex(List<T> entities, Map<T, Integer> ids, Labelling up, Labelling down) {
+		this.entities = entities;
+		this.ids = ids;
+		this.up = up;
+		this.down = down;
+	}
+
+	/**
+	 * Compiles the given hierarchy maps.
+	 *
+	 * @param hierarchyUp the parents of each entity
+	 * @param hierarchyDown the children of each entity
+	 * @return the index, or {@code null} if one of the maps contains a cycle
+	 */
+	static <T extends OWLObject> HierarchyIndex<T> build(SortedMap<T, SortedSet<T>> hierarchyUp,
+														 SortedMap<T, SortedSet<T>> hierarchyDown) {
+		SortedSet<T> allEntities = new TreeSet<>();
+		collectEntities(hierarchyUp, allEntities);
+		collectEntities(hierarchyDown, allEntities);
+
+		List<T> entities = new ArrayList<>(allEntities);
+		Map<T, Integer> ids = new HashMap<>(entities.size() * 2);
+		for (int i = 0; i < entities.size(); i++) {
+			ids.put(entities.get(i), i);
+		}
+
+		Labelling up = Labelling.compute(toIdArrays(hierarchyUp, ids));
+		Labelling down = Labelling.compute(toIdArrays(hierarchyDown, ids));
+		if (up == null || down == null) {
+			return null;
+		}
+		return new HierarchyIndex<>(entities, ids, up, down);
+	}
+
+	private static <T> void collectEntities(SortedMap<T, SortedSet<T>> hierarchy, Set<T> entities) {
+		hierarchy.forEach((entity, related) -> {
+			entities.add(entity);
+			if (related != null) {
+				entities.addAll(related);
+			}
+		});
+	}
+
+	private static <T> int[][] toIdArrays(SortedMap<T, SortedSet<T>> hierarchy, Map<T, Integer> ids) {
+		int[][] successors = new int[ids.size()][];
+		Arrays.fill(successors, EMPTY);
+		hierarchy.forEach((entity, related) -> {
+			if (related != null) {
+				// depending on the reasoner implementation, the entity itself is trivially contained, so skip it here
+				int[] tmp = related.stream().filter(e -> !e.equals(entity)).mapToInt(ids::get).distinct().toArray();
+				Arrays.sort(tmp);
+				successors[ids.get(entity)] = tmp;
+			}
+		});
+		return successors;
+	}
+
+	/**
+	 * @param entity1 the first entity
+	 * @param entity2 the second entity
+	 * @return whether the second entity can be reached from the first one via the upward map, or both are equal
+	 */
+	boolean isChildOf(T entity1, T entity2) {
+		Integer id1 = ids.get(entity1);
+		Integer id2 = ids.get(entity2);
+		if (id1 == null || id2 == null) {
+			return entity1.equals(entity2);
+		}
+		return up.reaches(id1, id2);
+	}
+
+	/**
+	 * Performs the given action for each parent of the entity, i.e. the direct ones or all entities reachable
+	 * via the upward map (excluding the entity itself).
+	 */
+	void forEachParent(T entity, boolean direct, Consumer<? super T> action) {
+		forEach(up, entity, direct, action);
+	}
+
+	/**
+	 * Performs the given action for each child of the entity, i.e. the direct ones or all entities reachable
+	 * via the downward map (excluding the entity itself).
+	 */
+	void forEachChild(T entity, boolean direct, Consumer<? super T> action) {
+		forEach(down, entity, direct, action);
+	}
+
+	private void forEach(Labelling labelling, T entity, boolean direct, Consumer<? super T> action) {
+		Integer id = ids.get(entity);
+		if (id == null) {
+			return;
+		}
+		if (direct) {
+			for (int successor : labelling.successors[id]) {
+				action.accept(entities.get(successor));
+			}
+		} else {
+			int[] intervals = labelling.intervals[id];
+			for (int i = 0; i < intervals.length; i += 2) {
+				for (int p = intervals[i]; p <= intervals[i + 1]; p++) {
+					int descendant = labelling.byPost[p];
+					if (descendant != id) {
+						action.accept(entities.get(descendant));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The interval labelling of one direction of the hierarchy.
+	 */
+	private static final class Labelling {
+
+		// the direct successors of each entity
+		private final int[][] successors;
+		// the post-order number of each entity and vice versa
+		private final int[] post;
+		private final int[] byPost;
+		// the disjoint post-order intervals [start, end] covering all descendants of each entity including
+		// the entity itself, stored as flat array sorted by start
+		private final int[][] intervals;
+
+		private Labelling(int[][] successors, int[] post, int[] byPost, int[][] intervals) {
+			this.successors = successors;
+			this.post = post;
+			this.byPost = byPost;
+			this.intervals = intervals;
+		}
+
+		/**
+		 * @return the labelling, or {@code null} if the graph contains a cycle
+		 */
+		static Labelling compute(int[][] successors) {
+			int n = successors.length;
+
+			// start with the roots to get large spanning trees, the remaining ones are only unvisited in case of cycles
+			int[] inDegree = new int[n];
+			for (int[] s : successors) {
+				for (int w : s) {
+					inDegree[w]++;
+				}
+			}
+			int[] order = new int[n];
+			int k = 0;
+			for (int v = 0; v < n; v++) {
+				if (inDegree[v] == 0) {
+					order[k++] = v;
+				}
+			}
+			for (int v = 0; v < n; v++) {
+				if (inDegree[v] != 0) {
+					order[k++] = v;
+				}
+			}
+
+			// iterative DFS computing the post-order and the lowest post-order number in the spanning tree of each entity
+			int[] post = new int[n];
+			int[] byPost = new int[n];
+			int[] low = new int[n];
+			byte[] state = new byte[n]; // 0 = unvisited, 1 = on stack, 2 = finished
+			int[] stack = new int[n];
+			int[] nextSuccessor = new int[n];
+			int counter = 0;
+			for (int root : order) {
+				if (state[root] != 0) {
+					continue;
+				}
+				int sp = 0;
+				stack[sp++] = root;
+				state[root] = 1;
+				low[root] = counter;
+				while (sp > 0) {
+					int v = stack[sp - 1];
+					if (nextSuccessor[v] < successors[v].length) {
+						int w = successors[v][nextSuccessor[v]++];
+						if (state[w] == 0) {
+							state[w] = 1;
+							low[w] = counter;
+							stack[sp++] = w;
+						} else if (state[w] == 1) {
+							return null;
+						}
+					} else {
+						sp--;
+						state[v] = 2;
+						post[v] = counter;
+						byPost[counter] = v;
+						counter++;
+					}
+				}
+			}
+
+			// in a DAG all successors are finished before the entity itself, thus, processing the entities in
+			// post-order guarantees that the intervals of the successors are already known
+			int[][] intervals = new int[n][];
+			for (int p = 0; p < n; p++) {
+				int v = byPost[p];
+				intervals[v] = merge(low[v], p, successors[v], intervals);
+			}
+
+			return new Labelling(successors, post, byPost, intervals);
+		}
+
+		private static int[] merge(int start, int end, int[] successors, int[][] intervals) {
+			int size = 1;
+			for (int w : successors) {
+				size += intervals[w].length / 2;
+			}
+			// encode each interval as a single long, so that sorting orders them by start
+			long[] tmp = new long[size];
+			int i = 0;
+			tmp[i++] = ((long) start << 32) | end;
+			for (int w : successors) {
+				int[] successorIntervals = intervals[w];
+				for (int j = 0; j < successorIntervals.length; j += 2) {
+					tmp[i++] = ((long) successorIntervals[j] << 32) | successorIntervals[j + 1];
+				}
+			}
+			Arrays.sort(tmp);
+
+			int[] merged = new int[2 * size];
+			int m = 0;
+			for (long interval : tmp) {
+				int s = (int) (interval >>> 32);
+				int e = (int) interval;
+				if (m > 0 && s <= merged[m - 1] + 1) {
+					merged[m - 1] = Math.max(merged[m - 1], e);
+				} else {
+					merged[m++] = s;
+					merged[m++] = e;
+				}
+			}
+			return Arrays.copyOf(merged, m);
+		}
+
+		/**
+		 * @return whether w is a descendant of v or v itself
+		 */
+		boolean reaches(int v, int w) {
+			int p = post[w];
+			int[] iv = intervals[v];
+			int lo = 0;
+			int hi = iv.length / 2 - 1;
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1;
+				if (iv[2 * mid] > p) {
+					hi = mid - 1;
+				} else if (iv[2 * mid + 1] < p) {
+					lo = mid + 1;
+				} else {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -21,6 +21,7 @@ package org.dllearner.core.owl;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import org.dllearner.core.AbstractReasonerComponent;
 import org.semanticweb.owlapi.model.OWLClassExpression;
@@ -54,6 +55,16 @@ public class LazyClassHierarchy extends ClassHierarchy {
 		return rc.getSubClasses(concept);
 	}
 
+	@Override
+	public void forEachSuperClass(OWLClassExpression concept, boolean direct, Consumer<? super OWLClassExpression> action) {
+		getSuperClasses(concept, direct).forEach(action);
+	}
+
+	@Override
+	public void forEachSubClass(OWLClassExpression concept, boolean direct, Consumer<? super OWLClassExpression> action) {
+		getSubClasses(concept, direct).forEach(action);
+	}
+
 	@Override
 	public LazyClassHierarchy clone() {
 		return new LazyClassHierarchy(rc);		
@@ -21,6 +21,8 @@ package org.dllearner.kb;
 import org.aksw.jena_sparql_api.cache.h2.CacheUtilsH2;
 import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
 import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFOps;
 import org.dllearner.core.ComponentAnn;
 
 import org.apache.jena.ontology.OntModel;
@@ -29,7 +31,7 @@ import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 
 @ComponentAnn(name = "Local Endpoint", shortName = "local_sparql", version = 0.9)
-public class LocalModelBasedSparqlEndpointKS extends SparqlEndpointKS {
+public class LocalModelBasedSparqlEndpointKS extends SparqlEndpointKS implements RDFStreamKnowledgeSource {
 	
 	private OntModel model;
 	
@@ -85,6 +87,13 @@ public class LocalModelBasedSparqlEndpointKS extends SparqlEndpointKS {
 	public OntModel getModel() {
 		return model;
 	}
+
+	@Override
+	public void streamTriples(StreamRDF sink) {
+		sink.start();
+		StreamRDFOps.sendGraphToStream(model.getGraph(), sink);
+		sink.finish();
+	}
 	
 	@Override
 	public boolean isRemote() {
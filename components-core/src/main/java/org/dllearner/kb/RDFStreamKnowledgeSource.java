@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb;
+
+import org.apache.jena.riot.system.StreamRDF;
+import org.dllearner.core.KnowledgeSource;
+
+/**
+ * A knowledge source whose content can be sent as a stream of RDF triples, e.g. to fill the indexes of a
+ * reasoner without creating an intermediate OWL ontology.
+ */
+public interface RDFStreamKnowledgeSource extends KnowledgeSource {
+
+	/**
+	 * Sends all triples of the knowledge source to the given stream.
+	 *
+	 * @param sink the stream
+	 */
+	void streamTriples(StreamRDF sink);
+}
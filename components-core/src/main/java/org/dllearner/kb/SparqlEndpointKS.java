@@ -33,6 +33,8 @@ import org.dllearner.core.ComponentInitException;
 import org.dllearner.core.KnowledgeSource;
 import org.dllearner.core.annotations.NoConfigOption;
 import org.dllearner.core.config.ConfigOption;
+import org.dllearner.kb.sparql.EndpointLoadController;
+import org.dllearner.kb.sparql.QueryExecutionFactoryAdaptive;
 import org.dllearner.kb.sparql.SPARQLTasks;
 import org.dllearner.kb.sparql.SparqlEndpoint;
 import org.slf4j.Logger;
@@ -73,8 +75,22 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 	private List<String> namedGraphURIs = new LinkedList<>();
 
 	// some parameters for the query execution
-	@ConfigOption(defaultValue = "50", description = "Use this setting to avoid overloading the endpoint with a sudden burst of queries. A value below 0 means no delay.", required = false)
+	@ConfigOption(defaultValue = "50", description = "Use this setting to avoid overloading the endpoint with a sudden burst of queries. A value below 0 means no delay. " +
+			"If the adaptive load control is enabled, an explicitly set delay is used as the min. delay between the start of two queries.", required = false)
 	private long queryDelay = 50;
+	// whether the delay has been set explicitly, i.e. has to be respected by the adaptive load control
+	private boolean queryDelaySet = false;
+
+	@ConfigOption(defaultValue = "true", description = "Adapt the number of concurrent queries, the delay between queries and the page size to the latency and errors of the endpoint instead of using a fixed delay. Queries failing due to overload or timeouts are retried with exponential backoff.", required = false)
+	private boolean useAdaptiveLoadControl = true;
+
+	@ConfigOption(defaultValue = "4", description = "The maximum number of concurrent queries if the adaptive load control is enabled.", required = false)
+	private int maxConcurrentQueries = 4;
+
+	// shared by all components that use this knowledge source
+	private EndpointLoadController loadController;
+	// whether the query execution factory has been built with the adaptive load control, i.e. not injected
+	private boolean adaptiveLoadControlActive = false;
 
 	// caching options
 	@ConfigOption(defaultValue = "true", description = "Use this setting to enable caching of SPARQL queries in a local database.", required = false)
@@ -133,6 +149,7 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 
 	public void setQueryExecutionFactory(QueryExecutionFactory qef) {
 		this.qef = qef;
+		this.adaptiveLoadControlActive = false;
 	}
 
 	@Override
@@ -167,6 +184,12 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 				.end()
 				.create();
 
+		if(useAdaptiveLoadControl) {
+			// done below the cache, thus, cached queries are not throttled
+			qef = new QueryExecutionFactoryAdaptive(qef, getLoadController());
+			adaptiveLoadControlActive = true;
+		}
+
 		if(useCache) {
 			qef = CacheUtilsH2.createQueryExecutionFactory(qef, cacheDir, false, cacheTTL );
 		} else {
@@ -174,11 +197,13 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 			qef = CacheUtilsH2.createQueryExecutionFactory(qef, cacheDir, true, cacheTTL);
 		}
 
-		// add some delay
-		qef = new QueryExecutionFactoryDelay(qef, queryDelay);
+		if(!useAdaptiveLoadControl) {
+			// add some delay
+			qef = new QueryExecutionFactoryDelay(qef, queryDelay);
 
-		if(retryCount > 0) {
-			qef = new QueryExecutionFactoryRetry(qef, retryCount, 1, TimeUnit.SECONDS);
+			if(retryCount > 0) {
+				qef = new QueryExecutionFactoryRetry(qef, retryCount, 1, TimeUnit.SECONDS);
+			}
 		}
 
 		// add pagination to avoid incomplete result sets due to limitations of the endpoint
@@ -191,6 +216,48 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 		this.pageSize = pageSize;
 	}
 
+	/**
+	 * Returns the controller for the load put on the endpoint. It is shared by all components using this
+	 * knowledge source, thus, they share the same budget of concurrent queries.
+	 *
+	 * @return the load controller of the endpoint
+	 */
+	public synchronized EndpointLoadController getLoadController() {
+		if(loadController == null) {
+			long minDelay = queryDelaySet ? Math.max(0, queryDelay) : 0;
+			if(minDelay > 0) {
+				logger.info("Using the query delay of {}ms as min. delay of the adaptive load control.", minDelay);
+			}
+			loadController = new EndpointLoadController(maxConcurrentQueries, pageSize, retryCount, minDelay);
+		}
+		return loadController;
+	}
+
+	/**
+	 * @return whether the queries are sent under the control of the {@link #getLoadController() load controller},
+	 * which is only the case if the query execution factory has been built by this knowledge source with
+	 * {@link #isUseAdaptiveLoadControl()} enabled and not been set from outside
+	 */
+	public boolean isAdaptiveLoadControlActive() {
+		return adaptiveLoadControlActive;
+	}
+
+	public boolean isUseAdaptiveLoadControl() {
+		return useAdaptiveLoadControl;
+	}
+
+	public void setUseAdaptiveLoadControl(boolean useAdaptiveLoadControl) {
+		this.useAdaptiveLoadControl = useAdaptiveLoadControl;
+	}
+
+	public int getMaxConcurrentQueries() {
+		return maxConcurrentQueries;
+	}
+
+	public void setMaxConcurrentQueries(int maxConcurrentQueries) {
+		this.maxConcurrentQueries = maxConcurrentQueries;
+	}
+
 	public SparqlEndpoint getEndpoint() {
 		return endpoint;
 	}
@@ -234,11 +301,13 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 	/**
 	 * Set a delay between each sent SPARQL query to avoid overloading of the
 	 * endpoint. Note that this does only make sense for remote endpoints and
-	 * will be ignored for local files.
+	 * will be ignored for local files. If the adaptive load control is enabled, the delay is the min. delay
+	 * between the start of two queries.
 	 * @param queryDelay the delay in milliseconds
 	 */
 	public void setQueryDelay(int queryDelay) {
 		this.queryDelay = queryDelay;
+		this.queryDelaySet = true;
 	}
 
 	/**
@@ -296,7 +365,11 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 			out += String.format("%-15s %-25s%n", "URL:", "null");
 		}
 		out += String.format("%-15s %-25s%n", "Cache:", cacheDir);
-		out += String.format("%-15s %dms%n", "Delay:", queryDelay);
+		if (adaptiveLoadControlActive) {
+			out += String.format("%-15s %s%n", "Delay:", queryDelaySet ? "adaptive, min. " + queryDelay + "ms" : "adaptive");
+		} else {
+			out += String.format("%-15s %dms%n", "Delay:", queryDelay);
+		}
 		return out;
 	}
 
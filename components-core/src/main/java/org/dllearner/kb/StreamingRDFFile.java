@@ -0,0 +1,260 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.dllearner.core.AbstractKnowledgeSource;
+import org.dllearner.core.ComponentAnn;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.core.config.ConfigOption;
+import org.dllearner.utilities.OwlApiJenaUtils;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A knowledge source for large ABox files in an RDF line or stream based format like N-Triples, N-Quads or
+ * Turtle (optionally gzipped). Instead of loading the file by means of the OWL API RDF parsers, which keep all
+ * triples in memory until the whole document has been parsed, the file is parsed as a stream of triples and
+ * each triple is converted directly into an assertion axiom:
+ * <ul>
+ *     <li><code>s rdf:type C</code> into a class assertion, <code>s rdf:type owl:NamedIndividual</code> into a declaration</li>
+ *     <li><code>s p o</code> into an object property assertion if <code>o</code> is a resource, otherwise into a
+ *     data property assertion</li>
+ *     <li><code>owl:sameAs</code> and <code>owl:differentFrom</code> into the corresponding individual axioms</li>
+ * </ul>
+ * All other triples, in particular those about the schema, are ignored, i.e. the TBox has to be provided by
+ * a separate knowledge source, e.g. an {@link OWLFile}.
+ * <p>
+ * As an {@link RDFStreamKnowledgeSource}, the triples can also be consumed directly, e.g. by the
+ * {@link org.dllearner.reasoning.ClosedWorldReasoner}.
+ */
+@ComponentAnn(name = "Streaming RDF File", shortName = "streamingrdffile", version = 0.1)
+public class StreamingRDFFile extends AbstractKnowledgeSource implements OWLOntologyKnowledgeSource, RDFStreamKnowledgeSource {
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingRDFFile.class);
+
+	@ConfigOption(description = "URL pointer to the ABox file")
+	private URL url;
+	@ConfigOption(description = "relative or absolute path to the ABox file")
+	private String fileName;
+	@ConfigOption(description = "separately specify directory of the ABox file")
+	private String baseDir;
+
+	@ConfigOption(defaultValue = "100000", description = "the number of axioms that are added to the ontology at once")
+	private int batchSize = 100000;
+
+	public StreamingRDFFile() {}
+
+	public StreamingRDFFile(URL url) {
+		this.url = url;
+	}
+
+	public StreamingRDFFile(String fileName) {
+		this.fileName = fileName;
+	}
+
+	@Override
+	public void init() throws ComponentInitException {
+		if (url == null) {
+			if (fileName == null) {
+				throw new ComponentInitException("Neither URL nor file name of the ABox file has been set.");
+			}
+			Path path = Paths.get(fileName);
+			if (!path.isAbsolute() && baseDir != null) {// else relative to base directory
+				path = Paths.get(baseDir, fileName);
+			}
+			try {
+				url = path.normalize().toUri().toURL();
+			} catch (MalformedURLException e) {
+				throw new ComponentInitException("ABox file " + path + " is invalid.", e);
+			}
+		}
+		initialized = true;
+	}
+
+	@Override
+	public OWLOntology createOWLOntology(OWLOntologyManager manager) {
+		try {
+			OWLOntology ontology = manager.createOntology(IRI.generateDocumentIRI());
+
+			List<OWLAxiom> batch = new ArrayList<>(batchSize);
+			long[] nrOfAxioms = {0};
+			streamAxioms(manager.getOWLDataFactory(), axiom -> {
+				batch.add(axiom);
+				if (batch.size() == batchSize) {
+					manager.addAxioms(ontology, new HashSet<>(batch));
+					nrOfAxioms[0] += batch.size();
+					batch.clear();
+				}
+			});
+			manager.addAxioms(ontology, new HashSet<>(batch));
+			nrOfAxioms[0] += batch.size();
+
+			logger.info("Loaded {} ABox axioms from {}", nrOfAxioms[0], url);
+			return ontology;
+		} catch (OWLOntologyCreationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Parses the file and passes the assertion axioms to the given consumer one by one, i.e. without
+	 * creating an ontology.
+	 *
+	 * @param consumer the consumer of the axioms
+	 */
+	public void streamAxioms(Consumer<? super OWLAxiom> consumer) {
+		streamAxioms(new OWLDataFactoryImpl(), consumer);
+	}
+
+	@Override
+	public void streamTriples(StreamRDF sink) {
+		RDFDataMgr.parse(sink, url.toString());
+	}
+
+	private void streamAxioms(OWLDataFactory df, Consumer<? super OWLAxiom> consumer) {
+		AxiomStream stream = new AxiomStream(df, consumer);
+		streamTriples(stream);
+		if (stream.nrOfIgnoredTriples > 0) {
+			logger.info("Ignored {} non-ABox triples in {}", stream.nrOfIgnoredTriples, url);
+		}
+	}
+
+	/*
+	 * Converts the parsed triples into assertion axioms.
+	 */
+	private static class AxiomStream extends StreamRDFBase {
+
+		private static final Node NAMED_INDIVIDUAL = OWL2.NamedIndividual.asNode();
+
+		private final OWLDataFactory df;
+		private final Consumer<? super OWLAxiom> consumer;
+		private long nrOfIgnoredTriples = 0;
+
+		AxiomStream(OWLDataFactory df, Consumer<? super OWLAxiom> consumer) {
+			this.df = df;
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void triple(Triple triple) {
+			Node s = triple.getSubject();
+			Node p = triple.getPredicate();
+			Node o = triple.getObject();
+
+			OWLAxiom axiom = null;
+			if (p.equals(RDF.type.asNode())) {
+				if (o.isURI()) {
+					if (o.equals(NAMED_INDIVIDUAL) && s.isURI()) {
+						axiom = df.getOWLDeclarationAxiom(df.getOWLNamedIndividual(IRI.create(s.getURI())));
+					} else if (!IRI.create(o.getURI()).isReservedVocabulary()) {
+						axiom = df.getOWLClassAssertionAxiom(df.getOWLClass(IRI.create(o.getURI())), asIndividual(s));
+					}
+				}
+			} else if (p.equals(OWL.sameAs.asNode()) && !o.isLiteral()) {
+				axiom = df.getOWLSameIndividualAxiom(asIndividual(s), asIndividual(o));
+			} else if (p.equals(OWL.differentFrom.asNode()) && !o.isLiteral()) {
+				axiom = df.getOWLDifferentIndividualsAxiom(asIndividual(s), asIndividual(o));
+			} else if (!IRI.create(p.getURI()).isReservedVocabulary()) {
+				if (o.isLiteral()) {
+					axiom = df.getOWLDataPropertyAssertionAxiom(
+							df.getOWLDataProperty(IRI.create(p.getURI())), asIndividual(s), OwlApiJenaUtils.asOWLLiteral(o, df));
+				} else {
+					axiom = df.getOWLObjectPropertyAssertionAxiom(
+							df.getOWLObjectProperty(IRI.create(p.getURI())), asIndividual(s), asIndividual(o));
+				}
+			}
+
+			if (axiom != null) {
+				consumer.accept(axiom);
+			} else {
+				nrOfIgnoredTriples++;
+			}
+		}
+
+		private OWLIndividual asIndividual(Node node) {
+			return node.isBlank()
+					? df.getOWLAnonymousIndividual(node.getBlankNodeLabel())
+					: df.getOWLNamedIndividual(IRI.create(node.getURI()));
+		}
+	}
+
+	public URL getURL() {
+		return url;
+	}
+
+	public void setURL(URL url) {
+		this.url = url;
+	}
+
+	public URL getUrl() {
+		return url;
+	}
+
+	public void setUrl(URL url) {
+		this.url = url;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public void setFileName(String fileName) {
+		this.fileName = fileName;
+	}
+
+	public String getBaseDir() {
+		return baseDir;
+	}
+
+	public void setBaseDir(String baseDir) {
+		this.baseDir = baseDir;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public String toString() {
+		return "Streaming RDF file " + (url != null ? url : fileName);
+	}
+}
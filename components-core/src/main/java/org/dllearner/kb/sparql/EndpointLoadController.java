@@ -0,0 +1,280 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.sparql.engine.http.QueryExceptionHTTP;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controls the load that is put on a SPARQL endpoint. Instead of a fixed delay between the queries, the number
+ * of concurrent queries, the delay between the start of two queries and the page size used for paginated
+ * queries are adapted to the observed latency and errors of the endpoint (AIMD): as long as the queries succeed
+ * and the latency is close to the best one observed, the number of concurrent queries and the page size are
+ * increased additively and the delay is reduced; if the endpoint signals overload (HTTP 429/502/503, refused
+ * connections) or queries time out, the number of concurrent queries is halved and the delay is doubled, in case
+ * of timeouts the page size is halved as well. Queries failing due to overload or timeouts are retried with
+ * exponential backoff. The delay never drops below a given minimum delay.
+ * <p>
+ * A controller is meant to be shared by all components that query the same endpoint, see
+ * {@link org.dllearner.kb.SparqlEndpointKS#getLoadController()}.
+ */
+public class EndpointLoadController {
+
+	private static final Logger logger = LoggerFactory.getLogger(EndpointLoadController.class);
+
+	/**
+	 * The outcome of a query w.r.t. the load of the endpoint.
+	 */
+	public enum Outcome {
+		SUCCESS,
+		/** the endpoint is overloaded */
+		OVERLOAD,
+		/** the query timed out */
+		TIMEOUT,
+		/** the query failed for other reasons, e.g. a syntax error, which says nothing about the load */
+		FAILURE
+	}
+
+	private static final long MIN_PAGE_SIZE = 100;
+	private static final long MIN_DELAY_MILLIS = 10;
+	private static final long MAX_DELAY_MILLIS = 5000;
+	private static final long BASE_BACKOFF_MILLIS = 1000;
+	private static final long MAX_BACKOFF_MILLIS = 30000;
+	// the concurrency is only increased while the latency is below this factor of the best latency observed
+	private static final double LATENCY_TOLERANCE = 2.0;
+	// the weight of a new latency observation in the moving average
+	private static final double LATENCY_WEIGHT = 0.2;
+
+	private final int maxConcurrency;
+	private final long maxPageSize;
+	private final int maxRetries;
+	private final long minDelayMillis;
+
+	// the state, guarded by this
+	private double concurrencyLimit = 1;
+	private int inFlight = 0;
+	private long delayMillis;
+	private long pageSize;
+	private long nextStartNanos = System.nanoTime();
+	// decreases are applied at most once for all queries that were running at the same time
+	private long lastDecreaseNanos = System.nanoTime();
+	private double avgLatencyMillis = -1;
+	private double minLatencyMillis = Double.MAX_VALUE;
+
+	private long nrOfQueries = 0;
+	private long nrOfOverloads = 0;
+	private long nrOfTimeouts = 0;
+	private long nrOfFailures = 0;
+
+	/**
+	 * @param maxConcurrency the max. number of concurrent queries
+	 * @param maxPageSize the max. page size of paginated queries
+	 * @param maxRetries the max. number of retries of a query that failed due to overload or a timeout
+	 */
+	public EndpointLoadController(int maxConcurrency, long maxPageSize, int maxRetries) {
+		this(maxConcurrency, maxPageSize, maxRetries, 0);
+	}
+
+	/**
+	 * @param maxConcurrency the max. number of concurrent queries
+	 * @param maxPageSize the max. page size of paginated queries
+	 * @param maxRetries the max. number of retries of a query that failed due to overload or a timeout
+	 * @param minDelayMillis the min. delay between the start of two queries in ms
+	 */
+	public EndpointLoadController(int maxConcurrency, long maxPageSize, int maxRetries, long minDelayMillis) {
+		this.maxConcurrency = Math.max(1, maxConcurrency);
+		this.maxPageSize = Math.max(MIN_PAGE_SIZE, maxPageSize);
+		this.maxRetries = Math.max(0, maxRetries);
+		this.minDelayMillis = Math.max(0, minDelayMillis);
+		this.pageSize = this.maxPageSize;
+		this.delayMillis = this.minDelayMillis;
+	}
+
+	/**
+	 * Blocks until a query can be sent to the endpoint, i.e. the number of running queries is below the current
+	 * limit and the delay since the start of the previous query has passed. Each call must be followed by a
+	 * call of {@link #release(long, Outcome)}.
+	 *
+	 * @return the start time of the query in ns
+	 * @throws InterruptedException if the thread was interrupted while waiting
+	 */
+	public long acquire() throws InterruptedException {
+		long waitNanos;
+		synchronized (this) {
+			while (inFlight >= (int) concurrencyLimit) {
+				wait();
+			}
+			inFlight++;
+			// reserve the next start slot
+			long now = System.nanoTime();
+			long start = Math.max(now, nextStartNanos);
+			nextStartNanos = start + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+			waitNanos = start - now;
+		}
+		if (waitNanos > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(waitNanos);
+			} catch (InterruptedException e) {
+				synchronized (this) {
+					inFlight--;
+					notifyAll();
+				}
+				throw e;
+			}
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Reports the outcome of a query and adapts the load accordingly. The latency of the query is the time from
+	 * the start until this call, thus, it has to be called after the results have been read completely.
+	 *
+	 * @param startNanos the start time as returned by {@link #acquire()}
+	 * @param outcome the outcome of the query
+	 */
+	public synchronized void release(long startNanos, Outcome outcome) {
+		release(startNanos, (System.nanoTime() - startNanos) / 1_000_000d, outcome);
+	}
+
+	// the latency is passed explicitly to test the adaption independently of the actual timing
+	synchronized void release(long startNanos, double latencyMillis, Outcome outcome) {
+		inFlight--;
+		nrOfQueries++;
+
+		switch (outcome) {
+			case SUCCESS:
+				avgLatencyMillis = avgLatencyMillis < 0
+						? latencyMillis
+						: (1 - LATENCY_WEIGHT) * avgLatencyMillis + LATENCY_WEIGHT * latencyMillis;
+				minLatencyMillis = Math.min(minLatencyMillis, avgLatencyMillis);
+				if (avgLatencyMillis <= LATENCY_TOLERANCE * minLatencyMillis) {
+					// additive increase, i.e. by one within one round of queries
+					concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+					delayMillis = delayMillis <= MIN_DELAY_MILLIS ? 0 : delayMillis - Math.max(1, delayMillis / 10);
+					delayMillis = Math.max(minDelayMillis, delayMillis);
+					pageSize = Math.min(maxPageSize, pageSize + Math.max(MIN_PAGE_SIZE, maxPageSize / 10));
+				}
+				break;
+			case OVERLOAD:
+			case TIMEOUT:
+				if (outcome == Outcome.OVERLOAD) {
+					nrOfOverloads++;
+				} else {
+					nrOfTimeouts++;
+				}
+				// multiplicative decrease, but only once for all queries started before the last decrease
+				if (startNanos >= lastDecreaseNanos) {
+					lastDecreaseNanos = System.nanoTime();
+					concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+					delayMillis = Math.max(minDelayMillis, Math.min(MAX_DELAY_MILLIS, Math.max(MIN_DELAY_MILLIS, 2 * delayMillis)));
+					if (outcome == Outcome.TIMEOUT) {
+						pageSize = Math.max(MIN_PAGE_SIZE, pageSize / 2);
+					}
+					logger.debug("Endpoint {}, reducing load: {}", outcome, this);
+				}
+				break;
+			default:
+				nrOfFailures++;
+		}
+		notifyAll();
+	}
+
+	/**
+	 * @param outcome the outcome of the failed query
+	 * @param attempt the number of retries so far
+	 * @return whether the query should be retried
+	 */
+	public boolean shouldRetry(Outcome outcome, int attempt) {
+		return (outcome == Outcome.OVERLOAD || outcome == Outcome.TIMEOUT) && attempt < maxRetries;
+	}
+
+	/**
+	 * @param attempt the number of retries so far
+	 * @return the time to wait before the next retry in ms, i.e. exponential backoff with some jitter
+	 */
+	public long getBackoffMillis(int attempt) {
+		long backoff = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+		return backoff + ThreadLocalRandom.current().nextLong(backoff / 4 + 1);
+	}
+
+	/**
+	 * @return the page size to use for the next paginated query
+	 */
+	public synchronized long getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @return the current max. number of concurrent queries
+	 */
+	public synchronized int getConcurrencyLimit() {
+		return (int) concurrencyLimit;
+	}
+
+	/**
+	 * @return the current delay between the start of two queries in ms
+	 */
+	public synchronized long getDelayMillis() {
+		return delayMillis;
+	}
+
+	/**
+	 * Determines the outcome of a failed query.
+	 *
+	 * @param e the exception thrown by the query
+	 * @return the outcome
+	 */
+	public static Outcome classify(Throwable e) {
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof QueryCancelledException || t instanceof SocketTimeoutException) {
+				return Outcome.TIMEOUT;
+			}
+			if (t instanceof ConnectException) {
+				return Outcome.OVERLOAD;
+			}
+			if (t instanceof QueryExceptionHTTP) {
+				int code = ((QueryExceptionHTTP) t).getResponseCode();
+				if (code == 429 || code == 502 || code == 503) {
+					return Outcome.OVERLOAD;
+				}
+				if (code == 408 || code == 504) {
+					return Outcome.TIMEOUT;
+				}
+			}
+			if (t.getCause() == t) {
+				break;
+			}
+		}
+		return Outcome.FAILURE;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("concurrency=%d, delay=%dms, pageSize=%d, avgLatency=%.1fms, queries=%d, overloads=%d, timeouts=%d, failures=%d",
+				(int) concurrencyLimit, delayMillis, pageSize, Math.max(0, avgLatencyMillis),
+				nrOfQueries, nrOfOverloads, nrOfTimeouts, nrOfFailures);
+	}
+}
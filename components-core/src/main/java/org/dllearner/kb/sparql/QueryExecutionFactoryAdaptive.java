@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import org.aksw.jena_sparql_api.core.QueryExecutionDecorator;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactoryDecorator;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.dllearner.kb.sparql.EndpointLoadController.Outcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A query execution factory that sends the queries under the control of an {@link EndpointLoadController}, i.e.
+ * it limits the number of concurrent queries and the rate of queries, reports the latency and errors of each
+ * query and retries queries that failed due to overload or timeouts with exponential backoff.
+ * <p>
+ * The results of a SELECT query are read completely while the query holds its slot, i.e. the latency covers the
+ * transfer of the results, and timeouts or dropped connections while reading the results are handled like any
+ * other failure of the query.
+ */
+public class QueryExecutionFactoryAdaptive extends QueryExecutionFactoryDecorator {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryExecutionFactoryAdaptive.class);
+
+	private final EndpointLoadController controller;
+
+	public QueryExecutionFactoryAdaptive(QueryExecutionFactory decoratee, EndpointLoadController controller) {
+		super(decoratee);
+		this.controller = controller;
+	}
+
+	public EndpointLoadController getController() {
+		return controller;
+	}
+
+	@Override
+	public QueryExecution createQueryExecution(Query query) {
+		return new AdaptiveQueryExecution(() -> decoratee.createQueryExecution(query));
+	}
+
+	@Override
+	public QueryExecution createQueryExecution(String queryString) {
+		return new AdaptiveQueryExecution(() -> decoratee.createQueryExecution(queryString));
+	}
+
+	private class AdaptiveQueryExecution extends QueryExecutionDecorator {
+
+		// a query execution can be executed only once, thus, we need a new one for each retry
+		private final Supplier<QueryExecution> supplier;
+
+		AdaptiveQueryExecution(Supplier<QueryExecution> supplier) {
+			super(supplier.get());
+			this.supplier = supplier;
+		}
+
+		@Override
+		public ResultSet execSelect() {
+			// the results are streamed from the endpoint, thus, we consume them before releasing the slot
+			return execute(qe -> ResultSetFactory.copyResults(qe.execSelect()));
+		}
+
+		@Override
+		public boolean execAsk() {
+			return execute(QueryExecution::execAsk);
+		}
+
+		@Override
+		public Model execConstruct() {
+			return execute(QueryExecution::execConstruct);
+		}
+
+		@Override
+		public Model execConstruct(Model model) {
+			return execute(qe -> qe.execConstruct(model));
+		}
+
+		@Override
+		public Model execDescribe() {
+			return execute(QueryExecution::execDescribe);
+		}
+
+		@Override
+		public Model execDescribe(Model model) {
+			return execute(qe -> qe.execDescribe(model));
+		}
+
+		private <T> T execute(Function<QueryExecution, T> exec) {
+			for (int attempt = 0; ; attempt++) {
+				long start;
+				try {
+					start = controller.acquire();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException("Interrupted while waiting for the SPARQL endpoint", e);
+				}
+
+				Outcome outcome = Outcome.SUCCESS;
+				try {
+					return exec.apply(decoratee);
+				} catch (RuntimeException e) {
+					outcome = EndpointLoadController.classify(e);
+					if (!controller.shouldRetry(outcome, attempt)) {
+						throw e;
+					}
+				} finally {
+					controller.release(start, outcome);
+				}
+
+				long backoff = controller.getBackoffMillis(attempt);
+				logger.debug("Query failed ({}), retrying in {}ms. {}", outcome, backoff, controller);
+				try {
+					Thread.sleep(backoff);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException("Interrupted while waiting for the SPARQL endpoint", e);
+				}
+
+				long timeout1 = decoratee.getTimeout1();
+				long timeout2 = decoratee.getTimeout2();
+				decoratee.close();
+				decoratee = supplier.get();
+				if (timeout1 >= 0 || timeout2 >= 0) {
+					decoratee.setTimeout(timeout1, timeout2);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactoryDecorator;
+import org.aksw.jena_sparql_api.pagination.core.QueryExecutionFactoryPaginated;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+
+/**
+ * A query execution factory that splits queries into pages, where the page size of each query is taken from an
+ * {@link EndpointLoadController}, i.e. it is reduced if queries to the endpoint time out and increased again
+ * afterwards.
+ */
+public class QueryExecutionFactoryAdaptivePaginated extends QueryExecutionFactoryDecorator {
+
+	private final EndpointLoadController controller;
+
+	public QueryExecutionFactoryAdaptivePaginated(QueryExecutionFactory decoratee, EndpointLoadController controller) {
+		super(decoratee);
+		this.controller = controller;
+	}
+
+	@Override
+	public QueryExecution createQueryExecution(Query query) {
+		return new QueryExecutionFactoryPaginated(decoratee, controller.getPageSize()).createQueryExecution(query);
+	}
+
+	@Override
+	public QueryExecution createQueryExecution(String queryString) {
+		return new QueryExecutionFactoryPaginated(decoratee, controller.getPageSize()).createQueryExecution(queryString);
+	}
+}
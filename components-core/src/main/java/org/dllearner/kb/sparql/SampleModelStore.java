@@ -0,0 +1,254 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.jena.query.Query;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.dllearner.kb.SparqlEndpointKS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A store for sample models of entities that have been fetched from a SPARQL endpoint by means of a
+ * SPARQL CONSTRUCT query. The samples are keyed by the endpoint URL and graphs they have been taken from and
+ * the sample query with the entity already bound, thus, different learning algorithms that use the same sample
+ * query shape for the same entity (e.g. domain and range learning of an object property) share a single
+ * sample instead of sending the same CONSTRUCT query pages to the endpoint again. Samples of local knowledge
+ * bases are not stored.
+ * <p>
+ * Since the data of an endpoint might change, a store is supposed to be used for a single run only, e.g. one
+ * enrichment of a knowledge base, and has to be passed explicitly to the learning algorithms. The store is
+ * bounded by the total number of triples, i.e. least recently used samples are evicted once the limit is
+ * exceeded. Samples returned by the store are shared and must be treated as read-only.
+ */
+public class SampleModelStore {
+
+	private static final Logger logger = LoggerFactory.getLogger(SampleModelStore.class);
+
+	/**
+	 * The type of the in-memory store used for the sample models.
+	 */
+	public enum StorageType {
+		/** the default Jena in-memory graph */
+		DEFAULT,
+		/** a Jena in-memory store that keeps all triples indexed in SPO, POS and OSP order */
+		INDEXED
+	}
+
+	/**
+	 * The default max. total number of triples kept in a store.
+	 */
+	public static final long DEFAULT_MAX_TRIPLES = 1_000_000;
+
+	private static class CacheKey {
+		private final String source;
+		private final String query;
+
+		CacheKey(String source, String query) {
+			this.source = source;
+			this.query = query;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			CacheKey cacheKey = (CacheKey) o;
+			return Objects.equals(source, cacheKey.source) &&
+					Objects.equals(query, cacheKey.query);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(source, query);
+		}
+	}
+
+	private final Cache<CacheKey, Model> cache;
+
+	private final StorageType storageType;
+
+	/**
+	 * Creates a new sample store using the default Jena in-memory graph and the default max. number of triples.
+	 */
+	public SampleModelStore() {
+		this(DEFAULT_MAX_TRIPLES);
+	}
+
+	/**
+	 * Creates a new sample store using the default Jena in-memory graph.
+	 *
+	 * @param maxTriples the max. total number of triples kept in the store
+	 */
+	public SampleModelStore(long maxTriples) {
+		this(maxTriples, StorageType.DEFAULT);
+	}
+
+	/**
+	 * Creates a new sample store.
+	 *
+	 * @param maxTriples the max. total number of triples kept in the store
+	 * @param storageType the type of in-memory store used for the samples
+	 */
+	public SampleModelStore(long maxTriples, StorageType storageType) {
+		this.storageType = storageType;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumWeight(maxTriples)
+				// empty samples have a weight as well, otherwise they would never be evicted
+				.weigher((CacheKey key, Model model) -> (int) Math.max(1, Math.min(Integer.MAX_VALUE, model.size())))
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Returns the ID of the samples taken from the knowledge base, i.e. the endpoint URL together with the
+	 * default and named graphs.
+	 *
+	 * @param ks the knowledge base
+	 * @return the ID, or {@code null} if the knowledge base is not a remote SPARQL endpoint (e.g. a local model or
+	 * a knowledge base given only by a query execution factory)
+	 */
+	public static String getSourceId(SparqlEndpointKS ks) {
+		if (ks == null || !ks.isRemote() || ks.getEndpoint() == null) {
+			return null;
+		}
+		SparqlEndpoint endpoint = ks.getEndpoint();
+		return endpoint.getURL()
+				+ " default=" + sorted(endpoint.getDefaultGraphURIs())
+				+ " named=" + sorted(endpoint.getNamedGraphURIs());
+	}
+
+	private static Set<String> sorted(Collection<String> graphs) {
+		return graphs == null ? Collections.emptySet() : new TreeSet<>(graphs);
+	}
+
+	/**
+	 * Returns the sample for the given query on the given knowledge base. If there is no such sample yet, it
+	 * will be computed by the given loader, which gets an empty model created by {@link #createModel()} and is
+	 * supposed to fill it. Concurrent calls for the same sample will wait until the first one has been
+	 * finished, thus, each sample is loaded only once. Samples of knowledge bases without a source ID
+	 * (see {@link #getSourceId(SparqlEndpointKS)}) are loaded each time and not stored.
+	 *
+	 * @param ks the knowledge base the sample is taken from
+	 * @param query the sample query with the entity already bound
+	 * @param loader the loader that fills the sample model
+	 * @return the sample model
+	 */
+	public Model getSample(SparqlEndpointKS ks, Query query, SampleLoader loader) {
+		String source = getSourceId(ks);
+		if (source == null) {
+			Model sample = createModel();
+			try {
+				loader.load(sample);
+			} catch (Exception e) {
+				throw new RuntimeException("Failed to load sample for query\n" + query, e);
+			}
+			return sample;
+		}
+		CacheKey key = new CacheKey(source, query.toString());
+		try {
+			return cache.get(key, () -> {
+				Model sample = createModel();
+				loader.load(sample);
+				logger.debug("Stored sample of size {} for query\n{}", sample.size(), key.query);
+				return sample;
+			});
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Failed to load sample for query\n" + query, e.getCause());
+		}
+	}
+
+	/**
+	 * @return a new, empty model of the configured storage type
+	 */
+	public Model createModel() {
+		return createModel(storageType);
+	}
+
+	/**
+	 * @param storageType the type of in-memory store
+	 * @return a new, empty model of the given storage type
+	 */
+	public static Model createModel(StorageType storageType) {
+		switch (storageType) {
+			case INDEXED:
+				return ModelFactory.createModelForGraph(DatasetGraphFactory.createTxnMem().getDefaultGraph());
+			default:
+				return ModelFactory.createDefaultModel();
+		}
+	}
+
+	/**
+	 * Removes all samples from the store.
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Removes all samples taken from the given knowledge base, e.g. after its data has changed.
+	 *
+	 * @param ks the knowledge base
+	 */
+	public void clear(SparqlEndpointKS ks) {
+		String source = getSourceId(ks);
+		if (source != null) {
+			cache.asMap().keySet().removeIf(key -> key.source.equals(source));
+		}
+	}
+
+	/**
+	 * @return the cache statistics, i.e. the number of samples loaded vs. reused
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	/**
+	 * @return the total number of triples currently kept in the store
+	 */
+	public long getNrOfTriples() {
+		return cache.asMap().values().stream().mapToLong(Model::size).sum();
+	}
+
+	/**
+	 * Fills a sample model.
+	 */
+	@FunctionalInterface
+	public interface SampleLoader {
+		void load(Model sample) throws Exception;
+	}
+
+	@Override
+	public String toString() {
+		return "SampleModelStore[storage=" + storageType + ", samples=" + cache.size() + ", " + getStats() + "]";
+	}
+}
@@ -231,6 +231,14 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 	// see http://sunsite.informatik.rwth-aachen.de/Publications/CEUR-WS/Vol-426/swap2008_submission_14.pdf
 	// for all methods below (currently dummies)
 
+	/**
+	 * @return the instances of the super classes including the instances of the class itself, i.e. all
+	 * individuals used to evaluate a class expression
+	 */
+	public List<OWLIndividual> getClassAndSuperClassInstances() {
+		return Collections.unmodifiableList(classAndSuperClassInstances);
+	}
+
 	/**
 	 * @return the classToDescribe
 	 */
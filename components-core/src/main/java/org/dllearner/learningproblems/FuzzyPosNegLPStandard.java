@@ -18,6 +18,8 @@
  */
 package org.dllearner.learningproblems;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.dllearner.core.AbstractReasonerComponent;
 import org.dllearner.core.ComponentAnn;
 import org.dllearner.core.ComponentInitException;
@@ -32,7 +34,9 @@ import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -69,6 +73,18 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 	@ConfigOption(description = "Specifies, which method/function to use for computing accuracy. Available measues are \"PRED_ACC\" (predictive accuracy), \"FMEASURE\" (F measure), \"GEN_FMEASURE\" (generalised F-Measure according to Fanizzi and d'Amato).",defaultValue = "PRED_ACC")
     private HeuristicType accuracyMethod = HeuristicType.PRED_ACC;
 	
+	@ConfigOption(description = "The max. number of class expressions for which the fuzzy membership degrees of the examples are cached, 0 disables the cache.", defaultValue = "10000")
+	private int membershipCacheSize = 10000;
+	
+	// the fuzzy examples in a fixed order and their truth degrees
+	private List<FuzzyIndividual> fuzzyExampleList;
+	private double[] truthDegrees;
+	// class expression -> membership degrees of the fuzzy examples (in the order of the list above)
+	private Cache<OWLClassExpression, double[]> membershipCache;
+	// the number of examples whose membership degrees are requested at once when the accuracy
+	// computation can stop early, i.e. at most this number of requests is wasted for too weak expressions
+	private static final int MEMBERSHIP_CHUNK_SIZE = 16;
+	
 	public FuzzyPosNegLPStandard() {}
 	
 	public FuzzyPosNegLPStandard(AbstractReasonerComponent reasoningService) {
@@ -89,6 +105,12 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 			logger.warn("Approximating predictive accuracy is an experimental feature. USE IT AT YOUR OWN RISK. If you consider to use it for anything serious, please extend the unit tests at org.dllearner.test.junit.HeuristicTests first and verify that it works.");
 		}
 		
+		fuzzyExampleList = new ArrayList<>(fuzzyExamples);
+		truthDegrees = fuzzyExampleList.stream().mapToDouble(FuzzyIndividual::getTruthDegree).toArray();
+		membershipCache = membershipCacheSize > 0
+				? CacheBuilder.newBuilder().maximumSize(membershipCacheSize).<OWLClassExpression, double[]>build()
+				: null;
+		
 		initialized = true;
 	}
 
@@ -265,20 +287,37 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 		
 //		System.out.println("noise = " + noise);
 		
+		// the membership degrees are requested chunk-wise unless they are cached, thus, for too weak
+		// expressions only the examples up to the chunk containing the violating example are checked
+		double[] memberships = membershipCache == null ? null : membershipCache.getIfPresent(description);
+		boolean complete = memberships != null;
+		if (!complete) {
+			memberships = new double[fuzzyExampleList.size()];
+		}
+		
 		// int individualCounter = fuzzyExamples.size();
 		double individualCounter = totalTruth;
-		for (FuzzyIndividual fuzzyExample : fuzzyExamples) {
+		for (int i = 0; i < memberships.length; i++) {
+			if (!complete && i % MEMBERSHIP_CHUNK_SIZE == 0) {
+				int end = Math.min(i + MEMBERSHIP_CHUNK_SIZE, memberships.length);
+				double[] chunk = getReasoner().hasTypeFuzzyMembership(description, fuzzyExampleList.subList(i, end));
+				System.arraycopy(chunk, 0, memberships, i, chunk.length);
+			}
 			// accumulatedSingleMembership += singleMembership;
-			nonAccumulativeDescriptionMembership = 1 - Math.abs(fuzzyExample.getTruthDegree() - getReasoner().hasTypeFuzzyMembership(description, fuzzyExample));
+			nonAccumulativeDescriptionMembership = 1 - Math.abs(truthDegrees[i] - memberships[i]);
 			descriptionMembership += nonAccumulativeDescriptionMembership;
-			individualCounter -= fuzzyExample.getTruthDegree();
-			if ((accumulativeDescriptionMembership + (nonAccumulativeDescriptionMembership * fuzzyExample.getTruthDegree()) + individualCounter) < ((1 - noise) * totalTruth))
+			individualCounter -= truthDegrees[i];
+			if ((accumulativeDescriptionMembership + (nonAccumulativeDescriptionMembership * truthDegrees[i]) + individualCounter) < ((1 - noise) * totalTruth))
 				return -1;
-			accumulativeDescriptionMembership += nonAccumulativeDescriptionMembership * fuzzyExample.getTruthDegree();
+			accumulativeDescriptionMembership += nonAccumulativeDescriptionMembership * truthDegrees[i];
 
 		}
 		
-		double fuzzyAccuracy = descriptionMembership / fuzzyExamples.size();
+		if (!complete && membershipCache != null) {
+			membershipCache.put(description, memberships);
+		}
+		
+		double fuzzyAccuracy = descriptionMembership / memberships.length;
 		
 //		System.err.println("crispAccuracy = fuzzyAccuracy");
 //		crispAccuracy = fuzzyAccuracy;
@@ -296,6 +335,22 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 		return fuzzyAccuracy;
 	}
 
+	/*
+	 * Returns the fuzzy membership degrees of all fuzzy examples (in the order of the
+	 * fuzzy example list), computed by a single reasoner call and cached per class expression.
+	 */
+	private double[] getFuzzyMemberships(OWLClassExpression description) {
+		if (membershipCache == null) {
+			return getReasoner().hasTypeFuzzyMembership(description, fuzzyExampleList);
+		}
+		double[] memberships = membershipCache.getIfPresent(description);
+		if (memberships == null) {
+			memberships = getReasoner().hasTypeFuzzyMembership(description, fuzzyExampleList);
+			membershipCache.put(description, memberships);
+		}
+		return memberships;
+	}
+	
 	// added by Josue
 	private double crispAccuracy(OWLClassExpression description, double noise) {
 		int maxNotCovered = (int) Math.ceil(noise*positiveExamples.size());
@@ -356,11 +411,12 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 		double invertedCoveredMembershipDegree = 0;
 		double lastMembershipDegree;
 
-		for (FuzzyIndividual ind: fuzzyExamples) {
-			lastMembershipDegree = (1 - Math.abs(ind.getTruthDegree() - getReasoner().hasTypeFuzzyMembership(description, ind)));
-			coveredMembershipDegree += lastMembershipDegree * ind.getTruthDegree();
-			totalMembershipDegree += ind.getTruthDegree();
-			invertedCoveredMembershipDegree += (1 - ind.getTruthDegree()) * (1 - lastMembershipDegree);
+		double[] memberships = getFuzzyMemberships(description);
+		for (int i = 0; i < memberships.length; i++) {
+			lastMembershipDegree = (1 - Math.abs(truthDegrees[i] - memberships[i]));
+			coveredMembershipDegree += lastMembershipDegree * truthDegrees[i];
+			totalMembershipDegree += truthDegrees[i];
+			invertedCoveredMembershipDegree += (1 - truthDegrees[i]) * (1 - lastMembershipDegree);
 		}
 		double fuzzyRecall = totalMembershipDegree == 0 ? 0 :coveredMembershipDegree/totalMembershipDegree;
 
@@ -554,6 +610,21 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 	public void setAccuracyMethod(HeuristicType accuracyMethod) {
 		this.accuracyMethod = accuracyMethod;
 	}
+	
+	/**
+	 * @return the max. number of class expressions whose membership degrees are cached
+	 */
+	public int getMembershipCacheSize() {
+		return membershipCacheSize;
+	}
+	
+	/**
+	 * @param membershipCacheSize the max. number of class expressions whose membership degrees
+	 * are cached, 0 disables the cache
+	 */
+	public void setMembershipCacheSize(int membershipCacheSize) {
+		this.membershipCacheSize = membershipCacheSize;
+	}
 
 	
 	public double getAccuracy(int posAsPos, int posAsNeg, int negAsPos, int negAsNeg, double noise) {
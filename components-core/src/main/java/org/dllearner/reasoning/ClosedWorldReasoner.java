@@ -17,26 +17,35 @@
  */
 package org.dllearner.reasoning;
 
-import com.google.common.collect.Multimaps;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
-import com.google.common.collect.TreeMultimap;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.vocabulary.RDF;
 import org.dllearner.core.*;
 import org.dllearner.core.annotations.NoConfigOption;
 import org.dllearner.core.config.ConfigOption;
 import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.kb.RDFStreamKnowledgeSource;
 import org.dllearner.utilities.Helper;
-import org.dllearner.utilities.MapUtils;
 import org.dllearner.utilities.OWLAPIUtils;
+import org.dllearner.utilities.OwlApiJenaUtils;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormatter;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.util.DefaultPrefixManager;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.vocab.OWLFacet;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,8 +54,10 @@ import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 import java.io.*;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -93,6 +104,8 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
     // object property mappings
     private Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPos = new TreeMap<>();
 //	private Map<OWLObjectProperty, Multimap<OWLIndividual, OWLIndividual>> opPos = new TreeMap<>();
+    // inverse object property mappings, i.e. object -> subjects
+    private Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPosInverse = new ConcurrentHashMap<>();
     // data property mappings
     private Map<OWLDataProperty, Map<OWLIndividual, SortedSet<OWLLiteral>>> dpPos = new TreeMap<>();
 
@@ -147,8 +160,36 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
     private boolean useMaterializationCaching = true;
     @ConfigOption(defaultValue = "false")
     private boolean handlePunning = false;
+    @ConfigOption(defaultValue = "false", description = "Whether to add the facts of all sub-properties to an object property.")
+    private boolean materializeSubPropertyFacts = false;
+    @ConfigOption(defaultValue = "false", description = "Whether to compute the transitive closure of the facts of object " +
+            "properties declared as transitive.")
+    private boolean materializeTransitiveProperties = false;
     private boolean precomputeNegations = true;
 
+    @ConfigOption(defaultValue = "false", description = "Whether to build the instance data directly from the triples of " +
+            "the RDF stream knowledge sources (e.g. a streaming RDF file) instead of loading them by the base reasoner. " +
+            "The base reasoner then only loads the other knowledge sources, i.e. the schema, and the types of the " +
+            "individuals are propagated along the class and property hierarchy only.")
+    private boolean streamABox = false;
+
+    // whether the instance data has been streamed directly into the indexes
+    private boolean aboxStreamed = false;
+
+    @ConfigOption(defaultValue = "64", description = "The max. size (in MB) of the cache for the instances of complex " +
+            "class expressions computed during retrieval, which is also used for the sub-expressions shared by " +
+            "similar class expressions. 0 disables the cache.")
+    private int extensionCacheSize = 64;
+
+    // the instances of complex class expressions as bit sets over the (sorted) individuals
+    private Cache<OWLClassExpression, CachedExtension> extensionCache;
+    private List<OWLIndividual> individualList;
+    private Map<OWLIndividual, Integer> individualIndex;
+    private final LongAdder extensionCacheSavedTimeNs = new LongAdder();
+    // the classes and data properties of the schema and the streamed instance data
+    private Set<OWLClass> classes;
+    private Set<OWLDataProperty> dataProperties;
+
     public ClosedWorldReasoner() {
     }
 
@@ -217,13 +258,33 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
      */
     @Override
     public void init() throws ComponentInitException {
+        invalidateTBoxCache();
+
+        List<RDFStreamKnowledgeSource> aboxSources = new ArrayList<>();
+        if (streamABox) {
+            sources.stream()
+                    .filter(ks -> ks instanceof RDFStreamKnowledgeSource)
+                    .forEach(ks -> aboxSources.add((RDFStreamKnowledgeSource) ks));
+        }
+
         if (baseReasoner == null) {
-            baseReasoner = new OWLAPIReasoner(sources);
+            Set<KnowledgeSource> schemaSources = new HashSet<>(sources);
+            schemaSources.removeAll(aboxSources);
+            baseReasoner = new OWLAPIReasoner(schemaSources);
             baseReasoner.init();
         }
 
-//		loadOrDematerialize();
-        materialize();
+        aboxStreamed = !aboxSources.isEmpty();
+        if (aboxStreamed) {
+            materialize(aboxSources);
+        } else {
+//		    loadOrDematerialize();
+            materialize();
+        }
+
+        buildObjectPropertyIndexes();
+
+        initExtensionCache();
         
         initialized = true;
     }
@@ -427,6 +488,173 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         logger.info("...TBox materialised in " + dematDuration + " ms.");
     }
 
+    /*
+     * Fills the indexes directly from the triples of the given knowledge sources. Only the schema is taken from
+     * the base reasoner, thus, neither OWL axioms are created for the instance data nor does the base reasoner
+     * have to realize the ABox. Instead, the asserted types and property facts are propagated in bulk along the
+     * class and property hierarchy.
+     */
+    private void materialize(List<RDFStreamKnowledgeSource> aboxSources) {
+        logger.info("Streaming ABox into closed world indexes...");
+        long startTime = System.currentTimeMillis();
+
+        ABoxStream stream = new ABoxStream();
+        for (RDFStreamKnowledgeSource ks : aboxSources) {
+            ks.streamTriples(stream);
+        }
+        logger.info("...read " + stream.nrOfTriples + " triples (" + stream.nrOfIgnoredTriples + " ignored) about "
+                + stream.individuals.size() + " individuals.");
+
+        individuals = new TreeSet<>(stream.individuals.values());
+        OWLReasoner schemaReasoner = baseReasoner.getReasoner();
+
+        // classes
+        classes = new TreeSet<>(baseReasoner.getClasses());
+        classes.addAll(stream.types.keySet());
+        for (OWLClass cls : classes) {
+            classInstancesPos.put(cls, new TreeSet<>());
+        }
+        stream.types.forEach((cls, instances) -> {
+            Set<OWLClass> targets = new HashSet<>();
+            targets.add(cls);
+            if (baseReasoner.getClasses().contains(cls)) {
+                targets.addAll(schemaReasoner.getSuperClasses(cls, false).getFlattened());
+                targets.addAll(schemaReasoner.getEquivalentClasses(cls).getEntities());
+            }
+            for (OWLClass target : targets) {
+                TreeSet<OWLIndividual> pos = classInstancesPos.get(target);
+                if (pos != null) { // not for owl:Thing
+                    pos.addAll(instances);
+                }
+            }
+        });
+        for (OWLClass cls : classes) {
+            if (isDefaultNegation()) {
+                if (precomputeNegations) {
+                    classInstancesNeg.put(cls, new TreeSet<>(Sets.difference(individuals, classInstancesPos.get(cls))));
+                }
+            } else {
+                // negative class assertions are not part of the streamed instance data
+                classInstancesNeg.put(cls, new TreeSet<>());
+            }
+        }
+
+        // object properties
+        Set<OWLObjectProperty> objectProperties = new TreeSet<>(baseReasoner.getObjectProperties());
+        objectProperties.addAll(stream.opFacts.keySet());
+        for (OWLObjectProperty p : objectProperties) {
+            opPos.put(p, stream.opFacts.getOrDefault(p, new HashMap<>()));
+        }
+        stream.opFacts.forEach((p, facts) -> {
+            if (baseReasoner.getObjectProperties().contains(p)) {
+                schemaReasoner.getSuperObjectProperties(p, false).getFlattened().stream()
+                        .filter(pe -> !pe.isAnonymous() && !pe.isOWLTopObjectProperty())
+                        .map(OWLObjectPropertyExpression::asOWLObjectProperty)
+                        .filter(sup -> !sup.equals(p) && opPos.containsKey(sup))
+                        .forEach(sup -> facts.forEach((s, objects) ->
+                                opPos.get(sup).computeIfAbsent(s, k -> new TreeSet<>()).addAll(objects)));
+            }
+        });
+        this.objectProperties = Collections.unmodifiableSet(objectProperties);
+
+        // data properties
+        dataProperties = new TreeSet<>(baseReasoner.getDatatypeProperties());
+        dataProperties.addAll(stream.dpFacts.keySet());
+        for (OWLDataProperty p : dataProperties) {
+            dpPos.put(p, stream.dpFacts.getOrDefault(p, new HashMap<>()));
+        }
+        stream.dpFacts.forEach((p, facts) -> {
+            if (baseReasoner.getDatatypeProperties().contains(p)) {
+                schemaReasoner.getSuperDataProperties(p, false).getFlattened().stream()
+                        .filter(sup -> !sup.isOWLTopDataProperty() && !sup.equals(p) && dpPos.containsKey(sup))
+                        .forEach(sup -> facts.forEach((s, values) ->
+                                dpPos.get(sup).computeIfAbsent(s, k -> new TreeSet<>()).addAll(values)));
+            }
+        });
+
+        // the values of data properties with a known datatype
+        try {
+            for (OWLDataProperty dp : baseReasoner.getBooleanDatatypeProperties()) {
+                bdPos.put(dp, new TreeSet<>(super.getTrueDatatypeMembersImpl(dp)));
+                bdNeg.put(dp, new TreeSet<>(super.getFalseDatatypeMembersImpl(dp)));
+            }
+            for (OWLDataProperty dp : baseReasoner.getIntDatatypeProperties()) {
+                id.put(dp, super.getIntDatatypeMembersImpl(dp));
+            }
+            for (OWLDataProperty dp : baseReasoner.getDoubleDatatypeProperties()) {
+                dd.put(dp, super.getDoubleDatatypeMembersImpl(dp));
+            }
+            for (OWLDataProperty dp : baseReasoner.getStringDatatypeProperties()) {
+                sd.put(dp, super.getStringDatatypeMembersImpl(dp));
+            }
+        } catch (ReasoningMethodUnsupportedException e) {
+            throw new RuntimeException("Failed to index values of data properties.", e);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("...ABox indexed in " + duration + " ms.");
+    }
+
+    /*
+     * Collects the instance data from a stream of triples: the asserted types and the object and data property
+     * facts of the individuals. Triples about the schema and individuals used as classes or properties are ignored.
+     */
+    private class ABoxStream extends StreamRDFBase {
+
+        private final Map<Node, OWLIndividual> individuals = new HashMap<>();
+        private final Map<Node, OWLClass> classes = new HashMap<>();
+        private final Map<Node, OWLObjectProperty> objectProperties = new HashMap<>();
+        private final Map<Node, OWLDataProperty> dataProperties = new HashMap<>();
+
+        private final Map<OWLClass, Set<OWLIndividual>> types = new HashMap<>();
+        private final Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opFacts = new HashMap<>();
+        private final Map<OWLDataProperty, Map<OWLIndividual, SortedSet<OWLLiteral>>> dpFacts = new HashMap<>();
+
+        private long nrOfTriples = 0;
+        private long nrOfIgnoredTriples = 0;
+
+        @Override
+        public void triple(Triple triple) {
+            nrOfTriples++;
+            Node s = triple.getSubject();
+            Node p = triple.getPredicate();
+            Node o = triple.getObject();
+
+            if (!s.isURI() || !p.isURI()) {
+                nrOfIgnoredTriples++;
+            } else if (p.equals(RDF.type.asNode())) {
+                if (!o.isURI()) {
+                    nrOfIgnoredTriples++;
+                } else if (o.getURI().equals(OWLRDFVocabulary.OWL_NAMED_INDIVIDUAL.getIRI().toString())) {
+                    individual(s);
+                } else if (IRI.create(o.getURI()).isReservedVocabulary()) {
+                    nrOfIgnoredTriples++;
+                } else {
+                    OWLClass cls = classes.computeIfAbsent(o, n -> df.getOWLClass(IRI.create(n.getURI())));
+                    types.computeIfAbsent(cls, k -> new HashSet<>()).add(individual(s));
+                }
+            } else if (IRI.create(p.getURI()).isReservedVocabulary()) {
+                nrOfIgnoredTriples++;
+            } else if (o.isLiteral()) {
+                OWLDataProperty dp = dataProperties.computeIfAbsent(p, n -> df.getOWLDataProperty(IRI.create(n.getURI())));
+                dpFacts.computeIfAbsent(dp, k -> new HashMap<>())
+                        .computeIfAbsent(individual(s), k -> new TreeSet<>())
+                        .add(OwlApiJenaUtils.asOWLLiteral(o, df));
+            } else if (o.isURI()) {
+                OWLObjectProperty op = objectProperties.computeIfAbsent(p, n -> df.getOWLObjectProperty(IRI.create(n.getURI())));
+                opFacts.computeIfAbsent(op, k -> new HashMap<>())
+                        .computeIfAbsent(individual(s), k -> new TreeSet<>())
+                        .add(individual(o));
+            } else {
+                nrOfIgnoredTriples++;
+            }
+        }
+
+        private OWLIndividual individual(Node node) {
+            return individuals.computeIfAbsent(node, n -> df.getOWLNamedIndividual(IRI.create(n.getURI())));
+        }
+    }
+
     private void fill(SortedSet<OWLIndividual> individuals, OWLClassExpression d) {
         if (!d.isAnonymous()) {
             classInstancesPos.get(d.asOWLClass()).addAll(individuals);
@@ -500,36 +728,20 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLObjectPropertyExpression property = ((OWLObjectSomeValuesFrom) description).getProperty();
             OWLClassExpression fillerConcept = ((OWLObjectSomeValuesFrom) description).getFiller();
 
-            if (property.isAnonymous()) {// \exists r^{-1}.C
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-
-					// check if the individual is contained in the objects and
-                    // subject is of type C
-                    if (objects.contains(individual)) {
-                        if (hasTypeImpl(fillerConcept, subject)) {
-                            return true;
-                        }
-                    }
-                }
-            } else {// \exists r.C
-                if (handlePunning && property == OWLPunningDetector.punningProperty && fillerConcept.isOWLThing()) {
-                    return true;
-                }
+            if (handlePunning && property == OWLPunningDetector.punningProperty && fillerConcept.isOWLThing()) {
+                return true;
+            }
 
-                SortedSet<OWLIndividual> values = opPos.get(property).get(individual);
+            // the objects of r or the subjects of r^{-1}
+            SortedSet<OWLIndividual> values = getFillers(property, individual);
 
-                if (values == null) {
-                    return false;
-                }
+            if (values == null) {
+                return false;
+            }
 
-                for (OWLIndividual value : values) {
-                    if (hasTypeImpl(fillerConcept, value)) {
-                        return true;
-                    }
+            for (OWLIndividual value : values) {
+                if (hasTypeImpl(fillerConcept, value)) {
+                    return true;
                 }
             }
 
@@ -543,62 +755,27 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                 return true;
             }
 
-            if (property.isAnonymous()) {// \forall r^{-1}.C
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
+            // the objects of r or the subjects of r^{-1}
+            SortedSet<OWLIndividual> values = getFillers(property, individual);
 
-                Set<OWLIndividual> values = new HashSet<>();
-
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-
-                    if (objects.contains(individual)) {
-                        values.add(subject);
-                    }
-                }
-
-                // if there is no value, by standard semantics we have to return TRUE
-                if (values.isEmpty()) {
-                    return forAllSemantics == ForallSemantics.Standard;
-                }
-
-                boolean hasCorrectFiller = false;
-                for (OWLIndividual value : values) {
-                    if (hasTypeImpl(fillerConcept, value)) {
-                        hasCorrectFiller = true;
-                    } else {
-                        return false;
-                    }
-                }
+            // if there is no value, by standard semantics we have to return TRUE
+            if (values == null) {
+                return forAllSemantics == ForallSemantics.Standard;
+            }
 
-                if (forAllSemantics == ForallSemantics.SomeOnly) {
-                    return hasCorrectFiller;
+            boolean hasCorrectFiller = false;
+            for (OWLIndividual value : values) {
+                if (hasTypeImpl(fillerConcept, value)) {
+                    hasCorrectFiller = true;
                 } else {
-                    return true;
-                }
-
-            } else {// \forall r.C
-                SortedSet<OWLIndividual> values = opPos.get(property).get(individual);
-
-                // if there is no value, by standard semantics we have to return TRUE
-                if (values == null) {
-                    return forAllSemantics == ForallSemantics.Standard;
-                }
-
-                boolean hasCorrectFiller = false;
-                for (OWLIndividual value : values) {
-                    if (hasTypeImpl(fillerConcept, value)) {
-                        hasCorrectFiller = true;
-                    } else {
-                        return false;
-                    }
+                    return false;
                 }
+            }
 
-                if (forAllSemantics == ForallSemantics.SomeOnly) {
-                    return hasCorrectFiller;
-                } else {
-                    return true;
-                }
+            if (forAllSemantics == ForallSemantics.SomeOnly) {
+                return hasCorrectFiller;
+            } else {
+                return true;
             }
 
         } else if (description instanceof OWLObjectMinCardinality) {
@@ -612,60 +789,31 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLObjectPropertyExpression property = ((OWLObjectMinCardinality) description).getProperty();
             OWLClassExpression fillerConcept = ((OWLObjectMinCardinality) description).getFiller();
 
-            if (property.isAnonymous()) {
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-                int index = 0;
-                int nrOfFillers = 0;
-                int nrOfEntries = mapping.keySet().size();
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-
-					// count the number of subjects which are related to the individual such that
-                    // subject is of type C
-                    if (objects.contains(individual)) {
-                        if (hasTypeImpl(fillerConcept, subject)) {
-                            nrOfFillers++;
-
-                            if (nrOfFillers == cardinality) {
-                                return true;
-                            }
-                        } else {
-                            if (nrOfEntries - index < cardinality) {
-                                return false;
-                            }
-                        }
-                    }
-                }
-            } else {
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property);
-
-                int nrOfFillers = 0;
+            int nrOfFillers = 0;
 
-                SortedSet<OWLIndividual> values = mapping.get(individual);
+            // the objects of r or the subjects of r^{-1}
+            SortedSet<OWLIndividual> values = getFillers(property, individual);
 
-                // return false if there are none or not enough role fillers
-                if (values == null || (values.size() < cardinality && property != OWLPunningDetector.punningProperty)) {
-                    return false;
-                }
+            // return false if there are none or not enough role fillers
+            if (values == null || (values.size() < cardinality && property != OWLPunningDetector.punningProperty)) {
+                return false;
+            }
 
-                int index = 0;
-                for (OWLIndividual roleFiller : values) {
-                    index++;
-                    if (hasTypeImpl(fillerConcept, roleFiller)) {
-                        nrOfFillers++;
-                        if (nrOfFillers == cardinality
-                                || (handlePunning && property == OWLPunningDetector.punningProperty)) {
-                            return true;
-                        }
-						// early abort: e.g. >= 10 hasStructure.Methyl;
-                        // if there are 11 fillers and 2 are not Methyl, the result
-                        // is false
-                    } else {
-                        if (values.size() - index < cardinality) {
-                            return false;
-                        }
+            int index = 0;
+            for (OWLIndividual roleFiller : values) {
+                index++;
+                if (hasTypeImpl(fillerConcept, roleFiller)) {
+                    nrOfFillers++;
+                    if (nrOfFillers == cardinality
+                            || (handlePunning && property == OWLPunningDetector.punningProperty)) {
+                        return true;
+                    }
+                    // early abort: e.g. >= 10 hasStructure.Methyl;
+                    // if there are 11 fillers and 2 are not Methyl, the result
+                    // is false
+                } else {
+                    if (values.size() - index < cardinality) {
+                        return false;
                     }
                 }
             }
@@ -676,63 +824,30 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLClassExpression fillerConcept = ((OWLObjectMaxCardinality) description).getFiller();
             int cardinality = ((OWLObjectMaxCardinality) description).getCardinality();
 
-            if (property.isAnonymous()) {
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
+            int nrOfFillers = 0;
 
-                int nrOfFillers = 0;
-                int nrOfSubjects = mapping.keySet().size();
+            // the objects of r or the subjects of r^{-1}
+            SortedSet<OWLIndividual> roleFillers = getFillers(property, individual);
 
-                // return TRUE if there are none or not enough subjects
-                if (nrOfSubjects < cardinality) {
-                    return true;
-                }
+            // return true if there are none or not enough role fillers
+            if (roleFillers == null || roleFillers.size() < cardinality) {
+                return true;
+            }
 
-                int index = 0;
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
-                    index++;
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-                    if (objects.contains(individual) && hasTypeImpl(fillerConcept, subject)) {
-                        nrOfFillers++;
-                        if (nrOfFillers > cardinality) {
-                            return false;
-                        }
-						// early abort: e.g. <= 5 hasStructure.Methyl;
-                        // if there are 6 fillers and 2 are not Methyl, the result
-                        // is true
-                    } else {
-                        if (nrOfSubjects - index <= cardinality) {
-                            return true;
-                        }
+            int index = 0;
+            for (OWLIndividual roleFiller : roleFillers) {
+                index++;
+                if (hasTypeImpl(fillerConcept, roleFiller)) {
+                    nrOfFillers++;
+                    if (nrOfFillers > cardinality) {
+                        return false;
                     }
-                }
-            } else {
-                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property);
-
-                int nrOfFillers = 0;
-
-                SortedSet<OWLIndividual> roleFillers = mapping.get(individual);
-
-                // return true if there are none or not enough role fillers
-                if (roleFillers == null || roleFillers.size() < cardinality) {
-                    return true;
-                }
-
-                int index = 0;
-                for (OWLIndividual roleFiller : roleFillers) {
-                    index++;
-                    if (hasTypeImpl(fillerConcept, roleFiller)) {
-                        nrOfFillers++;
-                        if (nrOfFillers > cardinality) {
-                            return false;
-                        }
-						// early abort: e.g. <= 5 hasStructure.Methyl;
-                        // if there are 6 fillers and 2 are not Methyl, the result
-                        // is true
-                    } else {
-                        if (roleFillers.size() - index <= cardinality) {
-                            return true;
-                        }
+                    // early abort: e.g. <= 5 hasStructure.Methyl;
+                    // if there are 6 fillers and 2 are not Methyl, the result
+                    // is true
+                } else {
+                    if (roleFillers.size() - index <= cardinality) {
+                        return true;
                     }
                 }
             }
@@ -781,26 +896,10 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLObjectPropertyExpression property = ((OWLObjectHasValue) description).getProperty();
             OWLIndividual value = ((OWLObjectHasValue) description).getFiller();
 
-            Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
-
-            if (property.isAnonymous()) {
-
-                for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping
-                        .entrySet()) {
-                    OWLIndividual subject = entry.getKey();
-                    SortedSet<OWLIndividual> objects = entry.getValue();
-
-                    if (objects.contains(individual) && subject.equals(value)) {
-                        return true;
-                    }
-                }
-                return false;
-            } else {
+            // the objects of r or the subjects of r^{-1}
+            SortedSet<OWLIndividual> values = getFillers(property, individual);
 
-                SortedSet<OWLIndividual> values = mapping.get(individual);
-
-                return values != null && values.contains(value);
-            }
+            return values != null && values.contains(value);
         } //		else if (OWLClassExpression instanceof BooleanValueRestriction) {
         //			DatatypeProperty dp = ((BooleanValueRestriction) description)
         //					.getRestrictedPropertyExpression();
@@ -972,7 +1071,96 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     @Override
     public SortedSet<OWLIndividual> getIndividualsImpl(OWLClassExpression concept) throws ReasoningMethodUnsupportedException {
-        return getIndividualsImplFast(concept);
+        // the instances of named classes and their negation are indexed anyway
+        if (extensionCache == null || !concept.isAnonymous()
+                || (concept instanceof OWLObjectComplementOf && !((OWLObjectComplementOf) concept).getOperand().isAnonymous())) {
+            return getIndividualsImplFast(concept);
+        }
+
+        CachedExtension cached = extensionCache.getIfPresent(concept);
+        if (cached != null) {
+            extensionCacheSavedTimeNs.add(cached.computationTimeNs);
+            return toIndividuals(cached.instances);
+        }
+
+        // this is called recursively, thus, all complex sub-expressions will be cached as well
+        long startTime = System.nanoTime();
+        SortedSet<OWLIndividual> instances = getIndividualsImplFast(concept);
+        long computationTimeNs = System.nanoTime() - startTime;
+
+        BitSet bits = toBitSet(instances);
+        if (bits != null) {
+            extensionCache.put(concept, new CachedExtension(bits, computationTimeNs));
+        }
+        return instances;
+    }
+
+    private void initExtensionCache() {
+        if (extensionCacheSize > 0) {
+            individualList = new ArrayList<>(individuals);
+            individualIndex = new HashMap<>(individualList.size() * 2);
+            for (int i = 0; i < individualList.size(); i++) {
+                individualIndex.put(individualList.get(i), i);
+            }
+            extensionCache = CacheBuilder.newBuilder()
+                    .maximumWeight(extensionCacheSize * 1024L * 1024L)
+                    .weigher((OWLClassExpression ce, CachedExtension extension) -> extension.getSizeInBytes())
+                    .recordStats()
+                    .build();
+        }
+    }
+
+    // returns null if an individual is unknown, i.e. can not be represented in the bit set
+    private BitSet toBitSet(Set<OWLIndividual> instances) {
+        BitSet bits = new BitSet(individualList.size());
+        for (OWLIndividual ind : instances) {
+            Integer index = individualIndex.get(ind);
+            if (index == null) {
+                return null;
+            }
+            bits.set(index);
+        }
+        return bits;
+    }
+
+    private SortedSet<OWLIndividual> toIndividuals(BitSet bits) {
+        SortedSet<OWLIndividual> instances = new TreeSet<>();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            instances.add(individualList.get(i));
+        }
+        return instances;
+    }
+
+    /**
+     * The cached instances of a class expression and the time it took to compute them.
+     */
+    private static class CachedExtension {
+        private final BitSet instances;
+        private final long computationTimeNs;
+
+        CachedExtension(BitSet instances, long computationTimeNs) {
+            this.instances = instances;
+            this.computationTimeNs = computationTimeNs;
+        }
+
+        int getSizeInBytes() {
+            return instances.size() / 8 + 64;
+        }
+    }
+
+    /**
+     * @return the statistics of the cache for the instances of complex class expressions, or
+     * <code>null</code> if the cache is disabled
+     */
+    public CacheStats getExtensionCacheStats() {
+        return extensionCache == null ? null : extensionCache.stats();
+    }
+
+    /**
+     * @return the (approx.) time saved by using cached instances of complex class expressions
+     */
+    public long getExtensionCacheSavedTimeNs() {
+        return extensionCacheSavedTimeNs.sum();
     }
 
     public SortedSet<OWLIndividual> getIndividualsImplStandard(OWLClassExpression concept) {
@@ -1210,13 +1398,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLIndividual value = ((OWLObjectHasValue) description).getFiller();
 
             // the mapping of instances related by r
-            Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping =
-                    property.isAnonymous() ? // \exists r^{-1}.{a} -> invert the mapping, i.e. get all objects that
-                            // are related by r to (at least) one subject which is of type C
-                            Multimaps.invertFrom(
-                                    MapUtils.createSortedMultiMap(opPos.get(property.getNamedProperty())),
-                                    TreeMultimap.create()).asMap() :
-                            opPos.get(property.getNamedProperty());
+            Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = getTargetIndividuals(property);
 
             return mapping.entrySet().stream()
                     .filter(e -> e.getValue().contains(value))
@@ -1349,10 +1531,89 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
     // or if r^{-1} invert the mapping
     private Map<OWLIndividual, ? extends Collection<OWLIndividual>> getTargetIndividuals(OWLObjectPropertyExpression ope) {
         return ope.isAnonymous()
-                ? Multimaps.invertFrom(
-                        MapUtils.createSortedMultiMap(opPos.get(ope.getNamedProperty())),
-                        TreeMultimap.create()).asMap()
+                ? getInverseMapping(ope.getNamedProperty())
+                : opPos.get(ope.getNamedProperty());
+    }
+
+    // the objects related to the individual by r, or the subjects related to the individual by r^{-1};
+    // null if there are none
+    private SortedSet<OWLIndividual> getFillers(OWLObjectPropertyExpression ope, OWLIndividual individual) {
+        Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = ope.isAnonymous()
+                ? getInverseMapping(ope.getNamedProperty())
                 : opPos.get(ope.getNamedProperty());
+        return mapping == null ? null : mapping.get(individual);
+    }
+
+    // the inverse mapping is usually precomputed during initialization, but not if the
+    // property mappings have been passed in the constructor
+    private Map<OWLIndividual, SortedSet<OWLIndividual>> getInverseMapping(OWLObjectProperty property) {
+        return opPosInverse.computeIfAbsent(property, p -> invert(opPos.get(p)));
+    }
+
+    private static Map<OWLIndividual, SortedSet<OWLIndividual>> invert(Map<OWLIndividual, SortedSet<OWLIndividual>> mapping) {
+        Map<OWLIndividual, SortedSet<OWLIndividual>> inverse = new HashMap<>();
+        if (mapping != null) {
+            mapping.forEach((subject, objects) ->
+                    objects.forEach(object -> inverse.computeIfAbsent(object, k -> new TreeSet<>()).add(subject)));
+        }
+        return inverse;
+    }
+
+    private void buildObjectPropertyIndexes() {
+        if (materializeSubPropertyFacts) {
+            logger.info("materialising facts of sub-properties ...");
+            Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> union = new HashMap<>();
+            for (OWLObjectProperty p : opPos.keySet()) {
+                Map<OWLIndividual, SortedSet<OWLIndividual>> mapping = copy(opPos.get(p));
+                Deque<OWLObjectProperty> subProperties = new ArrayDeque<>(baseReasoner.getSubProperties(p));
+                Set<OWLObjectProperty> visited = new HashSet<>();
+                while (!subProperties.isEmpty()) {
+                    OWLObjectProperty sub = subProperties.poll();
+                    if (visited.add(sub) && !sub.isOWLBottomObjectProperty()) {
+                        opPos.getOrDefault(sub, Collections.emptyMap()).forEach((s, objects) ->
+                                mapping.computeIfAbsent(s, k -> new TreeSet<>()).addAll(objects));
+                        subProperties.addAll(baseReasoner.getSubProperties(sub));
+                    }
+                }
+                union.put(p, mapping);
+            }
+            opPos.putAll(union);
+        }
+
+        if (materializeTransitiveProperties) {
+            logger.info("materialising transitive properties ...");
+            baseReasoner.getOntology().getAxioms(AxiomType.TRANSITIVE_OBJECT_PROPERTY, Imports.INCLUDED).stream()
+                    .map(OWLTransitiveObjectPropertyAxiom::getProperty)
+                    .filter(pe -> !pe.isAnonymous() && opPos.containsKey(pe.asOWLObjectProperty()))
+                    .map(OWLObjectPropertyExpression::asOWLObjectProperty)
+                    .forEach(p -> opPos.put(p, transitiveClosure(opPos.get(p))));
+        }
+
+        logger.info("computing inverse object property mappings ...");
+        opPosInverse.clear();
+        opPos.forEach((p, mapping) -> opPosInverse.put(p, invert(mapping)));
+    }
+
+    private static Map<OWLIndividual, SortedSet<OWLIndividual>> copy(Map<OWLIndividual, SortedSet<OWLIndividual>> mapping) {
+        Map<OWLIndividual, SortedSet<OWLIndividual>> copy = new HashMap<>();
+        mapping.forEach((s, objects) -> copy.put(s, new TreeSet<>(objects)));
+        return copy;
+    }
+
+    private static Map<OWLIndividual, SortedSet<OWLIndividual>> transitiveClosure(Map<OWLIndividual, SortedSet<OWLIndividual>> mapping) {
+        Map<OWLIndividual, SortedSet<OWLIndividual>> closure = new HashMap<>();
+        mapping.forEach((s, objects) -> {
+            SortedSet<OWLIndividual> reachable = new TreeSet<>();
+            Deque<OWLIndividual> queue = new ArrayDeque<>(objects);
+            while (!queue.isEmpty()) {
+                OWLIndividual o = queue.poll();
+                if (reachable.add(o)) {
+                    queue.addAll(mapping.getOrDefault(o, Collections.emptySortedSet()));
+                }
+            }
+            closure.put(s, reachable);
+        });
+        return closure;
     }
 
     /*
@@ -1362,6 +1623,9 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
      */
     @Override
     public Set<OWLClass> getClasses() {
+        if (aboxStreamed) {
+            return classes;
+        }
         return baseReasoner.getClasses();
     }
 
@@ -1377,6 +1641,9 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     @Override
     public Set<OWLDataProperty> getDatatypePropertiesImpl() {
+        if (aboxStreamed) {
+            return dataProperties;
+        }
         return baseReasoner.getDatatypeProperties();
     }
 
@@ -1478,6 +1745,11 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         }
     }
 
+    @Override
+    protected boolean isDisjointnessTBoxBased() {
+        return disjointnessSemantics != DisjointnessSemantics.INSTANCE_BASED;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -1556,6 +1828,15 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     @Override
     protected Map<OWLDataProperty, Set<OWLLiteral>> getDataPropertyRelationshipsImpl(OWLIndividual individual) {
+        if (aboxStreamed) { // the base reasoner does not know the instance data
+            Map<OWLDataProperty, Set<OWLLiteral>> relationships = new HashMap<>();
+            dpPos.forEach((p, mapping) -> {
+                if (mapping.containsKey(individual)) {
+                    relationships.put(p, mapping.get(individual));
+                }
+            });
+            return relationships;
+        }
         return baseReasoner.getDataPropertyRelationships(individual);
     }
 
@@ -1567,16 +1848,31 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     @Override
     public Set<OWLIndividual> getRelatedIndividualsImpl(OWLIndividual individual, OWLObjectProperty objectProperty) {
+        if (aboxStreamed) {
+            return opPos.getOrDefault(objectProperty, Collections.emptyMap()).getOrDefault(individual, new TreeSet<>());
+        }
         return baseReasoner.getRelatedIndividuals(individual, objectProperty);
     }
 
     @Override
     protected Map<OWLObjectProperty, Set<OWLIndividual>> getObjectPropertyRelationshipsImpl(OWLIndividual individual) {
+        if (aboxStreamed) {
+            Map<OWLObjectProperty, Set<OWLIndividual>> relationships = new HashMap<>();
+            opPos.forEach((p, mapping) -> {
+                if (mapping.containsKey(individual)) {
+                    relationships.put(p, mapping.get(individual));
+                }
+            });
+            return relationships;
+        }
         return baseReasoner.getObjectPropertyRelationships(individual);
     }
 
     @Override
     public Set<OWLLiteral> getRelatedValuesImpl(OWLIndividual individual, OWLDataProperty datatypeProperty) {
+        if (aboxStreamed) {
+            return dpPos.getOrDefault(datatypeProperty, Collections.emptyMap()).getOrDefault(individual, new TreeSet<>());
+        }
         return baseReasoner.getRelatedValues(individual, datatypeProperty);
     }
 
@@ -1598,6 +1894,33 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
     @Override
     public void releaseKB() {
         baseReasoner.releaseKB();
+        invalidateTBoxCache();
+        if (extensionCache != null) {
+            extensionCache.invalidateAll();
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.dllearner.core.AbstractReasonerComponent#setUpdated()
+     */
+    @Override
+    @NoConfigOption
+    public void setUpdated() {
+        super.setUpdated();
+        if (extensionCache != null) {
+            extensionCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public String toString() {
+        String str = super.toString();
+        if (extensionCache != null) {
+            CacheStats stats = extensionCache.stats();
+            str += "extension cache: " + stats.hitCount() + " hits, " + stats.missCount() + " misses, "
+                    + Helper.prettyPrintNanoSeconds(getExtensionCacheSavedTimeNs()) + " saved\n";
+        }
+        return str;
     }
 
 //	@Override
@@ -1610,6 +1933,12 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
      */
     @Override
     protected Set<OWLClass> getTypesImpl(OWLIndividual individual) {
+        if (aboxStreamed) {
+            return classInstancesPos.entrySet().stream()
+                    .filter(e -> e.getValue().contains(individual))
+                    .map(Entry::getKey)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
         return baseReasoner.getTypesImpl(individual);
     }
 
@@ -1673,6 +2002,33 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         this.handlePunning = handlePunning;
     }
 
+    /**
+     * @param materializeSubPropertyFacts whether to add the facts of all sub-properties to an object property
+     */
+    public void setMaterializeSubPropertyFacts(boolean materializeSubPropertyFacts) {
+        this.materializeSubPropertyFacts = materializeSubPropertyFacts;
+    }
+
+    /**
+     * @param materializeTransitiveProperties whether to compute the transitive closure of the facts of
+     * object properties declared as transitive
+     */
+    public void setMaterializeTransitiveProperties(boolean materializeTransitiveProperties) {
+        this.materializeTransitiveProperties = materializeTransitiveProperties;
+    }
+
+    /**
+     * @param extensionCacheSize the max. size (in MB) of the cache for the instances of complex class
+     * expressions, 0 disables the cache
+     */
+    public void setExtensionCacheSize(int extensionCacheSize) {
+        this.extensionCacheSize = extensionCacheSize;
+    }
+
+    public int getExtensionCacheSize() {
+        return extensionCacheSize;
+    }
+
     /**
      * @param materializeExistentialRestrictions the
      * materializeExistentialRestrictions to set
@@ -1681,6 +2037,21 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         this.materializeExistentialRestrictions = materializeExistentialRestrictions;
     }
 
+    public boolean isStreamABox() {
+        return streamABox;
+    }
+
+    /**
+     * Whether to build the instance data directly from the triples of the {@link RDFStreamKnowledgeSource}s
+     * instead of loading them by the base reasoner. If the base reasoner is set explicitly, its knowledge
+     * sources should contain the schema only.
+     *
+     * @param streamABox whether to stream the instance data into the indexes
+     */
+    public void setStreamABox(boolean streamABox) {
+        this.streamABox = streamABox;
+    }
+
     /* (non-Javadoc)
      * @see org.dllearner.core.AbstractReasonerComponent#getDatatype(org.semanticweb.owlapi.model.OWLDataProperty)
      */
@@ -22,11 +22,16 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import com.clarkparsia.owlapi.explanation.PelletExplanation;
 import com.clarkparsia.owlapiv3.XSD;
 import com.clarkparsia.pellet.owlapiv3.PelletReasonerFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.dllearner.core.*;
@@ -106,6 +111,10 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
     @ConfigOption(defaultValue="null", description="specifies the URL of the remote OWLLink server")
     private String owlLinkURL;
 
+    @ConfigOption(defaultValue="false", description="whether to load the ontologies of the knowledge sources in parallel, " +
+            "each one by its own ontology manager, before merging them")
+    private boolean parallelLoading = false;
+
     public OWLAPIReasoner() {
 
     }
@@ -126,6 +135,8 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 
     @Override
     public void init() throws ComponentInitException {
+        invalidateTBoxCache();
+
         // reset variables (otherwise subsequent initialisation with
         // different knowledge sources will merge both)
         atomicConcepts = new TreeSet<>();
@@ -139,14 +150,10 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 
         prefixes = new TreeMap<>();
 
-        for (KnowledgeSource source : sources) {
-            if (source instanceof OWLOntologyKnowledgeSource) {
-                ontology = ((OWLOntologyKnowledgeSource) source).createOWLOntology(manager);
-                owlAPIOntologies.add(ontology);
-            }else{
-                //This reasoner requires an ontology to process
-                throw new ComponentInitException("OWL API Reasoner requires an OWLKnowledgeSource.  Received a KS of type: " + source.getClass().getName());
-            }
+        // the managers used to load the knowledge sources in parallel, if any
+        List<OWLOntologyManager> loadingManagers = new ArrayList<>();
+        for (OWLOntology ontology : createOntologies(loadingManagers)) {
+            owlAPIOntologies.add(ontology);
 
             atomicConcepts.addAll(ontology.getClassesInSignature(Imports.INCLUDED));
             atomicRoles.addAll(ontology.getObjectPropertiesInSignature(Imports.INCLUDED));
@@ -157,7 +164,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
             // guarantee that the base URI is from one of those sources (there
             // can't be more than one); but we will take care that all prefixes are
             // correctly imported
-            OWLDocumentFormat format = manager.getOntologyFormat(ontology);
+            OWLDocumentFormat format = ontology.getOWLOntologyManager().getOntologyFormat(ontology);
             if (format != null && format.isPrefixOWLOntologyFormat()) {
                 prefixes.putAll(format.asPrefixOWLOntologyFormat().getPrefixName2PrefixMap());
                 baseURI = format.asPrefixOWLOntologyFormat().getDefaultPrefix();
@@ -187,7 +194,15 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
             // free some memory. It is useless to keep two copies of the same 
             // ontology
             for (OWLOntology toRemove : owlAPIOntologies) {
-                manager.removeOntology(toRemove);
+                if (toRemove.getOWLOntologyManager() == manager) {
+                    manager.removeOntology(toRemove);
+                }
+            }
+            // including the ontologies (and imports) loaded by the separate managers
+            for (OWLOntologyManager loadingManager : loadingManagers) {
+                for (OWLOntology toRemove : new ArrayList<>(loadingManager.getOntologies())) {
+                    loadingManager.removeOntology(toRemove);
+                }
             }
             owlAPIOntologies = new HashSet<>();
         } catch (OWLOntologyCreationException e1) {
@@ -236,6 +251,58 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 		 initialized = true;
     }
     
+    /*
+     * Creates the ontologies of all knowledge sources. If enabled, each source is loaded by its own ontology
+     * manager on a separate thread, otherwise all of them are loaded sequentially by the manager of this reasoner.
+     * The ontologies are returned in the iteration order of the sources, the separate managers are added to the
+     * given list.
+     */
+    private List<OWLOntology> createOntologies(List<OWLOntologyManager> loadingManagers) throws ComponentInitException {
+        List<OWLOntologyKnowledgeSource> ontologySources = new ArrayList<>();
+        for (KnowledgeSource source : sources) {
+            if (source instanceof OWLOntologyKnowledgeSource) {
+                ontologySources.add((OWLOntologyKnowledgeSource) source);
+            } else {
+                //This reasoner requires an ontology to process
+                throw new ComponentInitException("OWL API Reasoner requires an OWLKnowledgeSource.  Received a KS of type: " + source.getClass().getName());
+            }
+        }
+
+        List<OWLOntology> ontologies = new ArrayList<>();
+        if (!parallelLoading || ontologySources.size() < 2) {
+            for (OWLOntologyKnowledgeSource source : ontologySources) {
+                ontologies.add(source.createOWLOntology(manager));
+            }
+            return ontologies;
+        }
+
+        int nrOfThreads = Math.min(ontologySources.size(), Runtime.getRuntime().availableProcessors());
+        logger.info("Loading " + ontologySources.size() + " knowledge sources using " + nrOfThreads + " threads ...");
+        ExecutorService executor = Executors.newFixedThreadPool(nrOfThreads,
+                new ThreadFactoryBuilder().setNameFormat("ontology-loader-%d").setDaemon(true).build());
+        try {
+            List<Future<OWLOntology>> futures = new ArrayList<>();
+            for (OWLOntologyKnowledgeSource source : ontologySources) {
+                OWLOntologyManager loadingManager = OWLManager.createOWLOntologyManager();
+                loadingManagers.add(loadingManager);
+                futures.add(executor.submit(() -> source.createOWLOntology(loadingManager)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    ontologies.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    throw new ComponentInitException("Failed to load knowledge source " + ontologySources.get(i), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComponentInitException("Loading of the knowledge sources has been interrupted.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return ontologies;
+    }
+
     private void initDatatypes() {
 	    Set<OWLDataProperty> numericDataProperties = new HashSet<>();
 	    for (OWLDataProperty dataProperty : datatypeProperties) {
@@ -1098,6 +1165,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
     @Override
     public void releaseKB() {
         reasoner.dispose();
+        invalidateTBoxCache();
     }
 
 //    public Set<OWLOntology> getOWLAPIOntologies() {
@@ -1247,6 +1315,19 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 	public void setUseFallbackReasoner(boolean useFallbackReasoner) {
 		this.useFallbackReasoner = useFallbackReasoner;
 	}
+
+    public boolean isParallelLoading() {
+        return parallelLoading;
+    }
+
+    /**
+     * Whether to load the ontologies of the knowledge sources in parallel. Each ontology is
+     * loaded by its own ontology manager and all of them are merged afterwards. Disabled by default.
+     * @param parallelLoading whether to load the knowledge sources in parallel
+     */
+    public void setParallelLoading(boolean parallelLoading) {
+        this.parallelLoading = parallelLoading;
+    }
 	
 	@Override
 	public OWLDatatype getDatatype(OWLDataProperty dp) {
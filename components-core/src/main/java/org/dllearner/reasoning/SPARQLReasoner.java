@@ -50,6 +50,7 @@ import org.dllearner.core.owl.ObjectPropertyHierarchy;
 import org.dllearner.kb.LocalModelBasedSparqlEndpointKS;
 import org.dllearner.kb.OWLFile;
 import org.dllearner.kb.SparqlEndpointKS;
+import org.dllearner.kb.sparql.QueryExecutionFactoryAdaptivePaginated;
 import org.dllearner.kb.sparql.SPARQLQueryUtils;
 import org.dllearner.kb.sparql.SparqlEndpoint;
 import org.dllearner.utilities.OWLAPIUtils;
@@ -122,6 +123,10 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	@ConfigOption(description = "Whether to use SPARQL1.1 Value Lists", defaultValue = "false")
 	private boolean useValueLists = false;
 
+	@ConfigOption(description = "Whether to count the covered examples of a class expression by a single SPARQL 1.1 " +
+			"aggregate query that returns only the number of covered examples per example set", defaultValue = "false")
+	private boolean useAggregateCoverageQueries = false;
+
 	@ConfigOption(defaultValue = "true", description = "Prefer ASK queries when there is a choice in implementation", required = false)
 	private boolean preferAsk = true;
 
@@ -131,6 +136,20 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	@ConfigOption(description = "Log file for reasoner request logging", required = false)
 	private String requestLogFile;
 
+	@ConfigOption(description = "The directory in which snapshots of the schema information derived from the endpoint, " +
+			"i.e. class hierarchy, property domains and ranges and popularities, are stored and loaded from on the next run. " +
+			"No snapshots are used if not set.", required = false)
+	private String schemaSnapshotDirectory;
+
+	@ConfigOption(defaultValue = "", description = "A token identifying the state of the endpoint data, e.g. the dataset " +
+			"version or release date. Snapshots created with a different token are not used.", required = false)
+	private String schemaSnapshotToken = "";
+
+	@ConfigOption(defaultValue = "-1", description = "The max. age of the information in a schema snapshot in seconds, " +
+			"i.e. the time since it has been computed. Older parts of a snapshot, e.g. the class hierarchy, are not used " +
+			"and computed again. A value below 0 means that snapshots do not expire.", required = false)
+	private long schemaSnapshotMaxAge = -1;
+
 	private String sprRunUID;
 	private long stepCount;
 	private Model requestLog;
@@ -148,8 +167,18 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	private Map<OWLClass, Integer> classPopularityMap = new HashMap<>();
 	private boolean batchedMode = true;
 	private Set<PopularityType> precomputedPopularityTypes = new HashSet<>();
+	private boolean propertyDomainsPrecomputed = false;
+	private boolean objectPropertyRangesPrecomputed = false;
 	
 	private boolean prepared = false;
+
+	// the schema snapshot and its file, null if snapshots are not used
+	private SPARQLSchemaSnapshot schemaSnapshot;
+	private File schemaSnapshotFile;
+	// the sections that have been computed but are not contained in the snapshot file yet
+	private final Set<SPARQLSchemaSnapshot.Section> dirtySchemaSections = EnumSet.noneOf(SPARQLSchemaSnapshot.Section.class);
+	// the snapshot is written once at the end of the outermost running precomputation
+	private int schemaPrecomputationDepth = 0;
 	
 	protected OWLClassExpressionToSPARQLConverter converter = new OWLClassExpressionToSPARQLConverter();
 
@@ -208,6 +237,7 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	 */
 	@Override
 	public void init() throws ComponentInitException {
+		invalidateTBoxCache();
 
 		classPopularityMap = new HashMap<>();
 		if (requestLogging) {
@@ -247,9 +277,14 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 				if(requestLogging) {
 					qef = new QueryExecutionFactoryQueryLogging(qef, this);
 				}
-				qef = new QueryExecutionFactoryDelay(qef, 50);
 //				qef = new QueryExecutionFactoryCacheEx(qef, cache);
-				qef = new QueryExecutionFactoryPaginated(qef, 10000);
+				if(ks.isAdaptiveLoadControlActive()) {
+					// the load on the endpoint is controlled by the knowledge source, the page size adapts to it
+					qef = new QueryExecutionFactoryAdaptivePaginated(qef, ks.getLoadController());
+				} else {
+					qef = new QueryExecutionFactoryDelay(qef, 50);
+					qef = new QueryExecutionFactoryPaginated(qef, 10000);
+				}
 			} else {
 				qef = new QueryExecutionFactoryModel(((LocalModelBasedSparqlEndpointKS)ks).getModel());
 				if(requestLogging) {
@@ -260,9 +295,152 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 			qef = new QueryExecutionFactoryQueryLogging(qef, this);
 		}
 
+		loadSchemaSnapshot();
+
 		initialized = true;
 	}
 
+	private SparqlEndpoint getSparqlEndpoint() {
+		SparqlEndpointKS endpointKS = ks;
+		if (endpointKS == null && sources != null) {
+			endpointKS = (SparqlEndpointKS) sources.stream()
+					.filter(SparqlEndpointKS.class::isInstance)
+					.findFirst().orElse(null);
+		}
+		return endpointKS != null && endpointKS.isRemote() ? endpointKS.getEndpoint() : null;
+	}
+
+	/*
+	 * Loads the schema snapshot of the endpoint if snapshots are enabled and a valid snapshot exists.
+	 */
+	private void loadSchemaSnapshot() {
+		schemaSnapshot = null;
+		schemaSnapshotFile = null;
+		if (schemaSnapshotDirectory == null) {
+			return;
+		}
+		SparqlEndpoint endpoint = getSparqlEndpoint();
+		if (endpoint == null) {
+			logger.warn("Schema snapshots are only supported for remote SPARQL endpoints.");
+			return;
+		}
+		String key = SPARQLSchemaSnapshot.computeKey(endpoint.getURL().toString(), endpoint.getDefaultGraphURIs(), schemaSnapshotToken);
+		schemaSnapshotFile = SPARQLSchemaSnapshot.getFile(new File(schemaSnapshotDirectory), key);
+		schemaSnapshot = new SPARQLSchemaSnapshot(key);
+
+		if (!schemaSnapshotFile.exists()) {
+			return;
+		}
+		long start = System.currentTimeMillis();
+		SPARQLSchemaSnapshot snapshot;
+		try {
+			snapshot = SPARQLSchemaSnapshot.read(schemaSnapshotFile);
+		} catch (IOException e) {
+			logger.warn("Failed to load schema snapshot " + schemaSnapshotFile, e);
+			return;
+		}
+		if (!snapshot.getKey().equals(key)) {
+			logger.warn("Schema snapshot {} belongs to a different endpoint, ignoring it.", schemaSnapshotFile);
+			return;
+		}
+		// expired sections are dropped, i.e. computed again on demand instead of being written back
+		if (schemaSnapshotMaxAge >= 0) {
+			Set<SPARQLSchemaSnapshot.Section> expired = snapshot.removeSectionsOlderThan(TimeUnit.SECONDS.toMillis(schemaSnapshotMaxAge));
+			if (!expired.isEmpty()) {
+				logger.info("Sections {} of schema snapshot {} are expired.", expired, schemaSnapshotFile);
+			}
+		}
+
+		ClassHierarchy snapshotHierarchy = snapshot.getClassHierarchy();
+		if (snapshotHierarchy != null && precomputeClassHierarchy) {
+			hierarchy = snapshotHierarchy;
+			prepared = true;
+		}
+		if (snapshot.contains(SPARQLSchemaSnapshot.Section.PROPERTY_DOMAINS)) {
+			propertyDomains.putAll(snapshot.getPropertyDomains());
+			propertyDomainsPrecomputed = true;
+		}
+		if (snapshot.contains(SPARQLSchemaSnapshot.Section.OBJECT_PROPERTY_RANGES)) {
+			objectPropertyRanges.putAll(snapshot.getObjectPropertyRanges());
+			objectPropertyRangesPrecomputed = true;
+		}
+		for (PopularityType type : PopularityType.values()) {
+			if (snapshot.contains(SPARQLSchemaSnapshot.Section.of(type))) {
+				Map<OWLEntity, Integer> popularity = snapshot.getPopularity(type);
+				if (type == PopularityType.CLASS) {
+					popularity.forEach((cls, cnt) -> classPopularityMap.put(cls.asOWLClass(), cnt));
+				} else {
+					entityPopularityMap.putAll(popularity);
+				}
+				precomputedPopularityTypes.add(type);
+			}
+		}
+		schemaSnapshot = snapshot;
+
+		logger.info("Loaded schema snapshot {} in {}ms.", schemaSnapshotFile, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Stores the schema information computed so far in the snapshot of the endpoint. This is done automatically
+	 * at the end of a precomputation that computed new data, and has no effect if snapshots are not enabled.
+	 * Only the sections computed in this run are replaced, the sections loaded from the snapshot keep the time
+	 * at which they have been computed.
+	 */
+	public synchronized void saveSchemaSnapshot() {
+		if (schemaSnapshot == null) {
+			return;
+		}
+		for (SPARQLSchemaSnapshot.Section section : dirtySchemaSections) {
+			switch (section) {
+				case CLASS_HIERARCHY:
+					schemaSnapshot.setClassHierarchy(hierarchy);
+					break;
+				case PROPERTY_DOMAINS:
+					schemaSnapshot.setPropertyDomains(propertyDomains);
+					break;
+				case OBJECT_PROPERTY_RANGES:
+					schemaSnapshot.setObjectPropertyRanges(objectPropertyRanges);
+					break;
+				case CLASS_POPULARITY:
+					schemaSnapshot.setPopularity(PopularityType.CLASS, classPopularityMap);
+					break;
+				case OBJECT_PROPERTY_POPULARITY:
+					schemaSnapshot.setPopularity(PopularityType.OBJECT_PROPERTY, entityPopularityMap);
+					break;
+				case DATA_PROPERTY_POPULARITY:
+					schemaSnapshot.setPopularity(PopularityType.DATA_PROPERTY, entityPopularityMap);
+					break;
+			}
+		}
+		dirtySchemaSections.clear();
+		try {
+			schemaSnapshot.write(schemaSnapshotFile);
+		} catch (IOException e) {
+			logger.warn("Failed to write schema snapshot " + schemaSnapshotFile, e);
+		}
+	}
+
+	/*
+	 * Called when a precomputation step computed the given section completely, which is written to the snapshot
+	 * unless the step is part of a larger precomputation.
+	 */
+	private synchronized void schemaSnapshotChanged(SPARQLSchemaSnapshot.Section section) {
+		dirtySchemaSections.add(section);
+		if (schemaPrecomputationDepth == 0) {
+			saveSchemaSnapshot();
+		}
+	}
+
+	private synchronized void beginSchemaPrecomputation() {
+		schemaPrecomputationDepth++;
+	}
+
+	private synchronized void endSchemaPrecomputation() {
+		if (--schemaPrecomputationDepth == 0 && !dirtySchemaSections.isEmpty()) {
+			saveSchemaSnapshot();
+		}
+	}
+
 	private void setCurrentStep(String stepType) {
 		dumpRequestLog();
 		currentStep = requestLog.createResource(getRequestLogBaseUri() + "step-"+stepCount, requestLog.createResource(REQUEST_LOG_NS + stepType));
@@ -313,18 +491,26 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	}
 	
 	public void precomputePopularities(PopularityType... popularityTypes){
-		for (PopularityType popularityType : popularityTypes) {
-			switch (popularityType) {
-			case CLASS:precomputeClassPopularity();break;
-			case OBJECT_PROPERTY:precomputeObjectPropertyPopularity();break;
-			case DATA_PROPERTY:precomputeDataPropertyPopularity();break;
-			default:
-				break;
+		beginSchemaPrecomputation();
+		try {
+			for (PopularityType popularityType : popularityTypes) {
+				switch (popularityType) {
+				case CLASS:precomputeClassPopularity();break;
+				case OBJECT_PROPERTY:precomputeObjectPropertyPopularity();break;
+				case DATA_PROPERTY:precomputeDataPropertyPopularity();break;
+				default:
+					break;
+				}
 			}
+		} finally {
+			endSchemaPrecomputation();
 		}
 	}
 
 	public void precomputePropertyDomains() {
+		if(propertyDomainsPrecomputed) {
+			return;
+		}
 		logger.info("precomputing property domains...");
 		if (requestLogging) {
 			setCurrentStep("precomputePropertyDomains");
@@ -342,13 +528,20 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 
 				propertyDomains.put(p, dom);
 			}
+			propertyDomainsPrecomputed = true;
 		} catch (Exception e) {
 			logger.error("Failed to compute property domains.", e);
 		}
 		logger.info("finished precomputing property domains.");
+		if (propertyDomainsPrecomputed) {
+			schemaSnapshotChanged(SPARQLSchemaSnapshot.Section.PROPERTY_DOMAINS);
+		}
 	}
 
 	public void precomputeObjectPropertyRanges() {
+		if(objectPropertyRangesPrecomputed) {
+			return;
+		}
 		logger.info("precomputing object property ranges...");
 		if (requestLogging) {
 			setCurrentStep("precomputeObjectPropertyRanges");
@@ -366,16 +559,25 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 
 				objectPropertyRanges.put(p, dom);
 			}
+			objectPropertyRangesPrecomputed = true;
 		} catch (Exception e) {
 			logger.error("Failed to compute property domains.", e);
 		}
 		logger.info("finished precomputing property domains.");
+		if (objectPropertyRangesPrecomputed) {
+			schemaSnapshotChanged(SPARQLSchemaSnapshot.Section.OBJECT_PROPERTY_RANGES);
+		}
 	}
 
 	public void precomputePopularity(){
-		precomputeClassPopularity();
-		precomputeDataPropertyPopularity();
-		precomputeObjectPropertyPopularity();
+		beginSchemaPrecomputation();
+		try {
+			precomputeClassPopularity();
+			precomputeDataPropertyPopularity();
+			precomputeObjectPropertyPopularity();
+		} finally {
+			endSchemaPrecomputation();
+		}
 	}
 	
 	public boolean isPrecomputed(PopularityType popularityType){
@@ -418,6 +620,7 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		long end = System.currentTimeMillis();
 		
 		logger.info("... done in " + (end - start) + "ms.");
+		schemaSnapshotChanged(SPARQLSchemaSnapshot.Section.CLASS_POPULARITY);
 	}
 
 	public void precomputeObjectPropertyPopularity(){
@@ -456,6 +659,7 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		long end = System.currentTimeMillis();
 		
 		logger.info("... done in " + (end - start) + "ms.");
+		schemaSnapshotChanged(SPARQLSchemaSnapshot.Section.OBJECT_PROPERTY_POPULARITY);
 	}
 
 	public void precomputeDataPropertyPopularity(){
@@ -494,6 +698,7 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		long end = System.currentTimeMillis();
 		
 		logger.info("... done in " + (end - start) + "ms.");
+		schemaSnapshotChanged(SPARQLSchemaSnapshot.Section.DATA_PROPERTY_POPULARITY);
 	}
 
 	public int getSubjectCountForProperty(OWLProperty p, long timeout, TimeUnit timeoutUnits){
@@ -613,6 +818,7 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 				hierarchy = prepareSubsumptionHierarchyFast();
 
 				prepared = true;
+				schemaSnapshotChanged(SPARQLSchemaSnapshot.Section.CLASS_HIERARCHY);
 			}
 		} else {
 			hierarchy = new LazyClassHierarchy(this);
@@ -1458,6 +1664,71 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		throw new Error("no result");
 	}
 
+	/**
+	 * Counts for each of the given sets of individuals how many of them are instances of the class expression. This
+	 * is done by a single aggregate query in which the individuals are bound together with the index of their set,
+	 * thus, only the counts are transferred.
+	 *
+	 * @param description the class expression
+	 * @param indValues the sets of individuals
+	 * @return the number of instances of the class expression in each set
+	 */
+	public int[] getIndividualsCounts(OWLClassExpression description, List<? extends Collection<OWLIndividual>> indValues) {
+		return getIndividualsCounts(Collections.singletonList(description), indValues)[0];
+	}
+
+	/**
+	 * Batched variant of {@link #getIndividualsCounts(OWLClassExpression, List)} that counts the instances of
+	 * several class expressions by a single query. The patterns of the class expressions are combined by UNION,
+	 * each tagged with the index of the class expression.
+	 *
+	 * @param descriptions the class expressions
+	 * @param indValues the sets of individuals
+	 * @return the number of instances of each class expression in each set, indexed by class expression and set
+	 */
+	public int[][] getIndividualsCounts(List<OWLClassExpression> descriptions, List<? extends Collection<OWLIndividual>> indValues) {
+		if(requestLogging){
+			setCurrentStep("getIndividualsCounts");
+			for (OWLClassExpression description : descriptions) {
+				currentStep.addProperty(requestLog.createProperty(REQUEST_LOG_NS + "ce"), toDLSyntax(description));
+			}
+		}
+		int[][] counts = new int[descriptions.size()][indValues.size()];
+
+		StringBuilder query = new StringBuilder("SELECT ?ce ?set (COUNT(DISTINCT ?ind) AS ?cnt) WHERE { \n");
+		query.append("VALUES (?ind ?set) { \n");
+		boolean empty = true;
+		for (int i = 0; i < indValues.size(); i++) {
+			for (OWLIndividual ind : indValues.get(i)) {
+				query.append("(<").append(ind.toStringID()).append("> ").append(i).append(") ");
+				empty = false;
+			}
+		}
+		if (empty) {
+			return counts;
+		}
+		query.append("}. \n");
+		for (int i = 0; i < descriptions.size(); i++) {
+			if (i > 0) {
+				query.append(" UNION ");
+			}
+			// we need to copy it to get something like A AND B from A AND A AND B
+			OWLClassExpression description = duplicator.duplicateObject(descriptions.get(i));
+			query.append("{ BIND(").append(i).append(" AS ?ce) \n").append(converter.convert("?ind", description)).append("}\n");
+		}
+		query.append("} GROUP BY ?ce ?set");
+
+		if(logger.isTraceEnabled()){
+			logger.trace(sparql_debug, "get individuals counts query: " + query);
+		}
+		ResultSet rs = executeSelectQuery(query.toString());
+		while(rs.hasNext()){
+			QuerySolution qs = rs.next();
+			counts[qs.getLiteral("ce").getInt()][qs.getLiteral("set").getInt()] = qs.getLiteral("cnt").getInt();
+		}
+		return counts;
+	}
+
 	public int getIndividualsCount(OWLClassExpression description, int limit) {
 		return getIndividualsCount(description, limit, null);
 	}
@@ -2706,6 +2977,7 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	 */
 	@Override
 	public void releaseKB() {
+		invalidateTBoxCache();
 	}
 
 	public boolean isLaxMode() {
@@ -2757,6 +3029,14 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		this.useValueLists = useValueLists;
 	}
 
+	public boolean isUseAggregateCoverageQueries() {
+		return useAggregateCoverageQueries;
+	}
+
+	public void setUseAggregateCoverageQueries(boolean useAggregateCoverageQueries) {
+		this.useAggregateCoverageQueries = useAggregateCoverageQueries;
+	}
+
 	public boolean isPreferAsk() {
 		return preferAsk;
 	}
@@ -2781,6 +3061,30 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		return requestLogFile;
 	}
 
+	public String getSchemaSnapshotDirectory() {
+		return schemaSnapshotDirectory;
+	}
+
+	public void setSchemaSnapshotDirectory(String schemaSnapshotDirectory) {
+		this.schemaSnapshotDirectory = schemaSnapshotDirectory;
+	}
+
+	public String getSchemaSnapshotToken() {
+		return schemaSnapshotToken;
+	}
+
+	public void setSchemaSnapshotToken(String schemaSnapshotToken) {
+		this.schemaSnapshotToken = schemaSnapshotToken;
+	}
+
+	public long getSchemaSnapshotMaxAge() {
+		return schemaSnapshotMaxAge;
+	}
+
+	public void setSchemaSnapshotMaxAge(long schemaSnapshotMaxAge) {
+		this.schemaSnapshotMaxAge = schemaSnapshotMaxAge;
+	}
+
 	@Override
 	public StreamRDF getLogStream() {
 		return requestLogStreamRDF;
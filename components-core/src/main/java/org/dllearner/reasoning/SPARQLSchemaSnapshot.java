@@ -0,0 +1,456 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.dllearner.core.owl.ClassHierarchy;
+import org.dllearner.reasoning.SPARQLReasoner.PopularityType;
+import org.semanticweb.owlapi.model.*;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A snapshot of the schema information that the {@link SPARQLReasoner} derives from a SPARQL endpoint, i.e.
+ * the class hierarchy, the domains and ranges of properties and the popularity of classes and properties.
+ * Computing this information requires many (and often expensive) queries, thus, the snapshot can be stored
+ * in a compact binary file and loaded again on the next run against the same endpoint.
+ * <p>
+ * A snapshot is identified by a key computed from the endpoint URL, the default graphs and a freshness token,
+ * e.g. the version or release date of the dataset, which has to be changed whenever the data changes.
+ * The information is organized in {@link Section}s, each of them with the time at which it has been computed,
+ * such that sections loaded from an older snapshot do not become younger when other sections are added.
+ */
+public class SPARQLSchemaSnapshot {
+
+	/**
+	 * The parts of a snapshot. A section is only contained if its information has been computed completely.
+	 */
+	public enum Section {
+		CLASS_HIERARCHY, PROPERTY_DOMAINS, OBJECT_PROPERTY_RANGES,
+		CLASS_POPULARITY, OBJECT_PROPERTY_POPULARITY, DATA_PROPERTY_POPULARITY;
+
+		/**
+		 * @param type the popularity type
+		 * @return the section containing the popularities of the given type
+		 */
+		public static Section of(PopularityType type) {
+			switch (type) {
+				case CLASS: return CLASS_POPULARITY;
+				case OBJECT_PROPERTY: return OBJECT_PROPERTY_POPULARITY;
+				case DATA_PROPERTY: return DATA_PROPERTY_POPULARITY;
+				default: throw new IllegalArgumentException("Unknown popularity type " + type);
+			}
+		}
+	}
+
+	// identifies the file format
+	private static final int MAGIC = 0x444c5353;
+	private static final int VERSION = 2;
+
+	private static final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final String key;
+	// the time at which each contained section has been computed
+	private final Map<Section, Long> timestamps = new EnumMap<>(Section.class);
+
+	// the direct superclasses of each class
+	private SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> classHierarchyUp;
+	private final Map<OWLProperty, OWLClassExpression> propertyDomains = new HashMap<>();
+	private final Map<OWLObjectProperty, OWLClassExpression> objectPropertyRanges = new HashMap<>();
+	private final Map<PopularityType, Map<OWLEntity, Integer>> popularities = new EnumMap<>(PopularityType.class);
+
+	public SPARQLSchemaSnapshot(String key) {
+		this.key = key;
+	}
+
+	/**
+	 * Computes the key of a snapshot.
+	 *
+	 * @param endpointURL the URL of the SPARQL endpoint
+	 * @param defaultGraphURIs the default graphs
+	 * @param freshnessToken a token identifying the state of the data
+	 * @return the key
+	 */
+	public static String computeKey(String endpointURL, Collection<String> defaultGraphURIs, String freshnessToken) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(endpointURL, StandardCharsets.UTF_8);
+		for (String graph : new TreeSet<>(defaultGraphURIs)) {
+			hasher.putChar('|').putString(graph, StandardCharsets.UTF_8);
+		}
+		hasher.putChar('#').putString(freshnessToken == null ? "" : freshnessToken, StandardCharsets.UTF_8);
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * @param directory the directory containing the snapshots
+	 * @param key the key of the snapshot
+	 * @return the file of the snapshot with the given key
+	 */
+	public static File getFile(File directory, String key) {
+		return new File(directory, key + ".schema");
+	}
+
+	/**
+	 * Writes the snapshot to the given file. The file is replaced atomically, i.e. concurrent readers either see
+	 * the old or the new snapshot.
+	 *
+	 * @param file the file
+	 * @throws IOException if the file could not be written
+	 */
+	public void write(File file) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		Files.createDirectories(directory.toPath());
+		File tmpFile = File.createTempFile(file.getName(), ".tmp", directory);
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile))))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(key);
+
+				out.writeInt(timestamps.size());
+				for (Map.Entry<Section, Long> entry : timestamps.entrySet()) {
+					out.writeUTF(entry.getKey().name());
+					out.writeLong(entry.getValue());
+					writeSection(out, entry.getKey());
+				}
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmpFile.toPath());
+		}
+	}
+
+	private void writeSection(DataOutputStream out, Section section) throws IOException {
+		switch (section) {
+			case CLASS_HIERARCHY:
+				out.writeInt(classHierarchyUp.size());
+				for (Map.Entry<OWLClassExpression, SortedSet<OWLClassExpression>> entry : classHierarchyUp.entrySet()) {
+					writeClasses(out, Collections.singleton(entry.getKey()));
+					writeClasses(out, entry.getValue());
+				}
+				break;
+			case PROPERTY_DOMAINS:
+				writeClassExpressions(out, propertyDomains);
+				break;
+			case OBJECT_PROPERTY_RANGES:
+				writeClassExpressions(out, objectPropertyRanges);
+				break;
+			default:
+				Map<OWLEntity, Integer> popularity = popularities.get(popularityType(section));
+				out.writeInt(popularity.size());
+				for (Map.Entry<OWLEntity, Integer> entry : popularity.entrySet()) {
+					writeEntity(out, entry.getKey());
+					out.writeInt(entry.getValue());
+				}
+		}
+	}
+
+	/**
+	 * Loads a snapshot from the given file.
+	 *
+	 * @param file the file
+	 * @return the snapshot
+	 * @throws IOException if the file could not be read or is not a schema snapshot file
+	 */
+	public static SPARQLSchemaSnapshot read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(file + " is not a schema snapshot file.");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of schema snapshot file " + file);
+			}
+			SPARQLSchemaSnapshot snapshot = new SPARQLSchemaSnapshot(in.readUTF());
+
+			int nrOfSections = in.readInt();
+			for (int i = 0; i < nrOfSections; i++) {
+				Section section = Section.valueOf(in.readUTF());
+				snapshot.timestamps.put(section, in.readLong());
+				snapshot.readSection(in, section);
+			}
+			return snapshot;
+		} catch (ClassCastException | IllegalArgumentException e) {
+			throw new IOException("Corrupt schema snapshot file " + file, e);
+		}
+	}
+
+	private void readSection(DataInputStream in, Section section) throws IOException {
+		int n = in.readInt();
+		switch (section) {
+			case CLASS_HIERARCHY:
+				classHierarchyUp = new TreeMap<>();
+				for (int i = 0; i < n; i++) {
+					OWLClassExpression sub = readClasses(in).first();
+					classHierarchyUp.put(sub, readClasses(in));
+				}
+				break;
+			case PROPERTY_DOMAINS:
+				for (int i = 0; i < n; i++) {
+					propertyDomains.put((OWLProperty) readEntity(in), asClassExpression(readClasses(in)));
+				}
+				break;
+			case OBJECT_PROPERTY_RANGES:
+				for (int i = 0; i < n; i++) {
+					objectPropertyRanges.put((OWLObjectProperty) readEntity(in), asClassExpression(readClasses(in)));
+				}
+				break;
+			default:
+				Map<OWLEntity, Integer> popularity = new HashMap<>();
+				for (int i = 0; i < n; i++) {
+					popularity.put(readEntity(in), in.readInt());
+				}
+				popularities.put(popularityType(section), popularity);
+		}
+	}
+
+	private static PopularityType popularityType(Section section) {
+		for (PopularityType type : PopularityType.values()) {
+			if (Section.of(type) == section) {
+				return type;
+			}
+		}
+		throw new IllegalArgumentException(section + " is not a popularity section");
+	}
+
+	private static void writeClassExpressions(DataOutputStream out, Map<? extends OWLEntity, OWLClassExpression> map) throws IOException {
+		out.writeInt(map.size());
+		for (Map.Entry<? extends OWLEntity, OWLClassExpression> entry : map.entrySet()) {
+			writeEntity(out, entry.getKey());
+			writeClasses(out, entry.getValue().asConjunctSet());
+		}
+	}
+
+	private static void writeEntity(DataOutputStream out, OWLEntity entity) throws IOException {
+		out.writeUTF(entity.getEntityType().getName());
+		out.writeUTF(entity.toStringID());
+	}
+
+	private static OWLEntity readEntity(DataInputStream in) throws IOException {
+		String typeName = in.readUTF();
+		for (EntityType<?> entityType : EntityType.values()) {
+			if (entityType.getName().equals(typeName)) {
+				return df.getOWLEntity(entityType, IRI.create(in.readUTF()));
+			}
+		}
+		throw new IOException("Unknown entity type " + typeName);
+	}
+
+	// only named classes and intersections of them are derived from the schema, so we store the named classes
+	private static void writeClasses(DataOutputStream out, Set<OWLClassExpression> classes) throws IOException {
+		out.writeInt(classes.size());
+		for (OWLClassExpression cls : classes) {
+			out.writeUTF(cls.asOWLClass().toStringID());
+		}
+	}
+
+	private static SortedSet<OWLClassExpression> readClasses(DataInputStream in) throws IOException {
+		int n = in.readInt();
+		SortedSet<OWLClassExpression> classes = new TreeSet<>();
+		for (int i = 0; i < n; i++) {
+			classes.add(df.getOWLClass(IRI.create(in.readUTF())));
+		}
+		return classes;
+	}
+
+	private static OWLClassExpression asClassExpression(SortedSet<OWLClassExpression> classes) {
+		return classes.size() == 1 ? classes.first() : df.getOWLObjectIntersectionOf(classes);
+	}
+
+	// whether the class expression is a named class or an intersection of named classes
+	private static boolean isNamed(OWLClassExpression ce) {
+		return ce.asConjunctSet().stream().noneMatch(OWLClassExpression::isAnonymous);
+	}
+
+	/**
+	 * @return the key of the snapshot
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * @param section the section
+	 * @return whether the snapshot contains the given section
+	 */
+	public boolean contains(Section section) {
+		return timestamps.containsKey(section);
+	}
+
+	/**
+	 * @param section the section
+	 * @return the time at which the given section has been computed in ms, or -1 if it is not contained
+	 */
+	public long getTimestamp(Section section) {
+		return timestamps.getOrDefault(section, -1L);
+	}
+
+	/**
+	 * Removes all sections that have been computed more than the given time ago.
+	 *
+	 * @param maxAge the max. age in ms
+	 * @return the removed sections
+	 */
+	public Set<Section> removeSectionsOlderThan(long maxAge) {
+		long now = System.currentTimeMillis();
+		Set<Section> expired = EnumSet.noneOf(Section.class);
+		timestamps.forEach((section, timestamp) -> {
+			if (now - timestamp > maxAge) {
+				expired.add(section);
+			}
+		});
+		expired.forEach(this::remove);
+		return expired;
+	}
+
+	private void remove(Section section) {
+		timestamps.remove(section);
+		switch (section) {
+			case CLASS_HIERARCHY:
+				classHierarchyUp = null;
+				break;
+			case PROPERTY_DOMAINS:
+				propertyDomains.clear();
+				break;
+			case OBJECT_PROPERTY_RANGES:
+				objectPropertyRanges.clear();
+				break;
+			default:
+				popularities.remove(popularityType(section));
+		}
+	}
+
+	/**
+	 * Sets the class hierarchy, which has been computed now. Only the upward direction is stored, and only if
+	 * the hierarchy consists of named classes.
+	 * @param hierarchy the class hierarchy
+	 */
+	public void setClassHierarchy(ClassHierarchy hierarchy) {
+		remove(Section.CLASS_HIERARCHY);
+		SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> up = new TreeMap<>();
+		for (Map.Entry<OWLClassExpression, SortedSet<OWLClassExpression>> entry : hierarchy.getHierarchyUp().entrySet()) {
+			SortedSet<OWLClassExpression> sups = entry.getValue() == null ? new TreeSet<>() : entry.getValue();
+			if (entry.getKey().isAnonymous() || sups.stream().anyMatch(OWLClassExpression::isAnonymous)) {
+				return;
+			}
+			up.put(entry.getKey(), sups);
+		}
+		classHierarchyUp = up;
+		timestamps.put(Section.CLASS_HIERARCHY, System.currentTimeMillis());
+	}
+
+	/**
+	 * @return the class hierarchy, or {@code null} if it is not contained in the snapshot
+	 */
+	public ClassHierarchy getClassHierarchy() {
+		if (classHierarchyUp == null) {
+			return null;
+		}
+		// the downward direction is the inverse of the upward direction
+		SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> up = new TreeMap<>();
+		SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> down = new TreeMap<>();
+		classHierarchyUp.forEach((sub, sups) -> {
+			up.put(sub, new TreeSet<>(sups));
+			sups.forEach(sup -> down.computeIfAbsent(sup, k -> new TreeSet<>()).add(sub));
+		});
+		return new ClassHierarchy(up, down);
+	}
+
+	/**
+	 * Sets the domains of all properties, which have been computed now. Domains that are not (intersections of)
+	 * named classes are skipped.
+	 * @param propertyDomains the property domains
+	 */
+	public void setPropertyDomains(Map<? extends OWLProperty, ? extends OWLClassExpression> propertyDomains) {
+		this.propertyDomains.clear();
+		propertyDomains.forEach((p, dom) -> {
+			if (dom != null && isNamed(dom)) {
+				this.propertyDomains.put(p, dom);
+			}
+		});
+		timestamps.put(Section.PROPERTY_DOMAINS, System.currentTimeMillis());
+	}
+
+	public Map<OWLProperty, OWLClassExpression> getPropertyDomains() {
+		return propertyDomains;
+	}
+
+	/**
+	 * Sets the ranges of all object properties, which have been computed now. Ranges that are not
+	 * (intersections of) named classes are skipped.
+	 * @param objectPropertyRanges the object property ranges
+	 */
+	public void setObjectPropertyRanges(Map<? extends OWLObjectProperty, ? extends OWLClassExpression> objectPropertyRanges) {
+		this.objectPropertyRanges.clear();
+		objectPropertyRanges.forEach((p, ran) -> {
+			if (ran != null && isNamed(ran)) {
+				this.objectPropertyRanges.put(p, ran);
+			}
+		});
+		timestamps.put(Section.OBJECT_PROPERTY_RANGES, System.currentTimeMillis());
+	}
+
+	public Map<OWLObjectProperty, OWLClassExpression> getObjectPropertyRanges() {
+		return objectPropertyRanges;
+	}
+
+	/**
+	 * Sets the popularity of all entities of the given type, which has been computed now. Entities of other
+	 * types are skipped.
+	 * @param type the popularity type
+	 * @param popularity the popularity of the entities
+	 */
+	public void setPopularity(PopularityType type, Map<? extends OWLEntity, Integer> popularity) {
+		Map<OWLEntity, Integer> entries = new HashMap<>();
+		popularity.forEach((entity, value) -> {
+			if (popularityType(entity) == type) {
+				entries.put(entity, value);
+			}
+		});
+		popularities.put(type, entries);
+		timestamps.put(Section.of(type), System.currentTimeMillis());
+	}
+
+	/**
+	 * @param type the popularity type
+	 * @return the popularity of the entities of the given type, empty if the section is not contained
+	 */
+	public Map<OWLEntity, Integer> getPopularity(PopularityType type) {
+		return popularities.getOrDefault(type, Collections.emptyMap());
+	}
+
+	private static PopularityType popularityType(OWLEntity entity) {
+		if (entity.isOWLClass()) {
+			return PopularityType.CLASS;
+		} else if (entity.isOWLObjectProperty()) {
+			return PopularityType.OBJECT_PROPERTY;
+		} else if (entity.isOWLDataProperty()) {
+			return PopularityType.DATA_PROPERTY;
+		}
+		return null;
+	}
+}
@@ -185,7 +185,7 @@ public final class Utility {
 		// there are 4 checks a class has to satisfy to get into the set;
 		// for 2 of them we can stop further traversal in the subsumption
 		// hierarchy
-		for(OWLClassExpression d : sh.getSubClasses(upperClass, true)) {
+		sh.forEachSubClass(upperClass, true, d -> {
 //			System.out.println("d: " + d);
 			// owl:Nothing is never a candidate (not in EL)
 			if(!d.isOWLNothing()) {
@@ -210,7 +210,7 @@ public final class Utility {
 					}
 				}
 			}
-		}
+		});
 		return candidates;
 	}
 	
@@ -0,0 +1,274 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities;
+
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses how to compute the examples covered by a class expression based on the estimated costs
+ * of the alternatives:
+ * <ul>
+ * <li>retrieval of all instances of the class expression,</li>
+ * <li>an instance check for each example,</li>
+ * <li>retrieval of the instances of the named classes of a conjunction and instance checks for
+ * only those examples which are instances of all of them.</li>
+ * </ul>
+ * The costs are estimated from the latencies observed for previous reasoner calls, where the costs of a
+ * retrieval grow with the number of retrieved instances, and from the observed fraction of examples
+ * contained in the named classes. Each strategy is tried a few times before its estimate is used.
+ * Afterwards, every {@value #EXPLORATION_INTERVAL}th plan uses the strategy whose estimate is the
+ * oldest, such that the estimates follow changes of the costs, e.g. due to caching by the reasoner.
+ */
+public class CoveragePlanner {
+
+	public enum Strategy {
+		RETRIEVAL, INSTANCE_CHECKS, HYBRID
+	}
+
+	/**
+	 * The strategy to compute the coverage of a class expression.
+	 */
+	public static class Plan {
+		private final Strategy strategy;
+		private final List<OWLClass> retrievedClasses;
+
+		Plan(Strategy strategy, List<OWLClass> retrievedClasses) {
+			this.strategy = strategy;
+			this.retrievedClasses = retrievedClasses;
+		}
+
+		public Strategy getStrategy() {
+			return strategy;
+		}
+
+		/**
+		 * @return the named classes whose instances have to be retrieved in a hybrid plan
+		 */
+		public List<OWLClass> getRetrievedClasses() {
+			return retrievedClasses;
+		}
+
+		@Override
+		public String toString() {
+			return strategy + (retrievedClasses.isEmpty() ? "" : " " + retrievedClasses);
+		}
+	}
+
+	// number of observations before the cost estimate of a strategy is used
+	static final int MIN_OBSERVATIONS = 3;
+	// every n-th plan afterwards refreshes the oldest estimate
+	static final int EXPLORATION_INTERVAL = 20;
+	// weight of the latest observation in the moving averages
+	private static final double ALPHA = 0.2;
+	// assumed fraction of examples contained in a class not retrieved so far
+	private static final double DEFAULT_SELECTIVITY = 0.5;
+
+	// the time per retrieved instance, plus one for the costs of the call itself
+	private final MovingAverage retrievalTime = new MovingAverage();
+	private final MovingAverage instanceCheckTime = new MovingAverage();
+	private final MovingAverage classRetrievalTime = new MovingAverage();
+	// the number of instances of the retrieved class expressions
+	private final MovingAverage extensionSize = new MovingAverage();
+	// the number of instances of the named classes retrieved so far
+	private final Map<OWLClass, Integer> classExtensionSizes = new ConcurrentHashMap<>();
+	// the fraction of examples which are instances of a class
+	private final Map<OWLClass, MovingAverage> selectivities = new ConcurrentHashMap<>();
+
+	// the number of plans, also used to order the observations
+	private final AtomicLong clock = new AtomicLong();
+
+	/**
+	 * @param concept the class expression
+	 * @param nrOfExamples the number of examples to compute the coverage for
+	 * @return the plan with the lowest estimated costs
+	 */
+	public Plan plan(OWLClassExpression concept, int nrOfExamples) {
+		List<OWLClass> classes = getSelectiveConjuncts(concept);
+		long time = clock.incrementAndGet();
+
+		// try each strategy a few times to get an estimate of its costs
+		if (instanceCheckTime.getCount() < MIN_OBSERVATIONS) {
+			return new Plan(Strategy.INSTANCE_CHECKS, Collections.emptyList());
+		}
+		if (retrievalTime.getCount() < MIN_OBSERVATIONS) {
+			return new Plan(Strategy.RETRIEVAL, Collections.emptyList());
+		}
+		if (!classes.isEmpty() && classRetrievalTime.getCount() < MIN_OBSERVATIONS) {
+			return new Plan(Strategy.HYBRID, classes);
+		}
+
+		// refresh the oldest estimate from time to time
+		if (time % EXPLORATION_INTERVAL == 0) {
+			return explore(classes);
+		}
+
+		double instanceChecksCost = nrOfExamples * instanceCheckTime.getAverage();
+		double retrievalCost = (getEstimatedExtensionSize(concept) + 1) * retrievalTime.getAverage();
+
+		Strategy strategy = instanceChecksCost <= retrievalCost ? Strategy.INSTANCE_CHECKS : Strategy.RETRIEVAL;
+		double cost = Math.min(instanceChecksCost, retrievalCost);
+
+		if (!classes.isEmpty()) {
+			double selectivity = 1;
+			for (OWLClass cls : classes) {
+				MovingAverage s = selectivities.get(cls);
+				selectivity = Math.min(selectivity, s == null ? DEFAULT_SELECTIVITY : s.getAverage());
+			}
+			double classRetrievalCost = 0;
+			for (OWLClass cls : classes) {
+				classRetrievalCost += (getEstimatedExtensionSize(cls) + 1) * classRetrievalTime.getAverage();
+			}
+			double hybridCost = classRetrievalCost + selectivity * nrOfExamples * instanceCheckTime.getAverage();
+			if (hybridCost < cost) {
+				return new Plan(Strategy.HYBRID, classes);
+			}
+		}
+		return new Plan(strategy, Collections.emptyList());
+	}
+
+	/*
+	 * The strategy whose estimate was updated least recently.
+	 */
+	private Plan explore(List<OWLClass> classes) {
+		long instanceChecks = instanceCheckTime.getLastUpdate();
+		long retrieval = retrievalTime.getLastUpdate();
+		if (!classes.isEmpty() && classRetrievalTime.getLastUpdate() < Math.min(instanceChecks, retrieval)) {
+			return new Plan(Strategy.HYBRID, classes);
+		}
+		return new Plan(retrieval < instanceChecks ? Strategy.RETRIEVAL : Strategy.INSTANCE_CHECKS, Collections.emptyList());
+	}
+
+	/*
+	 * The number of instances of a named class if it was retrieved before, the min. number of instances of the
+	 * retrieved named classes of a conjunction, and the average number of retrieved instances otherwise.
+	 */
+	private double getEstimatedExtensionSize(OWLClassExpression concept) {
+		double size = extensionSize.getAverage();
+		if (!concept.isAnonymous()) {
+			Integer classSize = classExtensionSizes.get(concept.asOWLClass());
+			return classSize == null ? size : classSize;
+		}
+		if (concept instanceof OWLObjectIntersectionOf) {
+			for (OWLClassExpression operand : ((OWLObjectIntersectionOf) concept).getOperands()) {
+				Integer classSize = operand.isAnonymous() ? null : classExtensionSizes.get(operand.asOWLClass());
+				if (classSize != null) {
+					size = Math.min(size, classSize);
+				}
+			}
+		}
+		return size;
+	}
+
+	/*
+	 * The named classes of a conjunction, provided that it also contains other class expressions
+	 * (otherwise a retrieval of the whole conjunction is not more expensive).
+	 */
+	private List<OWLClass> getSelectiveConjuncts(OWLClassExpression concept) {
+		if (!(concept instanceof OWLObjectIntersectionOf)) {
+			return Collections.emptyList();
+		}
+		List<OWLClass> classes = new ArrayList<>();
+		boolean complexConjunct = false;
+		for (OWLClassExpression operand : ((OWLObjectIntersectionOf) concept).getOperands()) {
+			if (!operand.isAnonymous()) {
+				if (!operand.isOWLThing()) {
+					classes.add(operand.asOWLClass());
+				}
+			} else {
+				complexConjunct = true;
+			}
+		}
+		return complexConjunct ? classes : Collections.emptyList();
+	}
+
+	/**
+	 * @param concept the class expression
+	 * @param timeNs the time needed to retrieve the instances of the class expression
+	 * @param nrOfInstances the number of instances of the class expression
+	 */
+	public void recordRetrieval(OWLClassExpression concept, long timeNs, int nrOfInstances) {
+		retrievalTime.add((double) timeNs / (nrOfInstances + 1), clock.get());
+		extensionSize.add(nrOfInstances, clock.get());
+		if (!concept.isAnonymous()) {
+			classExtensionSizes.put(concept.asOWLClass(), nrOfInstances);
+		}
+	}
+
+	/**
+	 * @param nrOfChecks the number of instance checks
+	 * @param timeNs the time needed for all of them
+	 */
+	public void recordInstanceChecks(int nrOfChecks, long timeNs) {
+		if (nrOfChecks > 0) {
+			instanceCheckTime.add((double) timeNs / nrOfChecks, clock.get());
+		}
+	}
+
+	/**
+	 * @param cls the class
+	 * @param timeNs the time needed to retrieve the instances of the class
+	 * @param nrOfInstances the number of instances of the class
+	 * @param nrOfExamples the number of examples
+	 * @param nrOfExamplesInClass the number of examples which are instances of the class
+	 */
+	public void recordClassRetrieval(OWLClass cls, long timeNs, int nrOfInstances, int nrOfExamples, int nrOfExamplesInClass) {
+		classRetrievalTime.add((double) timeNs / (nrOfInstances + 1), clock.get());
+		classExtensionSizes.put(cls, nrOfInstances);
+		if (nrOfExamples > 0) {
+			selectivities.computeIfAbsent(cls, c -> new MovingAverage()).add((double) nrOfExamplesInClass / nrOfExamples, clock.get());
+		}
+	}
+
+	/*
+	 * Exponential moving average.
+	 */
+	private static class MovingAverage {
+		private double average;
+		private int count;
+		// the number of plans at the time of the latest observation
+		private long lastUpdate;
+
+		synchronized void add(double value, long time) {
+			average = count == 0 ? value : ALPHA * value + (1 - ALPHA) * average;
+			count++;
+			lastUpdate = time;
+		}
+
+		synchronized long getLastUpdate() {
+			return lastUpdate;
+		}
+
+		synchronized double getAverage() {
+			return average;
+		}
+
+		synchronized int getCount() {
+			return count;
+		}
+	}
+}
@@ -204,4 +204,18 @@ public class OwlApiJenaUtils {
 	public static <T extends OWLEntity> T asOWLEntity(Node node, EntityType<T> entityType) {
 		return dataFactory.getOWLEntity(entityType, IRI.create(node.getURI()));
 	}
+
+	/**
+	 * Convert a JENA literal node into an OWL API literal.
+	 * @param node the JENA literal node
+	 * @param df the data factory used to create the literal
+	 * @return the OWL API literal
+	 */
+	public static OWLLiteral asOWLLiteral(Node node, OWLDataFactory df) {
+		String lang = node.getLiteralLanguage();
+		if (lang != null && !lang.isEmpty()) {
+			return df.getOWLLiteral(node.getLiteralLexicalForm(), lang);
+		}
+		return df.getOWLLiteral(node.getLiteralLexicalForm(), df.getOWLDatatype(IRI.create(node.getLiteralDatatypeURI())));
+	}
 }
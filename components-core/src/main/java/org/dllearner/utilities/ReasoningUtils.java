@@ -26,12 +26,17 @@ import org.dllearner.accuracymethods.AccMethodApproximate;
 import org.dllearner.accuracymethods.AccMethodTwoValued;
 import org.dllearner.accuracymethods.AccMethodTwoValuedApproximate;
 import org.dllearner.reasoning.SPARQLReasoner;
+import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -78,6 +83,9 @@ public class ReasoningUtils implements Component {
 
 	protected AbstractReasonerComponent reasoner;
 
+	// chooses how to compute the coverage if the reasoner uses cost based coverage computation
+	private final CoveragePlanner planner = new CoveragePlanner();
+
 	/**
 	 * create new reasoning utils
 	 * @param reasoner reasoner to use
@@ -118,7 +126,22 @@ public class ReasoningUtils implements Component {
 	public final Coverage[] getCoverage(OWLClassExpression concept, Set<OWLIndividual>... sets) {
 		Coverage[] rv = new Coverage [ sets.length ];
 
-		if(!reasoner.isUseInstanceChecks()) {
+		if(reasoner.isUseCostBasedCoverage()) {
+			SortedSet<OWLIndividual>[] trueSets = getCoveredIndividuals(concept, sets);
+			if (trueSets == null) {
+				return null;
+			}
+			for (int i = 0; i < sets.length; ++i) {
+				rv[i] = new Coverage();
+				rv[i].total = sets[i].size();
+
+				rv[i].trueSet.addAll(trueSets[i]);
+				rv[i].falseSet.addAll(Sets.difference(sets[i], trueSets[i]));
+
+				rv[i].trueCount = rv[i].trueSet.size();
+				rv[i].falseCount = rv[i].falseSet.size();
+			}
+		} else if(!reasoner.isUseInstanceChecks()) {
 			if (reasoner instanceof SPARQLReasoner &&
 					((SPARQLReasoner)reasoner).isUseValueLists()) {
 				for (int i = 0; i < sets.length; ++i) {
@@ -196,7 +219,21 @@ public class ReasoningUtils implements Component {
 												  Set<OWLIndividual>... sets) {
 		CoverageCount[] rv = new CoverageCount [ sets.length ];
 
-		if(!reasoner.isUseInstanceChecks()) {
+		if(isUseAggregateCoverageQueries()) {
+			return getCoverageCounts(Collections.singletonList(concept), sets)[0];
+		} else if(reasoner.isUseCostBasedCoverage()) {
+			SortedSet<OWLIndividual>[] trueSets = getCoveredIndividuals(concept, sets);
+			if (trueSets == null) {
+				return null;
+			}
+			for (int i = 0; i < sets.length; ++i) {
+				rv[i] = new CoverageCount();
+				rv[i].total = sets[i].size();
+
+				rv[i].trueCount = trueSets[i].size();
+				rv[i].falseCount = sets[i].size() - trueSets[i].size();
+			}
+		} else if(!reasoner.isUseInstanceChecks()) {
 			if (reasoner instanceof SPARQLReasoner &&
 					((SPARQLReasoner)reasoner).isUseValueLists()) {
 
@@ -239,6 +276,115 @@ public class ReasoningUtils implements Component {
 		return rv;
 	}
 
+	/**
+	 * count the numbers of individuals satisfying each of the concepts. if the reasoner is a SPARQL reasoner with
+	 * aggregate coverage queries enabled, all counts are computed by a single query
+	 * @param concepts the OWL concepts used for counting
+	 * @param sets list of sets of individuals to count on
+	 * @return for each concept an array of Coverage counts, one entry for each input set
+	 */
+	@SafeVarargs
+	public final CoverageCount[][] getCoverageCounts(List<OWLClassExpression> concepts, Set<OWLIndividual>... sets) {
+		CoverageCount[][] rv = new CoverageCount[ concepts.size() ][];
+
+		if(isUseAggregateCoverageQueries()) {
+			int[][] trueCounts = ((SPARQLReasoner) reasoner).getIndividualsCounts(concepts, Arrays.asList(sets));
+			for (int c = 0; c < concepts.size(); ++c) {
+				rv[c] = new CoverageCount[ sets.length ];
+				for (int i = 0; i < sets.length; ++i) {
+					rv[c][i] = new CoverageCount();
+					rv[c][i].total = sets[i].size();
+
+					rv[c][i].trueCount = trueCounts[c][i];
+					rv[c][i].falseCount = sets[i].size() - trueCounts[c][i];
+				}
+			}
+		} else {
+			for (int c = 0; c < concepts.size(); ++c) {
+				rv[c] = getCoverageCount(concepts.get(c), sets);
+				if (rv[c] == null) {
+					return null;
+				}
+			}
+		}
+		return rv;
+	}
+
+	private boolean isUseAggregateCoverageQueries() {
+		return reasoner instanceof SPARQLReasoner && ((SPARQLReasoner) reasoner).isUseAggregateCoverageQueries();
+	}
+
+	/**
+	 * compute the individuals of each set satisfying the concept, using the strategy with the lowest estimated costs
+	 * @param concept the OWL concept
+	 * @param sets list of sets of individuals
+	 * @return an array of the individuals satisfying the concept, one entry for each input set, or null if interrupted
+	 */
+	private SortedSet<OWLIndividual>[] getCoveredIndividuals(OWLClassExpression concept, Set<OWLIndividual>[] sets) {
+		@SuppressWarnings("unchecked")
+		SortedSet<OWLIndividual>[] rv = new SortedSet[ sets.length ];
+
+		int nrOfExamples = 0;
+		for (Set<OWLIndividual> set : sets) {
+			nrOfExamples += set.size();
+		}
+		CoveragePlanner.Plan plan = planner.plan(concept, nrOfExamples);
+		logger.trace("coverage plan for " + concept + ": " + plan);
+
+		switch (plan.getStrategy()) {
+			case RETRIEVAL: {
+				long startTime = System.nanoTime();
+				SortedSet<OWLIndividual> individuals = reasoner.getIndividuals(concept);
+				planner.recordRetrieval(concept, System.nanoTime() - startTime, individuals.size());
+				for (int i = 0; i < sets.length; ++i) {
+					rv[i] = new TreeSet<>(Sets.intersection(sets[i], individuals));
+				}
+				return rv;
+			}
+			case HYBRID: {
+				// the candidates are the examples contained in all retrieved classes
+				List<Set<OWLIndividual>> candidates = new ArrayList<>(Arrays.asList(sets));
+				for (OWLClass cls : plan.getRetrievedClasses()) {
+					long startTime = System.nanoTime();
+					SortedSet<OWLIndividual> individuals = reasoner.getIndividuals(cls);
+					long time = System.nanoTime() - startTime;
+					int before = 0, after = 0;
+					for (int i = 0; i < sets.length; ++i) {
+						before += candidates.get(i).size();
+						candidates.set(i, Sets.newHashSet(Sets.intersection(candidates.get(i), individuals)));
+						after += candidates.get(i).size();
+					}
+					planner.recordClassRetrieval(cls, time, individuals.size(), before, after);
+				}
+				return checkInstances(concept, candidates.toArray(new Set[sets.length]));
+			}
+			default:
+				return checkInstances(concept, sets);
+		}
+	}
+
+	private SortedSet<OWLIndividual>[] checkInstances(OWLClassExpression concept, Set<OWLIndividual>[] sets) {
+		@SuppressWarnings("unchecked")
+		SortedSet<OWLIndividual>[] rv = new SortedSet[ sets.length ];
+
+		int nrOfChecks = 0;
+		long startTime = System.nanoTime();
+		for (int i = 0; i < sets.length; ++i) {
+			rv[i] = new TreeSet<>();
+			for (OWLIndividual example : sets[i]) {
+				if (getReasoner().hasType(concept, example)) {
+					rv[i].add(example);
+				}
+				nrOfChecks++;
+				if (interrupted()) {
+					return null;
+				}
+			}
+		}
+		planner.recordInstanceChecks(nrOfChecks, System.nanoTime() - startTime);
+		return rv;
+	}
+
 	/**
 	 * partition an array of sets into true, false and unknown, depending on whether they satisfy concept A or B
 	 * @param trueConcept the OWL concept used for true partition
@@ -38,8 +38,6 @@ public class OWLClassExpressionMinimizer implements OWLClassExpressionVisitorEx<
 	private OWLObjectDuplicator objectDuplicator;
 	
 	private boolean beautify = true;
-	
-	private Map<OWLClassExpression,Map<OWLClassExpression,Boolean>> cachedSubclassOf = new TreeMap<>();
 
 	public OWLClassExpressionMinimizer(OWLDataFactory dataFactory, AbstractReasonerComponent reasoner) {
 		this.df = dataFactory;
@@ -24,6 +24,7 @@ import java.util.Set;
 /**
  * Utility class for calculating the mean and standard deviation of a given set
  * of numbers. The class also contains convenience methods for printing values.
+ * Numbers can be added concurrently, e.g. by parallel cross-validation folds.
  * 
  * @author Jens Lehmann
  * 
@@ -73,7 +74,7 @@ public class Stat {
     	}
     }
     
-    public void add(Stat stat){
+    public synchronized void add(Stat stat){
     	count += stat.count;
 		sum += stat.sum;
     	squareSum += stat.squareSum;
@@ -87,7 +88,7 @@ public class Stat {
      * @param number
      *            The new number.
      */
-    public void addNumber(double number) {
+    public synchronized void addNumber(double number) {
         count++;
         sum += number;
         squareSum += number * number;
@@ -102,7 +103,7 @@ public class Stat {
      * 
      * @return The number of numbers.
      */
-    public int getCount() {
+    public synchronized int getCount() {
         return count;
     }
 
@@ -111,7 +112,7 @@ public class Stat {
      * 
      * @return The sum of all numbers.
      */
-    public double getSum() {
+    public synchronized double getSum() {
         return sum;
     }
 
@@ -120,7 +121,7 @@ public class Stat {
      * 
      * @return The mean of all numbers.
      */
-    public double getMean() {
+    public synchronized double getMean() {
         return sum / count;
     }
     
@@ -138,7 +139,7 @@ public class Stat {
      * 
      * @return The standard deviation of all numbers.
      */
-    public double getStandardDeviation() {    	
+    public synchronized double getStandardDeviation() {    	
     	if(count <= 1)
      		return 0.0;
     	
@@ -158,14 +159,14 @@ public class Stat {
 	/**
 	 * @return the min
 	 */
-	public double getMin() {
+	public synchronized double getMin() {
 		return min;
 	}
 
 	/**
 	 * @return the max
 	 */
-	public double getMax() {
+	public synchronized double getMax() {
 		return max;
 	}
 
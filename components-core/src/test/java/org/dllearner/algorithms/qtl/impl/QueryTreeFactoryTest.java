@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.shared.PrefixMapping;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.kb.sparql.ConciseBoundedDescriptionGenerator;
+import org.dllearner.kb.sparql.ConciseBoundedDescriptionGeneratorImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the query trees do not depend on whether they are generated one by one or several at once in parallel.
+ */
+public class QueryTreeFactoryTest {
+
+	private static final String NS = "http://dl-learner.org/test/qtl#";
+	private static final int MAX_DEPTH = 3;
+
+	private Model model;
+	private List<Resource> resources;
+
+	@Before
+	public void setUp() {
+		model = ModelFactory.createDefaultModel();
+		Resource a = model.createResource(NS + "a");
+		Resource b = model.createResource(NS + "b");
+		Resource c = model.createResource(NS + "c");
+		Resource d = model.createResource(NS + "d");
+		Resource e = model.createResource(NS + "e");
+		Resource f = model.createResource(NS + "f");
+		Resource g = model.createResource(NS + "g");
+		Resource x = model.createResource();
+
+		// the examples share resources on different levels
+		a.addProperty(model.createProperty(NS + "p"), b)
+				.addProperty(model.createProperty(NS + "p"), "1")
+				.addProperty(model.createProperty(NS + "q"), c);
+		b.addProperty(model.createProperty(NS + "r"), c)
+				.addProperty(model.createProperty(NS + "r"), x);
+		x.addProperty(model.createProperty(NS + "s"), "lit");
+		c.addProperty(model.createProperty(NS + "s"), d);
+		d.addProperty(model.createProperty(NS + "t"), e);
+		f.addProperty(model.createProperty(NS + "p"), b)
+				.addProperty(model.createProperty(NS + "q"), d);
+		g.addProperty(model.createProperty(NS + "p"), a);
+
+		resources = Arrays.asList(a, f, g);
+	}
+
+	private static String render(RDFResourceTree tree) {
+		return tree.getStringRepresentation(false, null, null, PrefixMapping.Standard, true);
+	}
+
+	private void assertSameTrees(QueryTreeFactory factory, Map<Resource, RDFResourceTree> trees) {
+		assertEquals(resources, new ArrayList<>(trees.keySet()));
+		for (Resource resource : resources) {
+			assertEquals(render(factory.getQueryTree(resource, model, MAX_DEPTH)), render(trees.get(resource)));
+		}
+	}
+
+	@Test
+	public void testSharedIndex() {
+		QueryTreeFactory factory = new QueryTreeFactoryBase();
+		assertSameTrees(factory, factory.getQueryTrees(resources, model, MAX_DEPTH));
+	}
+
+	@Test
+	public void testCombinedConciseBoundedDescriptions() {
+		QueryTreeFactory factory = new QueryTreeFactoryBase();
+		ConciseBoundedDescriptionGenerator cbdGen = new ConciseBoundedDescriptionGeneratorImpl(model);
+
+		// the trees generated from the combined CBDs of the examples are the same as the trees of the single CBDs
+		Model combined = ModelFactory.createDefaultModel();
+		resources.forEach(resource -> combined.add(cbdGen.getConciseBoundedDescription(resource.getURI(), MAX_DEPTH)));
+		Map<Resource, RDFResourceTree> trees = factory.getQueryTrees(resources, combined, MAX_DEPTH);
+
+		for (Resource resource : resources) {
+			Model cbd = cbdGen.getConciseBoundedDescription(resource.getURI(), MAX_DEPTH);
+			assertEquals(render(factory.getQueryTree(resource.getURI(), cbd, MAX_DEPTH)), render(trees.get(resource)));
+		}
+	}
+
+	@Test
+	public void testConcurrentTreeGeneration() {
+		for (QueryTreeFactory factory : Arrays.asList(new QueryTreeFactoryBase(), new QueryTreeFactoryBaseInv())) {
+			// one factory used by several threads at once
+			List<Map<Resource, RDFResourceTree>> runs = IntStream.range(0, 20).parallel()
+					.mapToObj(i -> {
+						Map<Resource, RDFResourceTree> trees = new LinkedHashMap<>();
+						resources.forEach(resource -> trees.put(resource, factory.getQueryTree(resource, model, MAX_DEPTH)));
+						return trees;
+					})
+					.collect(Collectors.toList());
+
+			for (Map<Resource, RDFResourceTree> trees : runs) {
+				assertSameTrees(factory, trees);
+			}
+		}
+	}
+}
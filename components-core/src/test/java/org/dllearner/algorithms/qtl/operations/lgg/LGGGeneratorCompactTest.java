@@ -0,0 +1,100 @@
+package org.dllearner.algorithms.qtl.operations.lgg;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.NodeDictionary;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class LGGGeneratorCompactTest {
+
+	String NS = "http://dl-learner.org/test/";
+	private int maxDepth = 2;
+
+	Model model;
+	QueryTreeFactory treeFactory;
+	NodeDictionary dictionary;
+
+	@Before
+	public void setUp() throws Exception {
+		String kb = "" +
+				"@prefix : <http://dl-learner.org/test/> ." +
+				"@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> ." +
+				":x1 rdf:type :A ; :r :y1 ; :s \"1\"^^<http://www.w3.org/2001/XMLSchema#int> ." +
+				":y1 rdf:type :B ; :t :z ." +
+				":x2 rdf:type :A ; :r :y2 ; :s \"2\"^^<http://www.w3.org/2001/XMLSchema#int> ." +
+				":y2 rdf:type :B ; :t :z ; rdf:type :C ." +
+				":x3 rdf:type :A ; :r :y3 ." +
+				":y3 :t :z2 .";
+
+		model = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(model, new StringReader(kb), null, Lang.TURTLE);
+
+		treeFactory = new QueryTreeFactoryBase();
+		dictionary = new NodeDictionary();
+	}
+
+	private RDFResourceTree getTree(String uri) {
+		return treeFactory.getQueryTree(NS + uri, model, maxDepth);
+	}
+
+	@Test
+	public void testConversion() throws Exception {
+		RDFResourceTree tree = getTree("x2");
+		CompactRDFResourceTree compactTree = CompactRDFResourceTree.from(tree, dictionary);
+
+		assertEquals(QueryTreeUtils.getNodes(tree).size(), compactTree.size());
+		assertEquals(QueryTreeUtils.toSPARQLQueryString(tree),
+					 QueryTreeUtils.toSPARQLQueryString(compactTree.toRDFResourceTree()));
+		assertEquals(QueryTreeUtils.toSPARQLQueryString(tree), compactTree.toSPARQLQueryString());
+	}
+
+	@Test
+	public void testSubsumption() throws Exception {
+		for (String uri1 : new String[]{"x1", "x2", "x3"}) {
+			for (String uri2 : new String[]{"x1", "x2", "x3"}) {
+				RDFResourceTree tree1 = getTree(uri1);
+				RDFResourceTree tree2 = getTree(uri2);
+				assertEquals(QueryTreeUtils.isSubsumedBy(tree1, tree2),
+							 CompactRDFResourceTree.from(tree1, dictionary).isSubsumedBy(CompactRDFResourceTree.from(tree2, dictionary)));
+			}
+		}
+	}
+
+	@Test
+	public void testLGG() throws Exception {
+		LGGGenerator lggGen = new LGGGeneratorSimple();
+		LGGGeneratorCompact compactLggGen = new LGGGeneratorCompact();
+
+		for (String[] pair : new String[][]{{"x1", "x2"}, {"x2", "x3"}, {"x1", "x3"}}) {
+			RDFResourceTree tree1 = getTree(pair[0]);
+			RDFResourceTree tree2 = getTree(pair[1]);
+
+			RDFResourceTree lgg = lggGen.getLGG(tree1, tree2);
+			CompactRDFResourceTree compactLgg = compactLggGen.getLGG(
+					CompactRDFResourceTree.from(tree1, dictionary), CompactRDFResourceTree.from(tree2, dictionary));
+
+			assertTrue(QueryTreeUtils.isSubsumedBy(lgg, compactLgg.toRDFResourceTree()));
+			assertTrue(QueryTreeUtils.isSubsumedBy(compactLgg.toRDFResourceTree(), lgg));
+			assertTrue(CompactRDFResourceTree.from(tree1, dictionary).isSubsumedBy(compactLgg));
+			assertTrue(CompactRDFResourceTree.from(tree2, dictionary).isSubsumedBy(compactLgg));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDifferentDictionaries() throws Exception {
+		RDFResourceTree tree = getTree("x1");
+		CompactRDFResourceTree.from(tree, dictionary).isSubsumedBy(CompactRDFResourceTree.from(tree, new NodeDictionary()));
+	}
+}
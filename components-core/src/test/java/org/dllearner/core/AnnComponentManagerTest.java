@@ -18,9 +18,14 @@
  */
 package org.dllearner.core;
 
+import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.stream.Collectors;
 
+import org.dllearner.algorithms.celoe.CELOE;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 /**
@@ -42,4 +47,24 @@ public class AnnComponentManagerTest {
         // currently: [class org.dllearner.reasoning.OWLAPIReasoner, class org.dllearner.reasoning.FastInstanceChecker]
         Assert.assertTrue(components.size() >= 1);
     }
+
+    @Test
+    public void testComponentIndex() {
+        ComponentIndex index = ComponentIndex.load();
+        // the index only exists if the module has been compiled with the index processor
+        Assume.assumeNotNull(index);
+
+        ComponentIndex.Entry entry = index.getEntry(CELOE.class.getName());
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(AnnComponentManager.getName(CELOE.class), entry.getName());
+        Assert.assertEquals(AnnComponentManager.getShortName(CELOE.class), entry.getShortName());
+        Assert.assertTrue(entry.getConfigOptions().contains("maxExecutionTimeInSeconds"));
+        Assert.assertEquals(
+                AnnComponentManager.getConfigOptions(CELOE.class).stream().map(Field::getName).collect(Collectors.toSet()),
+                new HashSet<>(entry.getConfigOptions()));
+
+        // the module of CELOE is not scanned again
+        Assert.assertTrue(index.covers(CELOE.class.getProtectionDomain().getCodeSource().getLocation()));
+        Assert.assertTrue(AnnComponentManager.getInstance().getComponents().contains(CELOE.class));
+    }
 }
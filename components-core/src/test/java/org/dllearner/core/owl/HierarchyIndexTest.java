@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core.owl;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+/**
+ * Compares the reachability tests and traversals of the {@link HierarchyIndex} with the naive transitive
+ * closure of the hierarchy maps.
+ */
+public class HierarchyIndexTest {
+
+	private static final String NS = "http://dl-learner.org/test/hierarchy#";
+
+	private final OWLDataFactory df = OWLManager.getOWLDataFactory();
+
+	private OWLClassExpression cls(String name) {
+		return df.getOWLClass(IRI.create(NS + name));
+	}
+
+	private static void addEdge(SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> up,
+								SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> down,
+								OWLClassExpression child, OWLClassExpression parent) {
+		up.computeIfAbsent(child, k -> new TreeSet<>()).add(parent);
+		up.computeIfAbsent(parent, k -> new TreeSet<>());
+		down.computeIfAbsent(parent, k -> new TreeSet<>()).add(child);
+		down.computeIfAbsent(child, k -> new TreeSet<>());
+	}
+
+	/*
+	 * All entities reachable from the given one via the map, excluding the entity itself.
+	 */
+	private static SortedSet<OWLClassExpression> closure(SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> hierarchy,
+														 OWLClassExpression entity) {
+		SortedSet<OWLClassExpression> reached = new TreeSet<>();
+		Deque<OWLClassExpression> todo = new ArrayDeque<>(hierarchy.get(entity));
+		while (!todo.isEmpty()) {
+			OWLClassExpression next = todo.pop();
+			if (reached.add(next)) {
+				todo.addAll(hierarchy.get(next));
+			}
+		}
+		reached.remove(entity);
+		return reached;
+	}
+
+	private static void assertSameAsClosure(SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> up,
+											SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> down) {
+		HierarchyIndex<OWLClassExpression> index = HierarchyIndex.build(up, down);
+		assertNotNull(index);
+
+		for (OWLClassExpression entity : up.keySet()) {
+			SortedSet<OWLClassExpression> ancestors = closure(up, entity);
+			SortedSet<OWLClassExpression> descendants = closure(down, entity);
+
+			for (OWLClassExpression other : up.keySet()) {
+				assertEquals(entity + " subsumed by " + other,
+						entity.equals(other) || ancestors.contains(other), index.isChildOf(entity, other));
+			}
+
+			SortedSet<OWLClassExpression> parents = new TreeSet<>();
+			index.forEachParent(entity, false, parents::add);
+			assertEquals(ancestors, parents);
+
+			SortedSet<OWLClassExpression> children = new TreeSet<>();
+			index.forEachChild(entity, false, children::add);
+			assertEquals(descendants, children);
+
+			SortedSet<OWLClassExpression> directParents = new TreeSet<>();
+			index.forEachParent(entity, true, directParents::add);
+			SortedSet<OWLClassExpression> expectedDirectParents = new TreeSet<>(up.get(entity));
+			expectedDirectParents.remove(entity);
+			assertEquals(expectedDirectParents, directParents);
+		}
+	}
+
+	@Test
+	public void testDiamond() {
+		SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> up = new TreeMap<>();
+		SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> down = new TreeMap<>();
+		// D has two parents B and C which share the parent A, E is a subclass of D and of the unrelated F
+		addEdge(up, down, cls("B"), cls("A"));
+		addEdge(up, down, cls("C"), cls("A"));
+		addEdge(up, down, cls("D"), cls("B"));
+		addEdge(up, down, cls("D"), cls("C"));
+		addEdge(up, down, cls("E"), cls("D"));
+		addEdge(up, down, cls("E"), cls("F"));
+		// the entity itself is contained for some reasoners
+		up.get(cls("D")).add(cls("D"));
+		down.get(cls("D")).add(cls("D"));
+
+		assertSameAsClosure(up, down);
+
+		HierarchyIndex<OWLClassExpression> index = HierarchyIndex.build(up, down);
+		assertTrue(index.isChildOf(cls("E"), cls("A")));
+		assertFalse(index.isChildOf(cls("F"), cls("A")));
+		assertFalse(index.isChildOf(cls("A"), cls("E")));
+		// entities not contained in the hierarchy are only subsumed by themselves
+		assertTrue(index.isChildOf(cls("X"), cls("X")));
+		assertFalse(index.isChildOf(cls("X"), cls("A")));
+	}
+
+	@Test
+	public void testRandomDAGs() {
+		for (int seed = 0; seed < 20; seed++) {
+			Random rnd = new Random(seed);
+			int n = 60;
+
+			// the natural order of the names does not match the topological order
+			List<OWLClassExpression> entities = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				entities.add(cls(String.format("C%02d", i)));
+			}
+			Collections.shuffle(entities, rnd);
+
+			SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> up = new TreeMap<>();
+			SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> down = new TreeMap<>();
+			up.put(entities.get(0), new TreeSet<>());
+			down.put(entities.get(0), new TreeSet<>());
+			for (int i = 1; i < n; i++) {
+				// up to 3 parents among the entities created before, i.e. multiple inheritance
+				int nrOfParents = 1 + rnd.nextInt(3);
+				for (int j = 0; j < nrOfParents; j++) {
+					addEdge(up, down, entities.get(i), entities.get(rnd.nextInt(i)));
+				}
+			}
+
+			assertSameAsClosure(up, down);
+		}
+	}
+
+	@Test
+	public void testCycle() {
+		SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> up = new TreeMap<>();
+		SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> down = new TreeMap<>();
+		addEdge(up, down, cls("A"), cls("B"));
+		addEdge(up, down, cls("B"), cls("A"));
+		addEdge(up, down, cls("C"), cls("A"));
+
+		assertNull(HierarchyIndex.build(up, down));
+
+		// the hierarchy falls back to the traversal of the maps
+		ClassHierarchy hierarchy = new ClassHierarchy(up, down);
+		assertEquals(Collections.singleton(cls("A")), hierarchy.getParents(cls("C")));
+		assertEquals(new TreeSet<>(Arrays.asList(cls("B"), cls("C"))), hierarchy.getChildren(cls("A")));
+		assertTrue(hierarchy.isSubclassOf(cls("C"), cls("B")));
+	}
+}
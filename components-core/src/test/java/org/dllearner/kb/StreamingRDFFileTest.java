@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb;
+
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.reasoning.OWLAPIReasoner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingRDFFileTest {
+
+	private static final String NS = "http://dl-learner.org/test/";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File createABoxFile() throws Exception {
+		File file = folder.newFile("abox.nt");
+		Files.write(file.toPath(), Arrays.asList(
+				"<" + NS + "a> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <" + NS + "Male> .",
+				"<" + NS + "b> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://www.w3.org/2002/07/owl#NamedIndividual> .",
+				"<" + NS + "a> <" + NS + "hasChild> <" + NS + "b> .",
+				"<" + NS + "a> <" + NS + "age> \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .",
+				"<" + NS + "Male> <http://www.w3.org/2000/01/rdf-schema#subClassOf> <" + NS + "Person> ."
+		), StandardCharsets.UTF_8);
+		return file;
+	}
+
+	@Test
+	public void testCreateOntology() throws Exception {
+		StreamingRDFFile ks = new StreamingRDFFile(createABoxFile().getAbsolutePath());
+		ks.init();
+
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLOntology ontology = ks.createOWLOntology(man);
+
+		OWLNamedIndividual a = df.getOWLNamedIndividual(IRI.create(NS + "a"));
+		OWLNamedIndividual b = df.getOWLNamedIndividual(IRI.create(NS + "b"));
+		assertTrue(ontology.containsAxiom(df.getOWLClassAssertionAxiom(df.getOWLClass(IRI.create(NS + "Male")), a)));
+		assertTrue(ontology.containsAxiom(df.getOWLDeclarationAxiom(b)));
+		assertTrue(ontology.containsAxiom(df.getOWLObjectPropertyAssertionAxiom(df.getOWLObjectProperty(IRI.create(NS + "hasChild")), a, b)));
+		assertTrue(ontology.containsAxiom(df.getOWLDataPropertyAssertionAxiom(df.getOWLDataProperty(IRI.create(NS + "age")), a, 42)));
+		// the schema triple is ignored
+		assertEquals(0, ontology.getAxiomCount(AxiomType.SUBCLASS_OF));
+	}
+
+	@Test
+	public void testParallelLoading() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLClass male = df.getOWLClass(IRI.create(NS + "Male"));
+		OWLClass person = df.getOWLClass(IRI.create(NS + "Person"));
+		OWLOntology tbox = man.createOntology();
+		man.addAxiom(tbox, df.getOWLSubClassOfAxiom(male, person));
+
+		StreamingRDFFile abox = new StreamingRDFFile(createABoxFile().getAbsolutePath());
+		OWLAPIOntology schema = new OWLAPIOntology(tbox);
+		abox.init();
+		schema.init();
+
+		OWLAPIReasoner reasoner = new OWLAPIReasoner(schema, abox);
+		reasoner.setParallelLoading(true);
+		reasoner.init();
+
+		assertTrue(reasoner.hasType(person, df.getOWLNamedIndividual(IRI.create(NS + "a"))));
+		assertEquals(2, reasoner.getIndividuals().size());
+	}
+
+	@Test
+	public void testStreamIntoClosedWorldReasoner() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLClass male = df.getOWLClass(IRI.create(NS + "Male"));
+		OWLClass person = df.getOWLClass(IRI.create(NS + "Person"));
+		OWLObjectProperty hasChild = df.getOWLObjectProperty(IRI.create(NS + "hasChild"));
+		OWLObjectProperty related = df.getOWLObjectProperty(IRI.create(NS + "related"));
+		OWLOntology tbox = man.createOntology();
+		man.addAxiom(tbox, df.getOWLSubClassOfAxiom(male, person));
+		man.addAxiom(tbox, df.getOWLSubObjectPropertyOfAxiom(hasChild, related));
+
+		StreamingRDFFile abox = new StreamingRDFFile(createABoxFile().getAbsolutePath());
+		OWLAPIOntology schema = new OWLAPIOntology(tbox);
+		abox.init();
+		schema.init();
+
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(schema, abox);
+		reasoner.setStreamABox(true);
+		reasoner.init();
+
+		OWLNamedIndividual a = df.getOWLNamedIndividual(IRI.create(NS + "a"));
+		OWLNamedIndividual b = df.getOWLNamedIndividual(IRI.create(NS + "b"));
+		assertEquals(2, reasoner.getIndividuals().size());
+		assertTrue(reasoner.hasType(person, a));
+		assertTrue(reasoner.hasType(df.getOWLObjectComplementOf(male), b));
+		assertTrue(reasoner.hasType(df.getOWLObjectSomeValuesFrom(related, df.getOWLThing()), a));
+		assertTrue(reasoner.getRelatedIndividuals(a, hasChild).contains(b));
+		// the ABox has not been loaded by the base reasoner
+		assertTrue(reasoner.getReasonerComponent().getIndividuals().isEmpty());
+	}
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.*;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+
+import org.apache.jena.query.QueryCancelledException;
+import org.apache.jena.sparql.engine.http.QueryExceptionHTTP;
+import org.dllearner.kb.sparql.EndpointLoadController.Outcome;
+import org.junit.Test;
+
+/**
+ * Tests the adaption of the load (AIMD) by the {@link EndpointLoadController}.
+ */
+public class EndpointLoadControllerTest {
+
+	private static void run(EndpointLoadController controller, double latencyMillis, Outcome outcome) throws Exception {
+		long start = controller.acquire();
+		controller.release(start, latencyMillis, outcome);
+	}
+
+	private static void succeed(EndpointLoadController controller, int nrOfQueries) throws Exception {
+		for (int i = 0; i < nrOfQueries; i++) {
+			run(controller, 10, Outcome.SUCCESS);
+		}
+	}
+
+	@Test
+	public void testAdditiveIncrease() throws Exception {
+		EndpointLoadController controller = new EndpointLoadController(4, 1000, 3);
+		assertEquals(1, controller.getConcurrencyLimit());
+
+		// the limit grows by about one per round of queries, i.e. by 1/limit per query
+		succeed(controller, 1);
+		assertEquals(2, controller.getConcurrencyLimit());
+		succeed(controller, 2);
+		assertEquals(2, controller.getConcurrencyLimit());
+		succeed(controller, 1);
+		assertEquals(3, controller.getConcurrencyLimit());
+
+		// but not beyond the max. concurrency
+		succeed(controller, 20);
+		assertEquals(4, controller.getConcurrencyLimit());
+	}
+
+	@Test
+	public void testNoIncreaseWhileLatencyIsHigh() throws Exception {
+		EndpointLoadController controller = new EndpointLoadController(4, 1000, 3);
+		succeed(controller, 1);
+		assertEquals(2, controller.getConcurrencyLimit());
+
+		// the average latency is far above the best one observed
+		for (int i = 0; i < 5; i++) {
+			run(controller, 100, Outcome.SUCCESS);
+		}
+		assertEquals(2, controller.getConcurrencyLimit());
+	}
+
+	@Test
+	public void testMultiplicativeDecrease() throws Exception {
+		EndpointLoadController controller = new EndpointLoadController(8, 1000, 3);
+		succeed(controller, 50);
+		assertEquals(8, controller.getConcurrencyLimit());
+		assertEquals(0, controller.getDelayMillis());
+
+		// two queries running at the same time fail, the load is reduced only once
+		long start1 = controller.acquire();
+		long start2 = controller.acquire();
+		controller.release(start1, 10, Outcome.OVERLOAD);
+		controller.release(start2, 10, Outcome.OVERLOAD);
+		assertEquals(4, controller.getConcurrencyLimit());
+		assertEquals(10, controller.getDelayMillis());
+		assertEquals(1000, controller.getPageSize());
+
+		// a query started afterwards reduces it again
+		run(controller, 10, Outcome.OVERLOAD);
+		assertEquals(2, controller.getConcurrencyLimit());
+		assertEquals(20, controller.getDelayMillis());
+
+		run(controller, 10, Outcome.OVERLOAD);
+		run(controller, 10, Outcome.OVERLOAD);
+		assertEquals(1, controller.getConcurrencyLimit());
+	}
+
+	@Test
+	public void testTimeoutsReducePageSize() throws Exception {
+		EndpointLoadController controller = new EndpointLoadController(4, 1000, 3);
+		assertEquals(1000, controller.getPageSize());
+
+		run(controller, 10, Outcome.TIMEOUT);
+		assertEquals(500, controller.getPageSize());
+		run(controller, 10, Outcome.TIMEOUT);
+		run(controller, 10, Outcome.TIMEOUT);
+		run(controller, 10, Outcome.TIMEOUT);
+		assertEquals(100, controller.getPageSize());
+
+		// the page size grows again additively
+		succeed(controller, 1);
+		assertEquals(200, controller.getPageSize());
+		succeed(controller, 20);
+		assertEquals(1000, controller.getPageSize());
+	}
+
+	@Test
+	public void testFailuresDoNotChangeLoad() throws Exception {
+		EndpointLoadController controller = new EndpointLoadController(4, 1000, 3);
+		succeed(controller, 1);
+		run(controller, 10, Outcome.FAILURE);
+		assertEquals(2, controller.getConcurrencyLimit());
+		assertEquals(0, controller.getDelayMillis());
+		assertEquals(1000, controller.getPageSize());
+	}
+
+	@Test
+	public void testMinDelay() throws Exception {
+		EndpointLoadController controller = new EndpointLoadController(4, 1000, 3, 30);
+		assertEquals(30, controller.getDelayMillis());
+
+		run(controller, 10, Outcome.OVERLOAD);
+		assertEquals(60, controller.getDelayMillis());
+
+		// the delay is reduced on success, but not below the min. delay
+		succeed(controller, 20);
+		assertEquals(30, controller.getDelayMillis());
+	}
+
+	@Test
+	public void testRetries() {
+		EndpointLoadController controller = new EndpointLoadController(4, 1000, 3);
+		assertTrue(controller.shouldRetry(Outcome.OVERLOAD, 0));
+		assertTrue(controller.shouldRetry(Outcome.TIMEOUT, 2));
+		assertFalse(controller.shouldRetry(Outcome.TIMEOUT, 3));
+		assertFalse(controller.shouldRetry(Outcome.FAILURE, 0));
+
+		// exponential backoff with some jitter
+		long backoff0 = controller.getBackoffMillis(0);
+		long backoff1 = controller.getBackoffMillis(1);
+		assertTrue(backoff0 >= 1000 && backoff0 <= 1250);
+		assertTrue(backoff1 >= 2000 && backoff1 <= 2500);
+		assertTrue(controller.getBackoffMillis(20) <= 30000 + 7500);
+	}
+
+	@Test
+	public void testClassify() {
+		assertEquals(Outcome.OVERLOAD, EndpointLoadController.classify(new QueryExceptionHTTP(503, "Service Unavailable")));
+		assertEquals(Outcome.OVERLOAD, EndpointLoadController.classify(new QueryExceptionHTTP(429, "Too Many Requests")));
+		assertEquals(Outcome.OVERLOAD, EndpointLoadController.classify(new RuntimeException(new ConnectException())));
+		assertEquals(Outcome.TIMEOUT, EndpointLoadController.classify(new QueryExceptionHTTP(504, "Gateway Timeout")));
+		assertEquals(Outcome.TIMEOUT, EndpointLoadController.classify(new QueryCancelledException()));
+		// e.g. a timeout while reading the results
+		assertEquals(Outcome.TIMEOUT, EndpointLoadController.classify(new RuntimeException(new SocketTimeoutException())));
+		assertEquals(Outcome.FAILURE, EndpointLoadController.classify(new QueryExceptionHTTP(400, "Bad Request")));
+		assertEquals(Outcome.FAILURE, EndpointLoadController.classify(new IllegalArgumentException()));
+	}
+}
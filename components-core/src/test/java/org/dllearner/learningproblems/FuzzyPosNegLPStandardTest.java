@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.learningproblems;
+
+import static org.junit.Assert.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.core.owl.fuzzydll.FuzzyIndividual;
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.reasoning.OWLAPIReasoner;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Checks that the fuzzy predictive accuracy does not depend on how the membership degrees
+ * are requested from the reasoner.
+ */
+public class FuzzyPosNegLPStandardTest {
+
+	private static final String NS = "http://dl-learner.org/test/fuzzy#";
+	private static final int NR_OF_EXAMPLES = 40;
+
+	private OWLDataFactory df;
+	private OWLClass cls;
+	private MembershipReasoner reasoner;
+	private FuzzyPosNegLPStandard lp;
+
+	/*
+	 * A reasoner returning the membership degrees of a function of the example index, which
+	 * counts the fuzzy instance checks.
+	 */
+	private static class MembershipReasoner extends OWLAPIReasoner {
+
+		private final Map<OWLClassExpression, ToDoubleFunction<Integer>> memberships = new LinkedHashMap<>();
+		private int nrOfChecks = 0;
+
+		MembershipReasoner(KnowledgeSource... sources) {
+			super(sources);
+		}
+
+		@Override
+		protected double hasTypeFuzzyMembershipImpl(OWLClassExpression concept, FuzzyIndividual individual) {
+			nrOfChecks++;
+			return memberships.get(concept).applyAsDouble(index(individual));
+		}
+	}
+
+	private static int index(OWLIndividual individual) {
+		return Integer.parseInt(individual.toStringID().substring((NS + "ex").length()));
+	}
+
+	private static double truthDegree(int index) {
+		return (index % 4) / 4.0;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		df = man.getOWLDataFactory();
+		OWLOntology ontology = man.createOntology();
+		cls = df.getOWLClass(IRI.create(NS + "A"));
+
+		Map<OWLIndividual, Double> fuzzyExamples = new LinkedHashMap<>();
+		for (int i = 0; i < NR_OF_EXAMPLES; i++) {
+			OWLIndividual ind = df.getOWLNamedIndividual(IRI.create(NS + String.format("ex%02d", i)));
+			man.addAxiom(ontology, df.getOWLClassAssertionAxiom(cls, ind));
+			fuzzyExamples.put(ind, truthDegree(i));
+		}
+
+		reasoner = new MembershipReasoner(new OWLAPIOntology(ontology));
+		reasoner.init();
+
+		lp = new FuzzyPosNegLPStandard(reasoner, new TreeSet<>(), new TreeSet<>());
+		lp.setFuzzyExamples(fuzzyExamples);
+		lp.init();
+	}
+
+	/*
+	 * The fuzzy predictive accuracy as computed before the membership degrees were requested in chunks,
+	 * i.e. by one fuzzy instance check per example.
+	 */
+	private double expectedAccuracyOrTooWeak(OWLClassExpression ce, double noise) {
+		ToDoubleFunction<Integer> membership = reasoner.memberships.get(ce);
+		double descriptionMembership = 0;
+		double accumulativeDescriptionMembership = 0;
+		double individualCounter = lp.totalTruth;
+		for (FuzzyIndividual ex : lp.getFuzzyExamples()) {
+			double m = 1 - Math.abs(ex.getTruthDegree() - membership.applyAsDouble(index(ex)));
+			descriptionMembership += m;
+			individualCounter -= ex.getTruthDegree();
+			if ((accumulativeDescriptionMembership + (m * ex.getTruthDegree()) + individualCounter) < ((1 - noise) * lp.totalTruth)) {
+				return -1;
+			}
+			accumulativeDescriptionMembership += m * ex.getTruthDegree();
+		}
+		return descriptionMembership / lp.getFuzzyExamples().size();
+	}
+
+	@Test
+	public void testAccuracy() {
+		// matches the truth degrees of all examples except for those with truth degree 0
+		OWLClassExpression ce = df.getOWLObjectIntersectionOf(cls, df.getOWLClass(IRI.create(NS + "B")));
+		reasoner.memberships.put(ce, i -> truthDegree(i) > 0 ? truthDegree(i) : 0.3);
+
+		double expected = expectedAccuracyOrTooWeak(ce, 0.1);
+		assertTrue(expected > 0);
+		assertEquals(expected, lp.getAccuracyOrTooWeak(ce, 0.1), 1e-9);
+		assertEquals(NR_OF_EXAMPLES, reasoner.nrOfChecks);
+
+		// the second evaluation uses the cached membership degrees
+		assertEquals(expected, lp.getAccuracyOrTooWeak(ce, 0.1), 1e-9);
+		assertEquals(NR_OF_EXAMPLES, reasoner.nrOfChecks);
+	}
+
+	@Test
+	public void testTooWeak() {
+		// misses the truth degree of the example with index 2
+		OWLClassExpression ce = df.getOWLObjectUnionOf(cls, df.getOWLClass(IRI.create(NS + "C")));
+		reasoner.memberships.put(ce, i -> i == 2 ? 0.2 : truthDegree(i));
+
+		assertEquals(-1, expectedAccuracyOrTooWeak(ce, 0.1), 0);
+		assertEquals(-1, lp.getAccuracyOrTooWeak(ce, 0.1), 0);
+		// the examples after the chunk of the missed one have not been checked
+		assertTrue(reasoner.nrOfChecks < NR_OF_EXAMPLES);
+	}
+}
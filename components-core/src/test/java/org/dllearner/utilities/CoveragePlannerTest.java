@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.dllearner.utilities.CoveragePlanner.Strategy;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+/**
+ * Checks the choice of the strategy to compute the coverage by the {@link CoveragePlanner}.
+ */
+public class CoveragePlannerTest {
+
+	private static final String NS = "http://dl-learner.org/test/planner#";
+
+	private OWLDataFactory df;
+	private OWLClass a;
+	private OWLClass b;
+	private OWLClassExpression someC;
+	private CoveragePlanner planner;
+
+	@Before
+	public void setUp() {
+		df = OWLManager.getOWLDataFactory();
+		a = df.getOWLClass(IRI.create(NS + "A"));
+		b = df.getOWLClass(IRI.create(NS + "B"));
+		someC = df.getOWLObjectSomeValuesFrom(df.getOWLObjectProperty(IRI.create(NS + "r")),
+				df.getOWLClass(IRI.create(NS + "C")));
+		planner = new CoveragePlanner();
+	}
+
+	/*
+	 * Instance checks take 100ns each, a retrieval takes 10ns per instance. A has 1000 instances, B none.
+	 */
+	private void observeCosts() {
+		for (int i = 0; i < CoveragePlanner.MIN_OBSERVATIONS; i++) {
+			planner.recordInstanceChecks(10, 1000);
+			planner.recordRetrieval(a, 10010, 1000);
+		}
+		planner.recordRetrieval(b, 10, 0);
+	}
+
+	@Test
+	public void testWarmUp() {
+		OWLClassExpression concept = df.getOWLObjectIntersectionOf(a, someC);
+
+		for (int i = 0; i < CoveragePlanner.MIN_OBSERVATIONS; i++) {
+			assertEquals(Strategy.INSTANCE_CHECKS, planner.plan(concept, 50).getStrategy());
+			planner.recordInstanceChecks(50, 5000);
+		}
+		for (int i = 0; i < CoveragePlanner.MIN_OBSERVATIONS; i++) {
+			assertEquals(Strategy.RETRIEVAL, planner.plan(concept, 50).getStrategy());
+			planner.recordRetrieval(concept, 1000, 10);
+		}
+		for (int i = 0; i < CoveragePlanner.MIN_OBSERVATIONS; i++) {
+			CoveragePlanner.Plan plan = planner.plan(concept, 50);
+			assertEquals(Strategy.HYBRID, plan.getStrategy());
+			assertEquals(Collections.singletonList(a), plan.getRetrievedClasses());
+			planner.recordClassRetrieval(a, 1000, 10, 50, 10);
+		}
+	}
+
+	@Test
+	public void testRetrievalCostsDependOnExtensionSize() {
+		observeCosts();
+
+		// 1000 instances to retrieve vs. 50 instance checks
+		assertEquals(Strategy.INSTANCE_CHECKS, planner.plan(a, 50).getStrategy());
+		// no instances to retrieve
+		assertEquals(Strategy.RETRIEVAL, planner.plan(b, 50).getStrategy());
+		// 1000 instances to retrieve vs. 2000 instance checks
+		assertEquals(Strategy.RETRIEVAL, planner.plan(a, 2000).getStrategy());
+	}
+
+	@Test
+	public void testConjunctionBoundedByClassExtension() {
+		observeCosts();
+		// retrieving the instances of B is expensive, none of the examples is an instance of B
+		for (int i = 0; i < CoveragePlanner.MIN_OBSERVATIONS; i++) {
+			planner.recordClassRetrieval(b, 10000, 0, 50, 0);
+		}
+
+		// the conjunction has at most as many instances as B, i.e. none, although the retrieved
+		// class expressions have had 800 instances on average
+		assertEquals(Strategy.RETRIEVAL, planner.plan(df.getOWLObjectIntersectionOf(b, someC), 50).getStrategy());
+	}
+
+	@Test
+	public void testExploration() {
+		observeCosts();
+
+		// the retrieval of the instances of A is never the cheapest strategy ...
+		for (int i = 1; i < CoveragePlanner.EXPLORATION_INTERVAL; i++) {
+			assertEquals(Strategy.INSTANCE_CHECKS, planner.plan(a, 50).getStrategy());
+			planner.recordInstanceChecks(50, 5000);
+		}
+		// ... but its estimate is refreshed from time to time
+		assertEquals(Strategy.RETRIEVAL, planner.plan(a, 50).getStrategy());
+		planner.recordRetrieval(a, 10010, 1000);
+		assertEquals(Strategy.INSTANCE_CHECKS, planner.plan(a, 50).getStrategy());
+	}
+}
@@ -20,7 +20,6 @@
 package org.dllearner.algorithms.isle;
 
 import java.util.Map;
-import java.util.Set;
 
 import org.dllearner.algorithms.celoe.OENode;
 import org.dllearner.core.AbstractHeuristic;
@@ -28,6 +27,9 @@ import org.dllearner.core.config.ConfigOption;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLEntity;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * 
  * TODO: NLP-Heuristiken in Statistik integrieren
@@ -48,10 +50,19 @@ public class NLPHeuristic extends AbstractHeuristic{
 	@ConfigOption(defaultValue="0.1")
 	private double startNodeBonus = 0.1;
 	
-	private double nlpBonusFactor = 1;
+	@ConfigOption(defaultValue="0", description="weight of the NLP bonus, i.e. the sum of the relevance of the " +
+			"entities in the signature of a class expression, which is added to the score if the entity relevance is set. " +
+			"The bonus is disabled by default, i.e. the scoring is the same as in former versions.")
+	private double nlpBonusFactor = 0;
+	
+	@ConfigOption(defaultValue="100000", description="the max. number of class expressions for which the NLP bonus is cached")
+	private long maxRelevanceCacheSize = 100000;
 	
 	private Map<OWLEntity, Double> entityRelevance;
 	
+	// the NLP bonus only depends on the signature of the class expression, thus, we compute it once per expression
+	private volatile Cache<OWLClassExpression, Double> relevanceCache;
+	
 	public NLPHeuristic() {}
 	
 	public NLPHeuristic(Map<OWLEntity,Double> entityRelevance) {
@@ -79,28 +90,69 @@ public class NLPHeuristic extends AbstractHeuristic{
 		score -= node.getRefinementCount() * nodeRefinementPenalty;
 		
 		
-//		the NLP based scoring
-		OWLClassExpression expression = node.getExpression();//System.out.println(expression);
-//		OWLClassExpression owlapiDescription = OWLAPIConverter.getOWLAPIDescription(expression);
-//		Set<OWLEntity> entities = OWLAPIConverter.getEntities(owlapiDescription.getSignature());
-		Set<OWLEntity> entities = expression.getSignature();
-//		double sum = 0;
-//		for (OWLEntity entity : entities) {
-//			double relevance = entityRelevance.containsKey(entity) ? entityRelevance.get(entity) : 0;//System.out.println(entity + ":" + relevance);
-//			if(!Double.isInfinite(relevance)){
-//				sum += relevance;
-//			}
-//		}
-//		score += nlpBonusFactor * sum;
+		// the NLP based scoring
+		if(entityRelevance != null && nlpBonusFactor != 0) {
+			score += nlpBonusFactor * getRelevance(node.getExpression());
+		}
 		
 		return score;
 	}
+	
+	private double getRelevance(OWLClassExpression expression) {
+		Cache<OWLClassExpression, Double> cache = relevanceCache;
+		if(cache == null) {
+			cache = CacheBuilder.newBuilder()
+					.maximumSize(maxRelevanceCacheSize)
+					.build();
+			relevanceCache = cache;
+		}
+		Double relevance = cache.getIfPresent(expression);
+		if(relevance == null) {
+			relevance = computeRelevance(expression);
+			cache.put(expression, relevance);
+		}
+		return relevance;
+	}
+	
+	private double computeRelevance(OWLClassExpression expression) {
+		double sum = 0;
+		for (OWLEntity entity : expression.getSignature()) {
+			Double relevance = entityRelevance.get(entity);
+			if(relevance != null && !Double.isInfinite(relevance)){
+				sum += relevance;
+			}
+		}
+		return sum;
+	}
 
 	/**
 	 * @param entityRelevance the entityRelevance to set
 	 */
 	public void setEntityRelevance(Map<OWLEntity, Double> entityRelevance) {
 		this.entityRelevance = entityRelevance;
+		// the cache is rebuilt on demand
+		relevanceCache = null;
+		invalidateNodeScores();
+	}
+	
+	/**
+	 * @param nlpBonusFactor the weight of the NLP bonus, 0 disables it
+	 */
+	public void setNlpBonusFactor(double nlpBonusFactor) {
+		this.nlpBonusFactor = nlpBonusFactor;
+		invalidateNodeScores();
+	}
+	
+	public double getNlpBonusFactor() {
+		return nlpBonusFactor;
+	}
+	
+	/**
+	 * @param maxRelevanceCacheSize the max. number of class expressions for which the NLP bonus is cached
+	 */
+	public void setMaxRelevanceCacheSize(long maxRelevanceCacheSize) {
+		this.maxRelevanceCacheSize = maxRelevanceCacheSize;
+		relevanceCache = null;
 	}
 	
 	/**
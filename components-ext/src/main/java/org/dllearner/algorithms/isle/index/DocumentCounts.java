@@ -0,0 +1,33 @@
+/**
+ * 
+ */
+package org.dllearner.algorithms.isle.index;
+
+import org.semanticweb.owlapi.model.OWLEntity;
+
+/**
+ * The document counts needed to compute the relevance of entities, i.e. the number of documents of single
+ * entities and of pairs of entities.
+ */
+public interface DocumentCounts {
+
+	/**
+	 * @param entity the entity
+	 * @return the number of documents containing the entity
+	 */
+	long getNumberOfDocumentsFor(OWLEntity entity);
+
+	/**
+	 * @param entity1 the first entity
+	 * @param entity2 the second entity
+	 * @return the number of documents containing both entities
+	 */
+	long getNumberOfDocumentsFor(OWLEntity entity1, OWLEntity entity2);
+
+	/**
+	 * Returns the total number of documents.
+	 *
+	 * @return the total number of documents
+	 */
+	long getTotalNumberOfDocuments();
+}
@@ -11,7 +11,7 @@ import java.util.Set;
  * @author Lorenz Buehmann
  *
  */
-public interface Index {
+public interface Index extends DocumentCounts {
 	
 	/**
      * Returns a set of documents based on how the underlying index is processing the given
@@ -40,6 +40,11 @@ public interface Index {
      */
 	long getNumberOfDocumentsFor(OWLEntity... entities);
 
+	@Override
+	default long getNumberOfDocumentsFor(OWLEntity entity1, OWLEntity entity2) {
+		return getNumberOfDocumentsFor(new OWLEntity[]{entity1, entity2});
+	}
+
 	/**
      * Returns the total number of documents contained in the index.
      *
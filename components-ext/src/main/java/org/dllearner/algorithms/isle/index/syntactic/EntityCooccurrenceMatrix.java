@@ -0,0 +1,284 @@
+/**
+ * 
+ */
+package org.dllearner.algorithms.isle.index.syntactic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.log4j.Logger;
+import org.dllearner.algorithms.isle.index.DocumentCounts;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * A precomputed index containing the number of documents for each entity and each pair of entities of a
+ * fixed set of entities. The counts are computed once from a {@link LuceneSyntacticIndex}, i.e. the matching
+ * documents of each entity are retrieved only once, as sorted list of document IDs, and the co-occurrence counts are
+ * computed by intersecting these lists without materializing the intersections. Only the pairs of entities that occur together in at least one document are stored, row by
+ * row as sorted sparse arrays. The matrix can be stored in a compact binary file and loaded again, thus, the
+ * relevance metrics can be computed without accessing the underlying index at all.
+ */
+public class EntityCooccurrenceMatrix implements DocumentCounts {
+
+	private static final Logger logger = Logger.getLogger(EntityCooccurrenceMatrix.class);
+
+	// identifies the file format
+	private static final int MAGIC = 0x444c4c43;
+	private static final int VERSION = 2;
+	private static final int[] EMPTY = new int[0];
+
+	private final List<OWLEntity> entities;
+	private final Map<OWLEntity, Integer> entityIds;
+	private final long totalNumberOfDocuments;
+	// the number of documents per entity
+	private final int[] frequencies;
+	// the non-zero number of documents per pair of entities (i,j) with i < j: for each row i the sorted
+	// columns j and the corresponding counts
+	private final int[][] columns;
+	private final int[][] cooccurrences;
+
+	private EntityCooccurrenceMatrix(List<OWLEntity> entities, long totalNumberOfDocuments, int[] frequencies,
+									 int[][] columns, int[][] cooccurrences) {
+		this.entities = entities;
+		this.totalNumberOfDocuments = totalNumberOfDocuments;
+		this.frequencies = frequencies;
+		this.columns = columns;
+		this.cooccurrences = cooccurrences;
+
+		entityIds = new HashMap<>(entities.size() * 2);
+		for (int i = 0; i < entities.size(); i++) {
+			entityIds.put(entities.get(i), i);
+		}
+	}
+
+	/**
+	 * Computes the co-occurrence matrix for the given entities from the index.
+	 * @param index the index
+	 * @param entities the entities
+	 * @param nrOfThreads the number of threads used to query the index and to compute the counts
+	 * @return the co-occurrence matrix
+	 */
+	public static EntityCooccurrenceMatrix build(LuceneSyntacticIndex index, Collection<? extends OWLEntity> entities, int nrOfThreads) {
+		logger.info("Building co-occurrence matrix for " + entities.size() + " entities...");
+		long start = System.currentTimeMillis();
+
+		List<OWLEntity> entityList = new ArrayList<>(entities);
+		int n = entityList.size();
+
+		ExecutorService executor = Executors.newFixedThreadPool(nrOfThreads,
+				new ThreadFactoryBuilder().setNameFormat("cooccurrence-matrix-%d").setDaemon(true).build());
+		try {
+			// retrieve the documents of each entity (a single query per entity)
+			List<Future<int[]>> documentFutures = new ArrayList<>(n);
+			for (OWLEntity entity : entityList) {
+				documentFutures.add(executor.submit(() -> index.getDocumentIds(entity)));
+			}
+			int[][] documents = new int[n][];
+			int[] frequencies = new int[n];
+			for (int i = 0; i < n; i++) {
+				documents[i] = documentFutures.get(i).get();
+				frequencies[i] = documents[i].length;
+			}
+
+			// intersect the documents of each pair, row by row, keeping only the non-zero counts
+			int[][] columns = new int[n][];
+			int[][] cooccurrences = new int[n][];
+			List<Future<?>> rowFutures = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				final int row = i;
+				if (documents[row].length == 0) {
+					columns[row] = EMPTY;
+					cooccurrences[row] = EMPTY;
+					continue;
+				}
+				rowFutures.add(executor.submit(() -> {
+					int[] rowColumns = new int[16];
+					int[] rowCounts = new int[16];
+					int size = 0;
+					for (int j = row + 1; j < n; j++) {
+						int count = LuceneSyntacticIndex.intersectionSize(documents[row], documents[j]);
+						if (count == 0) {
+							continue;
+						}
+						if (size == rowColumns.length) {
+							rowColumns = Arrays.copyOf(rowColumns, 2 * size);
+							rowCounts = Arrays.copyOf(rowCounts, 2 * size);
+						}
+						rowColumns[size] = j;
+						rowCounts[size] = count;
+						size++;
+					}
+					columns[row] = size == 0 ? EMPTY : Arrays.copyOf(rowColumns, size);
+					cooccurrences[row] = size == 0 ? EMPTY : Arrays.copyOf(rowCounts, size);
+				}));
+			}
+			for (Future<?> future : rowFutures) {
+				future.get();
+			}
+
+			logger.info("...done in " + (System.currentTimeMillis() - start) + "ms.");
+			return new EntityCooccurrenceMatrix(entityList, index.getTotalNumberOfDocuments(), frequencies, columns, cooccurrences);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Building the co-occurrence matrix was interrupted.", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Building the co-occurrence matrix failed.", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Computes the co-occurrence matrix for the given entities from the index using all available processors.
+	 * @param index the index
+	 * @param entities the entities
+	 * @return the co-occurrence matrix
+	 */
+	public static EntityCooccurrenceMatrix build(LuceneSyntacticIndex index, Collection<? extends OWLEntity> entities) {
+		return build(index, entities, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Writes the matrix to the given file.
+	 * @param file the file
+	 * @throws IOException if the file could not be written
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(totalNumberOfDocuments);
+			out.writeInt(entities.size());
+			for (int i = 0; i < entities.size(); i++) {
+				OWLEntity entity = entities.get(i);
+				out.writeUTF(entity.getEntityType().getName());
+				out.writeUTF(entity.toStringID());
+				out.writeInt(frequencies[i]);
+			}
+			// the non-zero counts of each row
+			for (int i = 0; i < entities.size(); i++) {
+				out.writeInt(columns[i].length);
+				for (int k = 0; k < columns[i].length; k++) {
+					out.writeInt(columns[i][k]);
+					out.writeInt(cooccurrences[i][k]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads a matrix from the given file.
+	 * @param file the file
+	 * @return the matrix
+	 * @throws IOException if the file could not be read or is not a co-occurrence matrix file
+	 */
+	public static EntityCooccurrenceMatrix read(File file) throws IOException {
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(file + " is not a co-occurrence matrix file.");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of co-occurrence matrix file " + file);
+			}
+			long totalNumberOfDocuments = in.readLong();
+			int n = in.readInt();
+			List<OWLEntity> entities = new ArrayList<>(n);
+			int[] frequencies = new int[n];
+			for (int i = 0; i < n; i++) {
+				EntityType<?> entityType = getEntityType(in.readUTF());
+				entities.add(df.getOWLEntity(entityType, IRI.create(in.readUTF())));
+				frequencies[i] = in.readInt();
+			}
+			int[][] columns = new int[n][];
+			int[][] cooccurrences = new int[n][];
+			for (int i = 0; i < n; i++) {
+				int size = in.readInt();
+				columns[i] = size == 0 ? EMPTY : new int[size];
+				cooccurrences[i] = size == 0 ? EMPTY : new int[size];
+				for (int k = 0; k < size; k++) {
+					columns[i][k] = in.readInt();
+					cooccurrences[i][k] = in.readInt();
+				}
+			}
+			return new EntityCooccurrenceMatrix(entities, totalNumberOfDocuments, frequencies, columns, cooccurrences);
+		}
+	}
+
+	private static EntityType<?> getEntityType(String name) throws IOException {
+		for (EntityType<?> entityType : EntityType.values()) {
+			if (entityType.getName().equals(name)) {
+				return entityType;
+			}
+		}
+		throw new IOException("Unknown entity type " + name);
+	}
+
+	/**
+	 * @return the entities contained in the matrix
+	 */
+	public List<OWLEntity> getEntities() {
+		return entities;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.isle.index.DocumentCounts#getNumberOfDocumentsFor(org.semanticweb.owlapi.model.OWLEntity)
+	 */
+	@Override
+	public long getNumberOfDocumentsFor(OWLEntity entity) {
+		Integer id = entityIds.get(entity);
+		return id == null ? 0 : frequencies[id];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.isle.index.DocumentCounts#getNumberOfDocumentsFor(org.semanticweb.owlapi.model.OWLEntity, org.semanticweb.owlapi.model.OWLEntity)
+	 */
+	@Override
+	public long getNumberOfDocumentsFor(OWLEntity entity1, OWLEntity entity2) {
+		Integer id1 = entityIds.get(entity1);
+		Integer id2 = entityIds.get(entity2);
+		if (id1 == null || id2 == null) {
+			return 0;
+		}
+		if (id1.equals(id2)) {
+			return frequencies[id1];
+		}
+		int row = Math.min(id1, id2);
+		int k = Arrays.binarySearch(columns[row], Math.max(id1, id2));
+		return k < 0 ? 0 : cooccurrences[row][k];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.isle.index.DocumentCounts#getTotalNumberOfDocuments()
+	 */
+	@Override
+	public long getTotalNumberOfDocuments() {
+		return totalNumberOfDocuments;
+	}
+}
@@ -5,6 +5,7 @@ package org.dllearner.algorithms.isle.index.syntactic;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -16,11 +17,14 @@ import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.dllearner.algorithms.isle.TextDocumentGenerator;
@@ -31,6 +35,8 @@ import org.dllearner.algorithms.isle.index.TextDocument;
 import org.dllearner.algorithms.isle.index.Token;
 import org.dllearner.algorithms.isle.textretrieval.AnnotationEntityTextRetriever;
 import org.dllearner.algorithms.isle.textretrieval.RDFSLabelEntityTextRetriever;
+
+import com.google.common.base.Joiner;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLOntology;
 
@@ -122,7 +128,7 @@ public class LuceneSyntacticIndex implements Index {
 	 */
 	@Override
 	public long getNumberOfDocumentsFor(OWLEntity entity) {
-		return 0;
+		return getDocumentIds(entity).length;
 	}
 
 	/* (non-Javadoc)
@@ -130,7 +136,153 @@ public class LuceneSyntacticIndex implements Index {
 	 */
 	@Override
 	public long getNumberOfDocumentsFor(OWLEntity... entities) {
-		return 0;
+		if(entities.length == 0) {
+			return 0;
+		}
+		int[] documents = getDocumentIds(entities[0]);
+		for (int i = 1; i < entities.length && documents.length > 0; i++) {
+			documents = intersect(documents, getDocumentIds(entities[i]));
+		}
+		return documents.length;
+	}
+	
+	/**
+	 * Returns the IDs of all documents which contain one of the relevant texts of the entity, i.e.
+	 * the labels resp. the short form of the IRI as fallback. This method is thread-safe.
+	 * @param entity the entity
+	 * @return the Lucene document IDs in ascending order
+	 * @throws RuntimeException if the index could not be queried
+	 */
+	public int[] getDocumentIds(OWLEntity entity) {
+		Set<String> phrases = new HashSet<>();
+		for (String text : textRetriever.getRelevantTextSimple(entity).keySet()) {
+			if(!text.trim().isEmpty()) {
+				phrases.add("\"" + QueryParser.escape(text.trim()) + "\"");
+			}
+		}
+		if(phrases.isEmpty()) {
+			return new int[0];
+		}
+		
+		Query query;
+		try {
+			// the query parser is not thread-safe, the searcher is
+			QueryParser parser = new QueryParser(searchField, new StandardAnalyzer());
+			query = parser.parse(Joiner.on(" OR ").join(phrases));
+		} catch (ParseException e) {
+			throw new RuntimeException("Failed to build the index query for " + entity, e);
+		}
+		
+		DocumentIdCollector collector = new DocumentIdCollector();
+		try {
+			searcher.search(query, collector);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to query the index for " + entity, e);
+		}
+		return collector.getDocumentIds();
+	}
+	
+	/**
+	 * Computes the intersection of two sorted document ID lists.
+	 * @param documents1 the first document IDs in ascending order
+	 * @param documents2 the second document IDs in ascending order
+	 * @return the common document IDs in ascending order
+	 */
+	public static int[] intersect(int[] documents1, int[] documents2) {
+		int[] intersection = new int[Math.min(documents1.length, documents2.length)];
+		int size = 0;
+		int i = 0, j = 0;
+		while (i < documents1.length && j < documents2.length) {
+			if (documents1[i] < documents2[j]) {
+				i++;
+			} else if (documents1[i] > documents2[j]) {
+				j++;
+			} else {
+				intersection[size++] = documents1[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(intersection, size);
+	}
+	
+	/**
+	 * Computes the size of the intersection of two sorted document ID lists without materializing it. If one
+	 * list is much shorter than the other one, its IDs are looked up in the longer one by binary search.
+	 * @param documents1 the first document IDs in ascending order
+	 * @param documents2 the second document IDs in ascending order
+	 * @return the number of common document IDs
+	 */
+	public static int intersectionSize(int[] documents1, int[] documents2) {
+		int[] shorter = documents1.length <= documents2.length ? documents1 : documents2;
+		int[] longer = shorter == documents1 ? documents2 : documents1;
+		if (shorter.length == 0
+				|| shorter[shorter.length - 1] < longer[0] || longer[longer.length - 1] < shorter[0]) {
+			return 0;
+		}
+		
+		int size = 0;
+		if ((long) shorter.length * 16 < longer.length) {
+			int from = 0;
+			for (int i = 0; i < shorter.length && from < longer.length; i++) {
+				int k = Arrays.binarySearch(longer, from, longer.length, shorter[i]);
+				if (k >= 0) {
+					size++;
+					from = k + 1;
+				} else {
+					from = -k - 1;
+				}
+			}
+		} else {
+			int i = 0, j = 0;
+			while (i < shorter.length && j < longer.length) {
+				if (shorter[i] < longer[j]) {
+					i++;
+				} else if (shorter[i] > longer[j]) {
+					j++;
+				} else {
+					size++;
+					i++;
+					j++;
+				}
+			}
+		}
+		return size;
+	}
+	
+	/*
+	 * Collects the global IDs of the matching documents.
+	 */
+	private static class DocumentIdCollector extends SimpleCollector {
+		
+		private int[] documents = new int[16];
+		private int size = 0;
+		private int docBase;
+		
+		@Override
+		protected void doSetNextReader(LeafReaderContext context) {
+			docBase = context.docBase;
+		}
+		
+		@Override
+		public void collect(int doc) {
+			if (size == documents.length) {
+				documents = Arrays.copyOf(documents, 2 * size);
+			}
+			documents[size++] = docBase + doc;
+		}
+		
+		@Override
+		public ScoreMode scoreMode() {
+			return ScoreMode.COMPLETE_NO_SCORES;
+		}
+		
+		int[] getDocumentIds() {
+			int[] result = Arrays.copyOf(documents, size);
+			// the segments are usually visited in order, but this is not guaranteed
+			Arrays.sort(result);
+			return result;
+		}
 	}
 
 }
@@ -7,7 +7,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCounts;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLEntity;
 
@@ -17,10 +17,10 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public abstract class AbstractRelevanceMetric implements RelevanceMetric {
 
-	protected Index index;
+	protected DocumentCounts index;
 	protected String name;
 
-	public AbstractRelevanceMetric(Index index) {
+	public AbstractRelevanceMetric(DocumentCounts index) {
 		this.index = index;
 
 		name = getClass().getSimpleName().replace("RelevanceMetric", "");
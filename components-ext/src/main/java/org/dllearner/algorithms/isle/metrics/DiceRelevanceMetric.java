@@ -1,6 +1,6 @@
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCounts;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -9,7 +9,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class DiceRelevanceMetric extends AbstractRelevanceMetric{
 
-	public DiceRelevanceMetric(Index index) {
+	public DiceRelevanceMetric(DocumentCounts index) {
 		super(index);
 	}
 
@@ -1,6 +1,6 @@
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCounts;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -9,7 +9,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class JaccardRelevanceMetric extends AbstractRelevanceMetric{
 
-	public JaccardRelevanceMetric(Index index) {
+	public JaccardRelevanceMetric(DocumentCounts index) {
 		super(index);
 	}
 
@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCounts;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -13,7 +13,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class LLRRelevanceMetric extends AbstractRelevanceMetric {
 
-	public LLRRelevanceMetric(Index index) {
+	public LLRRelevanceMetric(DocumentCounts index) {
 		super(index);
 	}
 	
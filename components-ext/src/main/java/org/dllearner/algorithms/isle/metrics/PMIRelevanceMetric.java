@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCounts;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -12,7 +12,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class PMIRelevanceMetric extends AbstractRelevanceMetric {
 
-	public PMIRelevanceMetric(Index index) {
+	public PMIRelevanceMetric(DocumentCounts index) {
 		super(index);
 	}
 
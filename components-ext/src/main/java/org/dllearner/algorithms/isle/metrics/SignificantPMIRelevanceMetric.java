@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCounts;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -19,7 +19,7 @@ public class SignificantPMIRelevanceMetric extends AbstractRelevanceMetric {
 	 * @param index:  semantic index
 	 * @param delta: parameter varying from 0 to 1 
 	 */
-	public SignificantPMIRelevanceMetric(Index index, double delta) {
+	public SignificantPMIRelevanceMetric(DocumentCounts index, double delta) {
 		super(index);
 		if (delta<0 ||delta>1)
 			throw new IllegalArgumentException("Delta parameter should be in [0,1]");
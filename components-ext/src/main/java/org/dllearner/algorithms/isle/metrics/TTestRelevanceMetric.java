@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCounts;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -12,7 +12,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class TTestRelevanceMetric extends AbstractRelevanceMetric {
 
-	public TTestRelevanceMetric(Index index) {
+	public TTestRelevanceMetric(DocumentCounts index) {
 		super(index);
 	}
 
@@ -25,7 +25,7 @@ import org.dllearner.algorithms.decisiontrees.refinementoperators.DLTreesRefinem
 import org.dllearner.algorithms.decisiontrees.tdt.TDTClassifier;
 import org.dllearner.configuration.IConfiguration;
 import org.dllearner.configuration.spring.ApplicationContextBuilder;
-import org.dllearner.configuration.spring.DefaultApplicationContextBuilder;
+import org.dllearner.configuration.spring.DirectApplicationContextBuilder;
 import org.dllearner.confparser.ConfParserConfiguration;
 import org.dllearner.confparser.ParseException;
 import org.dllearner.core.*;
@@ -70,6 +70,14 @@ public class CLI extends CLIBase2 {
 	private boolean performCrossValidation = false;
 	@ConfigOption(defaultValue = "10", description = "Number of folds in Cross-Validation mode")
 	private int nrOfFolds = 10;
+	@ConfigOption(defaultValue = "false", description = "Validate the folds in parallel in Cross-Validation mode. All folds share the reasoner, " +
+			"each fold works on a copy of the learning problem and the learning algorithm, i.e. both have to be cloneable (e.g. CELOE and " +
+			"PosNegLPStandard). Only use this with a thread-safe reasoner, the reasoning statistics are not exact in that case.")
+	private boolean parallelCrossValidation = false;
+	@ConfigOption(defaultValue = "0", description = "Max. number of folds validated in parallel in Cross-Validation mode, 0 means the number of available processors")
+	private int nrOfCrossValidationThreads = 0;
+	@ConfigOption(defaultValue = "1", description = "Number of repetitions in Cross-Validation mode, each one with a different random split of the examples")
+	private int nrOfCrossValidationRuns = 1;
 
 	private AbstractClassExpressionLearningProblem lp;
 
@@ -116,6 +124,9 @@ public class CLI extends CLIBase2 {
 				la = context.getBeansOfType(AbstractCELA.class).entrySet().iterator().next().getValue();
 				
 				PosNegLP lp = context.getBean(PosNegLP.class);
+				int nrOfThreads = !parallelCrossValidation
+						? 1
+						: nrOfCrossValidationThreads > 0 ? nrOfCrossValidationThreads : Runtime.getRuntime().availableProcessors();
 //				if(la instanceof QTL2){
 //					//new SPARQLCrossValidation((QTL2Disjunctive) la,lp,rs,nrOfFolds,false);
 //				}
@@ -135,9 +146,9 @@ public class CLI extends CLIBase2 {
 					    ((TDTClassifier)la).setOperator(op);
 					else
 						((DSTTDTClassifier)la).setOperator(op);
-					new CrossValidation2(la,lp,rs,nrOfFolds,false);
+					new CrossValidation2(la,lp,rs,nrOfFolds,false,nrOfThreads,nrOfCrossValidationRuns);
 				}else {
-					new CrossValidation2(la,lp,rs,nrOfFolds,false);
+					new CrossValidation2(la,lp,rs,nrOfFolds,false,nrOfThreads,nrOfCrossValidationRuns);
 				}
 			} else {
 				if(context.getBean(AbstractLearningProblem.class) instanceof AbstractClassExpressionLearningProblem) {
@@ -209,7 +220,7 @@ public class CLI extends CLIBase2 {
             //DL-Learner Configuration Object
             IConfiguration configuration = new ConfParserConfiguration(confFile);
 
-            ApplicationContextBuilder builder = new DefaultApplicationContextBuilder();
+            ApplicationContextBuilder builder = new DirectApplicationContextBuilder();
             ApplicationContext context =  builder.buildApplicationContext(configuration,springConfigResources);
 
             // TODO: later we could check which command line interface is specified in the conf file
@@ -262,6 +273,30 @@ public class CLI extends CLIBase2 {
 		this.nrOfFolds = nrOfFolds;
 	}
 
+	public boolean isParallelCrossValidation() {
+		return parallelCrossValidation;
+	}
+
+	public void setParallelCrossValidation(boolean parallelCrossValidation) {
+		this.parallelCrossValidation = parallelCrossValidation;
+	}
+
+	public int getNrOfCrossValidationThreads() {
+		return nrOfCrossValidationThreads;
+	}
+
+	public void setNrOfCrossValidationThreads(int nrOfCrossValidationThreads) {
+		this.nrOfCrossValidationThreads = nrOfCrossValidationThreads;
+	}
+
+	public int getNrOfCrossValidationRuns() {
+		return nrOfCrossValidationRuns;
+	}
+
+	public void setNrOfCrossValidationRuns(int nrOfCrossValidationRuns) {
+		this.nrOfCrossValidationRuns = nrOfCrossValidationRuns;
+	}
+
 	//	public LearningAlgorithm getLearningAlgorithm() {
 //		return algorithm;
 //	}
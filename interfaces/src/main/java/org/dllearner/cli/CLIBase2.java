@@ -3,7 +3,7 @@ package org.dllearner.cli;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.dllearner.configuration.IConfiguration;
 import org.dllearner.configuration.spring.ApplicationContextBuilder;
-import org.dllearner.configuration.spring.DefaultApplicationContextBuilder;
+import org.dllearner.configuration.spring.DirectApplicationContextBuilder;
 import org.dllearner.confparser.ConfParserConfiguration;
 import org.dllearner.core.AbstractReasonerComponent;
 import org.dllearner.core.ComponentInitException;
@@ -85,7 +85,7 @@ public abstract class CLIBase2 {
 		List<Resource> springConfigResources = new ArrayList<>();
 		configuration = new ConfParserConfiguration(confFileR);
 
-		ApplicationContextBuilder builder = new DefaultApplicationContextBuilder();
+		ApplicationContextBuilder builder = new DirectApplicationContextBuilder();
 		context = builder.buildApplicationContext(configuration, springConfigResources);
 	}
 
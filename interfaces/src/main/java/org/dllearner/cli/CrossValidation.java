@@ -36,17 +36,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.lang.reflect.InvocationTargetException;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 
 /**
  * Performs cross validation for the given problem. Supports
  * k-fold cross-validation and leave-one-out cross-validation.
+ * <p>
+ * If more than one thread is used, the folds (of all runs) are validated in parallel,
+ * each one on its own copy of the learning problem and the learning algorithm. The reasoner
+ * is shared by all folds, i.e. the knowledge base is loaded only once, thus, it has to be
+ * thread-safe (note that the reasoning statistics of a reasoner are not exact in that case).
  * 
  * @author Jens Lehmann
  *
@@ -65,10 +70,14 @@ public class CrossValidation {
 
 	public static boolean writeToFile = false;
 	public static File outputFile;
-	public static boolean multiThreaded = false;
 	
 	private static final DecimalFormat df = new DecimalFormat();
 
+	// the max. number of folds validated in parallel, 1 means the folds are validated sequentially
+	protected int nrOfThreads = 1;
+	// the number of repetitions, each one with a different random split of the examples
+	protected int nrOfRuns = 1;
+
 	public CrossValidation() {}
 	
 	public CrossValidation(AbstractCELA la,
@@ -76,6 +85,37 @@ public class CrossValidation {
 						   final AbstractReasonerComponent rs,
 						   int folds,
 						   boolean leaveOneOut) {
+		this(la, lp, rs, folds, leaveOneOut, 1);
+	}
+
+	/**
+	 * @param nrOfThreads the max. number of folds validated in parallel, 1 means the folds are validated
+	 *                    sequentially; if greater than 1, the reasoner has to be thread-safe
+	 */
+	public CrossValidation(AbstractCELA la,
+						   AbstractClassExpressionLearningProblem lp,
+						   final AbstractReasonerComponent rs,
+						   int folds,
+						   boolean leaveOneOut,
+						   int nrOfThreads) {
+		this(la, lp, rs, folds, leaveOneOut, nrOfThreads, 1);
+	}
+
+	/**
+	 * @param nrOfThreads the max. number of folds validated in parallel, 1 means the folds are validated
+	 *                    sequentially; if greater than 1, the reasoner has to be thread-safe
+	 * @param nrOfRuns the number of repetitions of the cross-validation, each one with a different random
+	 *                 split of the examples
+	 */
+	public CrossValidation(AbstractCELA la,
+						   AbstractClassExpressionLearningProblem lp,
+						   final AbstractReasonerComponent rs,
+						   int folds,
+						   boolean leaveOneOut,
+						   int nrOfThreads,
+						   int nrOfRuns) {
+		this.nrOfThreads = nrOfThreads;
+		this.nrOfRuns = Math.max(1, nrOfRuns);
 
 		if (!(lp instanceof PosNegLP || lp instanceof PosOnlyLP)) {
 			throw new IllegalArgumentException("Only PosNeg and PosOnly learning problems are supported");
@@ -105,11 +145,6 @@ public class CrossValidation {
 			throw new IllegalArgumentException("Only PosNeg and PosOnly learning problems are supported");
 		}
 
-		List<OWLIndividual> posExamplesList = new ArrayList<>(posExamples);
-		List<OWLIndividual> negExamplesList = new ArrayList<>(negExamples);
-		Collections.shuffle(posExamplesList, new Random(1));
-		Collections.shuffle(negExamplesList, new Random(2));
-
 		// sanity check whether nr. of folds makes sense for this benchmark
 		if (!leaveOneOut && (posExamples.size() < folds && negExamples.size() < folds)) {
 			System.out.println("The number of folds is higher than the number of "
@@ -142,73 +177,44 @@ public class CrossValidation {
 //				System.out.println(splitsPos[0]);
 //				System.out.println(splitsNeg[0]);
 
-			// calculating training and test sets
-			for (int i = 0; i < folds; i++) {
-				Set<OWLIndividual> testPos = getTestingSet(posExamplesList, splitsPos, i);
-				Set<OWLIndividual> testNeg = getTestingSet(negExamplesList, splitsNeg, i);
-				testSetsPos.add(i, testPos);
-				testSetsNeg.add(i, testNeg);
-				trainingSetsPos.add(i, getTrainingSet(posExamples, testPos));
-				trainingSetsNeg.add(i, getTrainingSet(negExamples, testNeg));
+			// calculating training and test sets, fold i of run r is at index r * folds + i
+			for (int run = 0; run < nrOfRuns; run++) {
+				List<OWLIndividual> posExamplesList = new ArrayList<>(posExamples);
+				List<OWLIndividual> negExamplesList = new ArrayList<>(negExamples);
+				Collections.shuffle(posExamplesList, new Random(1 + 2L * run));
+				Collections.shuffle(negExamplesList, new Random(2 + 2L * run));
+
+				for (int i = 0; i < folds; i++) {
+					Set<OWLIndividual> testPos = getTestingSet(posExamplesList, splitsPos, i);
+					Set<OWLIndividual> testNeg = getTestingSet(negExamplesList, splitsNeg, i);
+					testSetsPos.add(testPos);
+					testSetsNeg.add(testNeg);
+					trainingSetsPos.add(getTrainingSet(posExamples, testPos));
+					trainingSetsNeg.add(getTrainingSet(negExamples, testNeg));
+				}
 			}
 
 		}
 
 		// run the algorithm
-			if( multiThreaded && lp instanceof Cloneable && la instanceof Cloneable){
-				ExecutorService es = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()-1);
-				for (int currFold = 0; currFold < folds; currFold++) {
-					try {
-						final AbstractClassExpressionLearningProblem lpClone = (AbstractClassExpressionLearningProblem) lp.getClass().getMethod("clone").invoke(lp);
-						final Set<OWLIndividual> trainPos = trainingSetsPos.get(currFold);
-						final Set<OWLIndividual> trainNeg = trainingSetsNeg.get(currFold);
-						final Set<OWLIndividual> testPos = testSetsPos.get(currFold);
-						final Set<OWLIndividual> testNeg = testSetsNeg.get(currFold);
-						if (lp instanceof PosNegLP) {
-							((PosNegLP) lpClone).setPositiveExamples(trainPos);
-							((PosNegLP) lpClone).setNegativeExamples(trainNeg);
-						} else if (lp instanceof PosOnlyLP) {
-							((PosOnlyLP) lpClone).setPositiveExamples(new TreeSet<>(trainPos));
-						}
-						final AbstractCELA laClone = (AbstractCELA) la.getClass().getMethod("clone").invoke(la);
-						final int i = currFold;
-						es.submit(() -> {
-							try {
-								validate(laClone, lpClone, rs, i, trainPos, trainNeg, testPos, testNeg);
-							} catch (Exception e) {
-								log.error("failed to validate fold " + i, e);
-							}
-						});
-					} catch (IllegalAccessException | SecurityException | NoSuchMethodException | InvocationTargetException | IllegalArgumentException e) {
-						e.printStackTrace();
-					}
-				}
-				es.shutdown();
-				try {
-					es.awaitTermination(1, TimeUnit.DAYS);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			} else {
-				for (int currFold = 0; currFold < folds; currFold++) {
-					final Set<OWLIndividual> trainPos = trainingSetsPos.get(currFold);
-					final Set<OWLIndividual> trainNeg = trainingSetsNeg.get(currFold);
-					final Set<OWLIndividual> testPos = testSetsPos.get(currFold);
-					final Set<OWLIndividual> testNeg = testSetsNeg.get(currFold);
-
-					if (lp instanceof PosNegLP) {
-						((PosNegLP) lp).setPositiveExamples(trainPos);
-						((PosNegLP) lp).setNegativeExamples(trainNeg);
-					} else if (lp instanceof PosOnlyLP) {
-						((PosOnlyLP) lp).setPositiveExamples(new TreeSet<>(trainPos));
-					}
-
-					validate(la, lp, rs, currFold, trainPos, trainNeg, testPos, testNeg);
-				}
+		validateFolds(la, lp, nrOfRuns * folds, nrOfThreads, (laFold, lpFold, i) -> {
+			final Set<OWLIndividual> trainPos = trainingSetsPos.get(i);
+			final Set<OWLIndividual> trainNeg = trainingSetsNeg.get(i);
+			final Set<OWLIndividual> testPos = testSetsPos.get(i);
+			final Set<OWLIndividual> testNeg = testSetsNeg.get(i);
+
+			if (lpFold instanceof PosNegLP) {
+				((PosNegLP) lpFold).setPositiveExamples(trainPos);
+				((PosNegLP) lpFold).setNegativeExamples(trainNeg);
+			} else if (lpFold instanceof PosOnlyLP) {
+				((PosOnlyLP) lpFold).setPositiveExamples(new TreeSet<>(trainPos));
 			}
-		
+
+			validate(laFold, lpFold, rs, i % folds, trainPos, trainNeg, testPos, testNeg);
+		});
+
 		outputWriter("");
-		outputWriter("Finished " + folds + "-folds cross-validation.");
+		outputWriter("Finished " + folds + "-folds cross-validation" + (nrOfRuns > 1 ? " (" + nrOfRuns + " runs)." : "."));
 		outputWriter("runtime: " + statOutput(df, runtime, "s"));
 		outputWriter("length: " + statOutput(df, length, ""));
 		outputWriter("F-Measure on training set: " + statOutput(df, fMeasureTraining, "%"));
@@ -217,6 +223,103 @@ public class CrossValidation {
 		outputWriter("predictive accuracy: " + statOutput(df, accuracy, "%"));
 			
 	}
+
+	/**
+	 * Validates a single fold, i.e. learns on the training examples and evaluates the result on the
+	 * test examples.
+	 */
+	@FunctionalInterface
+	protected interface FoldValidation<A extends AbstractCELA> {
+		/**
+		 * @param la the learning algorithm to use for the fold
+		 * @param lp the learning problem to use for the fold, the training examples have to be set
+		 * @param fold the index of the fold
+		 */
+		void validate(A la, AbstractClassExpressionLearningProblem lp, int fold) throws Exception;
+	}
+
+	/**
+	 * Validates the folds 0 to nrOfFolds-1. If more than one thread is allowed, the folds are validated
+	 * in parallel on (at most nrOfThreads) worker threads, each fold with its own copy of the learning
+	 * problem and the learning algorithm, thus, both have to be cloneable. The reasoner is not copied but
+	 * shared by all folds, i.e. it has to be initialized already and it has to be thread-safe.
+	 * Otherwise, the folds are validated sequentially using the given learning problem and algorithm.
+	 * If the validation of a fold fails, the remaining folds are cancelled and the failure is rethrown.
+	 *
+	 * @param la the learning algorithm
+	 * @param lp the learning problem
+	 * @param nrOfFolds the number of folds
+	 * @param nrOfThreads the max. number of folds validated in parallel, 1 means sequentially
+	 * @param validation the validation of a single fold
+	 * @throws IllegalArgumentException if more than one thread is allowed, but the learning problem or the
+	 * learning algorithm is not cloneable
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <A extends AbstractCELA> void validateFolds(A la, AbstractClassExpressionLearningProblem lp,
+																	int nrOfFolds, int nrOfThreads, FoldValidation<A> validation) {
+		if (nrOfThreads > 1) {
+			checkCloneable(lp);
+			checkCloneable(la);
+			ExecutorService es = Executors.newFixedThreadPool(Math.max(1, Math.min(nrOfThreads, nrOfFolds)));
+			List<Future<?>> futures = new ArrayList<>();
+			for (int currFold = 0; currFold < nrOfFolds; currFold++) {
+				final int i = currFold;
+				futures.add(es.submit(() -> {
+					// copying is done on the worker thread as it also initializes e.g. the refinement operator
+					AbstractClassExpressionLearningProblem lpClone =
+							(AbstractClassExpressionLearningProblem) lp.getClass().getMethod("clone").invoke(lp);
+					A laClone = (A) la.getClass().getMethod("clone").invoke(la);
+					laClone.setLearningProblem(lpClone);
+					validation.validate(laClone, lpClone, i);
+					return null;
+				}));
+			}
+			es.shutdown();
+			int currFold = 0;
+			try {
+				for (; currFold < nrOfFolds; currFold++) {
+					futures.get(currFold).get();
+				}
+			} catch (ExecutionException e) {
+				es.shutdownNow();
+				throw new RuntimeException("failed to validate fold " + currFold, e.getCause());
+			} catch (InterruptedException e) {
+				es.shutdownNow();
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("interrupted while validating fold " + currFold, e);
+			}
+		} else {
+			for (int currFold = 0; currFold < nrOfFolds; currFold++) {
+				try {
+					validation.validate(la, lp, currFold);
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new RuntimeException("failed to validate fold " + currFold, e);
+				}
+			}
+		}
+	}
+	
+	/*
+	 * Fails before any fold is validated if the component cannot be copied for the parallel validation, i.e.
+	 * it does not implement Cloneable with a public clone() method (e.g. CELOE and PosNegLPStandard do).
+	 */
+	private static void checkCloneable(AbstractComponent component) {
+		boolean cloneable = component instanceof Cloneable;
+		if (cloneable) {
+			try {
+				component.getClass().getMethod("clone");
+			} catch (NoSuchMethodException e) {
+				cloneable = false;
+			}
+		}
+		if (!cloneable) {
+			throw new IllegalArgumentException("Parallel cross-validation requires a cloneable learning problem and "
+					+ "learning algorithm, but " + component.getClass().getName() + " does not support cloning. "
+					+ "Use a single thread instead.");
+		}
+	}
 	
 	private void validate(AbstractCELA la, AbstractClassExpressionLearningProblem lp, AbstractReasonerComponent rs,
 						  int currFold,
@@ -345,7 +448,7 @@ public class CrossValidation {
 		return runtime;
 	}
 
-	protected void outputWriter(String output) {
+	protected synchronized void outputWriter(String output) {
 		if (writeToFile) {
 			Files.appendToFile(outputFile, output + "\n");
 		}
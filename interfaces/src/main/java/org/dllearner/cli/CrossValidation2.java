@@ -18,12 +18,8 @@ import org.semanticweb.owlapi.model.OWLObjectComplementOf;
 import org.semanticweb.owlapi.util.SimpleShortFormProvider;
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
-import java.lang.reflect.InvocationTargetException;
 import java.text.DecimalFormat;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 public class CrossValidation2  extends org.dllearner.cli.CrossValidation{
 
@@ -40,18 +36,38 @@ public class CrossValidation2  extends org.dllearner.cli.CrossValidation{
 	}
 
 	public CrossValidation2(AbstractCELA la, AbstractClassExpressionLearningProblem lp, final AbstractReasonerComponent rs, int folds, boolean leaveOneOut) {
+		this(la, lp, rs, folds, leaveOneOut, 1);
+	}
+
+	/**
+	 * @param nrOfThreads the max. number of folds validated in parallel, 1 means the folds are validated
+	 *                    sequentially; if greater than 1, the reasoner has to be thread-safe
+	 */
+	public CrossValidation2(AbstractCELA la, AbstractClassExpressionLearningProblem lp, final AbstractReasonerComponent rs, int folds, boolean leaveOneOut, int nrOfThreads) {
+		this(la, lp, rs, folds, leaveOneOut, nrOfThreads, 1);
+	}
+
+	/**
+	 * @param nrOfThreads the max. number of folds validated in parallel, 1 means the folds are validated
+	 *                    sequentially; if greater than 1, the reasoner has to be thread-safe
+	 * @param nrOfRuns the number of repetitions of the cross-validation, each one with a different random
+	 *                 split of the examples
+	 */
+	public CrossValidation2(AbstractCELA la, AbstractClassExpressionLearningProblem lp, final AbstractReasonerComponent rs, int folds, boolean leaveOneOut, int nrOfThreads, int nrOfRuns) {
 		super();
+		this.nrOfThreads = nrOfThreads;
+		this.nrOfRuns = Math.max(1, nrOfRuns);
 		ManchesterOWLSyntaxOWLObjectRendererImplExt renderer = new ManchesterOWLSyntaxOWLObjectRendererImplExt();
 		StringRenderer.setRenderer(renderer);
 		StringRenderer.setShortFormProvider(new SimpleShortFormProvider());
 
 		// the training and test sets used later on
-		List<Set<OWLIndividual>> trainingSetsPos = new LinkedList<>();
-		List<Set<OWLIndividual>> trainingSetsNeg = new LinkedList<>();
-		List<Set<OWLIndividual>> trainingSetsUnd = new LinkedList<>();
-		List<Set<OWLIndividual>> testSetsPos = new LinkedList<>();
-		List<Set<OWLIndividual>> testSetsNeg = new LinkedList<>();
-		List<Set<OWLIndividual>> testSetsUnd = new LinkedList<>();
+		List<Set<OWLIndividual>> trainingSetsPos = new ArrayList<>();
+		List<Set<OWLIndividual>> trainingSetsNeg = new ArrayList<>();
+		List<Set<OWLIndividual>> trainingSetsUnd = new ArrayList<>();
+		List<Set<OWLIndividual>> testSetsPos = new ArrayList<>();
+		List<Set<OWLIndividual>> testSetsNeg = new ArrayList<>();
+		List<Set<OWLIndividual>> testSetsUnd = new ArrayList<>();
 		// get examples and shuffle them too
 		Set<OWLIndividual> posExamples;
 		Set<OWLIndividual> negExamples;
@@ -72,16 +88,7 @@ public class CrossValidation2  extends org.dllearner.cli.CrossValidation{
 		} else {
 			throw new IllegalArgumentException("Only PosNeg and PosOnly learning problems are supported");
 		}
-		List<OWLIndividual> posExamplesList = new LinkedList<>(posExamples);
-		List<OWLIndividual> negExamplesList = new LinkedList<>(negExamples);
-		List<OWLIndividual> undExamplesList = new LinkedList<>(undExamples);
 		//System.out.println("Undefined membership: "+undExamples);
-		Collections.shuffle(posExamplesList, new Random(1));
-		Collections.shuffle(negExamplesList, new Random(2));
-		if(lp instanceof PosNegUndLP){
-			Collections.shuffle(undExamplesList, new Random(3));
-
-		}
 
 		// sanity check whether nr. of folds makes sense for this benchmark
 		//		if(!leaveOneOut && (posExamples.size()<folds && negExamples.size()<folds && undExamples.size()<folds)) {
@@ -120,102 +127,61 @@ public class CrossValidation2  extends org.dllearner.cli.CrossValidation{
 			//			System.out.println("---"+splitsPos[0]);
 			//			System.out.println("---"+splitsNeg[0]);
 			//			System.out.println("---"+splitsUnd[0]);
-			// calculating training and test sets
-			for(int i=0; i<folds; i++) {
-				Set<OWLIndividual> testPos = getTestingSet(posExamplesList, splitsPos, i);
-				Set<OWLIndividual> testNeg = getTestingSet(negExamplesList, splitsNeg, i);
-				Set<OWLIndividual> testUnd = getTestingSet(undExamplesList, splitsUnd, i);
-				testSetsPos.add(i, testPos);
-				testSetsNeg.add(i, testNeg);
-				testSetsUnd.add(i,testUnd);
-				trainingSetsPos.add(i, getTrainingSet(posExamples, testPos));
-				trainingSetsNeg.add(i, getTrainingSet(negExamples, testNeg));
-				trainingSetsUnd.add(i, getTrainingSet(undExamples, testUnd));
+			// calculating training and test sets, fold i of run r is at index r * folds + i
+			for(int run = 0; run < nrOfRuns; run++) {
+				List<OWLIndividual> posExamplesList = new ArrayList<>(posExamples);
+				List<OWLIndividual> negExamplesList = new ArrayList<>(negExamples);
+				List<OWLIndividual> undExamplesList = new ArrayList<>(undExamples);
+				Collections.shuffle(posExamplesList, new Random(1 + 3L * run));
+				Collections.shuffle(negExamplesList, new Random(2 + 3L * run));
+				if(lp instanceof PosNegUndLP){
+					Collections.shuffle(undExamplesList, new Random(3 + 3L * run));
+				}
+
+				for(int i=0; i<folds; i++) {
+					Set<OWLIndividual> testPos = getTestingSet(posExamplesList, splitsPos, i);
+					Set<OWLIndividual> testNeg = getTestingSet(negExamplesList, splitsNeg, i);
+					Set<OWLIndividual> testUnd = getTestingSet(undExamplesList, splitsUnd, i);
+					testSetsPos.add(testPos);
+					testSetsNeg.add(testNeg);
+					testSetsUnd.add(testUnd);
+					trainingSetsPos.add(getTrainingSet(posExamples, testPos));
+					trainingSetsNeg.add(getTrainingSet(negExamples, testNeg));
+					trainingSetsUnd.add(getTrainingSet(undExamples, testUnd));
+				}
 			}
 
 			//System.out.println("Test set size: "+testSetsPos.size());
 		}
 
 		// run the algorithm
-		if( multiThreaded && lp instanceof Cloneable && la instanceof Cloneable){
-			ExecutorService es = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()-1);
-			for(int currFold=0; currFold<folds; currFold++) {
-				try {
-					final AbstractClassExpressionLearningProblem lpClone = (AbstractClassExpressionLearningProblem) lp.getClass().getMethod("clone").invoke(lp);
-					final Set<OWLIndividual> trainPos = trainingSetsPos.get(currFold);
-					final Set<OWLIndividual> trainNeg = trainingSetsNeg.get(currFold);
-
-					final Set<OWLIndividual> testPos = testSetsPos.get(currFold);
-					final Set<OWLIndividual> testNeg = testSetsNeg.get(currFold);
-					final Set<OWLIndividual> trainUnd = trainingSetsUnd.get(currFold);
-					final Set<OWLIndividual> testUnd = testSetsUnd.get(currFold);
-
-					if(lp instanceof PosNegLP){
-						((PosNegLP)lpClone).setPositiveExamples(trainPos);
-						((PosNegLP)lpClone).setNegativeExamples(trainNeg);
-						if (lp instanceof PosNegUndLP){
-							((PosNegUndLP)lpClone).setUncertainExamples(trainUnd);
-						}
-					} else if(lp instanceof PosOnlyLP){
-						((PosOnlyLP)lpClone).setPositiveExamples(new TreeSet<>(trainPos));
-					}
-					final AbstractCELA laClone = (AbstractCELA) la.getClass().getMethod("clone").invoke(la);
-					final int i = currFold;
-
-					es.submit(new Runnable() {
-
-						@Override
-						public void run() {
-							try {
-								if(lpClone instanceof PosNegUndLP)
-									validate(laClone, lpClone, rs, i, trainPos, trainNeg, trainUnd, testPos, testNeg, testUnd);
-								else
-									validate(laClone, lpClone, rs, i, trainPos, trainNeg, null, testPos, testNeg, null);
-							} catch (Exception e) {
-								e.printStackTrace();
-							}
-						}
-					});
-				} catch (IllegalAccessException | SecurityException | NoSuchMethodException | InvocationTargetException | IllegalArgumentException e) {
-					e.printStackTrace();
+		validateFolds(la, lp, nrOfRuns * folds, nrOfThreads, (laFold, lpFold, currFold) -> {
+			final Set<OWLIndividual> trainPos = trainingSetsPos.get(currFold);
+			final Set<OWLIndividual> trainNeg = trainingSetsNeg.get(currFold);
+			final Set<OWLIndividual> trainUnd = trainingSetsUnd.get(currFold);
+			final Set<OWLIndividual> testPos = testSetsPos.get(currFold);
+			final Set<OWLIndividual> testNeg = testSetsNeg.get(currFold);
+			final Set<OWLIndividual> testUnd = testSetsUnd.get(currFold);
+			//				System.out.println("testUnd size: "+ trainUnd);
+			//				System.exit(0);
+
+			if(lpFold instanceof PosNegLP){
+				((PosNegLP)lpFold).setPositiveExamples(trainPos);
+				((PosNegLP)lpFold).setNegativeExamples(trainNeg);
+				if(lpFold instanceof PosNegUndLP){
+					((PosNegUndLP)lpFold).setUncertainExamples(trainUnd);
 				}
+			} else if(lpFold instanceof PosOnlyLP){
+				((PosOnlyLP)lpFold).setPositiveExamples(new TreeSet<>(trainPos));
 			}
-			es.shutdown();
-			try {
-				es.awaitTermination(1, TimeUnit.DAYS);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-		}
-		else {
-			for(int currFold=0; currFold<folds; currFold++) {
-				final Set<OWLIndividual> trainPos = trainingSetsPos.get(currFold);
-				final Set<OWLIndividual> trainNeg = trainingSetsNeg.get(currFold);
-				final Set<OWLIndividual> trainUnd = trainingSetsUnd.get(currFold);
-				final Set<OWLIndividual> testPos = testSetsPos.get(currFold);
-				final Set<OWLIndividual> testNeg = testSetsNeg.get(currFold);
-				final Set<OWLIndividual> testUnd = testSetsUnd.get(currFold);
-				//				System.out.println("testUnd size: "+ trainUnd);
-				//				System.exit(0);
-
-				if(lp instanceof PosNegLP){
-					((PosNegLP)lp).setPositiveExamples(trainPos);
-					((PosNegLP)lp).setNegativeExamples(trainNeg);
-					if(lp instanceof PosNegUndLP){
-						((PosNegUndLP)lp).setUncertainExamples(trainUnd);
-					}
-				} else if(lp instanceof PosOnlyLP){
-					((PosOnlyLP)lp).setPositiveExamples(new TreeSet<>(trainPos));
-				}
 
-				//System.out.println("Training set negative"+trainNeg.size());
-				//System.out.println("Training set unlabeles"+trainUnd.size());
-				validate(la, lp, rs, currFold, trainPos, trainNeg, trainUnd, testPos, testNeg, testUnd);
-			}
-		}
+			//System.out.println("Training set negative"+trainNeg.size());
+			//System.out.println("Training set unlabeles"+trainUnd.size());
+			validate(laFold, lpFold, rs, currFold % folds, trainPos, trainNeg, trainUnd, testPos, testNeg, testUnd);
+		});
 
 		outputWriter("");
-		outputWriter("Finished " + folds + "-folds cross-validation.");
+		outputWriter("Finished " + folds + "-folds cross-validation" + (nrOfRuns > 1 ? " (" + nrOfRuns + " runs)." : "."));
 		outputWriter("runtime: " + statOutput(df, runtime, "s"));
 		outputWriter("length: " + statOutput(df, length, ""));
 		outputWriter("F-Measure on training set: " + statOutput(df, fMeasureTraining, "%"));
@@ -145,6 +145,8 @@ public class Enrichment {
 
 	private boolean useInference;
 	private SPARQLReasoner reasoner;
+	// the samples fetched during a run, shared by all algorithms applied on the same entity
+	private SampleModelStore sampleModelStore;
 	private String cacheDir = "cache";
 
 	// lists of algorithms to apply
@@ -242,6 +244,8 @@ public class Enrichment {
 		reasoner = new SPARQLReasoner(ks);
 		reasoner.init();
 
+		sampleModelStore = new SampleModelStore();
+
 		if(useInference){
 			System.out.print("Precomputing subsumption hierarchy ... ");
 			long startTime = System.currentTimeMillis();
@@ -304,6 +308,7 @@ public class Enrichment {
 	private void processProperties(Set<? extends OWLProperty> properties, Set<AxiomType<? extends OWLAxiom>> axiomTypes){
 		MultiPropertyAxiomLearner la = new MultiPropertyAxiomLearner(ks);
 //		la.setUseSampling(true);
+		la.setSampleModelStore(sampleModelStore);
 		la.setProgressMonitor(progressMonitor);
 		la.setAxiomTypes(axiomTypes);
 		for(OWLProperty property : properties) {
@@ -555,6 +560,7 @@ public class Enrichment {
 		ConfigHelper.configure(learner, "maxExecutionTimeInSeconds",
 				maxExecutionTimeInSeconds);
 		((AbstractAxiomLearningAlgorithm)learner).setReturnOnlyNewAxioms(omitExistingAxioms);
+		((AbstractAxiomLearningAlgorithm)learner).setSampleModelStore(sampleModelStore);
 		learner.init();
 		if(reasoner != null){
 			((AbstractAxiomLearningAlgorithm)learner).setReasoner(reasoner);
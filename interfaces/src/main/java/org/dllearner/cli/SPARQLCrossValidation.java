@@ -144,39 +144,41 @@ public class SPARQLCrossValidation {
 				
 			}
 
-		// run the algorithm
-		for(int currFold=0; currFold<folds; currFold++) {
+		// run the algorithm; the folds are validated sequentially as a copy of QTL2Disjunctive does not take
+		// over the knowledge source and the query execution factory, i.e. it could not be initialized
+		CrossValidation.validateFolds(la, lp, folds, 1, (qtl, lpFold, currFold) -> {
 
 			Set<String> pos = Helper.getStringSet(trainingSetsPos.get(currFold));
 			Set<String> neg = Helper.getStringSet(trainingSetsNeg.get(currFold));
-			if(lp instanceof PosNegLP){
-				((PosNegLP)lp).setPositiveExamples(trainingSetsPos.get(currFold));
-				((PosNegLP)lp).setNegativeExamples(trainingSetsNeg.get(currFold));
-			} else if(lp instanceof PosOnlyLP){
-				((PosOnlyLP)lp).setPositiveExamples(new TreeSet<>(trainingSetsPos.get(currFold)));
+			if(lpFold instanceof PosNegLP){
+				((PosNegLP)lpFold).setPositiveExamples(trainingSetsPos.get(currFold));
+				((PosNegLP)lpFold).setNegativeExamples(trainingSetsNeg.get(currFold));
+			} else if(lpFold instanceof PosOnlyLP){
+				((PosOnlyLP)lpFold).setPositiveExamples(new TreeSet<>(trainingSetsPos.get(currFold)));
 			}
 			
 
 			try {
-				lp.init();
-				la.init();
+				lpFold.init();
+				qtl.setLearningProblem(lpFold);
+				qtl.init();
 			} catch (ComponentInitException e) {
 				// TODO Auto-generated catch block
 				e.printStackTrace();
 			}
 			
 			long algorithmStartTime = System.nanoTime();
-			la.start();
+			qtl.start();
 			long algorithmDuration = System.nanoTime() - algorithmStartTime;
 			runtime.addNumber(algorithmDuration/(double)1000000000);
 			
-			OWLClassExpression concept = la.getCurrentlyBestDescription();
+			OWLClassExpression concept = qtl.getCurrentlyBestDescription();
 			System.out.println(concept);
 //			Set<OWLIndividual> tmp = rs.hasType(concept, testSetsPos.get(currFold));
-			Set<OWLIndividual> tmp = hasType(testSetsPos.get(currFold), la);
+			Set<OWLIndividual> tmp = hasType(testSetsPos.get(currFold), qtl);
 			Set<OWLIndividual> tmp2 = Sets.difference(testSetsPos.get(currFold), tmp);
 //			Set<OWLIndividual> tmp3 = rs.hasType(concept, testSetsNeg.get(currFold));
-			Set<OWLIndividual> tmp3 = hasType(testSetsNeg.get(currFold), la);
+			Set<OWLIndividual> tmp3 = hasType(testSetsNeg.get(currFold), qtl);
 			
 			outputWriter("test set errors pos: " + tmp2);
 			outputWriter("test set errors neg: " + tmp3);
@@ -184,18 +186,18 @@ public class SPARQLCrossValidation {
 			// calculate training accuracies
 			System.out.println(getCorrectPosClassified(rs, concept, trainingSetsPos.get(currFold)));
 //			int trainingCorrectPosClassified = getCorrectPosClassified(rs, concept, trainingSetsPos.get(currFold));
-			int trainingCorrectPosClassified = getCorrectPosClassified(trainingSetsPos.get(currFold), la);
+			int trainingCorrectPosClassified = getCorrectPosClassified(trainingSetsPos.get(currFold), qtl);
 //			int trainingCorrectNegClassified = getCorrectNegClassified(rs, concept, trainingSetsNeg.get(currFold));
-			int trainingCorrectNegClassified = getCorrectNegClassified(trainingSetsNeg.get(currFold), la);
+			int trainingCorrectNegClassified = getCorrectNegClassified(trainingSetsNeg.get(currFold), qtl);
 			int trainingCorrectExamples = trainingCorrectPosClassified + trainingCorrectNegClassified;
 			double trainingAccuracy = 100*((double)trainingCorrectExamples/(trainingSetsPos.get(currFold).size()+
 					trainingSetsNeg.get(currFold).size()));
 			accuracyTraining.addNumber(trainingAccuracy);
 			// calculate test accuracies
 //			int correctPosClassified = getCorrectPosClassified(rs, concept, testSetsPos.get(currFold));
-			int correctPosClassified = getCorrectPosClassified(testSetsPos.get(currFold), la);
+			int correctPosClassified = getCorrectPosClassified(testSetsPos.get(currFold), qtl);
 //			int correctNegClassified = getCorrectNegClassified(rs, concept, testSetsNeg.get(currFold));
-			int correctNegClassified = getCorrectNegClassified(testSetsNeg.get(currFold), la);
+			int correctNegClassified = getCorrectNegClassified(testSetsNeg.get(currFold), qtl);
 			int correctExamples = correctPosClassified + correctNegClassified;
 			double currAccuracy = 100*((double)correctExamples/(testSetsPos.get(currFold).size()+
 					testSetsNeg.get(currFold).size()));
@@ -225,7 +227,7 @@ public class SPARQLCrossValidation {
 			outputWriter("  length: " + df.format(OWLClassExpressionUtils.getLength(concept)));
 			outputWriter("  runtime: " + df.format(algorithmDuration/(double)1000000000) + "s");
 					
-		}
+		});
 		
 		outputWriter("");
 		outputWriter("Finished " + folds + "-folds cross-validation.");
@@ -318,7 +320,7 @@ public class SPARQLCrossValidation {
 		return runtime;
 	}
 	
-	protected void outputWriter(String output) {
+	protected synchronized void outputWriter(String output) {
 		if(writeToFile) {
 			Files.appendToFile(outputFile, output +"\n");
 			System.out.println(output);
@@ -1,6 +1,8 @@
 package org.dllearner.configuration.spring;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 
 import org.dllearner.configuration.IConfiguration;
 import org.dllearner.configuration.IConfigurationProperty;
@@ -8,6 +10,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
@@ -25,9 +28,20 @@ import org.springframework.beans.factory.support.ManagedSet;
 public class ConfigurationBasedBeanDefinitionRegistryPostProcessor implements BeanDefinitionRegistryPostProcessor {
 
     private final IConfiguration configuration;
+    private final Map<String, Object> sharedBeans;
 
     public ConfigurationBasedBeanDefinitionRegistryPostProcessor(IConfiguration configuration) {
+        this(configuration, Collections.emptyMap());
+    }
+
+    /**
+     * @param configuration The DL-Learner Configuration object.
+     * @param sharedBeans Already existing (and initialized) objects that will be registered for the given bean names
+     *                    instead of creating and configuring new ones.
+     */
+    public ConfigurationBasedBeanDefinitionRegistryPostProcessor(IConfiguration configuration, Map<String, Object> sharedBeans) {
         this.configuration = configuration;
+        this.sharedBeans = sharedBeans;
     }
 
     /**
@@ -41,7 +55,9 @@ public class ConfigurationBasedBeanDefinitionRegistryPostProcessor implements Be
         final Collection<String> beanNames = configuration.getBeanNames();
 
         for (String beanName : beanNames) {
-            if (!registry.containsBeanDefinition(beanName)) {
+            if (sharedBeans.containsKey(beanName)) {
+                ((SingletonBeanRegistry) registry).registerSingleton(beanName, sharedBeans.get(beanName));
+            } else if (!registry.containsBeanDefinition(beanName)) {
                 Class beanClass = configuration.getClass(beanName);
                 BeanDefinitionBuilder builder = BeanDefinitionBuilder.genericBeanDefinition(beanClass);
 
@@ -61,6 +77,11 @@ public class ConfigurationBasedBeanDefinitionRegistryPostProcessor implements Be
 
         for (String beanName : beanNames) {
 
+            // shared beans are already configured
+            if (sharedBeans.containsKey(beanName)) {
+                continue;
+            }
+
             BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
 
             Collection<IConfigurationProperty> properties = configuration.getConfigurationProperties(beanName);
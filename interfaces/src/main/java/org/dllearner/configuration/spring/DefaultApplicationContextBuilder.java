@@ -3,7 +3,9 @@ package org.dllearner.configuration.spring;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.dllearner.configuration.IConfiguration;
 import org.slf4j.Logger;
@@ -30,9 +32,24 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
 
     @Override
     public ApplicationContext buildApplicationContext(IConfiguration configuration, List<Resource> springConfigurationLocations) throws IOException{
+        return buildApplicationContext(configuration, springConfigurationLocations, Collections.emptyMap());
+    }
+
+    /**
+     * Create an application context in which the beans with the given names are not created from the configuration,
+     * but the given already initialized objects are used instead.
+     *
+     * @param configuration                The DL-Learner Configuration object.
+     * @param springConfigurationLocations An ordered list of Spring Configuration Files.
+     * @param sharedBeans                  Mapping from bean name to already initialized object.
+     * @return An Application Context
+     * @throws IOException If there's a problem reading any of the files.
+     */
+    public ApplicationContext buildApplicationContext(IConfiguration configuration, List<Resource> springConfigurationLocations,
+                                                      Map<String, Object> sharedBeans) throws IOException{
         ConfigurableApplicationContext context = null;
         // Post Processors
-        BeanDefinitionRegistryPostProcessor beanDefinitionRegistryPostProcessor = new ConfigurationBasedBeanDefinitionRegistryPostProcessor(configuration);
+        BeanDefinitionRegistryPostProcessor beanDefinitionRegistryPostProcessor = new ConfigurationBasedBeanDefinitionRegistryPostProcessor(configuration, sharedBeans);
 
         //These files need to be loaded first
         List<Resource> allSpringConfigFiles = new ArrayList<>();
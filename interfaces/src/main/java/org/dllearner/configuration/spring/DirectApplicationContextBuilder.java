@@ -0,0 +1,494 @@
+package org.dllearner.configuration.spring;
+
+import org.dllearner.configuration.IConfiguration;
+import org.dllearner.configuration.IConfigurationProperty;
+import org.dllearner.configuration.spring.editors.ClassExpressionPropertyEditor;
+import org.dllearner.configuration.spring.editors.OWLEntityEditor;
+import org.dllearner.configuration.spring.editors.ReasonerImplementationEditor;
+import org.dllearner.reasoning.ReasonerImplementation;
+import org.dllearner.utilities.datastructures.MapToStringTupleListConverter;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.beans.PropertyEditor;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * An application context builder that creates, configures and initializes the components of a configuration
+ * directly instead of building a full Spring application context. The setters of the components are resolved
+ * once per class and kept as method handles, the configured values are converted up front, and the components
+ * are initialized in dependency order. Setter injection of dependencies annotated with {@link Autowired} is
+ * resolved by type as done by Spring, i.e. by falling back to the bean name in case of multiple candidates.
+ * The resulting context just contains the initialized components.
+ * <p>
+ * If the configuration uses anything that can not be mapped directly, e.g. additional Spring XML files,
+ * circular references or values that need a conversion not known here, the builder falls back to the
+ * {@link DefaultApplicationContextBuilder} before any component has been created. Spring can also be enforced
+ * by setting the system property {@value #SPRING_PROPERTY} to <code>true</code>. Whether a context was built
+ * directly can be checked by {@link #isBuiltDirectly(ApplicationContext)}.
+ */
+public class DirectApplicationContextBuilder implements ApplicationContextBuilder {
+
+    private static Logger logger = LoggerFactory.getLogger(DirectApplicationContextBuilder.class);
+
+    /**
+     * System property to always build the configuration by means of Spring.
+     */
+    public static final String SPRING_PROPERTY = "dllearner.configuration.spring";
+
+    // the display name of the contexts built directly
+    private static final String DISPLAY_NAME = "DL-Learner direct application context";
+
+    // the setters of the bean properties per class
+    private static final ClassValue<Map<String, Setter>> SETTERS = new ClassValue<Map<String, Setter>>() {
+        @Override
+        protected Map<String, Setter> computeValue(Class<?> type) {
+            Map<String, Setter> setters = new HashMap<>();
+            for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(type)) {
+                Method writeMethod = pd.getWriteMethod();
+                if (writeMethod != null && Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
+                    try {
+                        setters.put(pd.getName(), new Setter(writeMethod));
+                    } catch (IllegalAccessException e) {
+                        // not accessible, i.e. not supported by the direct wiring
+                    }
+                }
+            }
+            return Collections.unmodifiableMap(setters);
+        }
+    };
+
+    // the setters annotated with @Autowired per class
+    private static final ClassValue<List<Setter>> AUTOWIRED_SETTERS = new ClassValue<List<Setter>>() {
+        @Override
+        protected List<Setter> computeValue(Class<?> type) {
+            List<Setter> setters = new ArrayList<>();
+            // super classes first
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                hierarchy.add(0, c);
+            }
+            for (Class<?> c : hierarchy) {
+                for (Method m : c.getDeclaredMethods()) {
+                    if (m.isAnnotationPresent(Autowired.class)
+                            && !Modifier.isStatic(m.getModifiers())
+                            && m.getParameterCount() == 1
+                            && !m.isBridge()
+                            && m.equals(ClassUtils.getMostSpecificMethod(m, type))) {
+                        try {
+                            setters.add(new Setter(m));
+                        } catch (IllegalAccessException e) {
+                            setters.add(null); // will force the fallback to Spring
+                        }
+                    }
+                }
+            }
+            return setters;
+        }
+    };
+
+    private static final Map<Class<?>, Supplier<PropertyEditor>> EDITORS = new LinkedHashMap<>();
+
+    static {
+        // the same editors as registered by the CustomPropertyEditorRegistrar
+        EDITORS.put(OWLClassExpression.class, ClassExpressionPropertyEditor::new);
+        EDITORS.put(OWLObjectProperty.class, () -> new OWLEntityEditor<>(EntityType.OBJECT_PROPERTY));
+        EDITORS.put(OWLDataProperty.class, () -> new OWLEntityEditor<>(EntityType.DATA_PROPERTY));
+        EDITORS.put(OWLIndividual.class, () -> new OWLEntityEditor<>(EntityType.NAMED_INDIVIDUAL));
+        EDITORS.put(ReasonerImplementation.class, ReasonerImplementationEditor::new);
+    }
+
+    private static final DefaultConversionService conversionService = new DefaultConversionService();
+
+    static {
+        conversionService.addConverter(new MapToStringTupleListConverter());
+    }
+
+    private static final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private final DefaultApplicationContextBuilder springBuilder = new DefaultApplicationContextBuilder();
+
+    @Override
+    public ApplicationContext buildApplicationContext(IConfiguration configuration, List<Resource> springConfigurationLocations) throws IOException {
+        return buildApplicationContext(configuration, springConfigurationLocations, Collections.emptyMap());
+    }
+
+    /**
+     * Create an application context in which the beans with the given names are not created from the configuration,
+     * but the given already initialized objects are used instead.
+     *
+     * @param configuration                The DL-Learner Configuration object.
+     * @param springConfigurationLocations An ordered list of Spring Configuration Files, which enforce the use of Spring.
+     * @param sharedBeans                  Mapping from bean name to already initialized object.
+     * @return An Application Context
+     * @throws IOException If there's a problem reading any of the files.
+     */
+    public ApplicationContext buildApplicationContext(IConfiguration configuration, List<Resource> springConfigurationLocations,
+                                                      Map<String, Object> sharedBeans) throws IOException {
+        if (!springConfigurationLocations.isEmpty() || Boolean.getBoolean(SPRING_PROPERTY)) {
+            return springBuilder.buildApplicationContext(configuration, springConfigurationLocations, sharedBeans);
+        }
+
+        Map<String, BeanPlan> plans;
+        try {
+            plans = plan(configuration, sharedBeans);
+        } catch (UnsupportedConfigurationException e) {
+            logger.info("Building the configuration by means of Spring: {}", e.getMessage());
+            return springBuilder.buildApplicationContext(configuration, springConfigurationLocations, sharedBeans);
+        }
+
+        // create and initialize the beans in dependency order
+        Map<String, Object> beans = new LinkedHashMap<>(sharedBeans);
+        for (String beanName : plans.keySet()) {
+            getOrCreate(beanName, plans, beans);
+        }
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setDisplayName(DISPLAY_NAME);
+        for (String beanName : configuration.getBeanNames()) {
+            context.getBeanFactory().registerSingleton(beanName, beans.get(beanName));
+        }
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * @param context the application context
+     * @return whether the context was built directly, i.e. without falling back to Spring
+     */
+    public static boolean isBuiltDirectly(ApplicationContext context) {
+        return context instanceof GenericApplicationContext && DISPLAY_NAME.equals(context.getDisplayName());
+    }
+
+    /*
+     * Resolves the classes, setters, references and values of all beans without creating any of them.
+     */
+    private Map<String, BeanPlan> plan(IConfiguration configuration, Map<String, Object> sharedBeans)
+            throws UnsupportedConfigurationException {
+        // the types of all beans
+        Map<String, Class<?>> beanClasses = new LinkedHashMap<>();
+        for (String beanName : configuration.getBeanNames()) {
+            beanClasses.put(beanName, sharedBeans.containsKey(beanName)
+                    ? sharedBeans.get(beanName).getClass()
+                    : configuration.getClass(beanName));
+        }
+
+        Map<String, BeanPlan> plans = new LinkedHashMap<>();
+        for (String beanName : configuration.getBeanNames()) {
+            if (sharedBeans.containsKey(beanName)) {
+                continue;
+            }
+            Class<?> beanClass = beanClasses.get(beanName);
+            BeanPlan plan = new BeanPlan(beanName);
+            try {
+                plan.constructor = MethodHandles.publicLookup().findConstructor(beanClass, MethodType.methodType(void.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new UnsupportedConfigurationException("no public default constructor in " + beanClass.getName());
+            }
+
+            Map<String, Setter> setters = SETTERS.get(beanClass);
+            Collection<IConfigurationProperty> properties = configuration.getConfigurationProperties(beanName);
+            Set<String> configuredProperties = new HashSet<>();
+            properties.forEach(p -> configuredProperties.add(p.getName()));
+
+            // dependencies injected by type
+            for (Setter setter : AUTOWIRED_SETTERS.get(beanClass)) {
+                if (setter == null) {
+                    throw new UnsupportedConfigurationException("inaccessible autowired method in " + beanClass.getName());
+                }
+                if (!configuredProperties.contains(setter.getPropertyName())) {
+                    Injection injection = planAutowiring(beanName, setter, beanClasses);
+                    if (injection != null) {
+                        plan.injections.add(injection);
+                    }
+                }
+            }
+
+            // the base directory is set before the configured properties
+            if (!properties.isEmpty() && setters.containsKey("baseDir")
+                    && setters.get("baseDir").type.getType() == String.class) {
+                plan.injections.add(Injection.value(setters.get("baseDir"), configuration.getBaseDir()));
+            }
+
+            for (IConfigurationProperty property : properties) {
+                Setter setter = setters.get(property.getName());
+                if (setter == null) {
+                    throw new UnsupportedConfigurationException("no setter for property " + property.getName() + " of bean " + beanName);
+                }
+                if (property.isBeanReference() || property.isBeanReferenceCollection()) {
+                    @SuppressWarnings("unchecked")
+                    List<String> references = property.isBeanReference()
+                            ? Collections.singletonList((String) property.getValue())
+                            : new ArrayList<>((Collection<String>) property.getValue());
+                    for (String reference : references) {
+                        if (!beanClasses.containsKey(reference)) {
+                            throw new UnsupportedConfigurationException("unknown bean " + reference);
+                        }
+                    }
+                    plan.injections.add(Injection.references(setter, references, property.isBeanReferenceCollection()));
+                } else {
+                    plan.injections.add(Injection.value(setter, convert(property.getValue(), setter.type)));
+                }
+            }
+            plans.put(beanName, plan);
+        }
+
+        checkCycles(plans);
+
+        return plans;
+    }
+
+    /*
+     * Resolves the beans injected by an @Autowired setter, returns null if there is nothing to inject.
+     */
+    private Injection planAutowiring(String beanName, Setter setter, Map<String, Class<?>> beanClasses)
+            throws UnsupportedConfigurationException {
+        ResolvableType type = ResolvableType.forMethodParameter(setter.method, 0);
+        boolean required = setter.method.getAnnotation(Autowired.class).required();
+
+        Class<?> rawType = type.resolve();
+        boolean multiple = rawType.isArray() || Collection.class.isAssignableFrom(rawType);
+        Class<?> candidateType = rawType.isArray()
+                ? rawType.getComponentType()
+                : multiple ? type.asCollection().resolveGeneric() : rawType;
+        if (candidateType == null || Map.class.isAssignableFrom(rawType)) {
+            throw new UnsupportedConfigurationException("unsupported autowired type " + type + " in bean " + beanName);
+        }
+
+        List<String> candidates = new ArrayList<>();
+        beanClasses.forEach((name, beanClass) -> {
+            if (!name.equals(beanName) && candidateType.isAssignableFrom(beanClass)) {
+                candidates.add(name);
+            }
+        });
+
+        if (candidates.isEmpty()) {
+            if (required) {
+                throw new UnsupportedConfigurationException("no candidate for autowired " + setter.method);
+            }
+            return null;
+        }
+        if (!multiple && candidates.size() > 1) {
+            // use the bean whose name matches the dependency name
+            String[] parameterNames = parameterNameDiscoverer.getParameterNames(setter.method);
+            String dependencyName = parameterNames != null ? parameterNames[0] : setter.getPropertyName();
+            if (!candidates.contains(dependencyName)) {
+                throw new UnsupportedConfigurationException("multiple candidates " + candidates + " for autowired " + setter.method);
+            }
+            candidates = Collections.singletonList(dependencyName);
+        }
+        return Injection.references(setter, candidates, multiple);
+    }
+
+    private void checkCycles(Map<String, BeanPlan> plans) throws UnsupportedConfigurationException {
+        Set<String> done = new HashSet<>();
+        for (String beanName : plans.keySet()) {
+            checkCycles(beanName, plans, new HashSet<>(), done);
+        }
+    }
+
+    private void checkCycles(String beanName, Map<String, BeanPlan> plans, Set<String> path, Set<String> done)
+            throws UnsupportedConfigurationException {
+        BeanPlan plan = plans.get(beanName);
+        if (plan == null || done.contains(beanName)) {
+            return;
+        }
+        if (!path.add(beanName)) {
+            throw new UnsupportedConfigurationException("circular reference " + path);
+        }
+        for (Injection injection : plan.injections) {
+            if (injection.references != null) {
+                for (String reference : injection.references) {
+                    checkCycles(reference, plans, path, done);
+                }
+            }
+        }
+        path.remove(beanName);
+        done.add(beanName);
+    }
+
+    /*
+     * Converts a configured value to the type of the setter parameter.
+     */
+    private Object convert(Object value, TypeDescriptor targetType) throws UnsupportedConfigurationException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            // values which need a custom property editor
+            if (value instanceof String) {
+                PropertyEditor editor = findEditor(targetType.getType());
+                if (editor != null) {
+                    editor.setAsText((String) value);
+                    return editor.getValue();
+                }
+            } else if (value instanceof Collection && targetType.getElementTypeDescriptor() != null) {
+                PropertyEditor editor = findEditor(targetType.getElementTypeDescriptor().getType());
+                if (editor != null) {
+                    List<Object> elements = new ArrayList<>();
+                    for (Object element : (Collection<?>) value) {
+                        if (element instanceof String) {
+                            editor.setAsText((String) element);
+                            elements.add(editor.getValue());
+                        } else {
+                            elements.add(element);
+                        }
+                    }
+                    value = elements;
+                }
+            }
+            TypeDescriptor sourceType = TypeDescriptor.forObject(value);
+            if (!conversionService.canConvert(sourceType, targetType)) {
+                throw new UnsupportedConfigurationException("can not convert " + value + " to " + targetType);
+            }
+            return conversionService.convert(value, sourceType, targetType);
+        } catch (ConversionException | IllegalArgumentException e) {
+            throw new UnsupportedConfigurationException("can not convert " + value + " to " + targetType + ": " + e.getMessage());
+        }
+    }
+
+    private PropertyEditor findEditor(Class<?> type) {
+        for (Map.Entry<Class<?>, Supplier<PropertyEditor>> entry : EDITORS.entrySet()) {
+            if (entry.getKey().isAssignableFrom(type)) {
+                return entry.getValue().get();
+            }
+        }
+        return null;
+    }
+
+    private Object getOrCreate(String beanName, Map<String, BeanPlan> plans, Map<String, Object> beans) {
+        Object bean = beans.get(beanName);
+        if (bean != null) {
+            return bean;
+        }
+        BeanPlan plan = plans.get(beanName);
+        try {
+            bean = plan.constructor.invoke();
+        } catch (Throwable t) {
+            throw new RuntimeException("Failed to create bean " + beanName, t);
+        }
+
+        for (Injection injection : plan.injections) {
+            Object value = injection.value;
+            if (injection.references != null) {
+                List<Object> referencedBeans = new ArrayList<>();
+                for (String reference : injection.references) {
+                    referencedBeans.add(getOrCreate(reference, plans, beans));
+                }
+                value = injection.multiple ? toCollection(referencedBeans, injection.setter.type) : referencedBeans.get(0);
+            }
+            try {
+                injection.setter.handle.invoke(bean, value);
+            } catch (Throwable t) {
+                throw new RuntimeException("Failed to set property " + injection.setter.getPropertyName() + " of bean " + beanName, t);
+            }
+        }
+
+        // initialize components the same way as done in the Spring context
+        new ComponentInitializationBeanPostProcessor().postProcessBeforeInitialization(bean, beanName);
+
+        beans.put(beanName, bean);
+        return bean;
+    }
+
+    private Object toCollection(List<Object> elements, TypeDescriptor targetType) {
+        if (targetType.isArray()) {
+            Object array = Array.newInstance(targetType.getElementTypeDescriptor().getType(), elements.size());
+            for (int i = 0; i < elements.size(); i++) {
+                Array.set(array, i, elements.get(i));
+            }
+            return array;
+        }
+        return conversionService.convert(elements, TypeDescriptor.forObject(elements), targetType);
+    }
+
+    /*
+     * A setter of a bean property.
+     */
+    private static class Setter {
+        final Method method;
+        final MethodHandle handle;
+        final TypeDescriptor type;
+
+        Setter(Method method) throws IllegalAccessException {
+            this.method = method;
+            this.handle = MethodHandles.publicLookup().unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.type = new TypeDescriptor(new MethodParameter(method, 0));
+        }
+
+        String getPropertyName() {
+            String name = method.getName();
+            return name.startsWith("set") && name.length() > 3
+                    ? java.beans.Introspector.decapitalize(name.substring(3))
+                    : name;
+        }
+    }
+
+    /*
+     * A value or bean references to be set by a setter.
+     */
+    private static class Injection {
+        final Setter setter;
+        final Object value;
+        final List<String> references;
+        final boolean multiple;
+
+        private Injection(Setter setter, Object value, List<String> references, boolean multiple) {
+            this.setter = setter;
+            this.value = value;
+            this.references = references;
+            this.multiple = multiple;
+        }
+
+        static Injection value(Setter setter, Object value) {
+            return new Injection(setter, value, null, false);
+        }
+
+        static Injection references(Setter setter, List<String> references, boolean multiple) {
+            return new Injection(setter, null, references, multiple);
+        }
+    }
+
+    private static class BeanPlan {
+        final String name;
+        MethodHandle constructor;
+        final List<Injection> injections = new ArrayList<>();
+
+        BeanPlan(String name) {
+            this.name = name;
+        }
+    }
+
+    /*
+     * Thrown if the configuration can not be mapped directly onto the components.
+     */
+    private static class UnsupportedConfigurationException extends Exception {
+        UnsupportedConfigurationException(String message) {
+            super(message);
+        }
+    }
+}
@@ -176,6 +176,40 @@ public class ClientState {
 		return generateComponentID(reasonerComponent);
 	}
 
+	/**
+	 * Replaces the reasoner component by an equivalent, already initialised one,
+	 * keeping the component ID of the replaced reasoner.
+	 *
+	 * @param reasonerComponent the reasoner component to use instead
+	 */
+	public void replaceReasonerComponent(AbstractReasonerComponent reasonerComponent) {
+		replaceComponent(this.reasonerComponent, reasonerComponent);
+		this.reasonerComponent = reasonerComponent;
+	}
+
+	/**
+	 * Replaces a knowledge source by an equivalent, already initialised one,
+	 * keeping the component ID of the replaced knowledge source. Note that the
+	 * set of knowledge sources is modified in place, thus, a reasoner created
+	 * on this set will use the new knowledge source as well.
+	 *
+	 * @param oldKs the knowledge source to replace
+	 * @param newKs the knowledge source to use instead
+	 */
+	public void replaceKnowledgeSource(AbstractKnowledgeSource oldKs, AbstractKnowledgeSource newKs) {
+		knowledgeSources.remove(oldKs);
+		knowledgeSources.add(newKs);
+		replaceComponent(oldKs, newKs);
+	}
+
+	private void replaceComponent(AbstractComponent oldComponent, AbstractComponent newComponent) {
+		for(Map.Entry<Integer, AbstractComponent> entry : componentIDs.entrySet()) {
+			if(entry.getValue() == oldComponent) {
+				entry.setValue(newComponent);
+			}
+		}
+	}
+
 	/**
 	 * @return the learningAlgorithm
 	 */
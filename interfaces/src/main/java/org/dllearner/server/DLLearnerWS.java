@@ -65,6 +65,8 @@ public class DLLearnerWS {
 	private Map<Integer, ClientState> clients = new TreeMap<>();
 	private Random rand=new Random();
 	private static AnnComponentManager cm = AnnComponentManager.getInstance();
+	private static KnowledgeBaseRegistry kbRegistry = KnowledgeBaseRegistry.getInstance();
+	private static LearningJobManager jobManager = LearningJobManager.getInstance();
 
 	/**
 	 * Conversion between different data structures.
@@ -391,22 +393,57 @@ public class DLLearnerWS {
 	}
 
 	/**
-	 * Initialise all components.
+	 * Initialise all components. Knowledge sources and reasoners that have already been
+	 * initialised with the same configuration (in any session) are reused. Shared components
+	 * are used exclusively, i.e. this method blocks while another session is using them.
 	 * @param id Session ID.
 	 * @throws ComponentInitException Thrown if an error occurs during component initialisation.
 	 */
 	@WebMethod
 	public void initAll(int id) throws ClientNotKnownException, ComponentInitException {
 		ClientState state = getState(id);
-		logger.info("Initializing knowledge sources...");
-		for(AbstractKnowledgeSource ks : state.getKnowledgeSources())
-			ks.init();
-		logger.info("Initializing reasoner...");
-		state.getReasonerComponent().init();
-		logger.info("Initializing learning problem...");
-		state.getLearningProblem().init();
-		logger.info("Initializing learning algorithm...");
-		state.getLearningAlgorithm().init();
+		// look up all shared components first, they have to be acquired at once
+		Map<AbstractKnowledgeSource, AbstractKnowledgeSource> sharedKnowledgeSources = new IdentityHashMap<>();
+		for(AbstractKnowledgeSource ks : state.getKnowledgeSources()) {
+			AbstractKnowledgeSource sharedKs = kbRegistry.getSharedComponent(ks);
+			if(sharedKs != null) {
+				sharedKnowledgeSources.put(ks, sharedKs);
+			}
+		}
+		AbstractReasonerComponent rc = state.getReasonerComponent();
+		AbstractReasonerComponent sharedRc = kbRegistry.getSharedComponent(rc);
+		List<Component> sharedComponents = new ArrayList<>(sharedKnowledgeSources.values());
+		if(sharedRc != null) {
+			sharedComponents.add(sharedRc);
+		}
+
+		try(KnowledgeBaseRegistry.Lease lease = kbRegistry.lease(sharedComponents)) {
+			logger.info("Initializing knowledge sources...");
+			for(AbstractKnowledgeSource ks : new ArrayList<>(state.getKnowledgeSources())) {
+				AbstractKnowledgeSource sharedKs = sharedKnowledgeSources.get(ks);
+				if(sharedKs != null) {
+					logger.info("Reusing initialized knowledge source.");
+					state.replaceKnowledgeSource(ks, sharedKs);
+				} else {
+					ks.init();
+					kbRegistry.register(ks, lease);
+				}
+			}
+			logger.info("Initializing reasoner...");
+			if(sharedRc != null) {
+				logger.info("Reusing initialized reasoner.");
+				state.replaceReasonerComponent(sharedRc);
+				state.getLearningProblem().setReasoner(sharedRc);
+				state.getLearningAlgorithm().setReasoner(sharedRc);
+			} else {
+				rc.init();
+				kbRegistry.register(rc, lease);
+			}
+			logger.info("Initializing learning problem...");
+			state.getLearningProblem().init();
+			logger.info("Initializing learning algorithm...");
+			state.getLearningAlgorithm().init();
+		}
 	}
 
 	/**
@@ -421,6 +458,7 @@ public class DLLearnerWS {
 	public void init(int id, int componentID) throws ClientNotKnownException, ComponentInitException {
 		ClientState state = getState(id);
 		AbstractComponent component = state.getComponent(componentID);
+		checkNotShared(component);
 		component.init();
 	}
 
@@ -436,7 +474,9 @@ public class DLLearnerWS {
 	@WebMethod
 	public String learn(int id, String format) throws ClientNotKnownException {
 		ClientState state = getState(id);
-		state.getLearningAlgorithm().start();
+		try(KnowledgeBaseRegistry.Lease lease = lease(state.getLearningAlgorithm())) {
+			state.getLearningAlgorithm().start();
+		}
 		OWLClassExpression solution = state.getLearningAlgorithm().getCurrentlyBestDescription();
 		switch (format) {
 			case "manchester":
@@ -460,7 +500,9 @@ public class DLLearnerWS {
 	@WebMethod
 	public String learnDescriptionsEvaluated(int id) throws ClientNotKnownException {
 		ClientState state = getState(id);
-		state.getLearningAlgorithm().start();
+		try(KnowledgeBaseRegistry.Lease lease = lease(state.getLearningAlgorithm())) {
+			state.getLearningAlgorithm().start();
+		}
 		NavigableSet<? extends EvaluatedDescription> descriptions = state.getLearningAlgorithm()
 				.getCurrentlyBestEvaluatedDescriptions();
 		String json = "{";
@@ -489,7 +531,9 @@ public class DLLearnerWS {
 	@WebMethod
 	public String learnDescriptionsEvaluatedLimit(int id, int limit) throws ClientNotKnownException {
 		ClientState state = getState(id);
-		state.getLearningAlgorithm().start();
+		try(KnowledgeBaseRegistry.Lease lease = lease(state.getLearningAlgorithm())) {
+			state.getLearningAlgorithm().start();
+		}
 		List<? extends EvaluatedDescription> descriptions = state.getLearningAlgorithm().getCurrentlyBestEvaluatedDescriptions(limit);
 		String json = "{";
 		int count = 1;
@@ -504,24 +548,61 @@ public class DLLearnerWS {
 
 	/**
 	 * Starts the learning algorithm and returns immediately. The learning
-	 * algorithm is executed in its own thread and can be queried and
+	 * algorithm is executed on the worker pool of the server and can be queried and
 	 * controlled using other Web Service methods.
 	 *
 	 * @param id Session ID.
 	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 * @throws JobRejectedException Thrown if the server can not accept further jobs.
 	 */
 	@WebMethod
-	public void learnThreaded(int id) throws ClientNotKnownException {
+	public void learnThreaded(int id) throws ClientNotKnownException, JobRejectedException {
+		learnAsync(id);
+	}
+
+	/**
+	 * Submits a learning job for the learning algorithm of the session and returns
+	 * immediately. The job is queued until a worker of the server is available.
+	 *
+	 * @param id Session ID.
+	 * @return The job ID.
+	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 * @throws JobRejectedException Thrown if the server can not accept further jobs.
+	 * @see #getJobStatus(int, int)
+	 * @see #cancelJob(int)
+	 */
+	@WebMethod
+	public int learnAsync(int id) throws ClientNotKnownException, JobRejectedException {
 		final ClientState state = getState(id);
-		Thread learningThread = new Thread() {
-			@Override
-			public void run() {
-//				state.setAlgorithmRunning(true);
-				state.getLearningAlgorithm().start();
-//				state.setAlgorithmRunning(false);
-			}
-		};
-		learningThread.start();
+		final AbstractCELA la = state.getLearningAlgorithm();
+		return jobManager.submit(lease -> {
+			lease.acquire(Collections.singleton(la));
+			return la;
+		}).getId();
+	}
+
+	/**
+	 * Returns the status of a learning job as JSON, including the currently best descriptions.
+	 *
+	 * @param jobID The job ID.
+	 * @param limit Maximum number of descriptions desired.
+	 * @return A JSON string encoding the job status.
+	 * @throws JobNotKnownException Thrown if the job is not known (anymore).
+	 */
+	@WebMethod
+	public String getJobStatus(int jobID, int limit) throws JobNotKnownException {
+		return jobManager.getJob(jobID).asJSON(limit).toJSONString();
+	}
+
+	/**
+	 * Cancels a learning job.
+	 *
+	 * @param jobID The job ID.
+	 * @throws JobNotKnownException Thrown if the job is not known (anymore).
+	 */
+	@WebMethod
+	public void cancelJob(int jobID) throws JobNotKnownException {
+		jobManager.cancel(jobID);
 	}
 
 	/**
@@ -795,6 +876,7 @@ public class DLLearnerWS {
 	private void applyConfigEntry(int sessionID, int componentID, String optionName, Object value) throws ClientNotKnownException {
 		ClientState state = getState(sessionID);
 		AbstractComponent component = state.getComponent(componentID);
+		checkNotShared(component);
 		System.out.println("Config option->" + component + "::" + optionName + "=" + value);
 		try {
 			Field field = component.getClass().getDeclaredField(optionName);
@@ -918,13 +1000,18 @@ public class DLLearnerWS {
 
 	@WebMethod
 	public String[] getAtomicConcepts(int id) throws ClientNotKnownException {
-		Set<OWLClass> atomicConcepts = getState(id).getReasonerComponent().getClasses();
-		return Datastructures.sortedSet2StringListConcepts(atomicConcepts);
+		AbstractReasonerComponent rc = getState(id).getReasonerComponent();
+		try(KnowledgeBaseRegistry.Lease lease = lease(rc)) {
+			return Datastructures.sortedSet2StringListConcepts(rc.getClasses());
+		}
 	}
 
 	@WebMethod
 	public String getSubsumptionHierarchy(int id) throws ClientNotKnownException {
-		return getState(id).getReasonerComponent().toString();
+		AbstractReasonerComponent rc = getState(id).getReasonerComponent();
+		try(KnowledgeBaseRegistry.Lease lease = lease(rc)) {
+			return rc.toString();
+		}
 	}
 
 	@WebMethod
@@ -932,8 +1019,10 @@ public class DLLearnerWS {
 		ClientState state = getState(id);
 		// call parser to parse concept
 		OWLClassExpression concept = KBParser.parseConcept(conceptString);
-		Set<OWLIndividual> individuals = state.getReasonerComponent().getIndividuals(concept);
-		return Datastructures.sortedSet2StringListIndividuals(individuals);
+		try(KnowledgeBaseRegistry.Lease lease = lease(state.getReasonerComponent())) {
+			Set<OWLIndividual> individuals = state.getReasonerComponent().getIndividuals(concept);
+			return Datastructures.sortedSet2StringListIndividuals(individuals);
+		}
 	}
 
 	@WebMethod
@@ -945,24 +1034,30 @@ public class DLLearnerWS {
 	@WebMethod
 	public String[] getAtomicRoles(int id) throws ClientNotKnownException {
 		ClientState state = getState(id);
-		Set<OWLObjectProperty> roles = state.getReasonerComponent().getObjectProperties();
-		return Datastructures.sortedSet2StringListRoles(roles);
+		try(KnowledgeBaseRegistry.Lease lease = lease(state.getReasonerComponent())) {
+			Set<OWLObjectProperty> roles = state.getReasonerComponent().getObjectProperties();
+			return Datastructures.sortedSet2StringListRoles(roles);
+		}
 	}
 
 	@WebMethod
 	public String[] getInstances(int id) throws ClientNotKnownException {
 		ClientState state = getState(id);
-		Set<OWLIndividual> individuals = state.getReasonerComponent().getIndividuals();
-		return Datastructures.sortedSet2StringListIndividuals(individuals);
+		try(KnowledgeBaseRegistry.Lease lease = lease(state.getReasonerComponent())) {
+			Set<OWLIndividual> individuals = state.getReasonerComponent().getIndividuals();
+			return Datastructures.sortedSet2StringListIndividuals(individuals);
+		}
 	}
 
 	@WebMethod
 	public String[] getIndividualsForARole(int id, String role) throws ClientNotKnownException {
 		ClientState state = getState(id);
-		Map<OWLIndividual,SortedSet<OWLIndividual>> m = state.getReasonerComponent().getPropertyMembers(
-				new OWLObjectPropertyImpl(IRI.create(role)));
-		Set<OWLIndividual> individuals = m.keySet();
-		return Datastructures.sortedSet2StringListIndividuals(individuals);
+		try(KnowledgeBaseRegistry.Lease lease = lease(state.getReasonerComponent())) {
+			Map<OWLIndividual,SortedSet<OWLIndividual>> m = state.getReasonerComponent().getPropertyMembers(
+					new OWLObjectPropertyImpl(IRI.create(role)));
+			Set<OWLIndividual> individuals = m.keySet();
+			return Datastructures.sortedSet2StringListIndividuals(individuals);
+		}
 	}
 
 	////////////////////////////////////////
@@ -1010,25 +1105,22 @@ public class DLLearnerWS {
 	}
 
 	@WebMethod
-	public int sparqlQueryThreaded(int sessionID, int componentID, String query) throws ClientNotKnownException
+	public int sparqlQueryThreaded(int sessionID, int componentID, String query) throws ClientNotKnownException, JobRejectedException
 	{
 		final ClientState state = getState(sessionID);
 		AbstractComponent component = state.getComponent(componentID);
 		final SparqlKnowledgeSource ks=(SparqlKnowledgeSource)component;
 		final int id=state.addQuery(ks.sparqlQuery(query));
-		Thread sparqlThread = new Thread() {
-			@Override
-			public void run() {
-				if (ks.isUseCache()){
-					Cache cache=new Cache(ks.getCacheDir());
-					cache.executeSparqlQuery(state.getQuery(id));
-				}
-				else{
-					state.getQuery(id).send();
-				}
+		jobManager.submitTask(() -> {
+			if (ks.isUseCache()){
+				Cache cache=new Cache(ks.getCacheDir());
+				cache.executeSparqlQuery(state.getQuery(id));
 			}
-		};
-		sparqlThread.start();
+			else{
+				state.getQuery(id).send();
+			}
+			return null;
+		});
 		return id;
 	}
 
@@ -1163,6 +1255,18 @@ public class DLLearnerWS {
 		return state;
 	}
 
+	// gives exclusive access to the components shared with other sessions that are used by the given component
+	private static KnowledgeBaseRegistry.Lease lease(AbstractComponent component) {
+		return kbRegistry.lease(Collections.singleton(component));
+	}
+
+	// components shared with other sessions must not be configured or initialised again
+	private static void checkNotShared(AbstractComponent component) {
+		if(kbRegistry.isRegistered(component))
+			throw new IllegalStateException("The component " + AnnComponentManager.getName(component)
+					+ " is shared with other sessions and can not be changed anymore.");
+	}
+
 	@SuppressWarnings({"unchecked"})
 	private <T> T getConfigOptionValue(int sessionID, int componentID, String optionName, Class<T> clazz) throws ClientNotKnownException, UnknownComponentException, ConfigOptionTypeException {
 		Object value = getConfigOptionValue(sessionID, componentID, optionName);
@@ -0,0 +1,11 @@
+package org.dllearner.server;
+
+public class JobNotKnownException extends Exception {
+
+	private static final long serialVersionUID = 4263419851120360714L;
+
+	public JobNotKnownException(int id) {
+		super("Job with id " + id + " is not known.");
+	}
+
+}
@@ -0,0 +1,15 @@
+package org.dllearner.server;
+
+/**
+ * Thrown if a learning job can not be accepted, because the job queue is full
+ * or the server is running out of memory.
+ */
+public class JobRejectedException extends Exception {
+
+	private static final long serialVersionUID = -2871346015873196620L;
+
+	public JobRejectedException(String reason) {
+		super("Learning job rejected: " + reason);
+	}
+
+}
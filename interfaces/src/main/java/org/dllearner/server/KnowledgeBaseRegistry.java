@@ -0,0 +1,532 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import org.dllearner.configuration.IConfiguration;
+import org.dllearner.configuration.IConfigurationProperty;
+import org.dllearner.core.AnnComponentManager;
+import org.dllearner.core.Component;
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.core.ReasonerComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A server-side registry of initialized knowledge sources and reasoners. Each component is keyed by a hash
+ * of its type, its configuration and the local files it refers to (recursively including
+ * the components it depends on, e.g. the knowledge sources of a reasoner). Learning requests against an
+ * already known knowledge base can thus reuse the loaded ontologies and the (materialized) reasoner instead
+ * of initializing them again. The content of a local file is only hashed again if its size or its last
+ * modification time has changed.
+ * <p>
+ * Registered components are shared between requests and sessions, but neither the reasoners nor the
+ * statistics kept by them are thread-safe. Thus, a registered component must only be used while holding a
+ * {@link Lease} on it, which gives exclusive access to the component, i.e. learning runs on the same knowledge
+ * base are executed one after another. Registered components must not be reconfigured, see
+ * {@link #isRegistered(Component)}. The number of registered components is bounded, least recently used ones
+ * are dropped first.
+ */
+public class KnowledgeBaseRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(KnowledgeBaseRegistry.class);
+
+	private static final int DEFAULT_MAX_ENTRIES = 20;
+	private static final int MAX_FILE_HASHES = 1000;
+
+	private static KnowledgeBaseRegistry instance;
+
+	private final Cache<String, Component> components;
+	// the locks of all components ever registered, weakly keyed by identity, thus, a component dropped from the
+	// registry can still be leased as long as it is in use
+	private final ConcurrentMap<Component, ComponentLock> locks = new MapMaker().weakKeys().makeMap();
+	private final AtomicLong lockCounter = new AtomicLong();
+	// the content hashes of local files, keyed by the absolute path
+	private final Cache<String, FileHash> fileHashes;
+
+	public KnowledgeBaseRegistry(int maxEntries) {
+		components = CacheBuilder.newBuilder()
+				.maximumSize(maxEntries)
+				.recordStats()
+				.build();
+		fileHashes = CacheBuilder.newBuilder()
+				.maximumSize(MAX_FILE_HASHES)
+				.build();
+	}
+
+	/*
+	 * The content hash of a file together with the size and modification time it has been computed for.
+	 */
+	private static class FileHash {
+		final long size;
+		final long lastModified;
+		final byte[] hash;
+
+		FileHash(long size, long lastModified, byte[] hash) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hash = hash;
+		}
+	}
+
+	/*
+	 * The lock of a registered component. Locks are always acquired in the order of their number to avoid deadlocks.
+	 */
+	private static class ComponentLock {
+		final long number;
+		final ReentrantLock lock = new ReentrantLock();
+
+		ComponentLock(long number) {
+			this.number = number;
+		}
+	}
+
+	/**
+	 * Exclusive access to registered components. A lease is bound to the thread that created it, i.e. it has to
+	 * be acquired and closed by the same thread.
+	 */
+	public class Lease implements AutoCloseable {
+
+		private final List<ComponentLock> heldLocks = new ArrayList<>();
+		private boolean acquired = false;
+
+		private Lease() {}
+
+		/**
+		 * Blocks until exclusive access to all registered components among the given components and the components
+		 * they depend on (e.g. the knowledge sources of a reasoner) has been granted. In order to avoid deadlocks, all
+		 * components have to be acquired at once, i.e. this method must be called only once per lease.
+		 *
+		 * @param roots the components to be used, e.g. a learning algorithm
+		 * @return this lease
+		 */
+		public Lease acquire(Collection<?> roots) {
+			if (acquired) {
+				throw new IllegalStateException("The components of a lease have to be acquired at once.");
+			}
+			acquired = true;
+
+			Set<Component> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (Object root : roots) {
+				if (root instanceof Component) {
+					collectComponents((Component) root, reachable);
+				}
+			}
+			List<ComponentLock> componentLocks = new ArrayList<>();
+			for (Component component : reachable) {
+				ComponentLock componentLock = locks.get(component);
+				if (componentLock != null) {
+					componentLocks.add(componentLock);
+				}
+			}
+			componentLocks.sort(Comparator.comparingLong(l -> l.number));
+			for (ComponentLock componentLock : componentLocks) {
+				componentLock.lock.lock();
+				heldLocks.add(componentLock);
+			}
+			return this;
+		}
+
+		private void hold(ComponentLock componentLock) {
+			heldLocks.add(componentLock);
+		}
+
+		/**
+		 * Releases all components of this lease.
+		 */
+		@Override
+		public void close() {
+			for (int i = heldLocks.size() - 1; i >= 0; i--) {
+				heldLocks.get(i).lock.unlock();
+			}
+			heldLocks.clear();
+		}
+	}
+
+	public static synchronized KnowledgeBaseRegistry getInstance() {
+		if (instance == null) {
+			instance = new KnowledgeBaseRegistry(DEFAULT_MAX_ENTRIES);
+		}
+		return instance;
+	}
+
+	/**
+	 * @param componentClass the component class
+	 * @return whether components of the given type are shared by the registry, i.e. knowledge sources and
+	 * reasoners
+	 */
+	public static boolean isShareable(Class<?> componentClass) {
+		return KnowledgeSource.class.isAssignableFrom(componentClass)
+				|| ReasonerComponent.class.isAssignableFrom(componentClass);
+	}
+
+	/**
+	 * @return a new lease which does not hold any component yet
+	 */
+	public Lease newLease() {
+		return new Lease();
+	}
+
+	/**
+	 * Returns a lease on all registered components among the given components and the components they depend on.
+	 *
+	 * @param components the components to be used
+	 * @return the lease
+	 * @see Lease#acquire(Collection)
+	 */
+	public Lease lease(Collection<?> components) {
+		return newLease().acquire(components);
+	}
+
+	/**
+	 * @param component the component
+	 * @return whether the component is shared by the registry, in that case it must not be configured or
+	 * initialized again
+	 */
+	public boolean isRegistered(Component component) {
+		return locks.containsKey(component);
+	}
+
+	/**
+	 * Returns the already initialized components for all shareable beans of the configuration that have been
+	 * registered before. They must only be used after acquiring them with a {@link Lease}.
+	 *
+	 * @param configuration the configuration
+	 * @return mapping from bean name to initialized component
+	 */
+	public Map<String, Object> getSharedComponents(IConfiguration configuration) {
+		Map<String, Object> shared = new HashMap<>();
+		Map<String, String> keys = computeKeys(configuration);
+		keys.forEach((beanName, key) -> {
+			Component component = components.getIfPresent(key);
+			if (component != null) {
+				logger.info("Reusing initialized component '{}' of type {}", beanName, AnnComponentManager.getName(component));
+				shared.put(beanName, component);
+			}
+		});
+		return shared;
+	}
+
+	/**
+	 * Registers all shareable beans of the configuration that have been created in the given context. The newly
+	 * registered components are held by the given lease.
+	 *
+	 * @param configuration the configuration
+	 * @param context the context built from the configuration
+	 * @param lease the lease of the caller
+	 */
+	public void register(IConfiguration configuration, ApplicationContext context, Lease lease) {
+		computeKeys(configuration).forEach((beanName, key) -> {
+			Object bean = context.getBean(beanName);
+			if (bean instanceof Component) {
+				register(key, (Component) bean, lease);
+			}
+		});
+	}
+
+	/**
+	 * Returns an already initialized component that is equivalent to the given one, i.e. has the same type and
+	 * configuration and refers to the same file contents. It must only be used after acquiring it with a
+	 * {@link Lease}.
+	 *
+	 * @param component the (not yet initialized) component
+	 * @param <T> the component type
+	 * @return the registered equivalent component, or {@code null} if none has been registered
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Component> T getSharedComponent(T component) {
+		String key = computeKey(component);
+		return key == null ? null : (T) components.getIfPresent(key);
+	}
+
+	/**
+	 * Registers the given initialized component, which is then held by the given lease.
+	 *
+	 * @param component the initialized component
+	 * @param lease the lease of the caller
+	 */
+	public void register(Component component, Lease lease) {
+		String key = computeKey(component);
+		if (key != null) {
+			register(key, component, lease);
+		}
+	}
+
+	/*
+	 * The component is locked before it gets visible to other threads. If an equivalent component has been
+	 * registered in the meantime, the given one stays private to the caller.
+	 */
+	private void register(String key, Component component, Lease lease) {
+		if (locks.containsKey(component)) {
+			return;
+		}
+		ComponentLock componentLock = new ComponentLock(lockCounter.incrementAndGet());
+		componentLock.lock.lock();
+		locks.put(component, componentLock);
+		if (components.asMap().putIfAbsent(key, component) == null) {
+			lease.hold(componentLock);
+		} else {
+			locks.remove(component);
+			componentLock.lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all registered components.
+	 */
+	public void clear() {
+		components.invalidateAll();
+	}
+
+	/**
+	 * @return the number of registered components
+	 */
+	public long size() {
+		return components.size();
+	}
+
+	private Map<String, String> computeKeys(IConfiguration configuration) {
+		Map<String, String> keys = new HashMap<>();
+		for (String beanName : configuration.getBeanNames()) {
+			String key = computeKey(configuration, beanName, keys, new HashSet<>());
+			if (key != null) {
+				keys.put(beanName, key);
+			}
+		}
+		return keys;
+	}
+
+	/*
+	 * Computes the key of a bean in the configuration. Returns null if the bean is not shareable, either because of
+	 * its type or because it depends on beans that are not shareable.
+	 */
+	private String computeKey(IConfiguration configuration, String beanName, Map<String, String> keys, Set<String> visited) {
+		if (keys.containsKey(beanName)) {
+			return keys.get(beanName);
+		}
+		if (!visited.add(beanName)) { // cyclic dependency
+			return null;
+		}
+
+		Class<?> beanClass = configuration.getClass(beanName);
+		if (!isShareable(beanClass)) {
+			return null;
+		}
+
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(beanClass.getName(), StandardCharsets.UTF_8);
+
+		List<IConfigurationProperty> properties = new ArrayList<>(configuration.getConfigurationProperties(beanName));
+		properties.sort(Comparator.comparing(IConfigurationProperty::getName));
+		for (IConfigurationProperty property : properties) {
+			hasher.putString(property.getName(), StandardCharsets.UTF_8);
+
+			if (property.isBeanReference() || property.isBeanReferenceCollection()) {
+				@SuppressWarnings("unchecked")
+				Collection<String> referencedBeans = property.isBeanReference()
+						? Collections.singleton((String) property.getValue())
+						: new TreeSet<>((Collection<String>) property.getValue());
+				for (String referencedBean : referencedBeans) {
+					String referencedKey = computeKey(configuration, referencedBean, keys, visited);
+					if (referencedKey == null) {
+						return null;
+					}
+					hasher.putString(referencedKey, StandardCharsets.UTF_8);
+				}
+			} else {
+				putValue(hasher, property.getValue(), configuration.getBaseDir());
+			}
+		}
+
+		String key = hasher.hash().toString();
+		keys.put(beanName, key);
+		return key;
+	}
+
+	/*
+	 * Computes the key of a component based on the values of its config options. Returns null if the component is
+	 * not shareable, i.e. it is neither a knowledge source nor a reasoner, it has no config options set (e.g. an
+	 * ontology passed in-memory) or it depends on components that are not shareable.
+	 */
+	private String computeKey(Component component) {
+		if (!isShareable(component.getClass())) {
+			return null;
+		}
+
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(component.getClass().getName(), StandardCharsets.UTF_8);
+
+		boolean configured = false;
+		String baseDir = null;
+		List<Field> options = new ArrayList<>(AnnComponentManager.getConfigOptions(component.getClass()));
+		options.sort(Comparator.comparing(Field::getName));
+		for (Field option : options) {
+			Object value;
+			try {
+				option.setAccessible(true);
+				value = option.get(component);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException("Failed to read option " + option.getName() + " of " + component, e);
+			}
+			if (value == null) {
+				continue;
+			}
+			if (option.getName().equals("baseDir") && value instanceof String) {
+				baseDir = (String) value;
+			}
+			hasher.putString(option.getName(), StandardCharsets.UTF_8);
+			if (value instanceof Component) {
+				String referencedKey = computeKey((Component) value);
+				if (referencedKey == null) {
+					return null;
+				}
+				hasher.putString(referencedKey, StandardCharsets.UTF_8);
+			} else if (value instanceof Collection && !((Collection<?>) value).isEmpty()
+					&& ((Collection<?>) value).iterator().next() instanceof Component) {
+				List<String> referencedKeys = new ArrayList<>();
+				for (Object o : (Collection<?>) value) {
+					String referencedKey = computeKey((Component) o);
+					if (referencedKey == null) {
+						return null;
+					}
+					referencedKeys.add(referencedKey);
+				}
+				Collections.sort(referencedKeys);
+				referencedKeys.forEach(k -> hasher.putString(k, StandardCharsets.UTF_8));
+			} else {
+				putValue(hasher, value, baseDir);
+			}
+			// only primitive settings are not sufficient to identify a knowledge base
+			configured |= !(value instanceof Boolean || value instanceof Number || value instanceof Enum);
+		}
+		return configured ? hasher.hash().toString() : null;
+	}
+
+	/*
+	 * Collects the component and all components it refers to by its config options.
+	 */
+	private void collectComponents(Component component, Set<Component> collected) {
+		if (!collected.add(component)) {
+			return;
+		}
+		for (Field option : AnnComponentManager.getConfigOptions(component.getClass())) {
+			Object value;
+			try {
+				option.setAccessible(true);
+				value = option.get(component);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException("Failed to read option " + option.getName() + " of " + component, e);
+			}
+			if (value instanceof Component) {
+				collectComponents((Component) value, collected);
+			} else if (value instanceof Collection) {
+				for (Object o : (Collection<?>) value) {
+					if (o instanceof Component) {
+						collectComponents((Component) o, collected);
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * Adds the normalized value to the hash. If the value denotes a local file, its content is added as well.
+	 */
+	private void putValue(Hasher hasher, Object value, String baseDir) {
+		if (value instanceof Collection) {
+			List<String> values = new ArrayList<>();
+			for (Object o : (Collection<?>) value) {
+				values.add(String.valueOf(o));
+			}
+			Collections.sort(values);
+			hasher.putString(values.toString(), StandardCharsets.UTF_8);
+		} else if (value instanceof Map) {
+			Map<String, String> values = new TreeMap<>();
+			((Map<?, ?>) value).forEach((k, v) -> values.put(String.valueOf(k), String.valueOf(v)));
+			hasher.putString(values.toString(), StandardCharsets.UTF_8);
+		} else {
+			String s = String.valueOf(value);
+			hasher.putString(s, StandardCharsets.UTF_8);
+
+			File file = asLocalFile(value, baseDir);
+			if (file != null) {
+				try {
+					hasher.putBytes(getContentHash(file));
+				} catch (IOException e) {
+					logger.warn("Failed to compute content hash of file " + file, e);
+					hasher.putLong(System.nanoTime()); // never match
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns the content hash of the file, which is only computed again if the size or the modification
+	 * time of the file has changed since the last call.
+	 */
+	private byte[] getContentHash(File file) throws IOException {
+		String path = file.getAbsolutePath();
+		long size = file.length();
+		long lastModified = file.lastModified();
+		FileHash fileHash = fileHashes.getIfPresent(path);
+		if (fileHash == null || fileHash.size != size || fileHash.lastModified != lastModified) {
+			fileHash = new FileHash(size, lastModified, Files.asByteSource(file).hash(Hashing.sha256()).asBytes());
+			fileHashes.put(path, fileHash);
+		}
+		return fileHash.hash;
+	}
+
+	private File asLocalFile(Object value, String baseDir) {
+		File file = null;
+		if (value instanceof File) {
+			file = (File) value;
+		} else if (value instanceof URL) {
+			if ("file".equals(((URL) value).getProtocol())) {
+				file = new File(((URL) value).getPath());
+			}
+		} else if (value instanceof String) {
+			String s = (String) value;
+			if (s.startsWith("file:")) {
+				file = new File(s.substring("file:".length()));
+			} else if (!s.isEmpty() && !s.contains("://")) {
+				file = new File(s);
+				if (!file.isAbsolute() && baseDir != null) {
+					file = new File(baseDir, s);
+				}
+			}
+		}
+		return file != null && file.isFile() ? file : null;
+	}
+}
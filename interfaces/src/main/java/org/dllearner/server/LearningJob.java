@@ -0,0 +1,401 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import org.dllearner.core.*;
+import org.dllearner.utilities.owl.OWLAPIRenderers;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * A learning job executed by the {@link LearningJobManager}. The job first sets up the learning
+ * algorithm (e.g. by building the application context from a configuration) and then runs it on
+ * one of the worker threads. Knowledge sources and reasoners shared via the {@link KnowledgeBaseRegistry}
+ * are used exclusively by the job, i.e. they are leased during setup and released once the algorithm
+ * has terminated. Intermediate results can be polled while the job is running, or pushed
+ * to {@link LearningProgressListener}s registered at the job if the algorithm supports it.
+ */
+public class LearningJob {
+
+	private static final Logger logger = LoggerFactory.getLogger(LearningJob.class);
+
+	public enum Status {
+		QUEUED, RUNNING, FINISHED, FAILED, CANCELLED, TIMEOUT, ABORTED;
+
+		public boolean isDone() {
+			return this != QUEUED && this != RUNNING;
+		}
+	}
+
+	/**
+	 * Sets up the learning algorithm of a job on the worker thread.
+	 */
+	@FunctionalInterface
+	public interface Setup {
+		/**
+		 * @param lease the lease of the job, all shared components used by the algorithm have to be acquired
+		 *              or registered with it
+		 * @return the initialized learning algorithm
+		 * @throws Exception if the setup failed
+		 */
+		LearningAlgorithm setUp(KnowledgeBaseRegistry.Lease lease) throws Exception;
+	}
+
+	private final int id;
+	private final Setup setup;
+	private final long maxExecutionTimeMillis;
+
+	private volatile Status status = Status.QUEUED;
+	private volatile LearningAlgorithm algorithm;
+	private volatile Throwable error;
+	private volatile String abortReason;
+
+	private volatile boolean cancelRequested = false;
+	private volatile boolean timeout = false;
+
+	private final long submitTime;
+	private volatile long startTime = -1;
+	private volatile long endTime = -1;
+
+	private volatile Future<?> future;
+	private final CountDownLatch done = new CountDownLatch(1);
+
+	private final List<LearningProgressListener> progressListeners = new CopyOnWriteArrayList<>();
+
+	// the best descriptions as published by the worker while the algorithm is running, the result set of
+	// the algorithm itself must not be read by other threads at that time
+	private volatile List<? extends EvaluatedDescription> publishedDescriptions = Collections.emptyList();
+	private final LearningProgressListener resultPublisher = new LearningProgressListener() {
+		@Override
+		public void newBestDescriptionFound(EvaluatedDescription<? extends Score> description, LearningProgress progress) {
+			publishDescriptions();
+		}
+
+		@Override
+		public void learningProgressChanged(LearningProgress progress) {
+			publishDescriptions();
+		}
+
+		@Override
+		public void learningStopped(LearningProgress progress) {
+			publishDescriptions();
+		}
+	};
+
+	LearningJob(int id, Setup setup, long maxExecutionTimeMillis) {
+		this.id = id;
+		this.setup = setup;
+		this.maxExecutionTimeMillis = maxExecutionTimeMillis;
+		this.submitTime = System.currentTimeMillis();
+	}
+
+	/*
+	 * Executed on the worker thread. The lease is released before the job is done.
+	 */
+	void run(KnowledgeBaseRegistry.Lease lease) {
+		if (cancelRequested) {
+			lease.close();
+			status = Status.CANCELLED;
+			done.countDown();
+			return;
+		}
+		startTime = System.currentTimeMillis();
+		status = Status.RUNNING;
+		try {
+			setAlgorithm(setup.setUp(lease));
+			if (!cancelRequested && !timeout && abortReason == null) {
+				algorithm.start();
+			}
+			if (abortReason != null) {
+				status = Status.ABORTED;
+			} else if (cancelRequested) {
+				status = Status.CANCELLED;
+			} else if (timeout) {
+				status = Status.TIMEOUT;
+			} else {
+				status = Status.FINISHED;
+			}
+		} catch (Throwable t) {
+			logger.error("Learning job " + id + " failed.", t);
+			error = t;
+			status = cancelRequested ? Status.CANCELLED : Status.FAILED;
+		} finally {
+			lease.close();
+			endTime = System.currentTimeMillis();
+			done.countDown();
+		}
+	}
+
+	/**
+	 * Waits until the job is done.
+	 *
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public void await() throws InterruptedException {
+		done.await();
+	}
+
+	/**
+	 * Waits at most the given time until the job is done.
+	 *
+	 * @param timeout the max. time to wait
+	 * @param unit the time unit
+	 * @return whether the job is done
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		return done.await(timeout, unit);
+	}
+
+	/**
+	 * Cancels the job. A queued job will not be started at all, a running algorithm is stopped.
+	 */
+	public void cancel() {
+		cancelRequested = true;
+		if (status == Status.QUEUED && future != null) {
+			future.cancel(false);
+			status = Status.CANCELLED;
+			done.countDown();
+		}
+		stopAlgorithm();
+	}
+
+	/*
+	 * Called when the time budget of the job has been exceeded.
+	 */
+	void timeout() {
+		if (!status.isDone()) {
+			logger.info("Learning job {} exceeded its time budget of {}ms.", id, maxExecutionTimeMillis);
+			timeout = true;
+			stopAlgorithm();
+		}
+	}
+
+	/*
+	 * Called when the job has to be stopped to free resources.
+	 */
+	void abort(String reason) {
+		if (!status.isDone()) {
+			logger.warn("Aborting learning job {}: {}", id, reason);
+			abortReason = reason;
+			stopAlgorithm();
+		}
+	}
+
+	private void stopAlgorithm() {
+		LearningAlgorithm la = algorithm;
+		if (la instanceof StoppableLearningAlgorithm) {
+			((StoppableLearningAlgorithm) la).stop();
+		} else if (future != null && status == Status.RUNNING) {
+			future.cancel(true);
+		}
+	}
+
+	private synchronized void setAlgorithm(LearningAlgorithm algorithm) {
+		this.algorithm = algorithm;
+		if (algorithm instanceof AbstractCELA) {
+			((AbstractCELA) algorithm).addProgressListener(resultPublisher);
+			progressListeners.forEach(((AbstractCELA) algorithm)::addProgressListener);
+		}
+	}
+
+	/*
+	 * Called by the listener on the thread of the algorithm, thus, the copy is consistent with the result set.
+	 */
+	private void publishDescriptions() {
+		LearningAlgorithm la = algorithm;
+		if (la instanceof ClassExpressionLearningAlgorithm) {
+			publishedDescriptions = Collections.unmodifiableList(new ArrayList<>(
+					((ClassExpressionLearningAlgorithm) la).getCurrentlyBestEvaluatedDescriptions(AbstractCELA.MAX_NR_OF_RESULTS)));
+		}
+	}
+
+	/**
+	 * Registers a listener that is notified about the progress of the learning algorithm. The listener
+	 * can be added at any time, i.e. also while the job is running. Note that only algorithms
+	 * extending {@link AbstractCELA} report their progress.
+	 *
+	 * @param listener the listener
+	 */
+	public synchronized void addProgressListener(LearningProgressListener listener) {
+		progressListeners.add(listener);
+		if (algorithm instanceof AbstractCELA) {
+			((AbstractCELA) algorithm).addProgressListener(listener);
+		}
+	}
+
+	/**
+	 * @param listener the listener to remove
+	 */
+	public synchronized void removeProgressListener(LearningProgressListener listener) {
+		progressListeners.remove(listener);
+		if (algorithm instanceof AbstractCELA) {
+			((AbstractCELA) algorithm).removeProgressListener(listener);
+		}
+	}
+
+	void setFuture(Future<?> future) {
+		this.future = future;
+	}
+
+	/**
+	 * @return the ID of the job
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * @return the current status of the job
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the learning algorithm, or {@code null} if the job has not been started yet
+	 */
+	public LearningAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * @return the error if the job failed, {@code null} otherwise
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * @return the reason if the job has been aborted, {@code null} otherwise
+	 */
+	public String getAbortReason() {
+		return abortReason;
+	}
+
+	/**
+	 * @return the max. execution time of the job in ms, or a value &lt;= 0 if unlimited
+	 */
+	public long getMaxExecutionTimeMillis() {
+		return maxExecutionTimeMillis;
+	}
+
+	public long getSubmitTime() {
+		return submitTime;
+	}
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	public long getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * Returns the currently best descriptions found by the algorithm. This can be called while
+	 * the job is running, in that case the descriptions last published by the algorithm are returned,
+	 * which is only supported by algorithms extending {@link AbstractCELA}.
+	 *
+	 * @param limit the max. number of descriptions
+	 * @return the currently best descriptions, best first
+	 */
+	public List<? extends EvaluatedDescription> getCurrentlyBestEvaluatedDescriptions(int limit) {
+		LearningAlgorithm la = algorithm;
+		if (status.isDone() && la instanceof ClassExpressionLearningAlgorithm) {
+			// the algorithm is not running anymore, thus, its result set can be read directly
+			return ((ClassExpressionLearningAlgorithm) la).getCurrentlyBestEvaluatedDescriptions(limit);
+		}
+		List<? extends EvaluatedDescription> descriptions = publishedDescriptions;
+		return descriptions.subList(0, Math.min(limit, descriptions.size()));
+	}
+
+	/**
+	 * @param limit the max. number of descriptions contained
+	 * @return a JSON representation of the job status including the currently best descriptions
+	 */
+	@SuppressWarnings("unchecked")
+	public JSONObject asJSON(int limit) {
+		JSONObject json = new JSONObject();
+		json.put("id", id);
+		json.put("status", status.name());
+		json.put("submitTime", submitTime);
+		if (startTime > 0) {
+			json.put("startTime", startTime);
+		}
+		if (endTime > 0) {
+			json.put("endTime", endTime);
+			json.put("runtime", endTime - startTime);
+		}
+		if (error != null) {
+			json.put("error", String.valueOf(error.getMessage()));
+		}
+		if (abortReason != null) {
+			json.put("error", abortReason);
+		}
+		JSONArray descriptions = new JSONArray();
+		for (EvaluatedDescription<?> ed : getCurrentlyBestEvaluatedDescriptions(limit)) {
+			descriptions.add(asJSON(ed));
+		}
+		json.put("descriptions", descriptions);
+		return json;
+	}
+
+	/**
+	 * @param ed the evaluated description
+	 * @return a JSON representation of the description
+	 */
+	@SuppressWarnings("unchecked")
+	public static JSONObject asJSON(EvaluatedDescription<?> ed) {
+		JSONObject json = new JSONObject();
+		json.put("manchester", OWLAPIRenderers.toManchesterOWLSyntax(ed.getDescription()));
+		json.put("accuracy", ed.getAccuracy());
+		return json;
+	}
+
+	/**
+	 * @param progress the progress of a learning algorithm
+	 * @return a JSON representation of the progress
+	 */
+	@SuppressWarnings("unchecked")
+	public static JSONObject asJSON(LearningProgress progress) {
+		JSONObject json = new JSONObject();
+		json.put("runtime", progress.getRuntimeInMilliSeconds());
+		json.put("expressionTests", progress.getExpressionTests());
+		json.put("searchTreeSize", progress.getSearchTreeSize());
+		json.put("bestAccuracy", progress.getBestAccuracy());
+		json.put("instanceChecks", progress.getNrOfInstanceChecks());
+		json.put("retrievals", progress.getNrOfRetrievals());
+		json.put("subsumptionChecks", progress.getNrOfSubsumptionChecks());
+		json.put("reasoningTime", TimeUnit.NANOSECONDS.toMillis(progress.getReasoningTimeNs()));
+		return json;
+	}
+
+	@Override
+	public String toString() {
+		return "LearningJob[" + id + ", " + status + "]";
+	}
+}
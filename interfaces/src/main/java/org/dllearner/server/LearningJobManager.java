@@ -0,0 +1,237 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes learning jobs (and other long running server tasks like SPARQL queries) on a bounded pool
+ * of worker threads. Jobs that can not be started immediately are queued, if the queue is full or the
+ * heap usage is above a threshold, new jobs are rejected (admission control). Each job has a time
+ * budget after which the algorithm is stopped. Since the memory used by a single job can not be
+ * measured inside a shared JVM, the memory budget is enforced globally: if the heap usage gets
+ * critical, the most recently started job is aborted.
+ * <p>
+ * Each job gets a lease from the {@link KnowledgeBaseRegistry}, thus, jobs running in parallel never use
+ * the same shared reasoner, jobs on an already leased knowledge base wait for it.
+ * <p>
+ * The default instance is configured by the system properties
+ * {@code dllearner.server.workers}, {@code dllearner.server.queueSize},
+ * {@code dllearner.server.maxExecutionTimeInSeconds} and {@code dllearner.server.maxHeapUsage}.
+ */
+public class LearningJobManager {
+
+	private static final Logger logger = LoggerFactory.getLogger(LearningJobManager.class);
+
+	private static LearningJobManager instance;
+
+	// finished jobs are kept for this time to allow for polling the result
+	private static final long JOB_RETENTION_TIME_MILLIS = TimeUnit.HOURS.toMillis(1);
+	// the heap usage at which running jobs will be aborted
+	private static final double CRITICAL_HEAP_USAGE = 0.95;
+
+	private final KnowledgeBaseRegistry registry;
+	private final ThreadPoolExecutor executor;
+	private final ScheduledExecutorService watchdog;
+
+	private final Map<Integer, LearningJob> jobs = new ConcurrentHashMap<>();
+	private final AtomicInteger idGenerator = new AtomicInteger();
+
+	private final long defaultMaxExecutionTimeMillis;
+	private final double maxHeapUsage;
+
+	/**
+	 * @param registry the registry the shared components of the jobs are leased from
+	 * @param nrOfWorkers the max. number of jobs running in parallel
+	 * @param queueSize the max. number of jobs waiting for execution
+	 * @param defaultMaxExecutionTimeMillis the default time budget of a job in ms, a value &lt;= 0 means unlimited
+	 * @param maxHeapUsage the heap usage (fraction of max. heap) above which new jobs are rejected
+	 */
+	public LearningJobManager(KnowledgeBaseRegistry registry, int nrOfWorkers, int queueSize,
+							  long defaultMaxExecutionTimeMillis, double maxHeapUsage) {
+		this.registry = registry;
+		this.defaultMaxExecutionTimeMillis = defaultMaxExecutionTimeMillis;
+		this.maxHeapUsage = maxHeapUsage;
+
+		executor = new ThreadPoolExecutor(nrOfWorkers, nrOfWorkers, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize),
+				new ThreadFactoryBuilder().setNameFormat("dllearner-worker-%d").setDaemon(true).build(),
+				new ThreadPoolExecutor.AbortPolicy());
+
+		watchdog = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setNameFormat("dllearner-job-watchdog").setDaemon(true).build());
+		watchdog.scheduleWithFixedDelay(this::checkResources, 1, 1, TimeUnit.SECONDS);
+		watchdog.scheduleWithFixedDelay(this::purgeFinishedJobs, 1, 1, TimeUnit.MINUTES);
+	}
+
+	public static synchronized LearningJobManager getInstance() {
+		if (instance == null) {
+			int nrOfWorkers = Integer.getInteger("dllearner.server.workers", Runtime.getRuntime().availableProcessors());
+			int queueSize = Integer.getInteger("dllearner.server.queueSize", 100);
+			long maxExecutionTime = Long.getLong("dllearner.server.maxExecutionTimeInSeconds", 600);
+			double maxHeapUsage = Double.parseDouble(System.getProperty("dllearner.server.maxHeapUsage", "0.8"));
+			instance = new LearningJobManager(KnowledgeBaseRegistry.getInstance(), nrOfWorkers, queueSize,
+											  TimeUnit.SECONDS.toMillis(maxExecutionTime), maxHeapUsage);
+		}
+		return instance;
+	}
+
+	/**
+	 * Submits a learning job with the default time budget.
+	 *
+	 * @param setup sets up the (initialized) learning algorithm; this is done on the worker thread
+	 * @return the job
+	 * @throws JobRejectedException if the job can not be accepted
+	 */
+	public LearningJob submit(LearningJob.Setup setup) throws JobRejectedException {
+		return submit(setup, defaultMaxExecutionTimeMillis);
+	}
+
+	/**
+	 * Submits a learning job.
+	 *
+	 * @param setup sets up the (initialized) learning algorithm; this is done on the worker thread
+	 * @param maxExecutionTimeMillis the time budget of the job in ms, a value &lt;= 0 means unlimited
+	 * @return the job
+	 * @throws JobRejectedException if the job can not be accepted
+	 */
+	public LearningJob submit(LearningJob.Setup setup, long maxExecutionTimeMillis) throws JobRejectedException {
+		checkAdmission();
+
+		LearningJob job = new LearningJob(idGenerator.incrementAndGet(), setup, maxExecutionTimeMillis);
+		jobs.put(job.getId(), job);
+		try {
+			job.setFuture(executor.submit(() -> runJob(job)));
+		} catch (RejectedExecutionException e) {
+			jobs.remove(job.getId());
+			throw new JobRejectedException("too many queued jobs");
+		}
+		logger.info("Submitted learning job {} ({} running, {} queued).", job.getId(), getNrOfRunningJobs(), getNrOfQueuedJobs());
+		return job;
+	}
+
+	/**
+	 * Submits a task that is not a learning job, e.g. a SPARQL query, to the worker pool.
+	 *
+	 * @param task the task
+	 * @param <T> the result type
+	 * @return the future of the task
+	 * @throws JobRejectedException if the task can not be accepted
+	 */
+	public <T> Future<T> submitTask(Callable<T> task) throws JobRejectedException {
+		checkAdmission();
+		try {
+			return executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			throw new JobRejectedException("too many queued jobs");
+		}
+	}
+
+	private void runJob(LearningJob job) {
+		ScheduledFuture<?> timeout = null;
+		if (job.getMaxExecutionTimeMillis() > 0) {
+			timeout = watchdog.schedule(job::timeout, job.getMaxExecutionTimeMillis(), TimeUnit.MILLISECONDS);
+		}
+		try {
+			job.run(registry.newLease());
+		} finally {
+			if (timeout != null) {
+				timeout.cancel(false);
+			}
+		}
+		logger.info("Learning job {} done with status {}.", job.getId(), job.getStatus());
+	}
+
+	private void checkAdmission() throws JobRejectedException {
+		if (getHeapUsage() > maxHeapUsage) {
+			throw new JobRejectedException("not enough memory available");
+		}
+	}
+
+	/*
+	 * Aborts the most recently started job if the heap usage is critical.
+	 */
+	private void checkResources() {
+		if (getHeapUsage() > CRITICAL_HEAP_USAGE) {
+			Optional<LearningJob> youngestJob = jobs.values().stream()
+					.filter(job -> job.getStatus() == LearningJob.Status.RUNNING)
+					.max(Comparator.comparingLong(LearningJob::getStartTime));
+			youngestJob.ifPresent(job -> job.abort("memory limit exceeded"));
+		}
+	}
+
+	private void purgeFinishedJobs() {
+		long now = System.currentTimeMillis();
+		jobs.values().removeIf(job -> job.getStatus().isDone()
+				&& job.getEndTime() > 0 && now - job.getEndTime() > JOB_RETENTION_TIME_MILLIS);
+	}
+
+	private static double getHeapUsage() {
+		Runtime rt = Runtime.getRuntime();
+		return (double) (rt.totalMemory() - rt.freeMemory()) / rt.maxMemory();
+	}
+
+	/**
+	 * @param id the job ID
+	 * @return the job
+	 * @throws JobNotKnownException if there is no such job (anymore)
+	 */
+	public LearningJob getJob(int id) throws JobNotKnownException {
+		LearningJob job = jobs.get(id);
+		if (job == null) {
+			throw new JobNotKnownException(id);
+		}
+		return job;
+	}
+
+	/**
+	 * Cancels the job with the given ID.
+	 *
+	 * @param id the job ID
+	 * @throws JobNotKnownException if there is no such job (anymore)
+	 */
+	public void cancel(int id) throws JobNotKnownException {
+		getJob(id).cancel();
+	}
+
+	public int getNrOfRunningJobs() {
+		return executor.getActiveCount();
+	}
+
+	public int getNrOfQueuedJobs() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Stops all jobs and the worker threads.
+	 */
+	public void shutdown() {
+		jobs.values().forEach(LearningJob::cancel);
+		executor.shutdownNow();
+		watchdog.shutdownNow();
+	}
+}
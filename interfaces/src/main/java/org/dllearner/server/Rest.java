@@ -10,7 +10,11 @@ import java.net.URLDecoder;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -20,10 +24,14 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.dllearner.configuration.IConfiguration;
 import org.dllearner.configuration.spring.ApplicationContextBuilder;
-import org.dllearner.configuration.spring.DefaultApplicationContextBuilder;
+import org.dllearner.configuration.spring.DirectApplicationContextBuilder;
 import org.dllearner.confparser.ConfParserConfiguration;
 import org.dllearner.core.ClassExpressionLearningAlgorithm;
+import org.dllearner.core.EvaluatedDescription;
 import org.dllearner.core.LearningAlgorithm;
+import org.dllearner.core.LearningProgress;
+import org.dllearner.core.LearningProgressListener;
+import org.dllearner.core.Score;
 import org.dllearner.learningproblems.EvaluatedDescriptionPosNeg;
 import org.dllearner.utilities.owl.OWLAPIRenderers;
 import org.dllearner.utilities.owl.OWLClassExpressionToSPARQLConverter;
@@ -61,6 +69,10 @@ public class Rest extends HttpServlet {
         try {
             String conf = null;
             int limit = 5;
+            if (isSet("action", httpServletRequest)) {
+                handleJobAction(httpServletRequest, httpServletResponse);
+                return;
+            }
             if (!isSet("conf", httpServletRequest)) {
 //                throw new IllegalArgumentException("Missing parameter: conf is required. ");
                 httpServletRequest.getRequestDispatcher("/WEB-INF/sparqr.html").forward(httpServletRequest, httpServletResponse);
@@ -105,6 +117,13 @@ public class Rest extends HttpServlet {
                 learningResult.put("falseNegatives", EvaluatedDescriptionPosNeg.getJSONArray(ed.getCoveredNegatives()));
             }
 
+        } catch (JobRejectedException e) {
+            log.warn(e.getMessage());
+            learningResult.put("success", "0");
+            learningResult.put("error", e.getMessage());
+            result.put("learningresult", learningResult);
+            httpServletResponse.sendError(503, result.toJSONString());
+            return;
         } catch (IllegalArgumentException e) {
             String msg = e.getMessage();// + printParameterMap(httpServletRequest);
             log.error("", ExceptionUtils.getRootCause(e));
@@ -130,29 +149,209 @@ public class Rest extends HttpServlet {
 
     }
 
+    /**
+     * Handles the asynchronous job API:
+     * <ul>
+     *     <li><code>action=submit&amp;conf=...</code> submits a learning job and returns its ID</li>
+     *     <li><code>action=status&amp;job=...[&amp;limit=...]</code> returns the status and the currently best descriptions of the job</li>
+     *     <li><code>action=cancel&amp;job=...</code> cancels the job</li>
+     *     <li><code>action=stream&amp;job=...[&amp;limit=...]</code> streams the progress of the job as server-sent events
+     *     until the job is done, see {@link #streamJob(LearningJob, int, HttpServletResponse)}</li>
+     * </ul>
+     */
+    private void handleJobAction(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws IOException {
+        JSONObject result = new JSONObject();
+        LearningJobManager jobManager = LearningJobManager.getInstance();
+        String action = httpServletRequest.getParameter("action");
+        try {
+            switch (action) {
+                case "submit":
+                    if (!isSet("conf", httpServletRequest)) {
+                        throw new IllegalArgumentException("Missing parameter: conf is required.");
+                    }
+                    String conf = URLDecoder.decode(httpServletRequest.getParameter("conf"), "UTF-8");
+                    LearningJob job = jobManager.submit(setupAlgorithm(conf));
+                    result.put("job", job.getId());
+                    break;
+                case "status":
+                    result = jobManager.getJob(getJobId(httpServletRequest)).asJSON(getLimit(httpServletRequest));
+                    break;
+                case "cancel":
+                    jobManager.cancel(getJobId(httpServletRequest));
+                    result.put("success", "1");
+                    break;
+                case "stream":
+                    LearningJob streamedJob = jobManager.getJob(getJobId(httpServletRequest));
+                    streamJob(streamedJob, getLimit(httpServletRequest), httpServletResponse);
+                    return;
+                default:
+                    throw new IllegalArgumentException("Unknown action: " + action);
+            }
+        } catch (JobRejectedException e) {
+            result.put("error", e.getMessage());
+            httpServletResponse.sendError(503, result.toJSONString());
+            return;
+        } catch (JobNotKnownException e) {
+            result.put("error", e.getMessage());
+            httpServletResponse.sendError(404, result.toJSONString());
+            return;
+        } catch (IllegalArgumentException e) {
+            result.put("error", e.getMessage());
+            httpServletResponse.sendError(400, result.toJSONString());
+            return;
+        }
+        httpServletResponse.setContentType("application/json");
+        PrintWriter out = httpServletResponse.getWriter();
+        out.println(result.toJSONString());
+        out.close();
+    }
+
+    /**
+     * Streams the progress of a learning job as server-sent events (<code>text/event-stream</code>), thus, clients
+     * get new best descriptions as soon as they have been found and can stop the job early via
+     * <code>action=cancel</code> once a description is good enough. The stream contains the events
+     * <ul>
+     *     <li><code>status</code>: the job status when the client connected, see {@link LearningJob#asJSON(int)}</li>
+     *     <li><code>description</code>: a new best description including the current progress</li>
+     *     <li><code>progress</code>: the periodic progress, i.e. runtime, number of tested expressions, search
+     *     tree size and reasoner statistics</li>
+     *     <li><code>done</code>: the final job status, sent right before the stream is closed</li>
+     * </ul>
+     */
+    @SuppressWarnings("unchecked")
+    private void streamJob(LearningJob job, int limit, HttpServletResponse httpServletResponse) throws IOException {
+        BlockingQueue<JSONObject> events = new LinkedBlockingQueue<>();
+        LearningProgressListener listener = new LearningProgressListener() {
+            @Override
+            public void learningProgressChanged(LearningProgress progress) {
+                events.offer(event("progress", LearningJob.asJSON(progress)));
+            }
+
+            @Override
+            public void newBestDescriptionFound(EvaluatedDescription<? extends Score> description, LearningProgress progress) {
+                JSONObject json = LearningJob.asJSON(description);
+                json.put("progress", LearningJob.asJSON(progress));
+                events.offer(event("description", json));
+            }
+        };
+
+        httpServletResponse.setContentType("text/event-stream");
+        httpServletResponse.setCharacterEncoding("UTF-8");
+        httpServletResponse.setHeader("Cache-Control", "no-cache");
+        PrintWriter out = httpServletResponse.getWriter();
+
+        job.addProgressListener(listener);
+        try {
+            writeEvent(out, event("status", job.asJSON(limit)));
+            while (true) {
+                JSONObject event = events.poll(1, TimeUnit.SECONDS);
+                if (event != null) {
+                    writeEvent(out, event);
+                } else if (job.getStatus().isDone()) {
+                    break;
+                } else {
+                    // keep the connection alive, e.g. while the knowledge base is loaded
+                    out.print(":\n\n");
+                    out.flush();
+                }
+                if (out.checkError()) {
+                    log.debug("Client stopped streaming of job {}.", job.getId());
+                    return;
+                }
+            }
+            writeEvent(out, event("done", job.asJSON(limit)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            job.removeProgressListener(listener);
+            out.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject event(String name, JSONObject data) {
+        JSONObject event = new JSONObject();
+        event.put("event", name);
+        event.put("data", data);
+        return event;
+    }
+
+    private static void writeEvent(PrintWriter out, JSONObject event) {
+        out.print("event: " + event.get("event") + "\n");
+        out.print("data: " + ((JSONObject) event.get("data")).toJSONString() + "\n\n");
+        out.flush();
+    }
+
+    private static int getLimit(HttpServletRequest httpServletRequest) {
+        return isSet("limit", httpServletRequest) ? Integer.parseInt(httpServletRequest.getParameter("limit")) : 5;
+    }
+
+    private static int getJobId(HttpServletRequest httpServletRequest) {
+        if (!isSet("job", httpServletRequest)) {
+            throw new IllegalArgumentException("Missing parameter: job is required.");
+        }
+        return Integer.parseInt(httpServletRequest.getParameter("job"));
+    }
+
     /**
      * TODO
-     * This function takes the config string as in a conf file and the returns an EvaluatedDescription
+     * This function takes the config string as in a conf file and the returns an EvaluatedDescription.
+     * The algorithm is executed on the worker pool of the {@link LearningJobManager}.
      *
      * @param conf the content of a conf file
      * @return
      */
     public EvaluatedDescriptionPosNeg learn(String conf) throws Exception {
-        Resource confFile = new InputStreamResource(new ByteArrayInputStream(conf.getBytes()));
-
-        IConfiguration configuration = new ConfParserConfiguration(confFile);
+        LearningJob job = LearningJobManager.getInstance().submit(setupAlgorithm(conf));
+        job.await();
 
-        ApplicationContextBuilder builder = new DefaultApplicationContextBuilder();
-        ApplicationContext context = builder.buildApplicationContext(configuration, new ArrayList<>());
-
-        LearningAlgorithm algorithm = context.getBean(LearningAlgorithm.class);
-        algorithm.start();
+        switch (job.getStatus()) {
+            case CANCELLED:
+                throw new Exception("Learning job " + job.getId() + " has been cancelled.");
+            case ABORTED:
+                throw new Exception("Learning job " + job.getId() + " has been aborted: " + job.getAbortReason());
+            default:
+        }
+        if (job.getError() != null) {
+            throw new Exception(job.getError());
+        }
+        LearningAlgorithm algorithm = job.getAlgorithm();
         if (algorithm instanceof ClassExpressionLearningAlgorithm) {
-            return (EvaluatedDescriptionPosNeg) ((ClassExpressionLearningAlgorithm) algorithm).getCurrentlyBestEvaluatedDescriptions(1).iterator().next();
+            List<? extends EvaluatedDescription> descriptions = ((ClassExpressionLearningAlgorithm) algorithm).getCurrentlyBestEvaluatedDescriptions(1);
+            if (descriptions.isEmpty()) {
+                throw new Exception("Learning job " + job.getId() + " did not find any class expression.");
+            }
+            return (EvaluatedDescriptionPosNeg) descriptions.get(0);
         }
         throw new Exception("only ClassExpressionLearningAlgorithm implemented currently");
     }
 
+    /**
+     * @param conf the content of a conf file
+     * @return the setup of the learning algorithm, i.e. building the application context; already initialized
+     * knowledge sources and reasoners are leased for the whole job
+     */
+    private static LearningJob.Setup setupAlgorithm(String conf) {
+        return lease -> {
+            Resource confFile = new InputStreamResource(new ByteArrayInputStream(conf.getBytes()));
+
+            IConfiguration configuration = new ConfParserConfiguration(confFile);
+
+            // reuse already loaded knowledge sources and initialized reasoners
+            KnowledgeBaseRegistry registry = KnowledgeBaseRegistry.getInstance();
+            Map<String, Object> sharedComponents = registry.getSharedComponents(configuration);
+
+            lease.acquire(sharedComponents.values());
+
+            DirectApplicationContextBuilder builder = new DirectApplicationContextBuilder();
+            ApplicationContext context = builder.buildApplicationContext(configuration, new ArrayList<>(), sharedComponents);
+
+            registry.register(configuration, context, lease);
+
+            return context.getBean(LearningAlgorithm.class);
+        };
+    }
+
     public static boolean isSet(String parameterName, HttpServletRequest hsr) {
         boolean retVal = hsr.getParameterValues(parameterName) != null && hsr.getParameterValues(parameterName).length == 1 && hsr.getParameter(parameterName).length() > 0;
         if (log.isTraceEnabled()) {
@@ -190,7 +389,7 @@ public class Rest extends HttpServlet {
 
         IConfiguration configuration = new ConfParserConfiguration(confFile);
 
-        ApplicationContextBuilder builder = new DefaultApplicationContextBuilder();
+        ApplicationContextBuilder builder = new DirectApplicationContextBuilder();
         ApplicationContext context = builder.buildApplicationContext(configuration, new ArrayList<>());
 
         LearningAlgorithm algorithm = context.getBean(LearningAlgorithm.class);
@@ -0,0 +1,93 @@
+package org.dllearner.configuration.spring;
+
+import org.dllearner.configuration.IConfiguration;
+import org.dllearner.confparser.ConfParserConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Checks that the components wired by the {@link DirectApplicationContextBuilder} are configured the same way as
+ * by the {@link DefaultApplicationContextBuilder}.
+ */
+public class DirectApplicationContextBuilderTest {
+
+    private static final String CONF_FILE = "/org/dllearner/configuration/spring/directApplicationContextBuilder.conf";
+    private static final String CIRCULAR_CONF_FILE = "/org/dllearner/configuration/spring/directApplicationContextBuilderCircular.conf";
+
+    @Test
+    public void testSameAsSpring() throws Exception {
+        IConfiguration configuration = new ConfParserConfiguration(new ClassPathResource(CONF_FILE));
+
+        ApplicationContext direct = new DirectApplicationContextBuilder().buildApplicationContext(configuration, new ArrayList<>());
+        ApplicationContext spring = new DefaultApplicationContextBuilder().buildApplicationContext(configuration, new ArrayList<>());
+
+        Assert.assertTrue(DirectApplicationContextBuilder.isBuiltDirectly(direct));
+        Assert.assertFalse(DirectApplicationContextBuilder.isBuiltDirectly(spring));
+
+        for (String beanName : new String[]{"firstBean", "secondBean", "thirdBean"}) {
+            TestBean expected = spring.getBean(beanName, TestBean.class);
+            TestBean actual = direct.getBean(beanName, TestBean.class);
+
+            Assert.assertEquals(expected.getSimpleValue(), actual.getSimpleValue());
+            Assert.assertEquals(expected.getIntValue(), actual.getIntValue());
+            Assert.assertEquals(expected.getDoubleValue(), actual.getDoubleValue());
+            Assert.assertEquals(expected.getSetValue(), actual.getSetValue());
+            Assert.assertEquals(expected.getMapValue(), actual.getMapValue());
+            Assert.assertEquals(expected.getComponentSet() == null, actual.getComponentSet() == null);
+            Assert.assertTrue(actual.isInitialized());
+        }
+
+        // references point to the beans of the same context
+        TestBean firstBean = direct.getBean("firstBean", TestBean.class);
+        Assert.assertSame(direct.getBean("secondBean"), firstBean.getComponent());
+        Assert.assertSame(direct.getBean("thirdBean"), firstBean.getComponent().getComponent());
+        Assert.assertEquals(2, firstBean.getComponentSet().size());
+        Assert.assertTrue(firstBean.getComponentSet().contains(direct.getBean("thirdBean", TestBean.class)));
+    }
+
+    @Test
+    public void testSharedBeans() throws Exception {
+        IConfiguration configuration = new ConfParserConfiguration(new ClassPathResource(CONF_FILE));
+
+        TestBean shared = new TestBean();
+        shared.setSimpleValue("shared");
+        ApplicationContext context = new DirectApplicationContextBuilder().buildApplicationContext(
+                configuration, new ArrayList<>(), Collections.singletonMap("thirdBean", shared));
+
+        Assert.assertTrue(DirectApplicationContextBuilder.isBuiltDirectly(context));
+        Assert.assertSame(shared, context.getBean("thirdBean"));
+        Assert.assertSame(shared, context.getBean("secondBean", TestBean.class).getComponent());
+        Assert.assertFalse(shared.isInitialized());
+    }
+
+    @Test
+    public void testFallbackOnCircularReferences() throws Exception {
+        IConfiguration configuration = new ConfParserConfiguration(new ClassPathResource(CIRCULAR_CONF_FILE));
+
+        ApplicationContext context = new DirectApplicationContextBuilder().buildApplicationContext(configuration, new ArrayList<>());
+
+        Assert.assertFalse(DirectApplicationContextBuilder.isBuiltDirectly(context));
+        TestBean firstBean = context.getBean("firstBean", TestBean.class);
+        Assert.assertSame(context.getBean("secondBean"), firstBean.getComponent());
+        Assert.assertSame(firstBean, firstBean.getComponent().getComponent());
+    }
+
+    @Test
+    public void testSpringEnforced() throws Exception {
+        IConfiguration configuration = new ConfParserConfiguration(new ClassPathResource(CONF_FILE));
+
+        System.setProperty(DirectApplicationContextBuilder.SPRING_PROPERTY, "true");
+        try {
+            ApplicationContext context = new DirectApplicationContextBuilder().buildApplicationContext(configuration, new ArrayList<>());
+            Assert.assertFalse(DirectApplicationContextBuilder.isBuiltDirectly(context));
+            Assert.assertEquals("third bean example", context.getBean("thirdBean", TestBean.class).getSimpleValue());
+        } finally {
+            System.clearProperty(DirectApplicationContextBuilder.SPRING_PROPERTY);
+        }
+    }
+}